@@ -16,7 +16,9 @@
 
 package com.google.debugging.sourcemap;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Strings.nullToEmpty;
 
 import com.google.debugging.sourcemap.Base64VLQ.CharIterator;
 import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping;
@@ -49,9 +51,36 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
   /** originalFile path ==> original line ==> target mappings */
   private Map<String, Map<Integer, Collection<OriginalMapping>>> reverseSourceMapping;
 
+  /** The reverse mapping of a lazily decoding consumer. */
+  private ReverseIndex reverseIndex;
+
+  /** Whether the mappings of each line are decoded when the line is first queried. */
+  private final boolean lazy;
+
   private String sourceRoot;
   private final Map<String, Object> extensions = new LinkedHashMap<>();
 
+  public SourceMapConsumerV3() {
+    this(false);
+  }
+
+  private SourceMapConsumerV3(boolean lazy) {
+    this.lazy = lazy;
+  }
+
+  /**
+   * Creates a consumer for large source maps that are only partially queried, such as input source
+   * maps.
+   *
+   * <p>Parsing only validates the mappings and records where each line starts, so the mappings
+   * themselves are kept in their compact VLQ encoding. The segments of a line are decoded when the
+   * line is first queried, and kept until another line is queried. The reverse mapping is kept as
+   * sorted primitive arrays rather than as {@link OriginalMapping}s.
+   */
+  public static SourceMapConsumerV3 createLazy() {
+    return new SourceMapConsumerV3(true);
+  }
+
   static class DefaultSourceMapSupplier implements SourceMapSupplier {
     @Override
     public String getSourceMap(String url) {
@@ -114,6 +143,12 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     // The value type of each extension is the native JSON type (e.g. JsonObject, or JSONObject
     // when compiled with GWT).
     extensions.putAll(sourceMapObject.getExtensions());
+    if (lazy) {
+      mappings =
+          LazyMappings.build(
+              nullToEmpty(sourceMapObject.getMappings()), lineCount, sources, names);
+      return;
+    }
     mappings =
         new MappingBuilder(
                 sourceMapObject.getMappings(), lineCount, useCompactMappings, estimatedEntries)
@@ -185,6 +220,124 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     return getOriginalMappingForEntry(index, Precision.EXACT);
   }
 
+  /**
+   * Returns the mappings for several positions, as {@link #getMappingForLine} does for each of them.
+   *
+   * <p>The positions are sorted, and then looked up in a single pass over the mappings of the lines
+   * they are on, instead of with a binary search per position. Positions that are covered by the
+   * same entry share one {@link OriginalMapping}.
+   *
+   * @param lineNumbers The line of each position, 1-based.
+   * @param columns The column of each position, 1-based.
+   */
+  public @Nullable OriginalMapping[] getMappingsForLines(int[] lineNumbers, int[] columns) {
+    checkArgument(lineNumbers.length == columns.length);
+    int count = lineNumbers.length;
+    long[] positions = new long[count];
+    for (int i = 0; i < count; i++) {
+      // Normalize the line and column numbers to 0. The sign bit of the column is flipped so that
+      // the positions are ordered by column within a line.
+      positions[i] =
+          ((long) (lineNumbers[i] - 1) << 32)
+              | (((columns[i] - 1) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+    int[] order = sortedOrder(positions);
+
+    OriginalMapping[] result = new OriginalMapping[count];
+    int currentLine = -1;
+    int start = 0;
+    int end = 0;
+    int entry = -1; // The last entry of the line at or before the previous column.
+    OriginalMapping previousLineMapping = null;
+    boolean previousLineMappingComputed = false;
+    int resultEntry = -1;
+    OriginalMapping resultMapping = null;
+    int entrySize = mappings.getEntrySize();
+    for (int i : order) {
+      int lineNumber = (int) (positions[i] >> 32);
+      int column = (int) positions[i] ^ Integer.MIN_VALUE;
+      if (lineNumber < 0 || lineNumber >= mappings.getParsedLineCount()) {
+        continue;
+      }
+      if (lineNumber != currentLine) {
+        currentLine = lineNumber;
+        start = mappings.getLineStart(lineNumber);
+        end = mappings.getLineStart(lineNumber + 1);
+        entry = -1;
+        previousLineMappingComputed = false;
+      }
+
+      // Advance to the last entry at or before the column.
+      int next = (entry == -1) ? start : entry + entrySize;
+      while (next < end && mappings.getGeneratedColumn(next) <= column) {
+        entry = next;
+        next += entrySize;
+      }
+
+      if (entry == -1) {
+        // The line is empty, or starts after the column.
+        if (!previousLineMappingComputed) {
+          previousLineMapping = getPreviousMapping(lineNumber);
+          previousLineMappingComputed = true;
+        }
+        result[i] = previousLineMapping;
+        continue;
+      }
+
+      int index = entry;
+      if (mappings.getGeneratedColumn(entry) == column
+          && entry > start
+          && mappings.getGeneratedColumn(entry - entrySize) == column) {
+        // Several entries start at this column. Pick the same one as a single lookup.
+        index = search(column, start, end - entrySize);
+      }
+      if (index != resultEntry) {
+        resultEntry = index;
+        resultMapping = getOriginalMappingForEntry(index, Precision.EXACT);
+      }
+      result[i] = resultMapping;
+    }
+    return result;
+  }
+
+  /** Returns the indices of the values, ordered by value and then by index. */
+  private static int[] sortedOrder(long[] values) {
+    int[] order = new int[values.length];
+    boolean sorted = true;
+    for (int i = 0; i < values.length; i++) {
+      order[i] = i;
+      if (i > 0 && values[i] < values[i - 1]) {
+        sorted = false;
+      }
+    }
+    if (!sorted) {
+      mergeSort(order, new int[values.length], 0, values.length, values);
+    }
+    return order;
+  }
+
+  private static void mergeSort(int[] order, int[] buffer, int from, int to, long[] values) {
+    if (to - from < 2) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    mergeSort(order, buffer, from, mid, values);
+    mergeSort(order, buffer, mid, to, values);
+    if (values[order[mid - 1]] <= values[order[mid]]) {
+      return;
+    }
+    System.arraycopy(order, from, buffer, from, to - from);
+    int left = from;
+    int right = mid;
+    for (int i = from; i < to; i++) {
+      if (right >= to || (left < mid && values[buffer[left]] <= values[buffer[right]])) {
+        order[i] = buffer[left++];
+      } else {
+        order[i] = buffer[right++];
+      }
+    }
+  }
+
   @Override
   public Collection<String> getOriginalSources() {
     return Arrays.asList(sources);
@@ -213,6 +366,12 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     // parameter.
 
     // Synchronization needs to be handled by callers.
+    if (lazy) {
+      if (reverseIndex == null) {
+        reverseIndex = new ReverseIndex(mappings, sources);
+      }
+      return reverseIndex.get(originalFile, line);
+    }
     if (reverseSourceMapping == null) {
       createReverseMapping();
     }
@@ -338,7 +497,7 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
 
       trim(entriesCount, linesCount);
 
-      return new Mappings(flatEntries, lineStart, lineCount, entrySize);
+      return new FlatMappings(flatEntries, lineStart, lineCount, entrySize);
     }
 
     private int getLineStart(int line) {
@@ -648,11 +807,16 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
   private static class StringCharIterator implements CharIterator {
     final String content;
     final int length;
-    int current = 0;
+    int current;
 
     StringCharIterator(String content) {
+      this(content, 0);
+    }
+
+    StringCharIterator(String content, int start) {
       this.content = content;
       this.length = content.length();
+      this.current = start;
     }
 
     @Override
@@ -670,8 +834,31 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     }
   }
 
+  /**
+   * The mapping entries of each generated line. Entries are addressed by their index in a flat
+   * array of all entries, in which each entry takes {@link #getEntrySize} consecutive values.
+   */
+  private interface Mappings {
+    int getEntrySize();
+
+    int getGeneratedColumn(int index);
+
+    int getSourceFileId(int index);
+
+    int getSourceLine(int index);
+
+    int getSourceColumn(int index);
+
+    int getNameId(int index);
+
+    int getParsedLineCount();
+
+    /** Returns the index of the first entry of the line, or the number of values for the end. */
+    int getLineStart(int line);
+  }
+
   /** An immutable container for mapping entries. */
-  private static final class Mappings {
+  private static final class FlatMappings implements Mappings {
     // flatEntries stores all entries sequentially.
     // Each entry is packed into 5 consecutive integers:
     // [generatedCol, sourceLine, sourceCol, sourceFileId, nameId].
@@ -685,22 +872,25 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
     private final int lineCount;
     private final int entrySize;
 
-    Mappings(int[] flatEntries, int[] lineStart, int lineCount, int entrySize) {
+    FlatMappings(int[] flatEntries, int[] lineStart, int lineCount, int entrySize) {
       this.flatEntries = flatEntries;
       this.lineStart = lineStart;
       this.lineCount = lineCount;
       this.entrySize = entrySize;
     }
 
-    int getEntrySize() {
+    @Override
+    public int getEntrySize() {
       return entrySize;
     }
 
-    int getGeneratedColumn(int index) {
+    @Override
+    public int getGeneratedColumn(int index) {
       return flatEntries[index];
     }
 
-    int getSourceFileId(int index) {
+    @Override
+    public int getSourceFileId(int index) {
       if (entrySize == 4) {
         int val = flatEntries[index + 3] >> 16;
         return (val == -1 || (val & 0xFFFF) == 0xFFFF) ? UNMAPPED : (val & 0xFFFF);
@@ -708,15 +898,18 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
       return flatEntries[index + 3];
     }
 
-    int getSourceLine(int index) {
+    @Override
+    public int getSourceLine(int index) {
       return flatEntries[index + 1];
     }
 
-    int getSourceColumn(int index) {
+    @Override
+    public int getSourceColumn(int index) {
       return flatEntries[index + 2];
     }
 
-    int getNameId(int index) {
+    @Override
+    public int getNameId(int index) {
       if (entrySize == 4) {
         int val = flatEntries[index + 3] & 0xFFFF;
         return (val == 0xFFFF) ? UNMAPPED : val;
@@ -724,13 +917,372 @@ public final class SourceMapConsumerV3 implements SourceMapConsumer, SourceMappi
       return flatEntries[index + 4];
     }
 
-    int getParsedLineCount() {
+    @Override
+    public int getParsedLineCount() {
+      return lineCount;
+    }
+
+    @Override
+    public int getLineStart(int line) {
+      return lineStart[line];
+    }
+  }
+
+  /**
+   * Mapping entries that are kept in their VLQ encoding, and decoded one line at a time.
+   *
+   * <p>As the values of an entry other than its generated column are relative to the previous
+   * entry of any line, the values at the start of each line are recorded when the mappings are
+   * first scanned. Decoding a line then only needs the encoding of that line. Each entry takes
+   * {@link #ENTRY_SIZE} values, ordered as in {@link FlatMappings}.
+   */
+  private static final class LazyMappings implements Mappings {
+    private static final int ENTRY_SIZE = 5;
+
+    // The values that the entries of each line are relative to.
+    private static final int STATE_SOURCE_FILE_ID = 0;
+    private static final int STATE_SOURCE_LINE = 1;
+    private static final int STATE_SOURCE_COLUMN = 2;
+    private static final int STATE_NAME_ID = 3;
+    private static final int STATE_SIZE = 4;
+
+    private final String lineMap;
+    // lineStart[i] is the index of the first entry for line i, as in FlatMappings.
+    private final int[] lineStart;
+    // lineOffset[i] is the position of the encoding of line i in lineMap.
+    private final int[] lineOffset;
+    // The values that the entries of each line are relative to, STATE_SIZE values per line.
+    private final int[] lineStates;
+    private final int lineCount;
+
+    // The most recently decoded line. It is immutable, so it can be replaced without locking.
+    private DecodedLine decodedLine = new DecodedLine(0, new int[0]);
+
+    private LazyMappings(
+        String lineMap, int[] lineStart, int[] lineOffset, int[] lineStates, int lineCount) {
+      this.lineMap = lineMap;
+      this.lineStart = lineStart;
+      this.lineOffset = lineOffset;
+      this.lineStates = lineStates;
+      this.lineCount = lineCount;
+    }
+
+    /** Validates the encoded mappings, and records where each line starts. */
+    static LazyMappings build(String lineMap, int lineCount, String[] sources, String[] names)
+        throws SourceMapParseException {
+      StringCharIterator content = new StringCharIterator(lineMap);
+      LineIndex index = new LineIndex((lineCount >= 0) ? lineCount : 1000);
+      int[] state = new int[STATE_SIZE];
+
+      int entriesCount = 0;
+      int linesCount = 0;
+      index.record(linesCount, entriesCount, content.current, state);
+      while (content.hasNext()) {
+        // ';' denotes a new line.
+        if (content.peek() == ';') {
+          content.next();
+          linesCount++;
+          index.record(linesCount, entriesCount, content.current, state);
+          continue;
+        }
+
+        checkState(
+            lineCount < 0 || linesCount < lineCount,
+            "line=%s, lineCount=%s",
+            linesCount,
+            lineCount);
+        // Decode the entries of the line, only to validate them and keep track of the values the
+        // next line is relative to.
+        while (content.hasNext() && content.peek() != ';') {
+          Base64VLQ.decode(content);
+          int entryValues = 1;
+          while (!isEntryComplete(content)) {
+            int value = Base64VLQ.decode(content);
+            switch (entryValues) {
+              case 1 -> state[STATE_SOURCE_FILE_ID] += value;
+              case 2 -> state[STATE_SOURCE_LINE] += value;
+              case 3 -> state[STATE_SOURCE_COLUMN] += value;
+              case 4 -> state[STATE_NAME_ID] += value;
+              default ->
+                  throw new SourceMapParseException(
+                      "Unexpected number of values for entry:" + (entryValues + 1));
+            }
+            entryValues++;
+          }
+          if (entryValues != 1 && entryValues != 4 && entryValues != 5) {
+            throw new SourceMapParseException(
+                "Unexpected number of values for entry:" + entryValues);
+          }
+          checkState(entryValues == 1 || state[STATE_SOURCE_FILE_ID] < sources.length);
+          checkState(entryValues < 5 || state[STATE_NAME_ID] < names.length);
+          entriesCount += ENTRY_SIZE;
+
+          // Consume the separating token, if there is one.
+          if (content.hasNext() && content.peek() == ',') {
+            content.next();
+          }
+        }
+      }
+
+      // Some source map generator (e.g.UglifyJS) generates lines without
+      // a trailing line separator. So count the rest of the content as a line.
+      if (entriesCount > index.lineStart[linesCount]) {
+        linesCount++;
+        index.record(linesCount, entriesCount, content.current, state);
+      }
+
+      return new LazyMappings(
+          lineMap,
+          Arrays.copyOf(index.lineStart, linesCount + 1),
+          Arrays.copyOf(index.lineOffset, linesCount),
+          Arrays.copyOf(index.lineStates, linesCount * STATE_SIZE),
+          linesCount);
+    }
+
+    /** Where each line starts, recorded while the mappings are scanned. */
+    private static final class LineIndex {
+      int[] lineStart;
+      int[] lineOffset;
+      int[] lineStates;
+
+      LineIndex(int estimatedLines) {
+        this.lineStart = new int[estimatedLines + 1];
+        this.lineOffset = new int[estimatedLines + 1];
+        this.lineStates = new int[(estimatedLines + 1) * STATE_SIZE];
+      }
+
+      void record(int line, int entriesCount, int offset, int[] state) {
+        if (line >= lineStart.length) {
+          lineStart = Arrays.copyOf(lineStart, lineStart.length * 2);
+          lineOffset = Arrays.copyOf(lineOffset, lineOffset.length * 2);
+          lineStates = Arrays.copyOf(lineStates, lineStates.length * 2);
+        }
+        lineStart[line] = entriesCount;
+        lineOffset[line] = offset;
+        System.arraycopy(state, 0, lineStates, line * STATE_SIZE, STATE_SIZE);
+      }
+    }
+
+    private static boolean isEntryComplete(StringCharIterator content) {
+      if (!content.hasNext()) {
+        return true;
+      }
+      char c = content.peek();
+      return (c == ';' || c == ',');
+    }
+
+    /** Returns the value at the given offset from the start of the entry at the given index. */
+    private int getValue(int index, int offset) {
+      DecodedLine line = decodedLine;
+      if (index < line.start || index >= line.start + line.entries.length) {
+        line = decodeLineContaining(index);
+        decodedLine = line;
+      }
+      return line.entries[index - line.start + offset];
+    }
+
+    private DecodedLine decodeLineContaining(int index) {
+      // Find the last line starting at or before the index. Empty lines start at the same index as
+      // the next line, so look for the last one.
+      int low = 0;
+      int high = lineCount - 1;
+      while (low < high) {
+        int mid = (low + high + 1) >>> 1;
+        if (lineStart[mid] <= index) {
+          low = mid;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return decodeLine(low);
+    }
+
+    private DecodedLine decodeLine(int line) {
+      int start = lineStart[line];
+      int[] entries = new int[lineStart[line + 1] - start];
+      int stateOffset = line * STATE_SIZE;
+      int sourceFileId = lineStates[stateOffset + STATE_SOURCE_FILE_ID];
+      int sourceLine = lineStates[stateOffset + STATE_SOURCE_LINE];
+      int sourceColumn = lineStates[stateOffset + STATE_SOURCE_COLUMN];
+      int nameId = lineStates[stateOffset + STATE_NAME_ID];
+      int generatedColumn = 0;
+
+      StringCharIterator content = new StringCharIterator(lineMap, lineOffset[line]);
+      for (int i = 0; i < entries.length; i += ENTRY_SIZE) {
+        generatedColumn += Base64VLQ.decode(content);
+        entries[i] = generatedColumn;
+        if (isEntryComplete(content)) {
+          entries[i + 1] = UNMAPPED;
+          entries[i + 2] = UNMAPPED;
+          entries[i + 3] = UNMAPPED;
+          entries[i + 4] = UNMAPPED;
+        } else {
+          sourceFileId += Base64VLQ.decode(content);
+          sourceLine += Base64VLQ.decode(content);
+          sourceColumn += Base64VLQ.decode(content);
+          entries[i + 1] = sourceLine;
+          entries[i + 2] = sourceColumn;
+          entries[i + 3] = sourceFileId;
+          if (isEntryComplete(content)) {
+            entries[i + 4] = UNMAPPED;
+          } else {
+            nameId += Base64VLQ.decode(content);
+            entries[i + 4] = nameId;
+          }
+        }
+        // Consume the separating token, if there is one.
+        if (content.hasNext() && content.peek() == ',') {
+          content.next();
+        }
+      }
+      return new DecodedLine(start, entries);
+    }
+
+    @Override
+    public int getEntrySize() {
+      return ENTRY_SIZE;
+    }
+
+    @Override
+    public int getGeneratedColumn(int index) {
+      return getValue(index, 0);
+    }
+
+    @Override
+    public int getSourceLine(int index) {
+      return getValue(index, 1);
+    }
+
+    @Override
+    public int getSourceColumn(int index) {
+      return getValue(index, 2);
+    }
+
+    @Override
+    public int getSourceFileId(int index) {
+      return getValue(index, 3);
+    }
+
+    @Override
+    public int getNameId(int index) {
+      return getValue(index, 4);
+    }
+
+    @Override
+    public int getParsedLineCount() {
       return lineCount;
     }
 
-    int getLineStart(int line) {
+    @Override
+    public int getLineStart(int line) {
       return lineStart[line];
     }
+
+    /** The decoded entries of a line, starting at the given index. */
+    private static final class DecodedLine {
+      final int start;
+      final int[] entries;
+
+      DecodedLine(int start, int[] entries) {
+        this.start = start;
+        this.entries = entries;
+      }
+    }
+  }
+
+  /**
+   * The reverse mapping of a source map, from an original file and line to the generated positions
+   * mapped to it.
+   *
+   * <p>The mapped entries are numbered in generated order. For each original file, the entries
+   * mapped to it are kept sorted by original line and then by number, each as a single {@code long}
+   * with the line in its upper half and the number in its lower half.
+   */
+  private static final class ReverseIndex {
+    private final Map<String, long[]> entriesBySource = new LinkedHashMap<>();
+    private final int[] generatedLines;
+    private final int[] generatedColumns;
+
+    ReverseIndex(Mappings mappings, String[] sources) {
+      // Sources with the same name are indexed together, under the first id with that name.
+      Map<String, Integer> firstIds = new LinkedHashMap<>();
+      int[] indexedIds = new int[sources.length];
+      for (int i = 0; i < sources.length; i++) {
+        indexedIds[i] = firstIds.computeIfAbsent(sources[i], (String k) -> firstIds.size());
+      }
+
+      int maxEntries = mappings.getLineStart(mappings.getParsedLineCount()) / mappings.getEntrySize();
+      int[] generatedLines = new int[maxEntries];
+      int[] generatedColumns = new int[maxEntries];
+      int[] entrySources = new int[maxEntries];
+      int[] entrySourceLines = new int[maxEntries];
+      int[] sourceSizes = new int[firstIds.size()];
+      int count = 0;
+      for (int targetLine = 0; targetLine < mappings.getParsedLineCount(); targetLine++) {
+        int start = mappings.getLineStart(targetLine);
+        int end = mappings.getLineStart(targetLine + 1);
+        for (int i = start; i < end; i += mappings.getEntrySize()) {
+          int sourceFileId = mappings.getSourceFileId(i);
+          int sourceLine = mappings.getSourceLine(i);
+          if (sourceFileId != UNMAPPED && sourceLine != UNMAPPED) {
+            generatedLines[count] = targetLine;
+            generatedColumns[count] = mappings.getGeneratedColumn(i);
+            entrySources[count] = indexedIds[sourceFileId];
+            entrySourceLines[count] = sourceLine;
+            sourceSizes[indexedIds[sourceFileId]]++;
+            count++;
+          }
+        }
+      }
+      this.generatedLines = Arrays.copyOf(generatedLines, count);
+      this.generatedColumns = Arrays.copyOf(generatedColumns, count);
+
+      long[][] entries = new long[sourceSizes.length][];
+      for (int i = 0; i < entries.length; i++) {
+        entries[i] = new long[sourceSizes[i]];
+      }
+      int[] filled = new int[sourceSizes.length];
+      for (int n = 0; n < count; n++) {
+        int source = entrySources[n];
+        entries[source][filled[source]++] = ((long) entrySourceLines[n] << 32) | n;
+      }
+      for (Map.Entry<String, Integer> source : firstIds.entrySet()) {
+        long[] sourceEntries = entries[source.getValue()];
+        if (sourceEntries.length > 0) {
+          Arrays.sort(sourceEntries);
+          entriesBySource.put(source.getKey(), sourceEntries);
+        }
+      }
+    }
+
+    Collection<OriginalMapping> get(String originalFile, int line) {
+      long[] entries = entriesBySource.get(originalFile);
+      if (entries == null) {
+        return Collections.emptyList();
+      }
+      // Find the first entry of the line.
+      long first = (long) line << 32;
+      int low = 0;
+      int high = entries.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (entries[mid] < first) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      List<OriginalMapping> result = new ArrayList<>();
+      for (int i = low; i < entries.length && (int) (entries[i] >> 32) == line; i++) {
+        int n = (int) entries[i];
+        result.add(
+            OriginalMapping.newBuilder()
+                .setLineNumber(generatedLines[n])
+                .setColumnPosition(generatedColumns[n])
+                .build());
+      }
+      return result;
+    }
   }
 
   public static interface EntryVisitor {
@@ -19,13 +19,15 @@ package com.google.debugging.sourcemap;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.nullToEmpty;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.debugging.sourcemap.SourceMapConsumerV3.EntryVisitor;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,13 +64,13 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
         Object newValue);
   }
 
-  private static final int UNMAPPED = -1;
+  @VisibleForTesting static final int UNMAPPED = -1;
 
 
   /**
    * A pre-order traversal ordered list of mappings stored in this map.
    */
-  private final List<Mapping> mappings = new ArrayList<>();
+  private final MappingStore mappings = new MappingStore();
 
   /**
    * A map of source names to source name index
@@ -96,9 +98,6 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
    */
   private int lastSourceFileIndex = -1;
 
-  /** For validation store the last mapping added. */
-  private @Nullable Mapping lastMapping;
-
   /**
    * The position that the current source map is offset in the
    * buffer being used to generated the compiled source file.
@@ -132,7 +131,6 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
   public void reset() {
     // Do not reset sourceFileContentMap
     mappings.clear();
-    lastMapping = null;
     sourceFileMap.clear();
     originalNameMap.clear();
     lastSourceFile = null;
@@ -208,8 +206,10 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
       return;
     }
 
-    FilePosition adjustedStart = startPosition;
-    FilePosition adjustedEnd = endPosition;
+    int startLine = startPosition.getLine();
+    int startColumn = startPosition.getColumn();
+    int endLine = endPosition.getLine();
+    int endColumn = endPosition.getColumn();
 
     if (offsetPosition.getLine() != 0
         || offsetPosition.getColumn() != 0) {
@@ -221,46 +221,41 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
       int startOffsetPosition = offsetPosition.getColumn();
       int endOffsetPosition = offsetPosition.getColumn();
 
-      if (startPosition.getLine() > 0) {
+      if (startLine > 0) {
         startOffsetPosition = 0;
       }
 
-      if (endPosition.getLine() > 0) {
+      if (endLine > 0) {
         endOffsetPosition = 0;
       }
 
-      adjustedStart = new FilePosition(
-          startPosition.getLine() + offsetLine,
-          startPosition.getColumn() + startOffsetPosition);
-
-      adjustedEnd = new FilePosition(
-          endPosition.getLine() + offsetLine,
-          endPosition.getColumn() + endOffsetPosition);
+      startLine += offsetLine;
+      startColumn += startOffsetPosition;
+      endLine += offsetLine;
+      endColumn += endOffsetPosition;
     }
 
-    // Create the new mapping.
-    Mapping mapping = new Mapping();
-    mapping.sourceFile = sourceName;
-    mapping.originalPosition = sourceStartPosition;
-    mapping.originalName = symbolName;
-    mapping.startPosition = adjustedStart;
-    mapping.endPosition = adjustedEnd;
-
     // Validate the mappings are in a proper order.
-    if (lastMapping != null) {
-      int lastLine = lastMapping.startPosition.getLine();
-      int lastColumn = lastMapping.startPosition.getColumn();
-      int nextLine = mapping.startPosition.getLine();
-      int nextColumn = mapping.startPosition.getColumn();
-      Preconditions.checkState(nextLine > lastLine
-          || (nextLine == lastLine && nextColumn >= lastColumn),
+    if (mappings.size() > 0) {
+      int last = mappings.size() - 1;
+      int lastLine = mappings.startLine[last];
+      int lastColumn = mappings.startColumn[last];
+      Preconditions.checkState(startLine > lastLine
+          || (startLine == lastLine && startColumn >= lastColumn),
           "Incorrect source mappings order, previous : (%s,%s)\n"
           + "new : (%s,%s)",
-          lastLine, lastColumn, nextLine, nextColumn);
+          lastLine, lastColumn, startLine, startColumn);
     }
 
-    lastMapping = mapping;
-    mappings.add(mapping);
+    mappings.add(
+        sourceName,
+        symbolName,
+        sourceStartPosition.getLine(),
+        sourceStartPosition.getColumn(),
+        startLine,
+        startColumn,
+        endLine,
+        endColumn);
   }
 
   @Override public void addSourcesContent(String source, String content) {
@@ -578,21 +573,18 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
   private static void appendFieldEnd(Appendable out) {}
 
   /**
-   * Assigns sequential ids to used mappings, and returns the last line mapped.
+   * Marks the used mappings, and returns the last line mapped.
    */
   private int prepMappings() throws IOException {
     // Mark any unused mappings.
-    (new MappingTraversal()).traverse(new UsedMappingCheck());
+    UsedMappingCheck usedMappingCheck = new UsedMappingCheck();
+    (new MappingTraversal()).traverse(usedMappingCheck);
 
-    // Renumber used mappings and keep track of the last line.
-    int id = 0;
+    // Keep track of the last line.
+    BitSet used = usedMappingCheck.used;
     int maxLine = 0;
-    for (Mapping m : mappings) {
-      if (m.used) {
-        m.id = id++;
-        int endPositionLine = m.endPosition.getLine();
-        maxLine = Math.max(maxLine, endPositionLine);
-      }
+    for (int m = used.nextSetBit(0); m >= 0; m = used.nextSetBit(m + 1)) {
+      maxLine = Math.max(maxLine, mappings.endLine[m]);
     }
 
     // Adjust for the prefix.
@@ -600,78 +592,145 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
   }
 
   /**
-   * A mapping from a given position in an input source file to a given position
-   * in the generated code.
+   * The mappings from positions in input source files to positions in the generated code, stored
+   * as parallel columns indexed by the order in which the mappings were added. Source and symbol
+   * names are stored once, and referred to by their index in the order they were first added.
+   *
+   * <p>The source file and name indices written to the source map are assigned separately, in the
+   * order the used mappings are written.
    */
-  static class Mapping {
-    /**
-     * A unique ID for this mapping for record keeping purposes.
-     */
-    int id = UNMAPPED;
+  @VisibleForTesting
+  static final class MappingStore {
+    private static final int INITIAL_CAPACITY = 64;
 
-    /**
-     * The source file index.
-     */
-    String sourceFile;
+    private int size = 0;
 
     /**
-     * The position of the code in the input source file. Both
-     * the line number and the character index are indexed by
-     * 1 for legacy reasons via the Rhino Node class.
+     * The starting position of the code in the generated source file which each mapping
+     * represents. Indexed by 0.
      */
-    FilePosition originalPosition;
+    int[] startLine = new int[INITIAL_CAPACITY];
 
-    /**
-     * The starting position of the code in the generated source
-     * file which this mapping represents. Indexed by 0.
-     */
-    FilePosition startPosition;
+    int[] startColumn = new int[INITIAL_CAPACITY];
 
     /**
-     * The ending position of the code in the generated source
-     * file which this mapping represents. Indexed by 0.
+     * The ending position of the code in the generated source file which each mapping represents.
+     * Indexed by 0.
      */
-    FilePosition endPosition;
+    int[] endLine = new int[INITIAL_CAPACITY];
+
+    int[] endColumn = new int[INITIAL_CAPACITY];
+
+    /** The index of the source file of each mapping in {@link #sourceNames}. */
+    int[] sourceIndex = new int[INITIAL_CAPACITY];
 
     /**
-     * The original name of the token found at the position
-     * represented by this mapping (if any).
+     * The position of the code in the input source file. Both the line number and the character
+     * index are indexed by 1 for legacy reasons via the Rhino Node class.
      */
-    String originalName;
+    int[] originalLine = new int[INITIAL_CAPACITY];
+
+    int[] originalColumn = new int[INITIAL_CAPACITY];
 
     /**
-     * Whether the mapping is actually used by the source map.
+     * The index in {@link #names} of the original name of the token found at the position of each
+     * mapping, or {@link #UNMAPPED} if there is none.
      */
-    boolean used = false;
+    int[] nameIndex = new int[INITIAL_CAPACITY];
+
+    final List<String> sourceNames = new ArrayList<>();
+    private final Map<String, Integer> sourceNameIndices = new HashMap<>();
+    final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIndices = new HashMap<>();
+
+    int size() {
+      return size;
+    }
+
+    void clear() {
+      size = 0;
+      sourceNames.clear();
+      sourceNameIndices.clear();
+      names.clear();
+      nameIndices.clear();
+    }
+
+    void add(
+        String sourceName,
+        @Nullable String symbolName,
+        int originalLine,
+        int originalColumn,
+        int startLine,
+        int startColumn,
+        int endLine,
+        int endColumn) {
+      if (size == this.startLine.length) {
+        grow();
+      }
+      this.startLine[size] = startLine;
+      this.startColumn[size] = startColumn;
+      this.endLine[size] = endLine;
+      this.endColumn[size] = endColumn;
+      this.sourceIndex[size] = intern(sourceName, sourceNames, sourceNameIndices);
+      this.originalLine[size] = originalLine;
+      this.originalColumn[size] = originalColumn;
+      this.nameIndex[size] =
+          symbolName == null ? UNMAPPED : intern(symbolName, names, nameIndices);
+      size++;
+    }
+
+    private static int intern(String value, List<String> values, Map<String, Integer> indices) {
+      Integer index = indices.get(value);
+      if (index == null) {
+        index = values.size();
+        values.add(value);
+        indices.put(value, index);
+      }
+      return index;
+    }
+
+    private void grow() {
+      int capacity = startLine.length * 2;
+      startLine = Arrays.copyOf(startLine, capacity);
+      startColumn = Arrays.copyOf(startColumn, capacity);
+      endLine = Arrays.copyOf(endLine, capacity);
+      endColumn = Arrays.copyOf(endColumn, capacity);
+      sourceIndex = Arrays.copyOf(sourceIndex, capacity);
+      originalLine = Arrays.copyOf(originalLine, capacity);
+      originalColumn = Arrays.copyOf(originalColumn, capacity);
+      nameIndex = Arrays.copyOf(nameIndex, capacity);
+    }
   }
 
   /**
    * Mark any visited mapping as "used".
    */
   private static class UsedMappingCheck implements MappingVisitor {
-    /** */
+    private final BitSet used = new BitSet();
+
     @Override
-    public void visit(Mapping m, int line, int col, int nextLine, int nextCol) throws IOException {
-      if (m != null) {
-        m.used = true;
+    public void visit(int m, int line, int col, int nextLine, int nextCol) throws IOException {
+      if (m != UNMAPPED) {
+        used.set(m);
       }
     }
   }
 
   private interface MappingVisitor {
     /**
-     * @param m The mapping for the current code segment. null if the segment is unmapped.
+     * @param m The index of the mapping for the current code segment. {@link #UNMAPPED} if the
+     *     segment is unmapped.
      * @param line The starting line for this code segment.
      * @param col The starting column for this code segment.
      * @param endLine The ending line
      * @param endCol The ending column
      */
-    void visit(Mapping m, int line, int col, int endLine, int endCol) throws IOException;
+    void visit(int m, int line, int col, int endLine, int endCol) throws IOException;
   }
 
   /**
    * Walk the mappings and visit each segment of the mappings, unmapped
-   * segments are visited with a null mapping, unused mapping are not visited.
+   * segments are visited with {@link #UNMAPPED}, unused mapping are not visited.
    */
   private class MappingTraversal {
     // The last line and column written
@@ -686,29 +745,33 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
       // The mapping list is ordered as a pre-order traversal.  The mapping
       // positions give us enough information to rebuild the stack and this
       // allows the building of the source map in O(n) time.
-      Deque<Mapping> stack = new ArrayDeque<>();
-      for (Mapping m : mappings) {
+      int[] stack = new int[16];
+      int stackSize = 0;
+      for (int m = 0; m < mappings.size(); m++) {
         // Find the closest ancestor of the current mapping:
         // An overlapping mapping is an ancestor of the current mapping, any
         // non-overlapping mappings are siblings (or cousins) and must be
         // closed in the reverse order of when they encountered.
-        while (!stack.isEmpty() && !isOverlapped(stack.peek(), m)) {
-          Mapping previous = stack.pop();
+        while (stackSize > 0 && !isOverlapped(stack[stackSize - 1], m)) {
+          int previous = stack[--stackSize];
           maybeVisit(v, previous);
         }
 
         // Any gaps between the current line position and the start of the
         // current mapping belong to the parent.
-        Mapping parent = stack.peek();
+        int parent = stackSize > 0 ? stack[stackSize - 1] : UNMAPPED;
         maybeVisitParent(v, parent, m);
 
-        stack.push(m);
+        if (stackSize == stack.length) {
+          stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = m;
       }
 
       // There are no more children to be had, simply close the remaining
       // mappings in the reverse order of when they encountered.
-      while (!stack.isEmpty()) {
-        Mapping m = stack.pop();
+      while (stackSize > 0) {
+        int m = stack[--stackSize];
         maybeVisit(v, m);
       }
     }
@@ -716,16 +779,14 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
     /**
      * @return The line adjusted for the prefix position.
      */
-    private int getAdjustedLine(FilePosition p) {
-      return p.getLine() + prefixPosition.getLine();
+    private int getAdjustedLine(int rawLine) {
+      return rawLine + prefixPosition.getLine();
     }
 
     /**
      * @return The column adjusted for the prefix position.
      */
-    private int getAdjustedCol(FilePosition p) {
-      int rawLine = p.getLine();
-      int rawCol = p.getColumn();
+    private int getAdjustedCol(int rawLine, int rawCol) {
       // Only the first line needs the character position adjusted.
       return (rawLine != 0)
           ? rawCol : rawCol + prefixPosition.getColumn();
@@ -734,12 +795,12 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
     /**
      * @return Whether m1 ends before m2 starts.
      */
-    private boolean isOverlapped(Mapping m1, Mapping m2) {
+    private boolean isOverlapped(int m1, int m2) {
       // No need to use adjusted values here, relative positions are sufficient.
-      int l1 = m1.endPosition.getLine();
-      int l2 = m2.startPosition.getLine();
-      int c1 = m1.endPosition.getColumn();
-      int c2 = m2.startPosition.getColumn();
+      int l1 = mappings.endLine[m1];
+      int l2 = mappings.startLine[m2];
+      int c1 = mappings.endColumn[m1];
+      int c2 = mappings.startColumn[m2];
 
       return (l1 == l2 && c1 >= c2) || l1 > l2;
     }
@@ -748,9 +809,9 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
      * Write any needed entries from the current position to the end of the
      * provided mapping.
      */
-    private void maybeVisit(MappingVisitor v, Mapping m) throws IOException {
-      int nextLine = getAdjustedLine(m.endPosition);
-      int nextCol = getAdjustedCol(m.endPosition);
+    private void maybeVisit(MappingVisitor v, int m) throws IOException {
+      int nextLine = getAdjustedLine(mappings.endLine[m]);
+      int nextCol = getAdjustedCol(mappings.endLine[m], mappings.endColumn[m]);
       // If this anything remaining in this mapping beyond the
       // current line and column position, write it out now.
       if (line < nextLine || (line == nextLine && col < nextCol)) {
@@ -761,10 +822,10 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
     /**
      * Write any needed entries to complete the provided mapping.
      */
-    private void maybeVisitParent(MappingVisitor v, Mapping parent, Mapping m)
+    private void maybeVisitParent(MappingVisitor v, int parent, int m)
         throws IOException {
-      int nextLine = getAdjustedLine(m.startPosition);
-      int nextCol = getAdjustedCol(m.startPosition);
+      int nextLine = getAdjustedLine(mappings.startLine[m]);
+      int nextCol = getAdjustedCol(mappings.startLine[m], mappings.startColumn[m]);
       // If the previous value is null, no mapping exists.
       checkState(line < nextLine || col <= nextCol);
       if (line < nextLine || (line == nextLine && col < nextCol)) {
@@ -776,7 +837,7 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
      * Write any entries needed between the current position the next position
      * and update the current position.
      */
-    private void visit(MappingVisitor v, Mapping m,
+    private void visit(MappingVisitor v, int m,
         int nextLine, int nextCol)
         throws IOException {
       checkState(line <= nextLine);
@@ -885,16 +946,25 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
     private int previousSourceColumn;
     private int previousNameId;
 
+    // The ids written for the source and symbol names of the mapping store, or UNMAPPED if they
+    // have not been written yet.
+    private final int[] sourceIds;
+    private final int[] nameIds;
+
     LineMapper(Appendable out, int maxLine) {
       this.out = out;
       this.maxLine = maxLine;
+      this.sourceIds = new int[mappings.sourceNames.size()];
+      this.nameIds = new int[mappings.names.size()];
+      Arrays.fill(sourceIds, UNMAPPED);
+      Arrays.fill(nameIds, UNMAPPED);
     }
 
     /**
      * As each segment is visited write out the appropriate line mapping.
      */
     @Override
-    public void visit(Mapping m, int line, int col, int nextLine, int nextCol)
+    public void visit(int m, int line, int col, int nextLine, int nextCol)
       throws IOException {
       if (previousLine != line) {
         previousColumn = 0;
@@ -912,7 +982,7 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
           previousLine = line;
           previousColumn = col;
         } else {
-          checkState(m == null);
+          checkState(m == UNMAPPED);
         }
       }
 
@@ -932,28 +1002,38 @@ public final class SourceMapGeneratorV3 implements SourceMapGenerator {
      * The values are stored as relative to the last seen values for each
      * field and encoded as Base64VLQs.
      */
-    void writeEntry(Mapping m, int column) throws IOException {
+    void writeEntry(int m, int column) throws IOException {
       // The relative generated column number
       Base64VLQ.encode(out, column - previousColumn);
       previousColumn = column;
-      if (m != null) {
+      if (m != UNMAPPED) {
         // The relative source file id
-        int sourceId = getSourceId(m.sourceFile);
+        int sourceIndex = mappings.sourceIndex[m];
+        int sourceId = sourceIds[sourceIndex];
+        if (sourceId == UNMAPPED) {
+          sourceId = getSourceId(mappings.sourceNames.get(sourceIndex));
+          sourceIds[sourceIndex] = sourceId;
+        }
         Base64VLQ.encode(out, sourceId - previousSourceFileId);
         previousSourceFileId = sourceId;
 
         // The relative source file line and column
-        int srcline = m.originalPosition.getLine();
-        int srcColumn = m.originalPosition.getColumn();
+        int srcline = mappings.originalLine[m];
+        int srcColumn = mappings.originalColumn[m];
         Base64VLQ.encode(out, srcline - previousSourceLine);
         previousSourceLine = srcline;
 
         Base64VLQ.encode(out, srcColumn - previousSourceColumn);
         previousSourceColumn = srcColumn;
 
-        if (m.originalName != null) {
+        int nameIndex = mappings.nameIndex[m];
+        if (nameIndex != UNMAPPED) {
           // The relative id for the associated symbol name
-          int nameId = getNameId(m.originalName);
+          int nameId = nameIds[nameIndex];
+          if (nameId == UNMAPPED) {
+            nameId = getNameId(mappings.names.get(nameIndex));
+            nameIds[nameIndex] = nameId;
+          }
           Base64VLQ.encode(out, (nameId - previousNameId));
           previousNameId = nameId;
         }
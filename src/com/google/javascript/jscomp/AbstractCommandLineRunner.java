@@ -29,16 +29,17 @@ import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.annotations.SerializedName;
-import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import com.google.javascript.jscomp.CodePrinter.LicenseTracker;
@@ -49,9 +50,11 @@ import com.google.javascript.jscomp.CompilerOptions.JsonStreamMode;
 import com.google.javascript.jscomp.CompilerOptions.OutputJs;
 import com.google.javascript.jscomp.CompilerOptions.SegmentOfCompilationToRun;
 import com.google.javascript.jscomp.CompilerOptions.TweakProcessing;
+import com.google.javascript.jscomp.base.JSCompThreads;
 import com.google.javascript.jscomp.deps.ModuleLoader;
 import com.google.javascript.jscomp.deps.SourceCodeEscapers;
 import com.google.javascript.jscomp.ijs.IjsErrors;
+import com.google.javascript.jscomp.ijs.TypeSummaryCache;
 import com.google.javascript.jscomp.js.RuntimeJsLibManager;
 import com.google.javascript.jscomp.parsing.Config;
 import com.google.javascript.rhino.Node;
@@ -73,7 +76,6 @@ import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -83,6 +85,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
@@ -156,6 +164,9 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
   // Use an 8MiB buffer since the concatenated TypedAst file can be very large.
   private static final int GZIPPED_TYPEDAST_BUFFER_SIZE = 8 * 1024 * 1024;
 
+  /** How many chunks per thread may be printed or waiting to be written at the same time. */
+  private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
   private final CommandLineConfig config;
 
   private final InputStream in;
@@ -202,7 +213,11 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
   static final String OUTPUT_MARKER = "%output%";
   private static final String OUTPUT_MARKER_JS_STRING = "%output|jsstring%";
 
-  private final List<JsonFileSpec> filesToStreamOut = new ArrayList<>();
+  /**
+   * The array of files written to the default output when it is in JSON. Each file is written as
+   * soon as it is printed, so that it is not held in memory until all files are printed.
+   */
+  private @Nullable JsonWriter jsonFilesOut = null;
 
   AbstractCommandLineRunner() {
     this(System.in, System.out, System.err);
@@ -1018,6 +1033,12 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
   @VisibleForTesting
   void writeChunkOutput(String fileName, Appendable out, LicenseTracker lt, JSChunk m)
       throws IOException {
+    writeChunkOutput(fileName, out, m, (codeOut) -> compiler.toSource(codeOut, lt, m));
+  }
+
+  /** Writes the code of a chunk, as written by the given code writer, in the chunk's wrapper. */
+  private void writeChunkOutput(String fileName, Appendable out, JSChunk m, CodeWriter codeWriter)
+      throws IOException {
     if (parsedChunkWrappers == null) {
       parsedChunkWrappers =
           parseChunkWrappers(
@@ -1027,16 +1048,16 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     if (!isOutputInJson()) {
       maybeCreateDirsForPath(fileName);
     }
+    if (maybeWriteChecksOnlyOutput(out)) {
+      return;
+    }
     String baseName = new File(fileName).getName();
-    writeOutput(
+    writeWrappedOutput(
         out,
         compiler,
-        lt,
-        m,
         parsedChunkWrappers.get(m.getName()).replace("%basename%", baseName),
         "%s",
-        null,
-        fileName);
+        codeWriter);
   }
 
   /**
@@ -1055,14 +1076,29 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
       @Nullable Function<String, String> escaper,
       String filename)
       throws IOException {
-    if (compiler.getOptions().getOutputJs() == OutputJs.SENTINEL) {
-      out.append("// No JS output because the compiler was run in checks-only mode.\n");
+    if (maybeWriteChecksOnlyOutput(out)) {
       return;
     }
-    checkState(compiler.getOptions().getOutputJs() == OutputJs.NORMAL);
 
-    String code = chunk == null ? compiler.toSource() : compiler.toSource(licenseTracker, chunk);
-    writeOutput(out, compiler, code, wrapper, codePlaceholder, escaper, filename);
+    if (escaper != null) {
+      // The escaper needs all of the code at once.
+      String code = chunk == null ? compiler.toSource() : compiler.toSource(licenseTracker, chunk);
+      writeOutput(out, compiler, code, wrapper, codePlaceholder, escaper, filename);
+      return;
+    }
+    // Stream the code to the output as it is printed, rather than holding all of it in memory.
+    writeWrappedOutput(
+        out,
+        compiler,
+        wrapper,
+        codePlaceholder,
+        (codeOut) -> {
+          if (chunk == null) {
+            compiler.toSource(codeOut);
+          } else {
+            compiler.toSource(codeOut, licenseTracker, chunk);
+          }
+        });
   }
 
   /**
@@ -1079,6 +1115,40 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
       @Nullable Function<String, String> escaper,
       String filename)
       throws IOException {
+    writeWrappedOutput(
+        out,
+        compiler,
+        wrapper,
+        codePlaceholder,
+        (codeOut) -> codeOut.append(escaper == null ? code : escaper.apply(code)));
+  }
+
+  /**
+   * Writes a placeholder instead of the code if the compiler was run in checks-only mode.
+   *
+   * @return whether the placeholder was written
+   */
+  private boolean maybeWriteChecksOnlyOutput(Appendable out) throws IOException {
+    if (compiler.getOptions().getOutputJs() == OutputJs.SENTINEL) {
+      out.append("// No JS output because the compiler was run in checks-only mode.\n");
+      return true;
+    }
+    checkState(compiler.getOptions().getOutputJs() == OutputJs.NORMAL);
+    return false;
+  }
+
+  /** Writes the code of the compiler's output to an output stream. */
+  private interface CodeWriter {
+    void writeCode(Appendable out) throws IOException;
+  }
+
+  private void writeWrappedOutput(
+      Appendable out,
+      Compiler compiler,
+      String wrapper,
+      String codePlaceholder,
+      CodeWriter codeWriter)
+      throws IOException {
     int pos = wrapper.indexOf(codePlaceholder);
     if (pos != -1) {
       String prefix = "";
@@ -1088,7 +1158,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
         out.append(prefix);
       }
 
-      out.append(escaper == null ? code : escaper.apply(code));
+      codeWriter.writeCode(out);
 
       int suffixStart = pos + codePlaceholder.length();
       if (suffixStart != wrapper.length()) {
@@ -1105,7 +1175,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
         compiler.getSourceMap().setWrapperPrefix(prefix);
       }
     } else {
-      out.append(code);
+      codeWriter.writeCode(out);
       if (getCommandLineConfig().includeTrailingNewline) {
         out.append('\n');
       }
@@ -1229,6 +1299,12 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     List<SourceFile> sources =
         createSourceInputs(jsChunkSpecs, config.mixedJsSources, jsonFiles, config.moduleRoots);
 
+    TypeSummaryCache typeSummaryCache = null;
+    if (options.getTypeSummaryCacheDir() != null && options.isChecksOnly()) {
+      typeSummaryCache = new TypeSummaryCache(options.getTypeSummaryCacheDir(), options);
+      sources = typeSummaryCache.selectInputs(sources);
+    }
+
     if (!jsChunkSpecs.isEmpty()) {
       if (isInTestMode()) {
         chunks = chunksSupplierForTesting.get();
@@ -1303,6 +1379,10 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
       result = compiler.getResult();
     }
 
+    if (typeSummaryCache != null && result != null && result.success) {
+      typeSummaryCache.recordSuccessfulCheck();
+    }
+
     if (createCommonJsModules) {
       // For CommonJS modules, construct chunks from actual inputs.
       chunks = ImmutableList.copyOf(compiler.getChunks());
@@ -1596,7 +1676,7 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     }
 
     if (isOutputInJson()) {
-      this.filesToStreamOut.add(createJsonFile(options, marker, escaper));
+      streamOutJsonFile(createJsonFile(options, marker, escaper));
     } else {
       if (!config.jsOutputFile.isEmpty()) {
         maybeCreateDirsForPath(config.jsOutputFile);
@@ -1648,13 +1728,30 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     return jsonOutput;
   }
 
+  /** Writes a file to the JSON array on the default output, starting the array if needed. */
+  private void streamOutJsonFile(JsonFileSpec file) throws IOException {
+    JsonWriter jsonWriter = getJsonFilesOut();
+    Gson gsonOut = new GsonBuilder().disableHtmlEscaping().create();
+    gsonOut.toJson(file, JsonFileSpec.class, jsonWriter);
+    // Let the source text of the file be released before the next one is printed.
+    jsonWriter.flush();
+  }
+
+  private JsonWriter getJsonFilesOut() throws IOException {
+    if (jsonFilesOut == null) {
+      jsonFilesOut =
+          new JsonWriter(new BufferedWriter(new OutputStreamWriter(defaultJsOutput, UTF_8)));
+      jsonFilesOut.beginArray();
+    }
+    return jsonFilesOut;
+  }
+
+  /** Ends the JSON array of the files written by {@link #streamOutJsonFile}. */
   void outputJsonStream() throws IOException {
-    try (JsonWriter jsonWriter =
-        new JsonWriter(new BufferedWriter(new OutputStreamWriter(defaultJsOutput, UTF_8)))) {
-      Gson gsonOut = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
-      Type filesCollectionType = new TypeToken<List<JsChunkSpec>>() {}.getType();
-      gsonOut.toJson(this.filesToStreamOut, filesCollectionType, jsonWriter);
+    try (JsonWriter jsonWriter = getJsonFilesOut()) {
+      jsonWriter.endArray();
     }
+    jsonFilesOut = null;
   }
 
   private @Nullable DiagnosticType outputChunkBinaryAndSourceMaps(
@@ -1682,13 +1779,23 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     }
 
     ChunkGraphAwareLicenseTracker mlicenseTracker = new ChunkGraphAwareLicenseTracker(compiler);
+    if (!isOutputInJson() && options.getNumParallelThreads() > 1) {
+      List<JSChunk> chunksToWrite = new ArrayList<>();
+      for (JSChunk m : chunks) {
+        if (!m.getName().equals(JSChunk.WEAK_CHUNK_NAME)) {
+          chunksToWrite.add(m);
+        }
+      }
+      writeChunksInParallel(chunksToWrite, mlicenseTracker, options);
+      return null;
+    }
     for (JSChunk m : chunks) {
       if (m.getName().equals(JSChunk.WEAK_CHUNK_NAME)) {
         // Skip the weak chunk, which is always empty.
         continue;
       }
       if (isOutputInJson()) {
-        this.filesToStreamOut.add(createJsonFileFromChunk(m));
+        streamOutJsonFile(createJsonFileFromChunk(m));
       } else {
         if (shouldGenerateMapPerChunk(options)) {
           mapFileOut = fileNameToOutputWriter2(expandSourceMapPath(options, m));
@@ -1720,6 +1827,125 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     return null;
   }
 
+  /**
+   * Writes the files of the chunks and their source maps, as the serial loop in {@link
+   * #outputChunkBinaryAndSourceMaps} does, but printing and writing several chunks at the same time.
+   *
+   * <p>The scripts of the chunks are printed concurrently, ahead of the chunk being assembled. The
+   * chunks are then assembled in order on this thread, which chooses their licenses and builds
+   * their source maps, as both depend on the chunks before them. The code and source map of each
+   * chunk are then written to their files concurrently. To bound the memory used, only a few chunks
+   * per thread are printed or waiting to be written at any time.
+   */
+  private void writeChunksInParallel(
+      List<JSChunk> chunks, ChunkGraphAwareLicenseTracker licenseTracker, B options)
+      throws IOException {
+    int numThreads = options.getNumParallelThreads();
+    Semaphore chunksInFlight = new Semaphore(CHUNKS_IN_FLIGHT_PER_THREAD * numThreads);
+    ThreadFactory threadFactory =
+        JSCompThreads.newDaemonThreadFactory("jscompiler-ChunkOutput");
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads, threadFactory);
+    List<Future<ParallelScriptPrinter.PrintedChunk>> printTasks = new ArrayList<>();
+    List<Future<?>> writeTasks = new ArrayList<>();
+    try {
+      for (int i = 0; i < chunks.size(); i++) {
+        // Print this chunk even if it has to wait for earlier chunks to be written, and print
+        // ahead while there is room.
+        if (printTasks.size() == i) {
+          chunksInFlight.acquireUninterruptibly();
+          JSChunk chunk = chunks.get(i);
+          printTasks.add(executor.submit(() -> compiler.printChunk(chunk)));
+        }
+        while (printTasks.size() < chunks.size() && chunksInFlight.tryAcquire()) {
+          JSChunk chunk = chunks.get(printTasks.size());
+          printTasks.add(executor.submit(() -> compiler.printChunk(chunk)));
+        }
+
+        JSChunk chunk = chunks.get(i);
+        ParallelScriptPrinter.PrintedChunk printed =
+            Uninterruptibles.getUninterruptibly(printTasks.get(i));
+        printTasks.set(i, null);
+
+        String chunkFilename = getChunkOutputFileName(chunk);
+        if (options.shouldGatherSourceMapInfo()) {
+          compiler.resetAndIntitializeSourceMap();
+        }
+        licenseTracker.setCurrentChunkContext(chunk);
+        StringBuilder code = new StringBuilder();
+        writeChunkOutput(
+            chunkFilename,
+            code,
+            chunk,
+            (codeOut) -> compiler.toSource(codeOut, licenseTracker, printed));
+        String mapFilename = null;
+        StringBuilder sourceMap = null;
+        if (shouldGenerateMapPerChunk(options)) {
+          mapFilename = expandSourceMapPath(options, chunk);
+          sourceMap = new StringBuilder();
+          compiler.getSourceMap().appendTo(sourceMap, chunkFilename);
+        }
+
+        // Open the files here, so that subclasses only see filenameToOutputStream called on this
+        // thread. The write task writes and closes them.
+        maybeCreateDirsForPath(chunkFilename);
+        Writer codeWriter = fileNameToLegacyOutputWriter(chunkFilename);
+        Writer mapWriter = null;
+        try {
+          mapWriter = fileNameToOutputWriter2(mapFilename);
+        } catch (IOException | RuntimeException e) {
+          codeWriter.close();
+          throw e;
+        }
+        Writer chunkMapWriter = mapWriter;
+        StringBuilder chunkSourceMap = sourceMap;
+        writeTasks.add(
+            executor.submit(
+                () -> {
+                  try {
+                    writeChunkFiles(codeWriter, code, chunkMapWriter, chunkSourceMap);
+                  } finally {
+                    chunksInFlight.release();
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> task : writeTasks) {
+        Uninterruptibles.getUninterruptibly(task);
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      // Let the write tasks that are already submitted finish, as they close the files opened
+      // above, but do not print the chunks that will not be written.
+      for (Future<?> task : printTasks) {
+        if (task != null) {
+          task.cancel(true);
+        }
+      }
+      executor.shutdown();
+      Uninterruptibles.awaitTerminationUninterruptibly(executor);
+    }
+  }
+
+  /** Writes the code and source map of a chunk, and closes their writers. */
+  private static void writeChunkFiles(
+      Writer codeWriter,
+      CharSequence code,
+      @Nullable Writer sourceMapWriter,
+      @Nullable CharSequence sourceMap)
+      throws IOException {
+    try (Writer writer = codeWriter) {
+      writer.append(code);
+    }
+    try (Writer writer = sourceMapWriter) {
+      if (writer != null && sourceMap != null) {
+        writer.append(sourceMap);
+      }
+    }
+  }
+
   /** Given an output chunk, convert it to a JSONFileSpec with associated sourcemap */
   private JsonFileSpec createJsonFileFromChunk(JSChunk chunk) throws IOException {
     compiler.resetAndIntitializeSourceMap();
@@ -1891,7 +2117,13 @@ public abstract class AbstractCommandLineRunner<A extends Compiler, B extends Co
     return streamToOutputWriter2(filenameToOutputStream(fileName));
   }
 
-  /** Converts a file name into a Outputstream. Returns null if the file name is null. */
+  /**
+   * Converts a file name into a Outputstream. Returns null if the file name is null.
+   *
+   * <p>This is always called on the thread running the compiler. When chunks are written in
+   * parallel, the returned stream may be written to and closed on another thread, but only by one
+   * thread at a time.
+   */
   protected @Nullable OutputStream filenameToOutputStream(String fileName) throws IOException {
     if (fileName == null) {
       return null;
@@ -229,6 +229,12 @@ public abstract class AbstractCompiler implements SourceExcerptProvider, Compile
    */
   public abstract void reportAmbiguatePropertiesSummary(Supplier<String> summarySupplier);
 
+  /**
+   * Runs one step of a larger phase, such as TypedAST deserialization, and reports its runtime as
+   * a separate entry in the tracer mode output, if that is enabled.
+   */
+  public abstract <T> T runTracedStep(String stepName, Supplier<T> step);
+
   /**
    * Gets a suitable SCRIPT node to serve as a parent for code insertion. If {@code chunk} contains
    * any inputs, the returned node will be the SCRIPT node corresponding to its first input. If
@@ -343,6 +349,9 @@ public abstract class AbstractCompiler implements SourceExcerptProvider, Compile
    */
   abstract <T> T getIndex(Class<T> type);
 
+  /** Lets the provider of the given type of index, if any, drop the index it holds. */
+  abstract void clearIndex(Class<?> type);
+
   /** Returns the root of the source tree, ignoring externs */
   abstract Node getJsRoot();
 
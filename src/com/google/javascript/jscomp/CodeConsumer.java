@@ -36,6 +36,10 @@ public abstract class CodeConsumer {
   boolean statementStarted = false;
   boolean sawFunction = false;
 
+  // Reused to format each number.
+  private final char[] numberChars = new char[NumberFormatter.MAX_LENGTH];
+  private final StringBuilder numberText = new StringBuilder(NumberFormatter.MAX_LENGTH);
+
   // State tracking for template literals. Remember that template literal substitutions can contain
   // additional template literals.
   private int templateLitDepth = 0;
@@ -88,21 +92,7 @@ public abstract class CodeConsumer {
       return;
     }
 
-    char c = newcode.charAt(0);
-    if ((isWordChar(c) || c == '\\') && isWordChar(getLastChar())) {
-      // need space to separate. This is not pretty printing.
-      // For example: "return foo;"
-      append(" ");
-    } else if (c == '/' && getLastChar() == '/') {
-      // Do not allow a forward slash to appear after a DIV.
-      // For example,
-      // REGEXP DIV REGEXP
-      // is valid and should print like
-      // / // / /
-      append(" ");
-    } else if ((c == '"' || c == '\'') && isWordChar(getLastChar())) {
-      maybeInsertSpace();
-    }
+    maybeSeparateFrom(newcode.charAt(0));
 
     // Iterate through the new code and add each contained line, followed by a break. Remember that
     // the string may start and end in the middle of a line. We do this rather primitively because
@@ -129,6 +119,51 @@ public abstract class CodeConsumer {
     }
   }
 
+  /** Appends a single char to the code, as {@link #add(String)} would. */
+  final void add(char c) {
+    maybeEndStatement();
+
+    if (c == '\n') {
+      startNewLine();
+      return;
+    }
+    maybeSeparateFrom(c);
+    append(c);
+  }
+
+  /**
+   * Appends a token that contains no newline, such as an escaped string literal, as {@link
+   * #add(String)} would but without first copying it to a string.
+   */
+  final void addToken(CharSequence token) {
+    maybeEndStatement();
+
+    if (token.length() == 0) {
+      return;
+    }
+
+    maybeSeparateFrom(token.charAt(0));
+    append(token);
+  }
+
+  /** Separates the code to be added, starting with the given char, from the previous token. */
+  private void maybeSeparateFrom(char c) {
+    if ((isWordChar(c) || c == '\\') && isWordChar(getLastChar())) {
+      // need space to separate. This is not pretty printing.
+      // For example: "return foo;"
+      append(' ');
+    } else if (c == '/' && getLastChar() == '/') {
+      // Do not allow a forward slash to appear after a DIV.
+      // For example,
+      // REGEXP DIV REGEXP
+      // is valid and should print like
+      // / // / /
+      append(' ');
+    } else if ((c == '"' || c == '\'') && isWordChar(getLastChar())) {
+      maybeInsertSpace();
+    }
+  }
+
   /**
    * Appends a string to the code, keeping track of the current line length.
    *
@@ -143,16 +178,34 @@ public abstract class CodeConsumer {
   @ForOverride
   abstract void append(String str);
 
+  /**
+   * Appends a single char to the code, as {@link #append(String)} would. Consumers that can take a
+   * char without allocating a string should override this.
+   */
+  @ForOverride
+  void append(char c) {
+    append(String.valueOf(c));
+  }
+
+  /**
+   * Appends a token to the code, as {@link #append(String)} would. Consumers that can take the
+   * chars without copying them to a string should override this.
+   */
+  @ForOverride
+  void append(CharSequence chars) {
+    append(chars.toString());
+  }
+
   void addIdentifier(String identifier) {
     add(identifier);
   }
 
   void appendBlockStart() {
-    append("{");
+    append('{');
   }
 
   void appendBlockEnd() {
-    append("}");
+    append('}');
   }
 
   void startNewLine() {
@@ -173,7 +226,7 @@ public abstract class CodeConsumer {
 
   void beginBlock() {
     if (statementNeedsEnded) {
-      append(";");
+      append(';');
       maybeLineBreak();
     }
     appendBlockStart();
@@ -195,7 +248,7 @@ public abstract class CodeConsumer {
   }
 
   void listSeparator() {
-    add(",");
+    add(',');
     maybeLineBreak();
   }
 
@@ -212,7 +265,7 @@ public abstract class CodeConsumer {
 
   void endStatement(boolean needSemiColon, boolean hasTrailingCommentOnSameLine) {
     if (needSemiColon) {
-      append(";");
+      append(';');
       if (!hasTrailingCommentOnSameLine) {
         maybeLineBreak();
       }
@@ -229,7 +282,7 @@ public abstract class CodeConsumer {
   void maybeEndStatement() {
     // Add a ';' if we need to.
     if (statementNeedsEnded) {
-      append(";");
+      append(';');
       maybeLineBreak();
       endLine();
       statementNeedsEnded = false;
@@ -251,7 +304,7 @@ public abstract class CodeConsumer {
   }
 
   void beginCaseBody() {
-    append(":");
+    append(':');
   }
 
   void endCaseBody() {
@@ -261,7 +314,7 @@ public abstract class CodeConsumer {
     checkState(templateLitDepth == templateLitSubDepth);
 
     maybeEndStatement();
-    append("`");
+    append('`');
     templateLitDepth++;
   }
 
@@ -280,7 +333,7 @@ public abstract class CodeConsumer {
     checkState(templateLitSubDepth > 0);
     checkState(templateLitDepth == templateLitSubDepth);
 
-    append("}");
+    append('}');
     templateLitSubDepth--;
   }
 
@@ -288,7 +341,7 @@ public abstract class CodeConsumer {
     checkState(templateLitDepth > 0);
     checkState(isInTemplateLiteral());
 
-    append("`");
+    append('`');
     templateLitDepth--;
   }
 
@@ -310,13 +363,13 @@ public abstract class CodeConsumer {
     if ((first == '+' || first == '-') && prev == first) {
       // This is not pretty printing. This is to prevent misparsing of
       // things like "x + ++y" or "x++ + ++y"
-      append(" ");
+      append(' ');
     } else if (Character.isLetter(first) && isWordChar(prev)) {
       // Make sure there is a space after e.g. instanceof , typeof
-      append(" ");
+      append(' ');
     } else if ((prev == '-' && first == '>') || (prev == '<' && first == '!')) {
       // Make sure that we don't emit "<!--" or "-->"
-      append(" ");
+      append(' ');
     }
 
     // Allow formatting around the operator.
@@ -332,40 +385,10 @@ public abstract class CodeConsumer {
 
   void addNumber(double x, Node n) {
     checkState(isPositive(x), x);
-
-    if ((long) x != x) {
-      addConstant(String.valueOf(x).replace(".0E", "E").replaceFirst("^0\\.", "."));
-      return;
-    }
-
-    long value = (long) x;
-    long mantissa = value;
-    int exp = 0;
-    if (x >= 100) {
-      while (mantissa % 10 == 0) {
-        mantissa /= 10;
-        exp++;
-      }
-    }
-
-    if (exp > 2) {
-      addConstant(mantissa + "E" + exp);
-      return;
-    }
-
-    String decValueString = Long.toString(value);
-    if (value <= 1000000000000L) {
-      // Values <1E12 are shorter in decimal
-      addConstant(decValueString);
-      return;
-    }
-
-    String hexValueString = Long.toHexString(value);
-    if (hexValueString.length() + 2 < decValueString.length()) {
-      addConstant("0x" + hexValueString);
-    } else {
-      addConstant(decValueString);
-    }
+    int length = NumberFormatter.format(x, numberChars);
+    numberText.setLength(0);
+    numberText.append(numberChars, 0, length);
+    addConstant(numberText);
   }
 
   void addBigInt(BigInteger bi) {
@@ -374,8 +397,9 @@ public abstract class CodeConsumer {
     addConstant(hexEncoded.length() < decimalEncoded.length() ? hexEncoded : decimalEncoded);
   }
 
-  void addConstant(String newcode) {
-    add(newcode);
+  /** Adds a constant, such as a number or {@code true}, which contains no newline. */
+  void addConstant(CharSequence newcode) {
+    addToken(newcode);
   }
 
   static boolean isWordChar(char ch) {
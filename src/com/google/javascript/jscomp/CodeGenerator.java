@@ -60,6 +60,9 @@ public class CodeGenerator {
   private final FeatureSet outputFeatureSet;
   private final JSDocInfoPrinter jsDocInfoPrinter;
 
+  // Reused to build the string literals and regular expressions, which are added as single tokens.
+  private final StringBuilder tokenBuilder = new StringBuilder();
+
   private CodeGenerator(CodeConsumer consumer) {
     cc = consumer;
     outputCharsetEncoder = null;
@@ -187,6 +190,10 @@ public class CodeGenerator {
     cc.add(str);
   }
 
+  protected void add(char c) {
+    cc.add(c);
+  }
+
   protected void add(Node n) {
     add(n, Context.OTHER);
   }
@@ -239,7 +246,7 @@ public class CodeGenerator {
           (context == Context.START_OF_EXPR || context.atArrowFunctionBody())
               && first.isObjectPattern();
       if (node.isAssign() && needsParens) {
-        add("(");
+        add('(');
       }
 
       if (NodeUtil.isAssignmentOp(node) || type == Token.EXPONENT) {
@@ -252,7 +259,7 @@ public class CodeGenerator {
       }
 
       if (node.isAssign() && needsParens) {
-        add(")");
+        add(')');
       }
       return;
     }
@@ -288,9 +295,9 @@ public class CodeGenerator {
 
         if (!first.isEmpty()) {
           // optional catch binding
-          add("(");
+          add('(');
           add(first);
-          add(")");
+          add(')');
         }
 
         add(last);
@@ -310,9 +317,9 @@ public class CodeGenerator {
         if (childCount == 1) {
           cc.maybeInsertSpace();
           if (preserveTypeAnnotations && first.getJSDocInfo() != null) {
-            add("(");
+            add('(');
             add(first);
-            add(")");
+            add(')');
           } else {
             add(first);
           }
@@ -370,14 +377,14 @@ public class CodeGenerator {
         }
       }
       case ARRAYLIT -> {
-        add("[");
+        add('[');
         addArrayList(first);
-        add("]");
+        add(']');
       }
       case ARRAY_PATTERN -> {
-        add("[");
+        add('[');
         addArrayList(first);
-        add("]");
+        add(']');
         maybeAddTypeDecl(node);
       }
       case PARAM_LIST -> {
@@ -388,9 +395,9 @@ public class CodeGenerator {
             && !gentsMode) {
           add(first);
         } else {
-          add("(");
+          add('(');
           addList(first);
-          add(")");
+          add(')');
         }
       }
       case DEFAULT_VALUE -> {
@@ -433,15 +440,16 @@ public class CodeGenerator {
           throw new Error("Expected children to be strings");
         }
 
-        String regexp = regexpEscape(first.getString());
+        tokenBuilder.setLength(0);
+        appendRegexp(tokenBuilder, first.getString());
 
         // I only use one .add because whitespace matters
         if (childCount == 2) {
-          add(regexp + last.getString());
+          tokenBuilder.append(last.getString());
         } else {
           checkState(childCount == 1, node);
-          add(regexp);
         }
+        cc.addToken(tokenBuilder);
       }
       case FUNCTION -> {
         if (node.getClass() != Node.class) {
@@ -469,7 +477,7 @@ public class CodeGenerator {
           add("default");
         }
         if (node.getBooleanProp(Node.EXPORT_ALL_FROM)) {
-          add("*");
+          add('*');
           checkState(first != null && first.isEmpty(), node);
         } else {
           add(first);
@@ -500,14 +508,14 @@ public class CodeGenerator {
         cc.endStatement(hasTrailingCommentOnSameLine(node));
       }
       case EXPORT_SPECS, IMPORT_SPECS -> {
-        add("{");
+        add('{');
         for (Node c = first; c != null; c = c.getNext()) {
           if (c != first) {
             cc.listSeparator();
           }
           add(c);
         }
-        add("}");
+        add('}');
       }
       case EXPORT_SPEC, IMPORT_SPEC -> {
         add(first);
@@ -518,14 +526,14 @@ public class CodeGenerator {
         add(last);
       }
       case IMPORT_STAR -> {
-        add("*");
+        add('*');
         add("as");
         add(node.getString());
       }
       case DYNAMIC_IMPORT -> {
         add("import(");
         addExpr(first, NodeUtil.precedence(type), context);
-        add(")");
+        add(')');
       }
       case IMPORT_META -> add("import.meta");
       // CLASS -> NAME,EXPR|EMPTY,BLOCK
@@ -534,7 +542,7 @@ public class CodeGenerator {
           checkState(childCount == 3, node);
           boolean classNeedsParens = (context == Context.START_OF_EXPR);
           if (classNeedsParens) {
-            add("(");
+            add('(');
           }
 
           Node name = first;
@@ -561,7 +569,7 @@ public class CodeGenerator {
             Node child = interfaces.getFirstChild();
             add(child);
             while ((child = child.getNext()) != null) {
-              add(",");
+              add(',');
               cc.maybeInsertSpace();
               add(child);
             }
@@ -570,7 +578,7 @@ public class CodeGenerator {
           cc.endClass(context == Context.STATEMENT);
 
           if (classNeedsParens) {
-            add(")");
+            add(')');
           }
         }
       }
@@ -588,7 +596,7 @@ public class CodeGenerator {
         for (Node c = first; c != null; c = c.getNext()) {
           add(c);
           if (c.getNext() != null) {
-            add(",");
+            add(',');
           }
           cc.endLine();
         }
@@ -613,7 +621,7 @@ public class CodeGenerator {
 
         if (!node.isMemberVariableDef() && node.getFirstChild().isGeneratorFunction()) {
           checkState(type == Token.MEMBER_FUNCTION_DEF, node);
-          add("*");
+          add('*');
         }
 
         switch (type) {
@@ -689,11 +697,11 @@ public class CodeGenerator {
             init = first;
             break;
           case COMPUTED_FIELD_DEF:
-            add("[");
+            add('[');
             // Must use addExpr() with a priority of 1, because comma expressions aren't allowed.
             // https://www.ecma-international.org/ecma-262/9.0/index.html#prod-ComputedPropertyName
             addExpr(first, 1, Context.OTHER);
-            add("]");
+            add(']');
             init = node.getSecondChild();
             break;
           default:
@@ -703,7 +711,7 @@ public class CodeGenerator {
           cc.addOp("=", true);
           addExpr(init, 1, Context.OTHER);
         }
-        add(";");
+        add(';');
       }
       case SCRIPT, MODULE_BODY, BLOCK, ROOT -> {
         if (node.getClass() != Node.class) {
@@ -746,62 +754,62 @@ public class CodeGenerator {
         Preconditions.checkState(childCount == 4, node);
         add("for");
         cc.maybeInsertSpace();
-        add("(");
+        add('(');
         if (NodeUtil.isNameDeclaration(first)) {
           add(first, Context.IN_FOR_INIT_CLAUSE);
         } else {
           addExpr(first, 0, Context.IN_FOR_INIT_CLAUSE);
         }
-        add(";");
+        add(';');
         if (!first.getNext().isEmpty()) {
           cc.maybeInsertSpace();
         }
         add(first.getNext());
-        add(";");
+        add(';');
         if (!first.getNext().getNext().isEmpty()) {
           cc.maybeInsertSpace();
         }
         add(first.getNext().getNext());
-        add(")");
+        add(')');
         addNonEmptyStatement(last, getContextForNonEmptyExpression(context), false);
       }
       case FOR_IN -> {
         Preconditions.checkState(childCount == 3, node);
         add("for");
         cc.maybeInsertSpace();
-        add("(");
+        add('(');
         add(first);
         add("in");
         add(first.getNext());
-        add(")");
+        add(')');
         addNonEmptyStatement(last, getContextForNonEmptyExpression(context), false);
       }
       case FOR_OF -> {
         Preconditions.checkState(childCount == 3, node);
         add("for");
         cc.maybeInsertSpace();
-        add("(");
+        add('(');
         add(first);
         cc.maybeInsertSpace();
         add("of");
         cc.maybeInsertSpace();
         // the iterable must be an AssignmentExpression
         addExpr(first.getNext(), NodeUtil.precedence(Token.ASSIGN), Context.OTHER);
-        add(")");
+        add(')');
         addNonEmptyStatement(last, getContextForNonEmptyExpression(context), false);
       }
       case FOR_AWAIT_OF -> {
         Preconditions.checkState(childCount == 3, node);
         add("for await");
         cc.maybeInsertSpace();
-        add("(");
+        add('(');
         add(first);
         cc.maybeInsertSpace();
         add("of");
         cc.maybeInsertSpace();
         // the iterable must be an AssignmentExpression
         addExpr(first.getNext(), NodeUtil.precedence(Token.ASSIGN), Context.OTHER);
-        add(")");
+        add(')');
         addNonEmptyStatement(last, getContextForNonEmptyExpression(context), false);
       }
       case DO -> {
@@ -811,18 +819,18 @@ public class CodeGenerator {
         cc.maybeInsertSpace();
         add("while");
         cc.maybeInsertSpace();
-        add("(");
+        add('(');
         add(last);
-        add(")");
+        add(')');
         cc.endStatement(hasTrailingCommentOnSameLine(node));
       }
       case WHILE -> {
         Preconditions.checkState(childCount == 2, node);
         add("while");
         cc.maybeInsertSpace();
-        add("(");
+        add('(');
         add(first);
-        add(")");
+        add(')');
         addNonEmptyStatement(last, getContextForNonEmptyExpression(context), false);
       }
       case EMPTY -> Preconditions.checkState(childCount == 0, node);
@@ -852,11 +860,11 @@ public class CodeGenerator {
         // `2.toString()` is invalid - it must be `(2).toString()`
         boolean needsParens = first.isNumber() || breakOutOfOptionalChain;
         if (needsParens) {
-          add("(");
+          add('(');
         }
         addExpr(first, NodeUtil.precedence(type), context);
         if (needsParens) {
-          add(")");
+          add(')');
         }
         if (quoteKeywordProperties && TokenStream.isKeyword(node.getString())) {
           // NOTE: We don't have to worry about quoting keyword properties in the
@@ -864,9 +872,11 @@ public class CodeGenerator {
           // ES3-compatible output.
           //
           // Must be a single call to `add` otherwise the generator will add a trailing space.
-          add("[\"" + node.getString() + "\"]");
+          tokenBuilder.setLength(0);
+          tokenBuilder.append("[\"").append(node.getString()).append("\"]");
+          cc.addToken(tokenBuilder);
         } else {
-          add(".");
+          add('.');
           addGetpropIdentifier(node);
         }
       }
@@ -880,9 +890,9 @@ public class CodeGenerator {
         if (node.isOptionalChainStart()) {
           add("?.");
         }
-        add("[");
+        add('[');
         add(first.getNext());
-        add("]");
+        add(']');
       }
       case GETELEM -> {
         checkState(
@@ -892,21 +902,21 @@ public class CodeGenerator {
             node);
         boolean needsParens = NodeUtil.isOptChainNode(first);
         if (needsParens) {
-          add("(");
+          add('(');
         }
         addExpr(first, NodeUtil.precedence(type), context);
         if (needsParens) {
-          add(")");
+          add(')');
         }
-        add("[");
+        add('[');
         add(first.getNext());
-        add("]");
+        add(']');
       }
       case WITH -> {
         Preconditions.checkState(childCount == 2, node);
         add("with(");
         add(first);
-        add(")");
+        add(')');
         addNonEmptyStatement(last, getContextForNonEmptyExpression(context), false);
       }
       case INC, DEC -> {
@@ -935,7 +945,7 @@ public class CodeGenerator {
             || (node.getBooleanProp(Node.FREE_CALL) && NodeUtil.isNormalOrOptChainGet(first))) {
           add("(0,");
           addExpr(first, NodeUtil.precedence(Token.COMMA), Context.OTHER);
-          add(")");
+          add(')');
         } else {
           addExpr(first, NodeUtil.precedence(type), context);
         }
@@ -943,16 +953,16 @@ public class CodeGenerator {
         if (node.isOptionalChainStart()) {
           add("?.");
         }
-        add("(");
+        add('(');
         addList(args);
-        add(")");
+        add(')');
       }
       case CALL -> {
         this.addInvocationTarget(node, context);
 
-        add("(");
+        add('(');
         addList(first.getNext());
-        add(")");
+        add(')');
       }
       case IF -> {
         Preconditions.checkState(childCount == 2 || childCount == 3, node);
@@ -964,9 +974,9 @@ public class CodeGenerator {
 
         add("if");
         cc.maybeInsertSpace();
-        add("(");
+        add('(');
         add(first);
-        add(")");
+        add(')');
 
         if (hasElse) {
           addNonEmptyStatement(first.getNext(), Context.BEFORE_DANGLING_ELSE, false);
@@ -1001,7 +1011,7 @@ public class CodeGenerator {
         add("yield");
         if (node.isYieldAll()) {
           checkNotNull(first);
-          add("*");
+          add('*');
         }
         if (first != null) {
           cc.maybeInsertSpace();
@@ -1027,7 +1037,7 @@ public class CodeGenerator {
           if (!first.isLabelName()) {
             throw new Error("Unexpected token type. Should be LABEL_NAME.");
           }
-          add(" ");
+          add(' ');
           add(first);
         }
         cc.endStatement(hasTrailingCommentOnSameLine(node));
@@ -1044,7 +1054,7 @@ public class CodeGenerator {
           if (!first.isLabelName()) {
             throw new Error("Unexpected token type. Should be LABEL_NAME.");
           }
-          add(" ");
+          add(' ');
           add(first);
         }
         cc.endStatement(hasTrailingCommentOnSameLine(node));
@@ -1079,13 +1089,13 @@ public class CodeGenerator {
         // '()' is optional when no arguments are present
         Node next = first.getNext();
         if (next != null) {
-          add("(");
+          add('(');
           addList(next);
-          add(")");
+          add(')');
         } else {
           if (cc.shouldPreserveExtras(node)) {
-            add("(");
-            add(")");
+            add('(');
+            add(')');
           }
         }
       }
@@ -1102,9 +1112,9 @@ public class CodeGenerator {
       case OBJECTLIT -> {
         boolean needsParens = context == Context.START_OF_EXPR || context.atArrowFunctionBody();
         if (needsParens) {
-          add("(");
+          add('(');
         }
-        add("{");
+        add('{');
         for (Node c = first; c != null; c = c.getNext()) {
           if (c != first) {
             cc.listSeparator();
@@ -1116,9 +1126,9 @@ public class CodeGenerator {
         if (first != null && node.hasTrailingComma()) {
           cc.optionalListSeparator();
         }
-        add("}");
+        add('}');
         if (needsParens) {
-          add(")");
+          add(')');
         }
       }
       case COMPUTED_PROP -> {
@@ -1136,14 +1146,14 @@ public class CodeGenerator {
             add("async");
           }
           if (last.getBooleanProp(Node.GENERATOR_FN)) {
-            add("*");
+            add('*');
           }
         }
-        add("[");
+        add('[');
         // Must use addExpr() with a priority of 1, because comma expressions aren't allowed.
         // https://www.ecma-international.org/ecma-262/9.0/index.html#prod-ComputedPropertyName
         addExpr(first, 1, Context.OTHER);
-        add("]");
+        add(']');
         // TODO(martinprobst): There's currently no syntax for properties in object literals that
         // have type declarations on them (a la `{foo: number: 12}`). This comes up for, e.g.,
         // function parameters with default values. Support when figured out.
@@ -1165,7 +1175,7 @@ public class CodeGenerator {
             // Object literal value.
             checkState(
                 !isInClass, "initializers should only exist in object literals, not classes");
-            cc.add(":");
+            cc.add(':');
             // Must use addExpr() with a priority of 1, because a comma expression here would cause
             // a syntax error within the object literal.
             addExpr(initializer, 1, Context.OTHER);
@@ -1183,7 +1193,7 @@ public class CodeGenerator {
       case SWITCH -> {
         add("switch(");
         add(first);
-        add(")");
+        add(')');
         add(last, context);
       }
       case SWITCH_BODY -> {
@@ -1208,7 +1218,7 @@ public class CodeGenerator {
           throw new Error("Unexpected token type. Should be LABEL_NAME.");
         }
         add(first);
-        add(":");
+        add(':');
         if (!last.isBlock()) {
           cc.maybeInsertSpace();
         }
@@ -1216,9 +1226,9 @@ public class CodeGenerator {
       }
       case CAST -> {
         if (preserveTypeAnnotations) {
-          add("(");
+          add('(');
           add(first); // drop context because of added parentheses
-          add(")");
+          add(')');
         } else {
           add(first, context); // preserve context
         }
@@ -1255,30 +1265,30 @@ public class CodeGenerator {
       }
       case FUNCTION_TYPE -> {
         Node returnType = first;
-        add("(");
+        add('(');
         addList(first.getNext());
-        add(")");
+        add(')');
         cc.addOp("=>", true);
         add(returnType);
       }
       case UNION_TYPE -> addList(first, "|");
       case RECORD_TYPE -> {
-        add("{");
+        add('{');
         addList(first, false, Context.OTHER, ",");
-        add("}");
+        add('}');
       }
       case PARAMETERIZED_TYPE -> {
         // First child is the type that's parameterized, later children are the arguments.
         add(first);
-        add("<");
+        add('<');
         addList(first.getNext());
-        add(">");
+        add('>');
         // CLASS -> NAME,EXPR|EMPTY,BLOCK
       }
       case GENERIC_TYPE_LIST -> {
-        add("<");
+        add('<');
         addList(first, false, Context.STATEMENT, ",");
-        add(">");
+        add('>');
       }
       case GENERIC_TYPE -> {
         addIdentifier(node.getString());
@@ -1303,7 +1313,7 @@ public class CodeGenerator {
             Node superType = superTypes.getFirstChild();
             add(superType);
             while ((superType = superType.getNext()) != null) {
-              add(",");
+              add(',');
               cc.maybeInsertSpace();
               add(superType);
             }
@@ -1340,9 +1350,9 @@ public class CodeGenerator {
         processEnd(node, context);
       }
       case INDEX_SIGNATURE -> {
-        add("[");
+        add('[');
         add(first);
-        add("]");
+        add(']');
         maybeAddTypeDecl(node);
         cc.endStatement(/* needSemiColon= */ true, hasTrailingCommentOnSameLine(node));
       }
@@ -1399,14 +1409,14 @@ public class CodeGenerator {
         || (node.getBooleanProp(Node.FREE_CALL) && NodeUtil.isNormalOrOptChainGet(first))) {
       add("(0,");
       addExpr(first, NodeUtil.precedence(Token.COMMA), Context.OTHER);
-      add(")");
+      add(')');
     } else {
       if (needsParens) {
-        add("(");
+        add('(');
       }
       addExpr(first, NodeUtil.precedence(node.getToken()), context);
       if (needsParens) {
-        add(")");
+        add(')');
       }
     }
   }
@@ -1481,7 +1491,7 @@ public class CodeGenerator {
     checkState(first.getString().isEmpty(), first);
     boolean funcNeedsParens = arrowFunctionNeedsParens(n);
     if (funcNeedsParens) {
-      add("(");
+      add('(');
     }
 
     maybeAddGenericTypes(first);
@@ -1504,19 +1514,19 @@ public class CodeGenerator {
     cc.endFunction(context == Context.STATEMENT);
 
     if (funcNeedsParens) {
-      add(")");
+      add(')');
     }
   }
 
   private void addFunction(Node n, Node first, Node last, Context context) {
     boolean funcNeedsParens = (context == Context.START_OF_EXPR);
     if (funcNeedsParens) {
-      add("(");
+      add('(');
     }
 
     add(n.isAsyncFunction() ? "async function" : "function");
     if (n.isGeneratorFunction()) {
-      add("*");
+      add('*');
       if (!first.getString().isEmpty()) {
         cc.maybeInsertSpace();
       }
@@ -1532,7 +1542,7 @@ public class CodeGenerator {
     cc.endFunction(context == Context.STATEMENT);
 
     if (funcNeedsParens) {
-      add(")");
+      add(')');
     }
   }
 
@@ -1545,7 +1555,7 @@ public class CodeGenerator {
 
   private void maybeAddTypeDecl(Node n) {
     if (n.getDeclaredTypeExpression() != null) {
-      add(":");
+      add(':');
       cc.maybeInsertSpace();
       add(n.getDeclaredTypeExpression());
     }
@@ -1560,7 +1570,7 @@ public class CodeGenerator {
 
   private void maybeAddOptional(Node n) {
     if (n.getBooleanProp(Node.OPT_ES6_TYPED)) {
-      add("?");
+      add('?');
     }
   }
 
@@ -1717,9 +1727,9 @@ public class CodeGenerator {
 
   private void addExpr(Node n, int minPrecedence, Context context) {
     if (opRequiresParentheses(n, minPrecedence, context)) {
-      add("(");
+      add('(');
       add(n, Context.OTHER);
-      add(")");
+      add(')');
     } else {
       add(n, context);
     }
@@ -1826,13 +1836,13 @@ public class CodeGenerator {
       // NOTE: the only time a STRING_KEY node does *not* have children is when it's
       // inside a TypeScript enum.  We should change these to their own ENUM_KEY token
       // so that the bifurcating logic can be removed from STRING_KEY.
-      add(":");
+      add(':');
       addExpr(n.getFirstChild(), 1, Context.OTHER);
     }
   }
 
   void addObjectPattern(Node n) {
-    add("{");
+    add('{');
     for (Node child = n.getFirstChild(); child != null; child = child.getNext()) {
       if (child != n.getFirstChild()) {
         cc.listSeparator();
@@ -1840,7 +1850,7 @@ public class CodeGenerator {
 
       add(child);
     }
-    add("}");
+    add('}');
   }
 
   /**
@@ -1932,10 +1942,12 @@ public class CodeGenerator {
 
   /** Outputs a JS string, using the optimal (single/double) quote character */
   private void addJsString(Node n) {
-    add(jsString(n.getString()));
+    tokenBuilder.setLength(0);
+    appendJsString(tokenBuilder, n.getString());
+    cc.addToken(tokenBuilder);
   }
 
-  private String jsString(String s) {
+  private void appendJsString(StringBuilder sb, String s) {
     int singleq = 0;
     int doubleq = 0;
 
@@ -1965,16 +1977,21 @@ public class CodeGenerator {
       singlequote = "\'";
     }
 
-    return quote + strEscape(s, doublequote, singlequote, "`", "\\\\", "$", false) + quote;
+    sb.append(quote);
+    strEscape(sb, s, doublequote, singlequote, "`", "\\\\", "$", false);
+    sb.append(quote);
   }
 
-  /** Escapes regular expression */
-  String regexpEscape(String s) {
-    return '/' + strEscape(s, "\"", "'", "`", "\\", "$", true) + '/';
+  /** Appends an escaped regular expression, without its flags. */
+  private void appendRegexp(StringBuilder sb, String s) {
+    sb.append('/');
+    strEscape(sb, s, "\"", "'", "`", "\\", "$", true);
+    sb.append('/');
   }
 
   /** Helper to escape JavaScript string as well as regular expression */
-  private String strEscape(
+  private void strEscape(
+      StringBuilder sb,
       String s,
       String doublequoteEscape,
       String singlequoteEscape,
@@ -1982,7 +1999,6 @@ public class CodeGenerator {
       String backslashEscape,
       String dollarEscape,
       boolean isRegexp) {
-    StringBuilder sb = new StringBuilder(s.length() + 2);
     for (int i = 0; i < s.length(); i++) {
       char c = s.charAt(i);
       switch (c) {
@@ -2093,7 +2109,6 @@ public class CodeGenerator {
         }
       }
     }
-    return sb.toString();
   }
 
   /**
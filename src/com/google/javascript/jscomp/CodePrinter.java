@@ -60,17 +60,19 @@ public final class CodePrinter {
     private final boolean createSrcMap;
     private final SourceMap.DetailLevel sourceMapDetailLevel;
     private final @Nullable LicenseTracker licenseTracker;
-    final StringBuilder code = new StringBuilder(1024);
+    final StringBuilder code;
     final int lineLengthThreshold;
     int lineLength = 0;
     int lineIndex = 0;
 
     MappedCodePrinter(
+        int estimatedCodeLength,
         int lineLengthThreshold,
         boolean createSrcMap,
         SourceMap.DetailLevel sourceMapDetailLevel,
         @Nullable LicenseTracker licenseTracker) {
       checkState(sourceMapDetailLevel != null);
+      this.code = new StringBuilder(estimatedCodeLength);
       this.lineLengthThreshold = lineLengthThreshold <= 0 ? Integer.MAX_VALUE :
         lineLengthThreshold;
       this.createSrcMap = createSrcMap;
@@ -88,6 +90,18 @@ public final class CodePrinter {
       lineLength += str.length();
     }
 
+    @Override
+    void append(char c) {
+      code.append(c);
+      lineLength++;
+    }
+
+    @Override
+    void append(CharSequence chars) {
+      code.append(chars);
+      lineLength += chars.length();
+    }
+
     @Override
     void trackLicenses(Node node) {
       if (this.licenseTracker != null) {
@@ -288,11 +302,17 @@ public final class CodePrinter {
      *     CodePrinter will never emit license information directly.
      */
     private PrettyCodePrinter(
+        int estimatedCodeLength,
         int lineLengthThreshold,
         boolean createSourceMap,
         SourceMap.DetailLevel sourceMapDetailLevel,
         @Nullable LicenseTracker licenseTracker) {
-      super(lineLengthThreshold, createSourceMap, sourceMapDetailLevel, licenseTracker);
+      super(
+          estimatedCodeLength,
+          lineLengthThreshold,
+          createSourceMap,
+          sourceMapDetailLevel,
+          licenseTracker);
     }
 
     /**
@@ -301,6 +321,23 @@ public final class CodePrinter {
      */
     @Override
     void append(String str) {
+      maybeIndent();
+      super.append(str);
+    }
+
+    @Override
+    void append(char c) {
+      maybeIndent();
+      super.append(c);
+    }
+
+    @Override
+    void append(CharSequence chars) {
+      maybeIndent();
+      super.append(chars);
+    }
+
+    private void maybeIndent() {
       // For pretty printing: indent at the beginning of the line, except template literal lines.
       if (lineLength == 0 && !isInTemplateLiteral()) {
         for (int i = 0; i < indent; i++) {
@@ -308,8 +345,6 @@ public final class CodePrinter {
           lineLength += INDENT.length();
         }
       }
-
-      super.append(str);
     }
 
     /**
@@ -385,7 +420,7 @@ public final class CodePrinter {
     @Override
     void appendBlockStart() {
       maybeInsertSpace();
-      add("{");
+      add('{');
       indent++;
     }
 
@@ -394,7 +429,7 @@ public final class CodePrinter {
       maybeEndStatement();
       endLine();
       indent--;
-      add("}");
+      add('}');
     }
 
     @Override
@@ -405,7 +440,7 @@ public final class CodePrinter {
 
     @Override
     void optionalListSeparator() {
-      add(",");
+      add(',');
       maybeLineBreak();
     }
 
@@ -433,11 +468,11 @@ public final class CodePrinter {
     @Override
     void appendOp(String op, boolean binOp) {
       if (getLastChar() != ' ' && binOp && op.charAt(0) != ',') {
-        add(" ");
+        add(' ');
       }
       add(op);
       if (binOp) {
-        add(" ");
+        add(' ');
       }
     }
 
@@ -592,12 +627,18 @@ public final class CodePrinter {
      *     the license tracker to request tracking.
      */
     private CompactCodePrinter(
+        int estimatedCodeLength,
         boolean lineBreak,
         int lineLengthThreshold,
         boolean createSrcMap,
         SourceMap.DetailLevel sourceMapDetailLevel,
         LicenseTracker licenseTracker) {
-      super(lineLengthThreshold, createSrcMap, sourceMapDetailLevel, licenseTracker);
+      super(
+          estimatedCodeLength,
+          lineLengthThreshold,
+          createSrcMap,
+          sourceMapDetailLevel,
+          licenseTracker);
       this.lineBreak = lineBreak;
     }
 
@@ -858,15 +899,18 @@ public final class CodePrinter {
       CodeGeneratorFactory codeGeneratorFactory) {
     checkState(options.getSourceMapDetailLevel() != null);
 
+    int estimatedCodeLength = estimateCodeLength(root);
     MappedCodePrinter mcp =
         outputFormat == Format.COMPACT
             ? new CompactCodePrinter(
+                estimatedCodeLength,
                 lineBreak,
                 options.getLineLengthThreshold(),
                 options.shouldGatherSourceMapInfo(),
                 options.getSourceMapDetailLevel(),
                 licenseTracker)
             : new PrettyCodePrinter(
+                estimatedCodeLength,
                 options.getLineLengthThreshold(),
                 options.shouldGatherSourceMapInfo(),
                 options.getSourceMapDetailLevel(),
@@ -893,5 +937,29 @@ public final class CodePrinter {
     return result;
   }
 
+  // The bounds of the initial capacity of the printer's buffer.
+  private static final int MIN_BUFFER_LENGTH = 1024;
+  private static final int MAX_BUFFER_LENGTH = 1 << 22;
+
+  /**
+   * Estimates the length of the code printed for the given tree from the length of its source, so
+   * that the printer's buffer rarely needs to grow. Scripts are usually printed shorter than their
+   * source, and the estimate is capped so that a bad one does not cost much memory.
+   */
+  static int estimateCodeLength(Node root) {
+    return (int) Math.max(MIN_BUFFER_LENGTH, Math.min(getSourceLength(root), MAX_BUFFER_LENGTH));
+  }
+
+  private static long getSourceLength(Node n) {
+    if (!n.isRoot()) {
+      return n.getLength();
+    }
+    long length = 0;
+    for (Node child = n.getFirstChild(); child != null; child = child.getNext()) {
+      length += getSourceLength(child);
+    }
+    return length;
+  }
+
   private CodePrinter() {}
 }
@@ -519,6 +519,14 @@ public class CommandLineRunner extends AbstractCommandLineRunner<Compiler, Compi
     private CompilerOptions.IncrementalCheckMode incrementalCheckMode =
         CompilerOptions.IncrementalCheckMode.OFF;
 
+    @Option(
+        name = "--type_summary_cache_dir",
+        usage =
+            "With --checks_only, caches per-file .i.js type summaries in this directory and "
+                + "type checks inputs that are unaffected by changes since the last successful "
+                + "build from their summaries.")
+    private @Nullable String typeSummaryCacheDir = null;
+
     @Option(
         name = "--continue_after_errors",
         handler = BooleanOptionHandler.class,
@@ -1874,6 +1882,9 @@ public class CommandLineRunner extends AbstractCommandLineRunner<Compiler, Compi
     }
 
     options.setIncrementalChecks(flags.incrementalCheckMode);
+    if (flags.typeSummaryCacheDir != null) {
+      options.setTypeSummaryCacheDir(Path.of(flags.typeSummaryCacheDir));
+    }
 
     options.setContinueAfterErrors(flags.continueAfterErrors);
 
@@ -107,6 +107,7 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.AbstractSet;
@@ -115,6 +116,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -276,6 +278,9 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
 
   private final CompilerExecutor compilerExecutor = createCompilerExecutor();
 
+  /** Prints scripts in parallel; created on first use and reused by every later toSource call. */
+  private @Nullable ParallelScriptPrinter parallelScriptPrinter;
+
   /**
    * Logger for the whole com.google.javascript.jscomp domain - setting configuration for this
    * logger affects all loggers in other classes within the compiler.
@@ -320,6 +325,11 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   /** Creates a Compiler that reports errors and warnings to an output stream. */
   public Compiler(@Nullable PrintStream outStream) {
     changeTracker.addChangeHandler(changeTracker.getRecentChange());
+    addIndexProvider(new GlobalNamespaceProvider(this));
+    addIndexProvider(new ReferenceMapIndex.Provider(this));
+    addIndexProvider(new PureFunctionIdentifier.ExternFunctionIndex.Provider(this));
+    addIndexProvider(new InlineFunctionsIndex.Provider(this));
+    addIndexProvider(new RemoveUnusedCodeIndex.Provider(this));
     this.outStream = outStream;
     this.moduleTypesByName = new LinkedHashMap<>();
   }
@@ -703,7 +713,8 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
                     typedAstListStream,
                     deserializeTypes,
                     options.getResolveSourceMapAnnotations(),
-                    options.getParseInlineSourceMaps());
+                    options.getParseInlineSourceMaps(),
+                    options.getNumParallelThreads());
               } finally {
                 stopTracer(tracer, "deserializeTypedAst");
               }
@@ -1950,7 +1961,8 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       symbolTable.findScopes(externsRoot, jsRoot);
     }
 
-    GlobalNamespace globalNamespace = new GlobalNamespace(this, this.externsRoot, this.jsRoot);
+    GlobalNamespace globalNamespace =
+        GlobalNamespaceProvider.getOrCreate(this, this.externsRoot, this.jsRoot);
     symbolTable.addSymbolsFrom(globalNamespace);
 
     ReferenceCollector refCollector =
@@ -2052,7 +2064,8 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       return;
     }
 
-    tracker = new PerformanceTracker(externsRoot, jsRoot, options.getTracerMode());
+    tracker =
+        new PerformanceTracker(externsRoot, jsRoot, options.getTracerMode(), changeTracker);
     changeTracker.addChangeHandler(tracker.getCodeChangeHandler());
   }
 
@@ -2633,34 +2646,55 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   public String toSource() {
     return runInCompilerThread(
         () -> {
-          Tracer tracer = newTracer("toSource");
-          try {
-            CodeBuilder cb = new CodeBuilder();
-            // We are emitting all the sources at once, so use the SingleBinaryLicenseTracker
-            // to de-dupe seen licenses across all inputs.
-            SingleBinaryLicenseTracker lt = new SingleBinaryLicenseTracker(this);
-            if (jsRoot != null) {
-              int i = 0;
-              if (options.shouldPrintExterns()) {
-                for (Node scriptNode = externsRoot.getFirstChild();
-                    scriptNode != null;
-                    scriptNode = scriptNode.getNext()) {
-                  toSource(cb, lt, i++, scriptNode);
-                }
-              }
-              for (Node scriptNode = jsRoot.getFirstChild();
-                  scriptNode != null;
-                  scriptNode = scriptNode.getNext()) {
-                toSource(cb, lt, i++, scriptNode);
-              }
-            }
-            return cb.toString();
-          } finally {
-            stopTracer(tracer, "toSource");
-          }
+          CodeBuilder cb = new CodeBuilder();
+          appendProgramSource(cb);
+          return cb.toString();
         });
   }
 
+  /**
+   * Converts the main parse tree back to JS code, writing it to the given appendable as each script
+   * is printed instead of returning all of it at once.
+   */
+  public void toSource(Appendable out) throws IOException {
+    try {
+      runInCompilerThread(
+          () -> {
+            appendProgramSource(new CodeBuilder(out));
+            return null;
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void appendProgramSource(CodeBuilder cb) {
+    Tracer tracer = newTracer("toSource");
+    try {
+      // We are emitting all the sources at once, so use the SingleBinaryLicenseTracker
+      // to de-dupe seen licenses across all inputs.
+      SingleBinaryLicenseTracker lt = new SingleBinaryLicenseTracker(this);
+      if (jsRoot != null) {
+        List<Node> scripts = new ArrayList<>();
+        if (options.shouldPrintExterns()) {
+          for (Node scriptNode = externsRoot.getFirstChild();
+              scriptNode != null;
+              scriptNode = scriptNode.getNext()) {
+            scripts.add(scriptNode);
+          }
+        }
+        for (Node scriptNode = jsRoot.getFirstChild();
+            scriptNode != null;
+            scriptNode = scriptNode.getNext()) {
+          scripts.add(scriptNode);
+        }
+        toSource(cb, lt, scripts);
+      }
+    } finally {
+      stopTracer(tracer, "toSource");
+    }
+  }
+
   /**
    * Converts the parse tree for a chunk back to JS code.
    *
@@ -2685,23 +2719,93 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   public String toSource(final LicenseTracker licenseTracker, final JSChunk chunk) {
     return runInCompilerThread(
         () -> {
-          ImmutableList<CompilerInput> inputs = chunk.getInputs();
-          int numInputs = inputs.size();
-          if (numInputs == 0) {
-            return "";
-          }
           CodeBuilder cb = new CodeBuilder();
-          for (int i = 0; i < numInputs; i++) {
-            Node scriptNode = inputs.get(i).getAstRoot(Compiler.this);
-            if (scriptNode == null) {
-              throw new IllegalArgumentException("Bad chunk: " + chunk.getName());
-            }
-            toSource(cb, licenseTracker, i, scriptNode);
-          }
+          appendChunkSource(cb, licenseTracker, chunk);
           return cb.toString();
         });
   }
 
+  /**
+   * Converts the parse tree for a chunk back to JS code, as {@link #toSource(LicenseTracker,
+   * JSChunk)} does, writing it to the given appendable as each input is printed instead of
+   * returning all of it at once.
+   */
+  public void toSource(Appendable out, LicenseTracker licenseTracker, JSChunk chunk)
+      throws IOException {
+    try {
+      runInCompilerThread(
+          () -> {
+            appendChunkSource(new CodeBuilder(out), licenseTracker, chunk);
+            return null;
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void appendChunkSource(CodeBuilder cb, LicenseTracker licenseTracker, JSChunk chunk) {
+    ImmutableList<Node> scripts = getChunkScripts(chunk);
+    if (scripts.isEmpty()) {
+      return;
+    }
+    toSource(cb, licenseTracker, scripts);
+  }
+
+  private ImmutableList<Node> getChunkScripts(JSChunk chunk) {
+    ImmutableList<CompilerInput> inputs = chunk.getInputs();
+    ImmutableList.Builder<Node> scripts = ImmutableList.builderWithExpectedSize(inputs.size());
+    for (CompilerInput input : inputs) {
+      Node scriptNode = input.getAstRoot(this);
+      if (scriptNode == null) {
+        throw new IllegalArgumentException("Bad chunk: " + chunk.getName());
+      }
+      scripts.add(scriptNode);
+    }
+    return scripts.build();
+  }
+
+  /**
+   * Prints the scripts of a chunk on the calling thread, to be written by {@link
+   * #toSource(Appendable, LicenseTracker, ParallelScriptPrinter.PrintedChunk)}.
+   *
+   * <p>Unlike the other toSource methods, this may be called for several chunks at the same time,
+   * as it neither tracks licenses nor adds to the source map.
+   */
+  ParallelScriptPrinter.PrintedChunk printChunk(JSChunk chunk) {
+    ImmutableList<Node> scripts = getChunkScripts(chunk);
+    ImmutableList.Builder<ParallelScriptPrinter.PrintedScript> printed =
+        ImmutableList.builderWithExpectedSize(scripts.size());
+    for (int i = 0; i < scripts.size(); i++) {
+      printed.add(
+          ParallelScriptPrinter.printScript(
+              scripts.get(i),
+              i,
+              (script, inputSeqNum, lt) -> toSourceAndMappings(script, inputSeqNum == 0, lt)));
+    }
+    return new ParallelScriptPrinter.PrintedChunk(scripts, printed.build());
+  }
+
+  /**
+   * Writes a chunk printed by {@link #printChunk}, as {@link #toSource(Appendable, LicenseTracker,
+   * JSChunk)} would have written it. The license tracker must be able to replay the licenses
+   * recorded while printing, as {@link ChunkGraphAwareLicenseTracker} does.
+   */
+  void toSource(
+      Appendable out, LicenseTracker licenseTracker, ParallelScriptPrinter.PrintedChunk chunk)
+      throws IOException {
+    checkArgument(ParallelScriptPrinter.canReplayLicenses(licenseTracker), licenseTracker);
+    CodeBuilder cb = new CodeBuilder(out);
+    try {
+      for (int i = 0; i < chunk.scripts().size(); i++) {
+        ParallelScriptPrinter.PrintedScript printed = chunk.printedScripts().get(i);
+        printed.replayLicenses(licenseTracker);
+        appendSource(cb, licenseTracker, i, chunk.scripts().get(i), printed.sourceAndMappings());
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
   /**
    * Writes out JS code from a root node. If printing input delimiters, this method will attach a
    * comment to the start of the text indicating which input the output derived from. If there were
@@ -2719,75 +2823,118 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
       final Node root) {
     runInCompilerThread(
         () -> {
-          if (options.shouldPrintInputDelimiter()) {
-            if ((cb.getLength() > 0) && !cb.endsWith("\n")) {
-              cb.append("\n"); // Make sure that the label starts on a new line
-            }
-            checkState(root.isScript());
+          appendSource(
+              cb,
+              licenseTracker,
+              inputSeqNum,
+              root,
+              toSourceAndMappings(root, inputSeqNum == 0, licenseTracker));
+          return null;
+        });
+  }
 
-            String delimiter = options.getInputDelimiter();
+  /**
+   * Writes out JS code for the given scripts, numbered in order from zero, as {@link
+   * #toSource(CodeBuilder, LicenseTracker, int, Node)} does for each of them.
+   *
+   * <p>If several threads are allowed, the scripts are printed concurrently, and then appended in
+   * order. The output, source map, and licenses are the same as when printing serially.
+   */
+  private void toSource(CodeBuilder cb, LicenseTracker licenseTracker, List<Node> scripts) {
+    if (options.getNumParallelThreads() > 1
+        && scripts.size() > 1
+        && ParallelScriptPrinter.canReplayLicenses(licenseTracker)) {
+      if (parallelScriptPrinter == null) {
+        parallelScriptPrinter = new ParallelScriptPrinter(options.getNumParallelThreads());
+      }
+      ImmutableList<ParallelScriptPrinter.PrintedScript> printed =
+          parallelScriptPrinter.print(
+              scripts,
+              (script, inputSeqNum, lt) -> toSourceAndMappings(script, inputSeqNum == 0, lt));
+      for (int i = 0; i < scripts.size(); i++) {
+        printed.get(i).replayLicenses(licenseTracker);
+        appendSource(cb, licenseTracker, i, scripts.get(i), printed.get(i).sourceAndMappings());
+      }
+    } else {
+      for (int i = 0; i < scripts.size(); i++) {
+        toSource(cb, licenseTracker, i, scripts.get(i));
+      }
+    }
+  }
 
-            String inputName = root.getInputId().getIdName();
-            String sourceName = root.getSourceFileName();
-            checkState(sourceName != null);
-            checkState(!sourceName.isEmpty());
+  /**
+   * Appends the printed code of a script to the builder, after its input delimiter and the licenses
+   * that were tracked while printing it, and adds its mappings to the source map.
+   */
+  private void appendSource(
+      CodeBuilder cb,
+      LicenseTracker licenseTracker,
+      int inputSeqNum,
+      Node root,
+      CodePrinter.SourceAndMappings sourceAndMappings) {
+    if (options.shouldPrintInputDelimiter()) {
+      if ((cb.getLength() > 0) && !cb.endsWith("\n")) {
+        cb.append("\n"); // Make sure that the label starts on a new line
+      }
+      checkState(root.isScript());
 
-            delimiter =
-                delimiter
-                    .replace("%name%", inputName)
-                    .replace("%num%", String.valueOf(inputSeqNum))
-                    .replace("%n%", "\n");
+      String delimiter = options.getInputDelimiter();
 
-            cb.append(delimiter).append("\n");
-          }
+      String inputName = root.getInputId().getIdName();
+      String sourceName = root.getSourceFileName();
+      checkState(sourceName != null);
+      checkState(!sourceName.isEmpty());
 
-          CodePrinter.SourceAndMappings sourceAndMappings =
-              toSourceAndMappings(root, inputSeqNum == 0, licenseTracker);
-          String code = sourceAndMappings.source;
+      delimiter =
+          delimiter
+              .replace("%name%", inputName)
+              .replace("%num%", String.valueOf(inputSeqNum))
+              .replace("%n%", "\n");
 
-          // Check whether there is any license information that should be emitted.
-          for (String license : licenseTracker.emitLicenses()) {
-            cb.append("/*\n").append(license).append("*/\n");
-          }
+      cb.append(delimiter).append("\n");
+    }
 
-          // Check whether there's any actual code to emit.
-          // This is deliberately done after the license tracker is given an opportunity to emit
-          // licenses, as some trackers might want to emit license info from this Node's tree
-          // regardless of whether it emits visible code. One example of this would be the case
-          // where inlining has moved the contents from this file to another file, but the license
-          // tracker can't be sure if the license for this code will ever be emitted.
-          if (code.isEmpty()) {
-            // Nothing to do.
-            return null;
-          }
+    String code = sourceAndMappings.source;
 
-          // If there is a valid source map, then indicate to it that the current
-          // root node's mappings are offset by the given string builder buffer.
-          // This offset is a result of licenses being added to the output buffer.
-          if (options.shouldGatherSourceMapInfo()) {
-            sourceMap.setStartingPosition(cb.getLineIndex(), cb.getColumnIndex());
-          }
+    // Check whether there is any license information that should be emitted.
+    for (String license : licenseTracker.emitLicenses()) {
+      cb.append("/*\n").append(license).append("*/\n");
+    }
 
-          cb.append(code);
-
-          // In order to avoid parse ambiguity when files are concatenated
-          // together, all files should end in a semi-colon. Do a quick
-          // heuristic check if there's an obvious semi-colon already there.
-          int length = code.length();
-          char lastChar = code.charAt(length - 1);
-          char secondLastChar = length >= 2 ? code.charAt(length - 2) : '\0';
-          boolean hasSemiColon = lastChar == ';' || (lastChar == '\n' && secondLastChar == ';');
-          if (!hasSemiColon) {
-            cb.append(";");
-          }
+    // Check whether there's any actual code to emit.
+    // This is deliberately done after the license tracker is given an opportunity to emit
+    // licenses, as some trackers might want to emit license info from this Node's tree
+    // regardless of whether it emits visible code. One example of this would be the case
+    // where inlining has moved the contents from this file to another file, but the license
+    // tracker can't be sure if the license for this code will ever be emitted.
+    if (code.isEmpty()) {
+      // Nothing to do.
+      return;
+    }
 
-          if (options.shouldGatherSourceMapInfo()) {
-            for (SourceMap.Mapping mapping : sourceAndMappings.mappings) {
-              sourceMap.addMapping(mapping);
-            }
-          }
-          return null;
-        });
+    // If there is a valid source map, then indicate to it that the current
+    // root node's mappings are offset by the given string builder buffer.
+    // This offset is a result of licenses being added to the output buffer.
+    if (options.shouldGatherSourceMapInfo()) {
+      sourceMap.setStartingPosition(cb.getLineIndex(), cb.getColumnIndex());
+    }
+
+    cb.append(code);
+
+    // In order to avoid parse ambiguity when files are concatenated
+    // together, all files should end in a semi-colon. Do a quick
+    // heuristic check if there's an obvious semi-colon already there.
+    int length = code.length();
+    char lastChar = code.charAt(length - 1);
+    char secondLastChar = length >= 2 ? code.charAt(length - 2) : '\0';
+    boolean hasSemiColon = lastChar == ';' || (lastChar == '\n' && secondLastChar == ';');
+    if (!hasSemiColon) {
+      cb.append(";");
+    }
+
+    if (options.shouldGatherSourceMapInfo()) {
+      sourceMap.addMappings(sourceAndMappings.mappings);
+    }
   }
 
   /** Generates JavaScript source code for an AST, doesn't generate source map info. */
@@ -3092,21 +3239,51 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
   /**
    * Stores a buffer of text to which more can be appended. This is just like a StringBuilder except
    * that we also track the number of lines.
+   *
+   * <p>A builder created with an {@link Appendable} does not buffer the text, but writes it to the
+   * appendable as it is appended. Errors writing to it are thrown as {@link UncheckedIOException}.
    */
   public static class CodeBuilder {
     private final StringBuilder sb = new StringBuilder();
+    private final @Nullable Appendable out;
+    private int length = 0;
+    private char lastChar = '\0';
     private int lineCount = 0;
     private int colCount = 0;
 
+    public CodeBuilder() {
+      this.out = null;
+    }
+
+    /** Creates a builder that writes the text to the given appendable instead of buffering it. */
+    CodeBuilder(Appendable out) {
+      this.out = checkNotNull(out);
+    }
+
     /** Removes all text, but leaves the line count unchanged. */
     void reset() {
+      checkState(out == null, "Cannot reset a streaming CodeBuilder");
       sb.setLength(0);
+      length = 0;
     }
 
     /** Appends the given string to the text buffer. */
     @CanIgnoreReturnValue
     CodeBuilder append(String str) {
-      sb.append(str);
+      if (str.isEmpty()) {
+        return this;
+      }
+      if (out == null) {
+        sb.append(str);
+      } else {
+        try {
+          out.append(str);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      length += str.length();
+      lastChar = str.charAt(str.length() - 1);
 
       // Adjust the line and column information for the new text.
       int index = -1;
@@ -3129,12 +3306,13 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     /** Returns all text in the text buffer. */
     @Override
     public String toString() {
+      checkState(out == null, "The text of a streaming CodeBuilder is not buffered");
       return sb.toString();
     }
 
     /** Returns the length of the text buffer. */
     public int getLength() {
-      return sb.length();
+      return length;
     }
 
     /** Returns the (zero-based) index of the last line in the text buffer. */
@@ -3149,6 +3327,11 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
 
     /** Determines whether the text ends with the given suffix. */
     boolean endsWith(String suffix) {
+      if (out != null) {
+        // Only the last character of streamed text is known.
+        checkArgument(suffix.length() == 1, "Unsupported suffix for a streaming CodeBuilder");
+        return length > 1 && lastChar == suffix.charAt(0);
+      }
       return (sb.length() > suffix.length())
           && suffix.equals(sb.substring(sb.length() - suffix.length()));
     }
@@ -3320,6 +3503,14 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     return indexProvider.get();
   }
 
+  @Override
+  void clearIndex(Class<?> type) {
+    IndexProvider<?> indexProvider = indexProvidersByType.get(type);
+    if (indexProvider != null) {
+      indexProvider.clear();
+    }
+  }
+
   protected Node getExternsRoot() {
     return externsRoot;
   }
@@ -3361,6 +3552,16 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     }
   }
 
+  @Override
+  public <T> T runTracedStep(String stepName, Supplier<T> step) {
+    Tracer tracer = newTracer(stepName);
+    try {
+      return step.get();
+    } finally {
+      stopTracer(tracer, stepName);
+    }
+  }
+
   @Override
   public void reportChangeToEnclosingScope(Node n) {
     changeTracker.reportChangeToEnclosingScope(n);
@@ -3613,7 +3814,48 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
     if (result == null) {
       return OriginalMapping.getDefaultInstance();
     }
+    return resolveOriginalMapping(sourceMap, result);
+  }
 
+  @Override
+  public @Nullable OriginalMapping[] getSourceMappings(
+      String sourceName, int[] lineNumbers, int[] columnNumbers) {
+    OriginalMapping[] mappings = new OriginalMapping[lineNumbers.length];
+    if (sourceName == null) {
+      return mappings;
+    }
+    SourceMapInput sourceMap = inputSourceMaps.get(sourceName);
+    if (sourceMap == null) {
+      return mappings;
+    }
+    SourceMapConsumerV3 consumer = sourceMap.getSourceMap(errorManager);
+    if (consumer == null) {
+      return mappings;
+    }
+
+    // JSCompiler uses 0-indexing for columnNumber, sourcemaps use 1-indexing.
+    int[] columns = new int[columnNumbers.length];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = columnNumbers[i] + 1;
+    }
+    OriginalMapping[] results = consumer.getMappingsForLines(lineNumbers, columns);
+    // Positions covered by the same entry of the input source map share a result, so resolve each
+    // result only once.
+    Map<OriginalMapping, OriginalMapping> resolved = new IdentityHashMap<>();
+    for (int i = 0; i < results.length; i++) {
+      mappings[i] =
+          results[i] == null
+              ? OriginalMapping.getDefaultInstance()
+              : resolved.computeIfAbsent(results[i], (r) -> resolveOriginalMapping(sourceMap, r));
+    }
+    return mappings;
+  }
+
+  /**
+   * Converts a mapping found in an input source map to one whose original file is relative to the
+   * compilation, and whose column is 0-based.
+   */
+  private OriginalMapping resolveOriginalMapping(SourceMapInput sourceMap, OriginalMapping result) {
     // First check to see if the original file was loaded from an input source map.
     String sourceMapOriginalPath = sourceMap.getOriginalPath();
     String resultOriginalPath = result.getOriginalFile();
@@ -4375,7 +4617,8 @@ public class Compiler extends AbstractCompiler implements ErrorHandler, SourceFi
             inputStream,
             compilerState.typeCheckingHasRun,
             this.getOptions().getResolveSourceMapAnnotations(),
-            this.getOptions().getParseInlineSourceMaps());
+            this.getOptions().getParseInlineSourceMaps(),
+            this.getOptions().getNumParallelThreads());
 
     restoreFromState(compilerState);
 
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.throwIfUnchecked;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.javascript.jscomp.base.JSCompThreads;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -34,7 +35,7 @@ class CompilerExecutor {
   // We use many recursive algorithms that use O(d) memory in the depth
   // of the tree.
   // Also, (de)serialization between phases can involve a lot of recursion.
-  static final long COMPILER_STACK_SIZE = (1 << 26); // About 64MB
+  static final long COMPILER_STACK_SIZE = JSCompThreads.COMPILER_STACK_SIZE;
 
   /** Use a dedicated compiler thread per Compiler instance. */
   private @Nullable Thread compilerThread = null;
@@ -344,6 +344,23 @@ public class CompilerOptions {
     return incrementalCheckMode == IncrementalCheckMode.GENERATE_IJS;
   }
 
+  private @Nullable Path typeSummaryCacheDir = null;
+
+  /**
+   * Sets a directory in which the command line runner caches per-file type summaries between
+   * checks-only builds. Inputs that are unaffected by changes since the last successful build are
+   * then type checked from their summaries instead of their full sources.
+   *
+   * @see com.google.javascript.jscomp.ijs.TypeSummaryCache
+   */
+  public void setTypeSummaryCacheDir(@Nullable Path dir) {
+    this.typeSummaryCacheDir = dir;
+  }
+
+  @Nullable Path getTypeSummaryCacheDir() {
+    return this.typeSummaryCacheDir;
+  }
+
   private Config.JsDocParsing parseJsDocDocumentation = Config.JsDocParsing.TYPES_ONLY;
 
   private boolean printExterns;
@@ -359,6 +376,18 @@ public class CompilerOptions {
   /** Even if checkTypes is disabled, clients such as IDEs might want to still infer types. */
   private boolean inferTypes;
 
+  /**
+   * Whether type inference should use {@link IndexedFlowScope} instead of {@link LinkedFlowScope}
+   * to track inferred slot types.
+   */
+  private boolean useIndexedFlowScopes;
+
+  /**
+   * Whether the type validator keeps each distinct pair of mismatched types once, instead of one
+   * entry per mismatching node.
+   */
+  private boolean compactTypeMismatches;
+
   /**
    * Configures the compiler to skip as many passes as possible. If transpilation is requested, it
    * will be run, but all others passes will be skipped.
@@ -529,6 +558,9 @@ public class CompilerOptions {
   /** Removes unused variables in local scope. */
   private boolean removeUnusedLocalVars;
 
+  /** Lets looped unused code removal revisit only the code that changed since its last run. */
+  private boolean incrementalRemoveUnusedCode;
+
   /** Collapses multiple variable declarations into one */
   private boolean collapseVariableDeclarations;
 
@@ -1499,6 +1531,7 @@ public class CompilerOptions {
     removeUnusedClassProperties = false;
     removeUnusedVars = false;
     removeUnusedLocalVars = false;
+    incrementalRemoveUnusedCode = true;
     collapseVariableDeclarations = false;
     collapseAnonymousFunctions = false;
     aliasStringsMode = AliasStringsMode.NONE;
@@ -1833,6 +1866,20 @@ public class CompilerOptions {
     return removeUnusedLocalVars;
   }
 
+  /**
+   * If true, runs of unused code removal in the optimization loop only traverse the scripts and
+   * top-level functions that changed since the previous run, when the removal is limited to local
+   * variables and polyfills, as in SIMPLE_OPTIMIZATIONS. Removing globals or properties always
+   * needs a whole program traversal. On by default.
+   */
+  public void setIncrementalRemoveUnusedCode(boolean enable) {
+    incrementalRemoveUnusedCode = enable;
+  }
+
+  boolean getIncrementalRemoveUnusedCode() {
+    return incrementalRemoveUnusedCode;
+  }
+
   /** Sets the functions whose debug strings to replace. */
   public void setReplaceStringsConfiguration(
       String placeholderToken, List<String> functionDescriptors) {
@@ -2165,6 +2212,33 @@ public class CompilerOptions {
     return inferTypes;
   }
 
+  /**
+   * If true, type inference numbers the slots of each function once and stores flow-sensitive
+   * types in dense arrays, rather than in maps keyed by scope and name. Both implementations infer
+   * the same types; this exists to compare their performance on large functions.
+   */
+  public void setUseIndexedFlowScopes(boolean enable) {
+    useIndexedFlowScopes = enable;
+  }
+
+  boolean getUseIndexedFlowScopes() {
+    return useIndexedFlowScopes;
+  }
+
+  /**
+   * If true, type mismatches found during type checking are reduced to distinct pairs of types as
+   * they are recorded, which is all that type-based optimizations need to find invalidating types.
+   * The nodes where mismatches occur are only kept when extra debug info is serialized, so that
+   * memory use during checks does not grow with the number of mismatching call sites.
+   */
+  public void setCompactTypeMismatches(boolean enable) {
+    compactTypeMismatches = enable;
+  }
+
+  boolean getCompactTypeMismatches() {
+    return compactTypeMismatches;
+  }
+
   /**
    * @deprecated This is a no-op.
    */
@@ -3425,6 +3499,7 @@ public class CompilerOptions {
         .add("collapseProperties", collapsePropertiesLevel)
         .add("collapseVariableDeclarations", collapseVariableDeclarations)
         .add("colorizeErrorOutput", shouldColorizeErrorOutput())
+        .add("compactTypeMismatches", compactTypeMismatches)
         .add("computeFunctionSideEffects", computeFunctionSideEffects)
         .add("conformanceConfigs", getConformanceConfigs())
         .add("conformanceRemoveRegexFromPath", conformanceRemoveRegexFromPath)
@@ -3467,6 +3542,7 @@ public class CompilerOptions {
         .add("idGenerators", idGenerators)
         .add("idGeneratorsMapSerialized", idGeneratorsMapSerialized)
         .add("incrementalCheckMode", incrementalCheckMode)
+        .add("incrementalRemoveUnusedCode", incrementalRemoveUnusedCode)
         .add("inferConsts", inferConsts)
         .add("inferTypes", inferTypes)
         .add("inlineConstantVars", inlineConstantVars)
@@ -3571,7 +3647,9 @@ public class CompilerOptions {
         .add("tracer", tracer)
         .add("trustedStrings", trustedStrings)
         .add("tweakProcessing", getTweakProcessing())
+        .add("typeSummaryCacheDir", typeSummaryCacheDir)
         .add("unusedImportsToRemove", unusedImportsToRemove)
+        .add("useIndexedFlowScopes", useIndexedFlowScopes)
         .add("useTypesForLocalOptimization", useTypesForLocalOptimization)
         .add("variableRenaming", variableRenaming)
         .add("warningsGuard", getWarningsGuard())
@@ -2523,6 +2523,8 @@ public final class ConformanceRules {
             >= GLOBAL_NAMESPACE_ANALYSIS_LIMIT) {
           performGlobalNamespaceAnalysis = false;
         } else {
+          // Not the compiler's shared namespace, which also has the names from the externs: a name
+          // declared in both would no longer have a single set.
           globalNamespace = new GlobalNamespace(compiler, compiler.getJsRoot());
         }
       }
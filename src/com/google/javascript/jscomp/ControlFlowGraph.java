@@ -16,17 +16,21 @@
 
 package com.google.javascript.jscomp;
 
-import com.google.javascript.jscomp.graph.LinkedDirectedGraph;
+import com.google.javascript.jscomp.graph.CompactDirectedGraph;
 import com.google.javascript.rhino.Node;
 import java.util.Comparator;
 
 /**
  * Control flow graph.
  *
+ * <p>The graph is stored in int-indexed arrays (see {@link CompactDirectedGraph}). Its nodes are
+ * numbered in the order in which they were created, starting with the implicit return and the
+ * entry, so analyses can index per-node state by {@link
+ * CompactDirectedGraph.CompactDiGraphNode#getIndex()}.
+ *
  * @param <N> The instruction type of the control flow graph.
  */
-public class ControlFlowGraph<N> extends
-    LinkedDirectedGraph<N, ControlFlowGraph.Branch> {
+public class ControlFlowGraph<N> extends CompactDirectedGraph<N, ControlFlowGraph.Branch> {
 
   /**
    * A special node marked by the node value key null to a singleton
@@ -242,7 +242,11 @@ class CrossChunkCodeMotion implements CompilerPass {
      */
     final Deque<DeclarationStatementGroup> dsgStack = new ArrayDeque<>();
 
-    final BitSet chunksWithImmovableReferences = new BitSet(graph.getChunkCount());
+    /**
+     * Grows only as far as the highest chunk index set, as most symbols are referenced from a few
+     * chunks out of many.
+     */
+    final BitSet chunksWithImmovableReferences = new BitSet();
 
     /**
      * Symbols whose declaration statements refer to this symbol.
@@ -328,7 +332,7 @@ class CrossChunkCodeMotion implements CompilerPass {
       for (GlobalSymbol symbol : symbols) {
         checkState(!symbol.isMoveDeclarationStatementsDone, "duplicate attempt to move %s", symbol);
       }
-      BitSet chunksWithImmovableReferences = new BitSet(graph.getChunkCount());
+      BitSet chunksWithImmovableReferences = new BitSet();
       List<DeclarationStatementGroupCycle> cyclesLatestFirst = getDsgCyclesLatestFirst();
       for (DeclarationStatementGroupCycle dsgCycle : cyclesLatestFirst) {
         // Each move may change chunksWithImmovableReferences
@@ -28,13 +28,17 @@ import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
 import com.google.javascript.jscomp.graph.LatticeElement;
 import com.google.javascript.rhino.Node;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -78,6 +82,10 @@ import org.jspecify.annotations.Nullable;
  *       #createFlowBrancher}.
  * </ol>
  *
+ * <p>Analyses whose lattice is a set of facts about a single function, such as live variables or
+ * reaching definitions, can number those facts once with a {@link FactNumbering} and use a {@link
+ * BitVectorLattice}, so that joins are word-wise unions or intersections instead of merges of maps.
+ *
  * <p>Upon execution of the {@link #analyze()} method, nodes of the input control flow graph will be
  * annotated with a {@link FlowState} object that represents maximum fixed point solution. Any
  * previous annotations at the nodes of the control flow graph will be lost.
@@ -398,6 +406,98 @@ abstract class DataFlowAnalysis<N, L extends LatticeElement> {
     }
   }
 
+  /**
+   * Numbers the facts of a bit vector analysis, such as the variables or definitions of the
+   * analyzed function, so that sets of facts can be stored in a {@link BitVectorLattice}.
+   *
+   * <p>A fact keeps its number for the lifetime of the analysis, so facts may be numbered when the
+   * analysis first sees them.
+   */
+  static final class FactNumbering<T> {
+    private final Map<T, Integer> numbers = new HashMap<>();
+    private final List<T> facts = new ArrayList<>();
+
+    /** Returns the number of the given fact, numbering it if it was not seen before. */
+    int numberOf(T fact) {
+      Integer number = numbers.get(fact);
+      if (number == null) {
+        number = facts.size();
+        numbers.put(fact, number);
+        facts.add(fact);
+      }
+      return number;
+    }
+
+    T get(int number) {
+      return facts.get(number);
+    }
+
+    int size() {
+      return facts.size();
+    }
+  }
+
+  /** A lattice element that is a set of facts numbered by a {@link FactNumbering}. */
+  static class BitVectorLattice implements LatticeElement {
+    final BitSet bits;
+
+    BitVectorLattice() {
+      this.bits = new BitSet();
+    }
+
+    /** Copy constructor. */
+    BitVectorLattice(BitVectorLattice other) {
+      this.bits = (BitSet) other.bits.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other != null
+          && other.getClass() == this.getClass()
+          && ((BitVectorLattice) other).bits.equals(this.bits);
+    }
+
+    @Override
+    public int hashCode() {
+      return bits.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return bits.toString();
+    }
+  }
+
+  /**
+   * Joins bit vector lattice elements by their union, which is the join of "may" analyses. The
+   * inputs are not modified.
+   */
+  static final class BitVectorUnion<L extends BitVectorLattice> implements FlowJoiner<L> {
+    private final UnaryOperator<L> copier;
+    private @Nullable L result;
+
+    /**
+     * @param copier the copy constructor of the lattice element
+     */
+    BitVectorUnion(UnaryOperator<L> copier) {
+      this.copier = copier;
+    }
+
+    @Override
+    public void joinFlow(L input) {
+      if (result == null) {
+        result = copier.apply(input);
+      } else {
+        result.bits.or(input.bits);
+      }
+    }
+
+    @Override
+    public L finish() {
+      return checkNotNull(result);
+    }
+  }
+
   /**
    * Compute set of escaped variables. When a variable is escaped in a dataflow analysis, it can be
    * referenced outside of the code that we are analyzing. A variable is escaped if any of the
@@ -442,6 +442,7 @@ public final class DefaultPassConfig extends PassConfig {
     }
 
     checks.maybeAdd(processDefinesCheck);
+    checks.maybeAdd(clearGlobalNamespace);
 
     if (options.getJ2clPass().shouldAddJ2clPasses()) {
       checks.maybeAdd(j2clChecksPass);
@@ -490,6 +491,7 @@ public final class DefaultPassConfig extends PassConfig {
       TranspilationPasses.addTranspilationRuntimeLibraries(passes);
       passes.maybeAdd(closureProvidesRequires);
       passes.maybeAdd(processDefinesOptimize);
+      passes.maybeAdd(clearGlobalNamespace);
       passes.maybeAdd(normalize);
       passes.maybeAdd(gatherGettersAndSetters);
       TranspilationPasses.addTranspilationPasses(passes, options);
@@ -913,6 +915,7 @@ public final class DefaultPassConfig extends PassConfig {
 
     // Defines in code always need to be processed.
     passes.maybeAdd(processDefinesOptimize);
+    passes.maybeAdd(clearGlobalNamespace);
     passes.maybeAdd(createEmptyPass(PassNames.BEFORE_EARLY_OPTIMIZATIONS_TRANSPILATION));
 
     passes.maybeAdd(normalize);
@@ -1875,6 +1878,14 @@ public final class DefaultPassConfig extends PassConfig {
           .setInternalFactory((compiler) -> (externs, root) -> compiler.clearTypedScopeCreator())
           .build();
 
+  /** Drops the compiler's shared global namespace once the passes that use it have run. */
+  private final PassFactory clearGlobalNamespace =
+      PassFactory.builder()
+          .setName("clearGlobalNamespace")
+          .setInternalFactory(
+              (compiler) -> (externs, root) -> compiler.clearIndex(GlobalNamespace.class))
+          .build();
+
   /** Clears the top typed scope when we're done with it. */
   private final PassFactory clearTopTypedScopePass =
       PassFactory.builder()
@@ -2256,7 +2267,10 @@ public final class DefaultPassConfig extends PassConfig {
           .setName(PassNames.DISAMBIGUATE_PROPERTIES)
           .setInternalFactory(
               (compiler) ->
-                  new DisambiguateProperties(compiler, options.getPropertiesThatMustDisambiguate()))
+                  new DisambiguateProperties(
+                      compiler,
+                      options.getPropertiesThatMustDisambiguate(),
+                      options.getNumParallelThreads()))
           .setPreconditionCheck(DefaultPassConfig::requirePropertiesAreStaticallyAnalyzable)
           .build();
 
@@ -2425,6 +2439,7 @@ public final class DefaultPassConfig extends PassConfig {
                           options.getForceLibraryInjectionList().isEmpty()
                               && options.getInjectPolyfillsNewerThan() == null)
                       .assumeGettersArePure(options.getAssumeGettersArePure())
+                      .incremental(options.getIncrementalRemoveUnusedCode())
                       .build())
           .build();
 
@@ -2571,7 +2586,8 @@ public final class DefaultPassConfig extends PassConfig {
                       compiler,
                       options.getPropertyReservedNamingFirstChars(),
                       options.getPropertyReservedNamingNonFirstChars(),
-                      compiler.getExternProperties()))
+                      compiler.getExternProperties(),
+                      options.getNumParallelThreads()))
           .setPreconditionCheck(DefaultPassConfig::requirePropertiesAreStaticallyAnalyzable)
           .build();
 
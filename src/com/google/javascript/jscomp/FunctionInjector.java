@@ -73,6 +73,9 @@ class FunctionInjector {
   /** Cache of function node to any inner function. */
   private final LinkedHashMap<Node, Node> innerFunctionCache = new LinkedHashMap<>();
 
+  /** Estimated costs of functions, which may outlive this injector. */
+  private InlineCostEstimator.@Nullable FunctionCostCache functionCosts = null;
+
   private FunctionInjector(Builder builder) {
     this.compiler = checkNotNull(builder.compiler);
     this.safeNameIdSupplier = checkNotNull(builder.safeNameIdSupplier);
@@ -965,7 +968,7 @@ class FunctionInjector {
   /**
    * @return Whether inlining will lower cost.
    */
-  private static boolean doesLowerCost(
+  private boolean doesLowerCost(
       Node fnNode,
       int callCost,
       int directInlines,
@@ -991,7 +994,11 @@ class FunctionInjector {
     int costDelta = (directInlines * -costDeltaDirect) + (blockInlines * -costDeltaBlock);
     int threshold = (callCost + costDelta) / fnInstanceCount;
 
-    return InlineCostEstimator.getCost(fnNode, threshold + 1) <= threshold;
+    int cost =
+        functionCosts != null
+            ? functionCosts.getCost(fnNode, threshold + 1)
+            : InlineCostEstimator.getCost(fnNode, threshold + 1);
+    return cost <= threshold;
   }
 
   /**
@@ -1081,4 +1088,12 @@ class FunctionInjector {
     checkState(this.knownConstantFunctions.isEmpty());
     this.knownConstantFunctions = knownConstantFunctions;
   }
+
+  /**
+   * Remember the estimated costs of functions in the given cache, so that they are not estimated
+   * again while the functions are unchanged.
+   */
+  void setFunctionCosts(InlineCostEstimator.FunctionCostCache functionCosts) {
+    this.functionCosts = checkNotNull(functionCosts);
+  }
 }
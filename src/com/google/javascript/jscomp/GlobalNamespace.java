@@ -18,12 +18,18 @@ package com.google.javascript.jscomp;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.Comparator.comparing;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Table;
 import com.google.javascript.jscomp.CodingConvention.SubclassRelationship;
 import com.google.javascript.jscomp.diagnostic.LogFile;
@@ -38,10 +44,15 @@ import com.google.javascript.rhino.StaticScope;
 import com.google.javascript.rhino.StaticSlot;
 import com.google.javascript.rhino.StaticSourceFile;
 import com.google.javascript.rhino.StaticSymbolTable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -118,6 +129,45 @@ class GlobalNamespace
   /** Limits traversal to scripts matching the given predicate. */
   private Predicate<Node> shouldTraverseScript = (n) -> true;
 
+  /**
+   * Change scope roots containing a set of a global name, or any other reference that changes the
+   * namespace beyond adding a Ref, such as a goog.provide call or a module body. Changes to these
+   * scopes cannot be handled by {@link #refreshChangedScopes}.
+   */
+  private final Set<Node> changeScopesWithDeclarations = new HashSet<>();
+
+  /**
+   * Whether the Refs are indexed by change scope while building, which {@link
+   * #refreshChangedScopes} needs. See {@link #enableRefreshing}.
+   */
+  private boolean refreshable = false;
+
+  /**
+   * The names with Refs in each change scope root. This lets {@link #refreshChangedScopes} visit
+   * the Refs of the changed scopes only, instead of every Ref in the namespace.
+   */
+  private final SetMultimap<Node, Name> namesByChangeScope = LinkedHashMultimap.create();
+
+  /**
+   * The change scope roots directly nested in each change scope root, among the ones with Refs or
+   * declarations, as of when their Refs were added. A change to a scope may remove or move the
+   * scopes nested in it, so their Refs are refreshed with it.
+   */
+  private final SetMultimap<Node, Node> nestedChangeScopes = HashMultimap.create();
+
+  /**
+   * The node that created each name that may have no Refs, i.e. provided names and names used with
+   * hasOwnProperty. With the Refs, this tells where a fresh build would create each name, which
+   * {@link #refreshChangedScopes} needs to restore the order in which names are iterated.
+   */
+  private final Map<Name, Node> nodesCreatingNamesWithoutRefs = new HashMap<>();
+
+  /**
+   * Refreshing is only worthwhile when a small part of the program changed. Past this many changed
+   * scopes, rebuilding from scratch is about as fast.
+   */
+  private static final int MAX_CHANGED_SCOPES_TO_REFRESH = 10_000;
+
   /**
    * Creates an instance that may emit warnings when building the namespace.
    *
@@ -344,6 +394,377 @@ class GlobalNamespace
     generated = true;
   }
 
+  /**
+   * Makes this namespace index its Refs by change scope while it is built, so that it can later be
+   * updated by {@link #refreshChangedScopes}. Must be called before the namespace is built.
+   */
+  void enableRefreshing() {
+    checkState(!generated, "The namespace is already built");
+    refreshable = true;
+  }
+
+  /** Whether this namespace was built for exactly the given roots. */
+  boolean isForRoots(@Nullable Node externsRoot, Node root) {
+    return this.externsRoot == externsRoot && this.root == root;
+  }
+
+  /**
+   * Updates this namespace for changes to the given change scope roots, as reported by the {@link
+   * ChangeTracker}, without rebuilding it from scratch.
+   *
+   * <p>The Refs in the changed scopes, and in the scopes nested in them when the Refs were added,
+   * are removed and the changed scopes are scanned again. Only the Refs indexed under these scopes
+   * are visited. Names left without any Refs or properties are dropped. The result has the same
+   * names, Refs and counts as a freshly built namespace, iterated in the same order.
+   *
+   * <p>Only reads of global names can be refreshed this way, and only if {@link
+   * #enableRefreshing} was called before the namespace was built. If a changed scope declares or
+   * assigns a global name, either before or after the change, this returns false and leaves the
+   * namespace in an unspecified state. The caller must then build a new one.
+   */
+  boolean refreshChangedScopes(Collection<Node> changedScopeRoots) {
+    if (!generated) {
+      // Nothing to refresh; the namespace will be built from the current AST when first used.
+      return true;
+    }
+    if (!refreshable || changedScopeRoots.size() > MAX_CHANGED_SCOPES_TO_REFRESH) {
+      return false;
+    }
+    Set<Node> changed = new HashSet<>(changedScopeRoots);
+    Node top = root.getParent() != null ? root.getParent() : root;
+
+    // Find the changed scopes and the scopes that were nested in them. The scopes that were removed
+    // from the AST or moved are among these, as the scope they were in changed too. Changes to
+    // modules are found here as well, since module bodies are recorded as declarations.
+    Set<Node> staleScopes = new LinkedHashSet<>();
+    ArrayDeque<Node> worklist = new ArrayDeque<>(changedScopeRoots);
+    while (!worklist.isEmpty()) {
+      Node scopeRoot = worklist.removeFirst();
+      if (!staleScopes.add(scopeRoot)) {
+        continue;
+      }
+      if (changeScopesWithDeclarations.contains(scopeRoot)) {
+        return false;
+      }
+      worklist.addAll(nestedChangeScopes.get(scopeRoot));
+    }
+
+    List<Node> rescanRoots = new ArrayList<>();
+    for (Node scopeRoot : changedScopeRoots) {
+      switch (getRescanKind(scopeRoot, changed, top)) {
+        case RESCAN -> rescanRoots.add(scopeRoot);
+        case SKIP -> {}
+        case UNSUPPORTED -> {
+          return false;
+        }
+      }
+    }
+
+    // Drop the Refs from the stale scopes.
+    Set<Name> namesInStaleScopes = new LinkedHashSet<>();
+    for (Node scopeRoot : staleScopes) {
+      namesInStaleScopes.addAll(namesByChangeScope.removeAll(scopeRoot));
+      nestedChangeScopes.removeAll(scopeRoot);
+    }
+    List<Name> touchedNames = new ArrayList<>();
+    List<Ref> staleRefs = new ArrayList<>();
+    for (Name name : namesInStaleScopes) {
+      for (Ref ref : name.getRefs()) {
+        Node node = ref.getNode();
+        if (node == null) {
+          continue;
+        }
+        Node scopeRoot = ChangeTracker.getEnclosingChangeScopeRoot(node);
+        if (scopeRoot != null && !staleScopes.contains(scopeRoot)) {
+          // The Ref is in a scope that did not change, which may be indexed under a stale one.
+          indexRef(name, scopeRoot);
+          continue;
+        }
+        if (ref.isSet() || isQnameDeclarationWithoutAssignment(node)) {
+          return false;
+        }
+        staleRefs.add(ref);
+      }
+      if (!staleRefs.isEmpty()) {
+        for (Ref ref : staleRefs) {
+          name.removeRef(ref);
+        }
+        staleRefs.clear();
+        touchedNames.add(name);
+      }
+    }
+    spreadSiblingCache.clear();
+
+    // Scan the changed scopes that are still attached again.
+    BuildGlobalNamespace builder = new BuildGlobalNamespace();
+    builder.refreshing = true;
+    for (Node scopeRoot : rescanRoots) {
+      Node script = NodeUtil.getEnclosingScript(scopeRoot);
+      if (!shouldTraverseScript.test(script)) {
+        continue;
+      }
+      sourceKind = hasExternsRoot() ? SourceKind.fromScriptNode(script) : SourceKind.CODE;
+      NodeTraversal.traverseScopeRoots(
+          compiler, ImmutableList.of(scopeRoot), builder, /* traverseNested= */ true);
+      if (builder.foundDeclaration) {
+        return false;
+      }
+    }
+
+    for (Name name : touchedNames) {
+      pruneIfUnreferenced(name);
+    }
+    touchedNames.addAll(builder.refreshedNames);
+    return restoreBuildOrder(touchedNames, top);
+  }
+
+  /**
+   * Reorders the given names, and the names and Refs around them, into the order in which a fresh
+   * build would create them. This is the order in which the traversal first visits one of their
+   * Refs, or the Refs of their properties, with names before their properties.
+   *
+   * <p>Only the given names and their ancestors may be out of order; the Refs of the other names
+   * did not change, so they are still in the order of a fresh build relative to each other.
+   *
+   * <p>Returns false if the order of some name is not known, so the namespace needs a full
+   * rebuild.
+   */
+  private boolean restoreBuildOrder(Collection<Name> changedNames, Node top) {
+    Set<Name> moved = new LinkedHashSet<>();
+    for (Name name : changedNames) {
+      // Skip the names that were pruned, but not their ancestors, which lost a property.
+      for (Name n = name; n != null; n = n.getParent()) {
+        if (nameMap.get(n.getFullName()) == n && !moved.add(n)) {
+          break;
+        }
+      }
+    }
+    if (moved.isEmpty()) {
+      return true;
+    }
+    BuildOrder order = new BuildOrder(top);
+
+    // Sort properties before their parents, as the position of a name depends on its properties.
+    List<Name> movedByDepth = new ArrayList<>(moved);
+    movedByDepth.sort((a, b) -> Integer.compare(order.depth(b), order.depth(a)));
+    for (Name name : movedByDepth) {
+      name.sortRefs(order::compareNodes);
+      if (name.props != null) {
+        order.reorder(name.props, moved);
+      }
+    }
+    order.reorder(globalNames, moved);
+
+    List<Name> names = new ArrayList<>(nameMap.values());
+    order.reorder(names, moved);
+    if (order.unknown) {
+      return false;
+    }
+    if (Iterables.elementsEqual(names, nameMap.values())) {
+      return true;
+    }
+    nameMap.clear();
+    for (Name name : names) {
+      nameMap.put(name.getFullName(), name);
+    }
+    return true;
+  }
+
+  /** Compares names and nodes in the order in which a fresh build creates and visits them. */
+  private final class BuildOrder implements Comparator<Name> {
+    private final Node top;
+    private final Map<Node, Integer> childIndices = new HashMap<>();
+    private final Map<Name, Node> firstNodes = new HashMap<>();
+
+    /** Whether a name was found whose position is not known. */
+    private boolean unknown = false;
+
+    BuildOrder(Node top) {
+      this.top = top;
+    }
+
+    @Override
+    public int compare(Name a, Name b) {
+      Node firstA = getFirstNode(a);
+      Node firstB = getFirstNode(b);
+      if (firstA == null || firstB == null) {
+        unknown = true;
+        return 0;
+      }
+      int result = compareNodes(firstA, firstB);
+      // A name is created just before its property when the property is visited first.
+      return result != 0 ? result : Integer.compare(depth(a), depth(b));
+    }
+
+    /**
+     * Moves the given names in the list to their position in build order. The other names must
+     * already be in build order.
+     */
+    void reorder(List<Name> names, Set<Name> moved) {
+      List<Name> toInsert = new ArrayList<>();
+      names.removeIf((name) -> moved.contains(name) && toInsert.add(name));
+      toInsert.sort(this);
+      for (Name name : toInsert) {
+        int index = Collections.binarySearch(names, name, this);
+        names.add(index >= 0 ? index + 1 : -index - 1, name);
+      }
+    }
+
+    /**
+     * Returns the first node visited by a fresh build that refers to the given name or one of its
+     * properties. The Refs and properties of the name must be in build order.
+     */
+    private @Nullable Node getFirstNode(Name name) {
+      if (firstNodes.containsKey(name)) {
+        return firstNodes.get(name);
+      }
+      Node first = nodesCreatingNamesWithoutRefs.get(name);
+      Collection<Ref> refs = name.getRefs();
+      if (!refs.isEmpty()) {
+        first = min(first, refs.iterator().next().getNode());
+      }
+      if (name.props != null && !name.props.isEmpty()) {
+        first = min(first, getFirstNode(name.props.get(0)));
+      }
+      firstNodes.put(name, first);
+      return first;
+    }
+
+    private @Nullable Node min(@Nullable Node a, @Nullable Node b) {
+      if (a == null) {
+        return b;
+      } else if (b == null) {
+        return a;
+      }
+      return compareNodes(a, b) <= 0 ? a : b;
+    }
+
+    /** Compares two nodes under {@link #top} in pre-order. */
+    int compareNodes(Node a, Node b) {
+      if (a == b) {
+        return 0;
+      }
+      int depthA = depth(a);
+      int depthB = depth(b);
+      Node ancestorA = a;
+      Node ancestorB = b;
+      for (; depthA > depthB; depthA--) {
+        ancestorA = ancestorA.getParent();
+      }
+      for (; depthB > depthA; depthB--) {
+        ancestorB = ancestorB.getParent();
+      }
+      if (ancestorA == ancestorB) {
+        // One node contains the other, and is visited first.
+        return a == ancestorA ? -1 : 1;
+      }
+      while (ancestorA.getParent() != ancestorB.getParent()) {
+        ancestorA = ancestorA.getParent();
+        ancestorB = ancestorB.getParent();
+      }
+      return Integer.compare(getChildIndex(ancestorA), getChildIndex(ancestorB));
+    }
+
+    private int depth(Node n) {
+      int depth = 0;
+      for (; n != top && n != null; n = n.getParent()) {
+        depth++;
+      }
+      return depth;
+    }
+
+    int depth(Name name) {
+      int depth = 0;
+      for (Name n = name.getParent(); n != null; n = n.getParent()) {
+        depth++;
+      }
+      return depth;
+    }
+
+    private int getChildIndex(Node child) {
+      Integer index = childIndices.get(child);
+      if (index == null) {
+        int i = 0;
+        for (Node sibling = child.getParent().getFirstChild();
+            sibling != null;
+            sibling = sibling.getNext()) {
+          childIndices.put(sibling, i++);
+        }
+        index = childIndices.get(child);
+      }
+      return index;
+    }
+  }
+
+  /** Records that the given name has a Ref in the given change scope root. */
+  private void indexRef(Name name, Node scopeRoot) {
+    if (namesByChangeScope.put(scopeRoot, name)) {
+      indexNestedChangeScope(scopeRoot);
+    }
+  }
+
+  /**
+   * Records the change scope roots enclosing the given one, up to the first that already was.
+   */
+  private void indexNestedChangeScope(Node scopeRoot) {
+    for (Node n = scopeRoot; n.getParent() != null; ) {
+      Node enclosing = ChangeTracker.getEnclosingChangeScopeRoot(n.getParent());
+      if (enclosing == null || !nestedChangeScopes.put(enclosing, n)) {
+        return;
+      }
+      n = enclosing;
+    }
+  }
+
+  private enum RescanKind {
+    RESCAN,
+    SKIP,
+    UNSUPPORTED
+  }
+
+  /**
+   * Whether the given changed scope needs to be scanned again. Scopes nested in other changed
+   * scopes, and scopes outside of the AST covered by this namespace, are skipped. Scopes in modules
+   * are not supported.
+   */
+  private RescanKind getRescanKind(Node scopeRoot, Set<Node> changed, Node top) {
+    boolean nested = false;
+    for (Node n = scopeRoot.getParent(); n != null; n = n.getParent()) {
+      if (n.isModuleBody() || NodeUtil.isBundledGoogModuleScopeRoot(n)) {
+        return RescanKind.UNSUPPORTED;
+      } else if (changed.contains(n)) {
+        nested = true;
+      } else if (n == root || (hasExternsRoot() && n == externsRoot)) {
+        return nested ? RescanKind.SKIP : RescanKind.RESCAN;
+      } else if (n == top) {
+        return RescanKind.SKIP;
+      }
+    }
+    return RescanKind.SKIP;
+  }
+
+  /** Removes the given name, and its parents, from the namespace if they are no longer used. */
+  private void pruneIfUnreferenced(Name name) {
+    while (name != null
+        && name.getRefs().isEmpty()
+        && (name.props == null || name.props.isEmpty())
+        && !name.getBooleanProperty(NameProp.IS_PROVIDED)
+        && !name.getBooleanProperty(NameProp.IS_USED_HAS_OWN_PROPERTY)
+        && nameMap.get(name.getFullName()) == name) {
+      nameMap.remove(name.getFullName());
+      Name parent = name.getParent();
+      if (parent == null) {
+        globalNames.remove(name);
+      } else {
+        parent.props.remove(name);
+        if (parent.props.isEmpty()) {
+          parent.props = null;
+        }
+      }
+      name = parent;
+    }
+  }
+
   /**
    * Gets the top variable name from a possibly namespaced name.
    *
@@ -407,6 +828,15 @@ class GlobalNamespace
     private @Nullable Node curModuleRoot = null;
     private @Nullable ModuleMetadata curMetadata = null;
 
+    /** Whether this builder rescans changed scopes for {@link #refreshChangedScopes}. */
+    private boolean refreshing = false;
+
+    /** Whether a declaration was found while refreshing, so the namespace needs a full rebuild. */
+    private boolean foundDeclaration = false;
+
+    /** The names created or given new Refs while refreshing. */
+    private final Set<Name> refreshedNames = new LinkedHashSet<>();
+
     /** Collect the references in pre-order. */
     @Override
     public boolean shouldTraverse(NodeTraversal t, Node n, Node parent) {
@@ -442,6 +872,7 @@ class GlobalNamespace
       if (moduleMap == null) {
         return;
       }
+      recordDeclaration(moduleRoot);
       curModuleRoot = moduleRoot;
 
       curMetadata =
@@ -555,8 +986,10 @@ class GlobalNamespace
             case CALL:
               if (n.isFirstChildOf(parent) && isObjectHasOwnPropertyCall(parent)) {
                 String qname = n.getFirstChild().getQualifiedName();
+                recordDeclaration(n);
                 Name globalName = getOrCreateName(qname, curMetadata);
                 globalName.setBooleanProperty(NameProp.IS_USED_HAS_OWN_PROPERTY);
+                nodesCreatingNamesWithoutRefs.putIfAbsent(globalName, n);
               }
               break;
             default:
@@ -577,7 +1010,8 @@ class GlobalNamespace
             // goog.provide goes through a different code path than regular sets because it can
             // create multiple names, e.g. `goog.provide('a.b.c');` creates the global names
             // a, a.b, and a.b.c. Other sets only create a single global name.
-            createNamesFromProvide(n.getSecondChild().getString());
+            recordDeclaration(n);
+            createNamesFromProvide(n.getSecondChild().getString(), n);
             return;
           }
           return;
@@ -599,6 +1033,7 @@ class GlobalNamespace
 
       ModuleMetadata nameMetadata = root == globalRoot ? null : curMetadata;
       if (isSet) {
+        recordDeclaration(n);
         // Use the closest hoist scope to select handleSetFromGlobal or handleSetFromLocal
         // because they use the term 'global' in an ES5, pre-block-scoping sense.
         Scope hoistScope = scope.getClosestHoistScope();
@@ -612,10 +1047,28 @@ class GlobalNamespace
           handleSetFromLocal(chunk, scope, n, name, nameMetadata);
         }
       } else {
+        if (isQnameDeclarationWithoutAssignment(n)) {
+          recordDeclaration(n);
+        }
         handleGet(chunk, scope, n, name, nameMetadata);
       }
     }
 
+    /**
+     * Records that the change scope containing the given node changes the namespace beyond adding
+     * Refs to it.
+     */
+    private void recordDeclaration(Node n) {
+      if (refreshing) {
+        foundDeclaration = true;
+      } else if (refreshable) {
+        Node scopeRoot = ChangeTracker.getEnclosingChangeScopeRoot(n);
+        if (changeScopesWithDeclarations.add(scopeRoot)) {
+          indexNestedChangeScope(scopeRoot);
+        }
+      }
+    }
+
     private ObjLitStringKeyAnalysis createObjLitStringKeyAnalysis(Node stringKeyNode) {
       String nameString = NodeUtil.getBestLValueName(stringKeyNode);
       if (nameString != null) {
@@ -642,7 +1095,7 @@ class GlobalNamespace
     }
 
     /** Declares all subnamespaces from `goog.provide('some.long.namespace')` globally. */
-    private void createNamesFromProvide(String namespace) {
+    private void createNamesFromProvide(String namespace, Node provideCall) {
       Name name;
       int dot = 0;
 
@@ -656,6 +1109,7 @@ class GlobalNamespace
 
       Name newName = getOrCreateName(namespace, null);
       newName.setBooleanProperty(NameProp.IS_PROVIDED);
+      nodesCreatingNamesWithoutRefs.putIfAbsent(newName, provideCall);
     }
 
     /**
@@ -1022,6 +1476,12 @@ class GlobalNamespace
       Ref existingRef = nameObj.getRefForNode(node);
       if (existingRef == null) {
         nameObj.addRef(chunk, scope, node, refType);
+        if (refreshable) {
+          indexRef(nameObj, ChangeTracker.getEnclosingChangeScopeRoot(node));
+        }
+        if (refreshing) {
+          refreshedNames.add(nameObj);
+        }
       } else {
         // module and scope are dependent on Node, so not much point in checking them
         Ref.Type existingRefType = existingRef.type;
@@ -1148,6 +1608,9 @@ class GlobalNamespace
             nameMapByModule.put(metadata, name, node);
           }
         }
+        if (refreshing) {
+          refreshedNames.add(node);
+        }
       }
       return node;
     }
@@ -1449,6 +1912,19 @@ class GlobalNamespace
       castRefsForNodeMap().put(node, ref);
     }
 
+    /** Sorts the Refs of this name in the given order of their nodes. */
+    private void sortRefs(Comparator<Node> nodeOrder) {
+      if (refsForNode instanceof Map) {
+        List<Ref> refs = new ArrayList<>(castRefsForNodeMap().values());
+        refs.sort(comparing(Ref::getNode, nodeOrder));
+        Map<Node, Ref> refsForNodeMap = new LinkedHashMap<>();
+        for (Ref ref : refs) {
+          refsForNodeMap.put(ref.node, ref);
+        }
+        this.refsForNode = refsForNodeMap;
+      }
+    }
+
     Ref addSingleRefForTesting(Node node, Ref.Type type) {
       Ref ref = new Ref(/* chunk= */ null, /* scope= */ null, /* node= */ node, type);
       putRef(node, ref);
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.javascript.rhino.Node;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Provides a {@link GlobalNamespace} of the compiler's externs and code that is shared by passes.
+ *
+ * <p>The namespace is kept up to date from the changes reported to the {@link ChangeTracker}: when
+ * only function bodies that read global names changed, it is refreshed in place by rescanning the
+ * changed scopes. Otherwise it is rebuilt. Passes that change the namespace themselves must keep
+ * building their own.
+ *
+ * <p>The namespace is dropped by {@link #clear} once the passes that use it have run, so that it
+ * does not keep the Refs of an old AST alive for the rest of the compilation.
+ */
+final class GlobalNamespaceProvider implements IndexProvider<GlobalNamespace> {
+  private static final String PASS_NAME = "GlobalNamespaceProvider";
+
+  private final AbstractCompiler compiler;
+  private @Nullable GlobalNamespace namespace;
+
+  GlobalNamespaceProvider(AbstractCompiler compiler) {
+    this.compiler = checkNotNull(compiler);
+  }
+
+  /**
+   * Returns the compiler's shared namespace if it covers exactly the given roots, which is the case
+   * when a pass is run on the whole program. Otherwise builds a new namespace.
+   */
+  static GlobalNamespace getOrCreate(AbstractCompiler compiler, Node externsRoot, Node root) {
+    GlobalNamespace shared = compiler.getIndex(GlobalNamespace.class);
+    if (shared != null && shared.isForRoots(externsRoot, root)) {
+      return shared;
+    }
+    return new GlobalNamespace(compiler, externsRoot, root);
+  }
+
+  @Override
+  public GlobalNamespace get() {
+    Node externsRoot = compiler.getRoot().getFirstChild();
+    Node jsRoot = compiler.getRoot().getLastChild();
+    List<Node> changedScopeNodes =
+        compiler.getChangeTracker().getChangedScopeNodesForPass(PASS_NAME);
+    if (namespace == null
+        || changedScopeNodes == null
+        || !namespace.isForRoots(externsRoot, jsRoot)
+        || !namespace.refreshChangedScopes(changedScopeNodes)) {
+      namespace = new GlobalNamespace(compiler, externsRoot, jsRoot);
+      namespace.enableRefreshing();
+    }
+    return namespace;
+  }
+
+  @Override
+  public void clear() {
+    namespace = null;
+  }
+
+  @Override
+  public Class<GlobalNamespace> getType() {
+    return GlobalNamespace.class;
+  }
+}
@@ -24,4 +24,10 @@ interface IndexProvider<T> {
 
   /** Returns a class literal specialized on T. */
   Class<T> getType();
+
+  /**
+   * Drops the index, if any, so that it can be garbage collected once no pass needs it. The next
+   * call to {@link #get} builds a new one.
+   */
+  default void clear() {}
 }
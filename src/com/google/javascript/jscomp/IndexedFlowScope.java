@@ -0,0 +1,546 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.javascript.jscomp.base.JSCompObjects.identical;
+
+import com.google.javascript.jscomp.DataFlowAnalysis.FlowJoiner;
+import com.google.javascript.jscomp.type.FlowScope;
+import com.google.javascript.rhino.JSDocInfo;
+import com.google.javascript.rhino.Node;
+import com.google.javascript.rhino.jstype.JSType;
+import com.google.javascript.rhino.jstype.StaticTypedRef;
+import com.google.javascript.rhino.jstype.StaticTypedScope;
+import com.google.javascript.rhino.jstype.StaticTypedSlot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A flow scope that numbers the slots of a single function once, and stores inferred types in a
+ * dense, persistent array indexed by that number.
+ *
+ * <p>This is an alternative to {@link LinkedFlowScope}, which keys its overlays by {@link
+ * TypedScope} and then by name. Here, every (declaring scope, name) pair that is ever inferred
+ * during one {@link TypeInference} run is assigned an integer by a shared {@link SlotIndex}. The
+ * inferred slots are kept in fixed-size blocks, and blocks are shared structurally between flow
+ * scopes, so that joins and equality checks only look at blocks that are not identical.
+ */
+final class IndexedFlowScope implements FlowScope {
+
+  private static final int BLOCK_BITS = 5;
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+  private static final OverlaySlot[][] EMPTY_BLOCKS = new OverlaySlot[0][];
+
+  private final CompilerInputProvider inputProvider;
+
+  private final SlotIndex index;
+
+  // Persistent storage for the inferred slots. Neither the outer array nor any of the blocks are
+  // modified after they are published, so they may be shared with other flow scopes. Blocks
+  // without any inferred slots are null.
+  private final OverlaySlot[][] blocks;
+
+  private final TypedScope functionScope;
+
+  // The TypedScope for the block that this flow scope is defined for.
+  private final TypedScope syntacticScope;
+
+  private IndexedFlowScope(
+      CompilerInputProvider inputProvider,
+      SlotIndex index,
+      OverlaySlot[][] blocks,
+      TypedScope syntacticScope,
+      TypedScope functionScope) {
+    this.inputProvider = inputProvider;
+    this.index = index;
+    this.blocks = blocks;
+    this.syntacticScope = syntacticScope;
+    this.functionScope = functionScope;
+  }
+
+  /**
+   * Creates an entry lattice for the flow.
+   *
+   * @param index the slot numbering shared by all flow scopes of a single data flow analysis
+   */
+  static IndexedFlowScope createEntryLattice(
+      CompilerInputProvider inputProvider, SlotIndex index, TypedScope scope) {
+    return new IndexedFlowScope(inputProvider, index, EMPTY_BLOCKS, scope, scope);
+  }
+
+  /** Whether this flows from a bottom scope. */
+  private boolean flowsFromBottom() {
+    return functionScope.isBottom();
+  }
+
+  private @Nullable OverlaySlot getSlotById(int id) {
+    return getSlotById(blocks, id);
+  }
+
+  private static @Nullable OverlaySlot getSlotById(OverlaySlot[][] blocks, int id) {
+    int blockIndex = id >>> BLOCK_BITS;
+    if (blockIndex >= blocks.length) {
+      return null;
+    }
+    OverlaySlot[] block = blocks[blockIndex];
+    return block != null ? block[id & BLOCK_MASK] : null;
+  }
+
+  /** Returns the scope that owns the root of the given (possibly qualified) name. */
+  private TypedScope getOwnerScopeForName(String name) {
+    TypedVar rootVar = syntacticScope.getVar(LinkedFlowScope.getRootOfQualifiedName(name));
+    TypedScope scope = rootVar != null ? rootVar.getScope() : null;
+    return scope != null ? scope : functionScope;
+  }
+
+  @Override
+  public IndexedFlowScope inferSlotType(String symbol, JSType type) {
+    int id = index.getOrCreateId(getOwnerScopeForName(symbol), symbol);
+    OverlaySlot slot = getSlotById(id);
+    if (slot != null && identical(type, slot.type)) {
+      return this;
+    }
+    BlockEditor editor = new BlockEditor(blocks);
+    editor.set(id, new OverlaySlot(symbol, type));
+    return new IndexedFlowScope(
+        inputProvider, index, editor.build(), syntacticScope, functionScope);
+  }
+
+  @Override
+  public IndexedFlowScope inferQualifiedSlot(
+      Node node, String symbol, JSType bottomType, JSType inferredType, boolean declared) {
+    return LinkedFlowScope.shouldInferQualifiedSlot(
+            inputProvider,
+            syntacticScope,
+            functionScope,
+            node,
+            symbol,
+            bottomType,
+            inferredType,
+            declared)
+        ? inferSlotType(symbol, inferredType)
+        : this;
+  }
+
+  @Override
+  public JSType getTypeOfThis() {
+    return syntacticScope.getTypeOfThis();
+  }
+
+  @Override
+  public Node getRootNode() {
+    return syntacticScope.getRootNode();
+  }
+
+  @Override
+  public StaticTypedScope getParentScope() {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Get the slot for the given symbol. */
+  @Override
+  public StaticTypedSlot getSlot(String name) {
+    TypedVar var = syntacticScope.getVar(name);
+    TypedScope owner = var != null ? var.getScope() : getOwnerScopeForName(name);
+    int id = index.getId(owner, name);
+    OverlaySlot slot = id >= 0 ? getSlotById(id) : null;
+    return slot != null ? slot : var;
+  }
+
+  @Override
+  public StaticTypedSlot getOwnSlot(String name) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public FlowScope withSyntacticScope(StaticTypedScope scope) {
+    TypedScope typedScope = (TypedScope) scope;
+    return scope != syntacticScope
+        ? new IndexedFlowScope(
+            inputProvider, index, trimBlocks(typedScope), typedScope, functionScope)
+        : this;
+  }
+
+  @Override
+  public TypedScope getDeclarationScope() {
+    return syntacticScope;
+  }
+
+  /**
+   * Returns the slot blocks, without any slots owned by scopes below the common ancestor of this
+   * FlowScope's syntacticScope and the given scope.
+   *
+   * @see LinkedFlowScope
+   */
+  private OverlaySlot[][] trimBlocks(TypedScope scope) {
+    TypedScope thisScope = syntacticScope;
+    TypedScope thatScope = scope;
+    int thisDepth = thisScope.getDepth();
+    int thatDepth = thatScope.getDepth();
+    BlockEditor editor = null;
+    while (thatDepth > thisDepth) {
+      thatScope = thatScope.getParent();
+      thatDepth--;
+    }
+    while (thisDepth > thatDepth) {
+      editor = clearOwnedSlots(editor, thisScope);
+      thisScope = thisScope.getParent();
+      thisDepth--;
+    }
+    while (thisScope != thatScope && thisScope != null && thatScope != null) {
+      editor = clearOwnedSlots(editor, thisScope);
+      thisScope = thisScope.getParent();
+      thatScope = thatScope.getParent();
+    }
+    return editor != null ? editor.build() : blocks;
+  }
+
+  private @Nullable BlockEditor clearOwnedSlots(@Nullable BlockEditor editor, TypedScope scope) {
+    for (int id : index.getIdsOwnedBy(scope)) {
+      if (getSlotById(id) != null) {
+        if (editor == null) {
+          editor = new BlockEditor(blocks);
+        }
+        editor.set(id, null);
+      }
+    }
+    return editor;
+  }
+
+  /** Join the two FlowScopes. */
+  static class FlowScopeJoinOp implements FlowJoiner<FlowScope> {
+    @Nullable IndexedFlowScope result = null;
+    final CompilerInputProvider inputProvider;
+
+    FlowScopeJoinOp(CompilerInputProvider inputProvider) {
+      this.inputProvider = inputProvider;
+    }
+
+    // NOTE: see LinkedFlowScope.FlowScopeJoinOp for why the syntactic scope of the result is
+    // simply the common ancestor of both inputs.
+    @Override
+    public void joinFlow(FlowScope input) {
+      IndexedFlowScope indexedInput = (IndexedFlowScope) input;
+      if (this.result == null) {
+        this.result = indexedInput;
+        return;
+      } else if (this.result.blocks == indexedInput.blocks
+          && this.result.functionScope == indexedInput.functionScope) {
+        return;
+      }
+
+      TypedScope common = getCommonParentDeclarationScope(this.result, indexedInput);
+      this.result =
+          new IndexedFlowScope(
+              inputProvider,
+              this.result.index,
+              join(this.result, indexedInput, common),
+              common,
+              this.result.flowsFromBottom()
+                  ? indexedInput.functionScope
+                  : this.result.functionScope);
+    }
+
+    @Override
+    public FlowScope finish() {
+      return this.result;
+    }
+  }
+
+  private static TypedScope getCommonParentDeclarationScope(
+      IndexedFlowScope left, IndexedFlowScope right) {
+    if (left.flowsFromBottom()) {
+      return right.syntacticScope;
+    } else if (right.flowsFromBottom()) {
+      return left.syntacticScope;
+    }
+    return left.syntacticScope.getCommonParent(right.syntacticScope);
+  }
+
+  private static OverlaySlot[][] join(
+      IndexedFlowScope indexedA, IndexedFlowScope indexedB, TypedScope commonParent) {
+    OverlaySlot[][] blocksA = indexedA.trimBlocks(commonParent);
+    OverlaySlot[][] blocksB = indexedB.trimBlocks(commonParent);
+    if (blocksA == blocksB) {
+      return blocksA;
+    }
+    SlotIndex index = indexedA.index;
+    boolean fromBottomA = indexedA.flowsFromBottom();
+    boolean fromBottomB = indexedB.flowsFromBottom();
+
+    int length = Math.max(blocksA.length, blocksB.length);
+    OverlaySlot[][] result = new OverlaySlot[length][];
+    for (int i = 0; i < length; i++) {
+      OverlaySlot[] blockA = i < blocksA.length ? blocksA[i] : null;
+      OverlaySlot[] blockB = i < blocksB.length ? blocksB[i] : null;
+      if (blockA == blockB) {
+        result[i] = blockA;
+        continue;
+      }
+      OverlaySlot[] joined = null;
+      boolean sameAsA = true;
+      boolean sameAsB = true;
+      for (int j = 0; j < BLOCK_SIZE; j++) {
+        OverlaySlot slotA = blockA != null ? blockA[j] : null;
+        OverlaySlot slotB = blockB != null ? blockB[j] : null;
+        OverlaySlot slot;
+        if (slotA == slotB) {
+          slot = slotA;
+        } else {
+          TypedScope owner = index.getOwnerScope((i << BLOCK_BITS) | j);
+          slot = joinSlots(slotA, slotB, fromBottomA ? null : owner, fromBottomB ? null : owner);
+        }
+        sameAsA &= slot == slotA;
+        sameAsB &= slot == slotB;
+        if (slot != null) {
+          if (joined == null) {
+            joined = new OverlaySlot[BLOCK_SIZE];
+          }
+          joined[j] = slot;
+        }
+      }
+      result[i] = sameAsA ? blockA : sameAsB ? blockB : joined;
+    }
+    return result;
+  }
+
+  /**
+   * Joins a single slot, which is missing or has a different value in at least one of the inputs.
+   *
+   * @param typedScopeA the scope to look up declared types of slots missing from A, or null if A
+   *     flows from the bottom scope
+   * @param typedScopeB the scope to look up declared types of slots missing from B, or null if B
+   *     flows from the bottom scope
+   */
+  private static @Nullable OverlaySlot joinSlots(
+      @Nullable OverlaySlot slotA,
+      @Nullable OverlaySlot slotB,
+      @Nullable TypedScope typedScopeA,
+      @Nullable TypedScope typedScopeB) {
+    // This mirrors the five join cases in LinkedFlowScope.
+    if (slotB == null || slotB.getType() == null) {
+      if (slotA == null) {
+        return slotB;
+      }
+      String name = slotA.getName();
+      TypedVar fnSlot = typedScopeB != null ? typedScopeB.getSlot(name) : null;
+      JSType fnSlotType = fnSlot != null ? fnSlot.getType() : null;
+      if (fnSlotType == null || identical(fnSlotType, slotA.getType())) {
+        // Case #1
+        return slotA;
+      } else {
+        // Case #3
+        JSType joinedType = slotA.getType().getLeastSupertype(fnSlotType);
+        return identical(joinedType, slotA.getType()) ? slotA : new OverlaySlot(name, joinedType);
+      }
+    } else if (slotA == null || slotA.getType() == null) {
+      String name = slotB.getName();
+      TypedVar fnSlot = typedScopeA != null ? typedScopeA.getSlot(name) : null;
+      JSType fnSlotType = fnSlot != null ? fnSlot.getType() : null;
+      if (fnSlotType == null || identical(fnSlotType, slotB.getType())) {
+        // Case #2
+        return slotB;
+      } else {
+        // Case #4
+        JSType joinedType = slotB.getType().getLeastSupertype(fnSlotType);
+        return identical(joinedType, slotB.getType()) ? slotB : new OverlaySlot(name, joinedType);
+      }
+    }
+    // Case #5
+    if (identical(slotA.getType(), slotB.getType())) {
+      return slotA;
+    }
+    JSType joinedType = slotA.getType().getLeastSupertype(slotB.getType());
+    return identical(joinedType, slotA.getType())
+        ? slotA
+        : new OverlaySlot(slotA.getName(), joinedType);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof IndexedFlowScope that)) {
+      return false;
+    }
+
+    // See LinkedFlowScope#equals for why it is fine to treat scopes with different function
+    // scopes as different.
+    if (this.functionScope != that.functionScope) {
+      return false;
+    }
+    int length = Math.max(this.blocks.length, that.blocks.length);
+    for (int i = 0; i < length; i++) {
+      OverlaySlot[] blockA = i < this.blocks.length ? this.blocks[i] : null;
+      OverlaySlot[] blockB = i < that.blocks.length ? that.blocks[i] : null;
+      if (blockA == blockB) {
+        continue;
+      }
+      for (int j = 0; j < BLOCK_SIZE; j++) {
+        OverlaySlot slotA = blockA != null ? blockA[j] : null;
+        OverlaySlot slotB = blockB != null ? blockB[j] : null;
+        if (slotA == slotB) {
+          continue;
+        } else if (slotA == null || slotB == null || slotA.type.differsFrom(slotB.type)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Assigns a dense integer to each (declaring scope, name) pair that is inferred during a single
+   * data flow analysis. All flow scopes of that analysis must share the same index.
+   */
+  static final class SlotIndex {
+    private final Map<TypedScope, Map<String, Integer>> idsByScope = new IdentityHashMap<>();
+    private final List<TypedScope> ownerScopes = new ArrayList<>();
+
+    int getOrCreateId(TypedScope scope, String name) {
+      Map<String, Integer> ids = idsByScope.computeIfAbsent(scope, (s) -> new HashMap<>());
+      Integer id = ids.get(name);
+      if (id == null) {
+        id = ownerScopes.size();
+        ownerScopes.add(scope);
+        ids.put(name, id);
+      }
+      return id;
+    }
+
+    /** Returns the id of the given slot, or -1 if it has never been inferred. */
+    int getId(TypedScope scope, String name) {
+      Map<String, Integer> ids = idsByScope.get(scope);
+      Integer id = ids != null ? ids.get(name) : null;
+      return id != null ? id : -1;
+    }
+
+    Collection<Integer> getIdsOwnedBy(TypedScope scope) {
+      Map<String, Integer> ids = idsByScope.get(scope);
+      return ids != null ? ids.values() : List.of();
+    }
+
+    TypedScope getOwnerScope(int id) {
+      return ownerScopes.get(id);
+    }
+  }
+
+  /**
+   * Copy-on-write editor for slot blocks: the outer array and each touched block are copied at
+   * most once, and untouched blocks remain shared with the original.
+   */
+  private static final class BlockEditor {
+    private final OverlaySlot[][] original;
+    private OverlaySlot @Nullable [][] result = null;
+    private boolean[] copied;
+
+    BlockEditor(OverlaySlot[][] original) {
+      this.original = original;
+    }
+
+    void set(int id, @Nullable OverlaySlot slot) {
+      int blockIndex = id >>> BLOCK_BITS;
+      if (result == null) {
+        result = Arrays.copyOf(original, Math.max(original.length, blockIndex + 1));
+        copied = new boolean[result.length];
+      } else if (blockIndex >= result.length) {
+        result = Arrays.copyOf(result, blockIndex + 1);
+        copied = Arrays.copyOf(copied, result.length);
+      }
+      OverlaySlot[] block = result[blockIndex];
+      if (!copied[blockIndex]) {
+        block = block != null ? block.clone() : new OverlaySlot[BLOCK_SIZE];
+        result[blockIndex] = block;
+        copied[blockIndex] = true;
+      }
+      block[id & BLOCK_MASK] = slot;
+    }
+
+    OverlaySlot[][] build() {
+      if (result == null) {
+        return original;
+      }
+      // Drop blocks that became empty so that equivalent scopes share the same representation.
+      for (int i = 0; i < result.length; i++) {
+        if (copied[i] && isEmpty(result[i])) {
+          result[i] = null;
+        }
+      }
+      return result;
+    }
+
+    private static boolean isEmpty(OverlaySlot[] block) {
+      for (OverlaySlot slot : block) {
+        if (slot != null) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class OverlaySlot implements StaticTypedSlot {
+    final String name;
+    final JSType type;
+
+    OverlaySlot(String name, JSType type) {
+      this.name = name;
+      this.type = type;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public JSType getType() {
+      return type;
+    }
+
+    @Override
+    public boolean isTypeInferred() {
+      return true;
+    }
+
+    @Override
+    public StaticTypedRef getDeclaration() {
+      return null;
+    }
+
+    @Override
+    public JSDocInfo getJSDocInfo() {
+      return null;
+    }
+
+    @Override
+    public StaticTypedScope getScope() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -17,6 +17,10 @@
 package com.google.javascript.jscomp;
 
 import com.google.javascript.rhino.Node;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * For use with CodeGenerator to determine the cost of generated code.
@@ -48,6 +52,73 @@ class InlineCostEstimator {
     return estimator.getCost();
   }
 
+  /**
+   * Remembers the estimated costs of functions, so that an unchanged function is not estimated
+   * again. An estimate is reused until a change is reported to the function or to a function nested
+   * in it.
+   */
+  static final class FunctionCostCache {
+    private final Map<Node, FunctionCost> costs = new HashMap<>();
+
+    /**
+     * Determines the estimated size of the function, like {@link InlineCostEstimator#getCost(Node,
+     * int)}. The estimate may exceed the threshold by more than it would if computed anew, but is
+     * at least the threshold whenever the function's cost is.
+     */
+    int getCost(Node fnNode, int costThreshold) {
+      FunctionCost cost = costs.get(fnNode);
+      if (cost == null || !cost.isUpToDate() || !cost.answers(costThreshold)) {
+        cost = new FunctionCost(fnNode, costThreshold);
+        costs.put(fnNode, cost);
+      }
+      return cost.cost;
+    }
+
+    /** Forgets the functions that are no longer in the AST. */
+    void removeDetachedFunctions() {
+      costs.keySet().removeIf((fnNode) -> NodeUtil.getEnclosingScript(fnNode) == null);
+    }
+  }
+
+  /** An estimated cost, and the change times of the functions it covers when it was made. */
+  private static final class FunctionCost {
+    private final int cost;
+    private final int costThreshold;
+    // The function and the functions nested in it, with their change times.
+    private final List<Node> functions = new ArrayList<>();
+    private final List<Integer> changeTimes = new ArrayList<>();
+
+    FunctionCost(Node fnNode, int costThreshold) {
+      this.cost = InlineCostEstimator.getCost(fnNode, costThreshold);
+      this.costThreshold = costThreshold;
+      NodeUtil.visitPreOrder(
+          fnNode,
+          (Node n) -> {
+            if (n.isFunction()) {
+              functions.add(n);
+              changeTimes.add(n.getChangeTime());
+            }
+          });
+    }
+
+    boolean isUpToDate() {
+      for (int i = 0; i < functions.size(); i++) {
+        if (functions.get(i).getChangeTime() != changeTimes.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Whether this estimate is the cost that would be estimated with the given threshold, or at
+     * least that threshold.
+     */
+    boolean answers(int costThreshold) {
+      return cost < this.costThreshold || costThreshold <= this.costThreshold;
+    }
+  }
+
   /**
    * Code consumer that estimates compiled size by assuming names are
    * shortened and all whitespace is stripped.
@@ -83,8 +154,23 @@ class InlineCostEstimator {
 
     @Override
     void append(String str){
-      last = str.charAt(str.length() - 1);
-      cost += str.length();
+      append((CharSequence) str);
+    }
+
+    @Override
+    void append(char c) {
+      last = c;
+      addCost(1);
+    }
+
+    @Override
+    void append(CharSequence chars) {
+      last = chars.charAt(chars.length() - 1);
+      addCost(chars.length());
+    }
+
+    private void addCost(int length) {
+      cost += length;
       if (maxCost <= cost) {
         continueProcessing = false;
       }
@@ -100,7 +186,7 @@ class InlineCostEstimator {
      * because it's likely that they will get folded when we're done.
      */
     @Override
-    void addConstant(String newcode) {
+    void addConstant(CharSequence newcode) {
       add("0");
     }
   }
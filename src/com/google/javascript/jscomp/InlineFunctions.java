@@ -28,6 +28,7 @@ import com.google.javascript.jscomp.CompilerOptions.Reach;
 import com.google.javascript.jscomp.FunctionInjector.CanInlineResult;
 import com.google.javascript.jscomp.FunctionInjector.InliningMode;
 import com.google.javascript.jscomp.NodeTraversal.AbstractPostOrderCallback;
+import com.google.javascript.jscomp.NodeTraversal.Callback;
 import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.JSDocInfo;
 import com.google.javascript.rhino.Node;
@@ -125,11 +126,25 @@ class InlineFunctions implements CompilerPass {
   public void process(Node externs, Node root) {
     checkState(compiler.getLifeCycleStage().isNormalized());
 
-    NodeTraversal.traverse(compiler, root, new FindCandidateFunctions());
+    // The index tells which scripts can contain candidates or references to them, so that the
+    // others need not be traversed. It is only used for whole programs.
+    InlineFunctionsIndex index =
+        root.isRoot() ? InlineFunctionsIndex.getOrCreate(compiler, root) : null;
+    if (index != null) {
+      injector.setFunctionCosts(index.getFunctionCosts());
+    }
+
+    traverseScripts(
+        root,
+        index != null ? index.getScriptsWithFunctions() : null,
+        new FindCandidateFunctions());
     if (fns.isEmpty()) {
       return; // Nothing left to do.
     }
-    NodeTraversal.traverse(compiler, root, new FindCandidatesReferences(fns, anonFns));
+    traverseScripts(
+        root,
+        index != null ? getScriptsReferencingCandidates(index) : null,
+        new FindCandidatesReferences(fns, anonFns));
     trimCandidatesNotMeetingMinimumRequirements();
     if (fns.isEmpty()) {
       return; // Nothing left to do.
@@ -152,11 +167,63 @@ class InlineFunctions implements CompilerPass {
     }
     resolveInlineConflicts();
     decomposeExpressions();
-    NodeTraversal.traverse(compiler, root, new CallVisitor(fns, anonFns, new Inline(injector)));
+    traverseScripts(
+        root,
+        index != null ? getScriptsReferencingCandidates(index) : null,
+        new CallVisitor(fns, anonFns, new Inline(injector)));
 
     removeInlinedFunctions();
   }
 
+  /**
+   * Traverses the program as a whole, so that the callback sees the same scopes as usual, but skips
+   * the scripts that are not in {@code scripts}, unless it is null.
+   */
+  private void traverseScripts(Node root, @Nullable Set<Node> scripts, Callback callback) {
+    if (scripts == null) {
+      NodeTraversal.traverse(compiler, root, callback);
+      return;
+    }
+    NodeTraversal.traverse(
+        compiler,
+        root,
+        new Callback() {
+          @Override
+          public boolean shouldTraverse(NodeTraversal t, Node n, Node parent) {
+            return (!n.isScript() || scripts.contains(n)) && callback.shouldTraverse(t, n, parent);
+          }
+
+          @Override
+          public void visit(NodeTraversal t, Node n, Node parent) {
+            callback.visit(t, n, parent);
+          }
+        });
+  }
+
+  /**
+   * Returns the scripts that may contain references to the tracked functions that matter: those
+   * that name a function that may still be inlined or that is required to be, and those that
+   * contain an anonymous candidate.
+   */
+  private Set<Node> getScriptsReferencingCandidates(InlineFunctionsIndex index) {
+    Set<String> names = new LinkedHashSet<>();
+    for (Entry<String, FunctionState> entry : fns.entrySet()) {
+      FunctionState functionState = entry.getValue();
+      // References to other functions can only disallow inlining them again.
+      if (functionState.canInline() || functionState.requireInlining()) {
+        names.add(entry.getKey());
+      }
+    }
+    Set<Node> scripts = index.getScriptsReferencingAny(names);
+    for (Node fnNode : anonFns.keySet()) {
+      Node script = NodeUtil.getEnclosingScript(fnNode);
+      if (script != null) {
+        scripts.add(script);
+      }
+    }
+    return scripts;
+  }
+
   private static boolean isAlwaysInlinable(Node fn) {
     checkArgument(fn.isFunction());
     Node body = NodeUtil.getFunctionBody(fn);
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.javascript.rhino.Node;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * What {@link InlineFunctions} knows about each script of the program between its runs in the
+ * optimization loop.
+ *
+ * <p>For each script, the index records whether it contains any functions, which are the only
+ * possible inlining candidates, and the names it references, which are the only possible references
+ * to candidates. Each run of {@link InlineFunctions} then only traverses the scripts that can
+ * contain a candidate or a reference to one. The index registered with the compiler is shared by
+ * all runs: each time it is requested, the scripts containing scopes reported to the {@link
+ * ChangeTracker} as changed since the last request are summarized again.
+ *
+ * <p>It also holds the estimated costs of the candidate functions, which are only estimated again
+ * after they change.
+ */
+final class InlineFunctionsIndex {
+  private static final String PASS_NAME = "InlineFunctionsIndex";
+
+  private final Node jsRoot;
+
+  // The summaries of the scripts that are known to be up to date.
+  private Map<Node, ScriptSummary> summariesByScript = new HashMap<>();
+
+  private final InlineCostEstimator.FunctionCostCache functionCosts =
+      new InlineCostEstimator.FunctionCostCache();
+
+  private InlineFunctionsIndex(Node jsRoot) {
+    this.jsRoot = jsRoot;
+  }
+
+  /**
+   * Returns the compiler's shared index if it covers the given root, which is the case when the
+   * pass is run on the whole program. Otherwise creates a new index.
+   */
+  static InlineFunctionsIndex getOrCreate(AbstractCompiler compiler, Node jsRoot) {
+    InlineFunctionsIndex shared = compiler.getIndex(InlineFunctionsIndex.class);
+    if (shared != null && shared.jsRoot == jsRoot) {
+      return shared;
+    }
+    return new InlineFunctionsIndex(jsRoot);
+  }
+
+  /** Forgets the summaries of the scripts containing the given change scope roots. */
+  private void invalidate(Collection<Node> changedScopeRoots) {
+    for (Node scopeRoot : changedScopeRoots) {
+      Node script = scopeRoot.isScript() ? scopeRoot : NodeUtil.getEnclosingScript(scopeRoot);
+      if (script != null) {
+        summariesByScript.remove(script);
+      }
+    }
+    functionCosts.removeDetachedFunctions();
+  }
+
+  InlineCostEstimator.FunctionCostCache getFunctionCosts() {
+    return functionCosts;
+  }
+
+  /** Returns the scripts that contain at least one function. */
+  Set<Node> getScriptsWithFunctions() {
+    Set<Node> result = new HashSet<>();
+    for (Map.Entry<Node, ScriptSummary> entry : getSummaries().entrySet()) {
+      if (entry.getValue().hasFunctions()) {
+        result.add(entry.getKey());
+      }
+    }
+    return result;
+  }
+
+  /** Returns the scripts that reference at least one of the given names. */
+  Set<Node> getScriptsReferencingAny(Set<String> names) {
+    Set<Node> result = new HashSet<>();
+    if (names.isEmpty()) {
+      return result;
+    }
+    for (Map.Entry<Node, ScriptSummary> entry : getSummaries().entrySet()) {
+      for (String name : entry.getValue().names()) {
+        if (names.contains(name)) {
+          result.add(entry.getKey());
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Summarizes the scripts that changed, and drops the scripts that are no longer in the AST. */
+  private Map<Node, ScriptSummary> getSummaries() {
+    Map<Node, ScriptSummary> currentSummaries = new HashMap<>();
+    for (Node script = jsRoot.getFirstChild(); script != null; script = script.getNext()) {
+      ScriptSummary summary = summariesByScript.get(script);
+      currentSummaries.put(script, summary != null ? summary : summarize(script));
+    }
+    summariesByScript = currentSummaries;
+    return currentSummaries;
+  }
+
+  private static ScriptSummary summarize(Node script) {
+    Set<String> names = new HashSet<>();
+    boolean[] hasFunctions = {false};
+    NodeUtil.visitPreOrder(
+        script,
+        (Node n) -> {
+          if (n.isName()) {
+            names.add(n.getString());
+          } else if (n.isFunction()) {
+            hasFunctions[0] = true;
+          }
+        });
+    return new ScriptSummary(hasFunctions[0], ImmutableSet.copyOf(names));
+  }
+
+  /** The functions and names in a script. */
+  private record ScriptSummary(boolean hasFunctions, ImmutableSet<String> names) {}
+
+  /** Provides the compiler's shared {@link InlineFunctionsIndex}. */
+  static final class Provider implements IndexProvider<InlineFunctionsIndex> {
+    private final AbstractCompiler compiler;
+    private @Nullable InlineFunctionsIndex index;
+
+    Provider(AbstractCompiler compiler) {
+      this.compiler = checkNotNull(compiler);
+    }
+
+    @Override
+    public InlineFunctionsIndex get() {
+      Node jsRoot = compiler.getRoot().getLastChild();
+      List<Node> changedScopeNodes =
+          compiler.getChangeTracker().getChangedScopeNodesForPass(PASS_NAME);
+      if (index == null || changedScopeNodes == null || index.jsRoot != jsRoot) {
+        index = new InlineFunctionsIndex(jsRoot);
+      } else {
+        index.invalidate(changedScopeNodes);
+      }
+      return index;
+    }
+
+    @Override
+    public Class<InlineFunctionsIndex> getType() {
+      return InlineFunctionsIndex.class;
+    }
+  }
+}
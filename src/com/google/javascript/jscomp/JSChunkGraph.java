@@ -90,6 +90,24 @@ public final class JSChunkGraph implements Serializable {
    */
   private final List<List<JSChunk>> chunksByDepth;
 
+  /**
+   * The chunks sorted by depth, and by index within each depth. Of the chunks that two chunks both
+   * depend on, the one that comes last in this order is their deepest common dependency.
+   */
+  private final JSChunk[] chunksInDepthOrder;
+
+  /** depthOrder[i] = position of chunks[i] in chunksInDepthOrder. */
+  private final int[] depthOrder;
+
+  /**
+   * selfPlusTransitiveDepsInDepthOrder[i] = the words of a bit set of the positions in
+   * chunksInDepthOrder of all chunks that chunks[i] depends on, including itself.
+   *
+   * <p>A chunk comes after all of its dependencies in depth order, so each bit set only has as many
+   * words as needed to hold the chunk's own position.
+   */
+  private final long[][] selfPlusTransitiveDepsInDepthOrder;
+
   /**
    * dependencyMap is a cache of dependencies that makes the dependsOn function faster. Each map
    * entry associates a starting JSChunk with the set of JSChunks that are transitively dependent on
@@ -134,6 +152,14 @@ public final class JSChunkGraph implements Serializable {
     // O(n*m)
     subtreeSize = initSubtreeSize();
 
+    // O(n^2) in the worst case, where every chunk depends on every preceding chunk.
+    chunksInDepthOrder = chunksByDepth.stream().flatMap(List::stream).toArray(JSChunk[]::new);
+    depthOrder = new int[chunks.length];
+    for (int position = 0; position < chunksInDepthOrder.length; ++position) {
+      depthOrder[chunksInDepthOrder[position].getIndex()] = position;
+    }
+    selfPlusTransitiveDepsInDepthOrder = initTransitiveDepsInDepthOrder();
+
     // Move all sources marked as weak by outside sources (e.g. flags) into the weak chunk.
     moveMarkedWeakSources(getChunkByName(JSChunk.WEAK_CHUNK_NAME), getAllInputs());
   }
@@ -261,6 +287,22 @@ public final class JSChunkGraph implements Serializable {
     return subtreeSize;
   }
 
+  private long[][] initTransitiveDepsInDepthOrder() {
+    long[][] array = new long[chunks.length][];
+    for (int chunkIndex = 0; chunkIndex < chunks.length; ++chunkIndex) {
+      long[] words = new long[(depthOrder[chunkIndex] >>> 6) + 1];
+      BitSet dependencies = selfPlusTransitiveDeps[chunkIndex];
+      for (int requiredIndex = dependencies.nextSetBit(0);
+          requiredIndex >= 0;
+          requiredIndex = dependencies.nextSetBit(requiredIndex + 1)) {
+        int position = depthOrder[requiredIndex];
+        words[position >>> 6] |= 1L << position;
+      }
+      array[chunkIndex] = words;
+    }
+    return array;
+  }
+
   /** Gets an iterable over all input source files in dependency order. */
   Iterable<CompilerInput> getAllInputs() {
     return Iterables.concat(Iterables.transform(Arrays.asList(chunks), JSChunk::getInputs));
@@ -377,13 +419,11 @@ public final class JSChunkGraph implements Serializable {
     // Candidate chunks are those that all of the given dependent chunks depend on, including
     // themselves. The dependent chunk with the smallest index might be our answer, if all
     // the other chunks depend on it.
-    int minDependentChunkIndex = chunks.length;
-    final BitSet candidates = new BitSet(chunks.length);
-    candidates.set(0, chunks.length, true);
-    for (int dependentIndex = dependentChunks.nextSetBit(0);
+    int minDependentChunkIndex = dependentChunks.nextSetBit(0);
+    final BitSet candidates = (BitSet) selfPlusTransitiveDeps[minDependentChunkIndex].clone();
+    for (int dependentIndex = dependentChunks.nextSetBit(minDependentChunkIndex + 1);
         dependentIndex >= 0;
         dependentIndex = dependentChunks.nextSetBit(dependentIndex + 1)) {
-      minDependentChunkIndex = min(minDependentChunkIndex, dependentIndex);
       candidates.and(selfPlusTransitiveDeps[dependentIndex]);
     }
     checkState(!candidates.isEmpty(), "No common dependency found for %s", dependentChunks);
@@ -420,22 +460,7 @@ public final class JSChunkGraph implements Serializable {
    *     dependencies
    */
   @Nullable JSChunk getDeepestCommonDependency(JSChunk m1, JSChunk m2) {
-    int m1Depth = m1.getDepth();
-    int m2Depth = m2.getDepth();
-    // According our definition of depth, the result must have a strictly
-    // smaller depth than either m1 or m2.
-    for (int depth = min(m1Depth, m2Depth) - 1; depth >= 0; depth--) {
-      List<JSChunk> chunksAtDepth = chunksByDepth.get(depth);
-      // Look at the chunks at this depth in reverse order, so that we use the
-      // original ordering of the chunks to break ties (later meaning deeper).
-      for (int i = chunksAtDepth.size() - 1; i >= 0; i--) {
-        JSChunk m = chunksAtDepth.get(i);
-        if (dependsOn(m1, m) && dependsOn(m2, m)) {
-          return m;
-        }
-      }
-    }
-    return null;
+    return getLastCommonDependencyInDepthOrder(m1, m2, /* inclusive= */ false);
   }
 
   /**
@@ -447,13 +472,38 @@ public final class JSChunkGraph implements Serializable {
    *     dependencies
    */
   public JSChunk getDeepestCommonDependencyInclusive(JSChunk m1, JSChunk m2) {
-    if (m2 == m1 || dependsOn(m2, m1)) {
+    if (m1 == m2) {
       return m1;
-    } else if (dependsOn(m1, m2)) {
-      return m2;
     }
+    return getLastCommonDependencyInDepthOrder(m1, m2, /* inclusive= */ true);
+  }
 
-    return getDeepestCommonDependency(m1, m2);
+  /**
+   * Intersects the dependencies of two chunks one word at a time, starting from the deepest, and
+   * returns the last chunk in depth order that is in both.
+   *
+   * <p>If one chunk depends on the other, the other is the deepest chunk in the intersection. So
+   * unless {@code inclusive} is set, the two chunks are removed from it.
+   */
+  private @Nullable JSChunk getLastCommonDependencyInDepthOrder(
+      JSChunk m1, JSChunk m2, boolean inclusive) {
+    long[] deps1 = selfPlusTransitiveDepsInDepthOrder[m1.getIndex()];
+    long[] deps2 = selfPlusTransitiveDepsInDepthOrder[m2.getIndex()];
+    int excluded1 = inclusive ? -1 : depthOrder[m1.getIndex()];
+    int excluded2 = inclusive ? -1 : depthOrder[m2.getIndex()];
+    for (int word = min(deps1.length, deps2.length) - 1; word >= 0; word--) {
+      long common = deps1[word] & deps2[word];
+      if (word == excluded1 >> 6) {
+        common &= ~(1L << excluded1);
+      }
+      if (word == excluded2 >> 6) {
+        common &= ~(1L << excluded2);
+      }
+      if (common != 0) {
+        return chunksInDepthOrder[(word << 6) + 63 - Long.numberOfLeadingZeros(common)];
+      }
+    }
+    return null;
   }
 
   /** Returns the deepest common dependency of the given chunks. */
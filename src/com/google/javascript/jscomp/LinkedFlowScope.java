@@ -119,12 +119,40 @@ class LinkedFlowScope implements FlowScope {
   @Override
   public LinkedFlowScope inferQualifiedSlot(
       Node node, String symbol, JSType bottomType, JSType inferredType, boolean declared) {
+    return shouldInferQualifiedSlot(
+            inputProvider,
+            syntacticScope,
+            functionScope,
+            node,
+            symbol,
+            bottomType,
+            inferredType,
+            declared)
+        ? inferSlotType(symbol, inferredType)
+        : this;
+  }
+
+  /**
+   * Declares the qualified name on the appropriate scope if needed, and returns whether the given
+   * inferred type should be recorded in the flow scope.
+   *
+   * <p>Shared by all {@link FlowScope} implementations used by {@link TypeInference}.
+   */
+  static boolean shouldInferQualifiedSlot(
+      CompilerInputProvider inputProvider,
+      TypedScope syntacticScope,
+      TypedScope functionScope,
+      Node node,
+      String symbol,
+      JSType bottomType,
+      JSType inferredType,
+      boolean declared) {
     if (functionScope.isGlobal()) {
       // Do not infer qualified names on the global scope.  Ideally these would be
       // added to the scope by TypedScopeCreator, but if they are not, adding them
       // here causes scaling problems (large projects can have tens of thousands of
       // undeclared qualified names in the global scope) with no real benefit.
-      return this;
+      return false;
     }
     TypedVar v = syntacticScope.getVar(symbol);
     if (v == null && !functionScope.isBottom()) {
@@ -156,7 +184,7 @@ class LinkedFlowScope implements FlowScope {
             || !inferredType.isSubtypeOf(declaredType)
             || declaredType.isSubtypeOf(inferredType)
             || inferredType.equals(declaredType)) {
-          return this;
+          return false;
         }
       } else if (declaredType != null && !inferredType.isSubtypeOf(declaredType)) {
         // If this inferred type is incompatible with another type previously
@@ -164,7 +192,7 @@ class LinkedFlowScope implements FlowScope {
         v.setType(v.getType().getLeastSupertype(inferredType));
       }
     }
-    return inferSlotType(symbol, inferredType);
+    return true;
   }
 
   @Override
@@ -194,7 +222,7 @@ class LinkedFlowScope implements FlowScope {
     return scope != null ? scope.getSlot(name) : var;
   }
 
-  private static String getRootOfQualifiedName(String name) {
+  static String getRootOfQualifiedName(String name) {
     int index = name.indexOf('.');
     return index < 0 ? name : name.substring(0, index);
   }
@@ -24,10 +24,9 @@ import com.google.javascript.jscomp.ControlFlowGraph.Branch;
 import com.google.javascript.jscomp.MaybeReachingVariableUse.ReachingUses;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
 import com.google.javascript.jscomp.graph.GraphNode;
-import com.google.javascript.jscomp.graph.LatticeElement;
-import com.google.javascript.rhino.HamtPMap;
 import com.google.javascript.rhino.Node;
-import com.google.javascript.rhino.PMap;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -72,6 +71,11 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
   private final Set<Var> escaped;
   private final Map<String, Var> allVarsInFn;
 
+  // Uses are numbered once per function, the first time they are seen upward exposed.
+  private final FactNumbering<Use> uses = new FactNumbering<>();
+  // The numbers of the uses of each variable.
+  private final Map<Var, BitSet> usesByVar = new HashMap<>();
+
   MaybeReachingVariableUse(
       ControlFlowGraph<Node> cfg, Set<Var> escaped, Map<String, Var> allVarsInFn) {
     super(cfg);
@@ -79,6 +83,9 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
     this.allVarsInFn = allVarsInFn;
   }
 
+  /** A read of a local variable at a CFG node. */
+  private record Use(Var var, Node cfgNode) {}
+
   /**
    * May use definition lattice representation. It captures a product lattice for each local
    * (non-escaped) variable. The sub-lattice is a n + 2 power set element lattice with all the Nodes
@@ -102,11 +109,10 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
    * </code>
    *
    * <p>At N_3, reads of A in {N_4, N_5} are said to be upward exposed.
+   *
+   * <p>The product lattice is stored as the set of the numbers of all the upward exposed uses.
    */
-  static final class ReachingUses implements LatticeElement {
-    // Maps variables to all their uses that are upward exposed at the current cfgNode.
-    private PMap<Var, PMap<Node, Node>> mayUsePMap = HamtPMap.empty();
-
+  static final class ReachingUses extends BitVectorLattice {
     public ReachingUses() {}
 
     /**
@@ -115,83 +121,7 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
      * @param other The constructed object is a replicated copy of this element.
      */
     public ReachingUses(ReachingUses other) {
-      mayUsePMap = other.mayUsePMap;
-    }
-
-    public Iterable<Node> get(Var v) {
-      PMap<Node, Node> uses = this.mayUsePMap.get(v);
-      return uses != null ? uses.keys() : ImmutableList.of();
-    }
-
-    public void removeAll(Var v) {
-      mayUsePMap = mayUsePMap.minus(v);
-    }
-
-    public void put(Var v, Node n) {
-      var values = mayUsePMap.get(v);
-      if (values == null) {
-        values = HamtPMap.empty();
-      }
-      var newValues = values.plus(n, n);
-      if (newValues != values) {
-        mayUsePMap = mayUsePMap.plus(v, newValues);
-      }
-    }
-
-    public void join(ReachingUses other) {
-      mayUsePMap =
-          mayUsePMap.reconcile(
-              other.mayUsePMap,
-              (Var var, PMap<Node, Node> thisVal, PMap<Node, Node> thatVal) -> {
-                if (thisVal == null) {
-                  return thatVal;
-                }
-                if (thatVal == null) {
-                  return thisVal;
-                }
-                // The PMap as a set with the key and value pair have the same value.
-                return thisVal.reconcile(thatVal, (node, unused1, unused2) -> node);
-              });
-    }
-
-    @Override
-    public boolean equals(Object other) {
-      return (other instanceof ReachingUses reachingUses)
-          && reachingUses.mayUsePMap.equivalent(this.mayUsePMap, ReachingUses::equalMaps);
-    }
-
-    private static boolean equalMaps(PMap<Node, Node> map1, PMap<Node, Node> map2) {
-      return map1 == map2 || map1.equivalent(map2, ReachingUses::equalNodes);
-    }
-
-    private static boolean equalNodes(Node n1, Node n2) {
-      return n1 == n2;
-    }
-
-    @Override
-    public int hashCode() {
-      throw new UnsupportedOperationException("the hashcode of this object is not stable");
-    }
-  }
-
-  /**
-   * The join is a simple union because of the "may be" nature of the analysis.
-   *
-   * <p>Consider: A = 1; if (x) { A = 2 }; alert(A);
-   *
-   * <p>The read of A "may be" exposed to A = 1 in the beginning.
-   */
-  private static class ReachingUsesJoinOp implements FlowJoiner<ReachingUses> {
-    final ReachingUses result = new ReachingUses();
-
-    @Override
-    public void joinFlow(ReachingUses uses) {
-      this.result.join(uses);
-    }
-
-    @Override
-    public ReachingUses finish() {
-      return result;
+      super(other);
     }
   }
 
@@ -210,9 +140,16 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
     return new ReachingUses();
   }
 
+  /**
+   * The join is a simple union because of the "may be" nature of the analysis.
+   *
+   * <p>Consider: A = 1; if (x) { A = 2 }; alert(A);
+   *
+   * <p>The read of A "may be" exposed to A = 1 in the beginning.
+   */
   @Override
   FlowJoiner<ReachingUses> createFlowJoiner() {
-    return new ReachingUsesJoinOp();
+    return new BitVectorUnion<>(ReachingUses::new);
   }
 
   /**
@@ -389,7 +326,9 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
       return;
     }
     if (!escaped.contains(var)) {
-      use.put(var, node);
+      int number = uses.numberOf(new Use(var, node));
+      usesByVar.computeIfAbsent(var, (Var v) -> new BitSet()).set(number);
+      use.bits.set(number);
     }
   }
 
@@ -403,7 +342,10 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
       return;
     }
     if (!escaped.contains(var)) {
-      use.removeAll(var);
+      BitSet varUses = usesByVar.get(var);
+      if (varUses != null) {
+        use.bits.andNot(varUses);
+      }
     }
   }
 
@@ -420,6 +362,17 @@ class MaybeReachingVariableUse extends DataFlowAnalysis<Node, ReachingUses> {
     GraphNode<Node, Branch> n = getCfg().getNode(defNode);
     checkNotNull(n);
     LinearFlowState<ReachingUses> state = n.getAnnotation();
-    return state.getOut().get(allVarsInFn.get(name));
+    BitSet varUses = usesByVar.get(allVarsInFn.get(name));
+    if (varUses == null) {
+      return ImmutableList.of();
+    }
+    BitSet reaching = state.getOut().bits;
+    ImmutableList.Builder<Node> result = ImmutableList.builder();
+    for (int i = varUses.nextSetBit(0); i >= 0; i = varUses.nextSetBit(i + 1)) {
+      if (reaching.get(i)) {
+        result.add(uses.get(i).cfgNode());
+      }
+    }
+    return result.build();
   }
 }
@@ -19,8 +19,7 @@ package com.google.javascript.jscomp;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.javascript.rhino.Node;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Memoize a scope creator.
@@ -31,10 +30,14 @@ import java.util.Map;
  * On the other hand, you also have to be more aware of what your passes
  * are doing. Scopes are memoized stupidly, so if the underlying tree
  * changes, the scope may be out of sync.
+ *
+ * Scopes may be created from several threads at once, as long as each
+ * thread only creates scopes below parents that already exist.
  */
 class MemoizedScopeCreator implements ScopeCreator {
 
-  private final Map<Node, AbstractScope<?, ?>> scopesByScopeRoot = new LinkedHashMap<>();
+  private final ConcurrentHashMap<Node, AbstractScope<?, ?>> scopesByScopeRoot =
+      new ConcurrentHashMap<>();
   private final ScopeCreator delegate;
 
   /**
@@ -49,7 +52,10 @@ class MemoizedScopeCreator implements ScopeCreator {
     AbstractScope<?, ?> scope = scopesByScopeRoot.get(n);
     if (scope == null) {
       scope = delegate.createScope(n, parent);
-      scopesByScopeRoot.put(n, scope);
+      AbstractScope<?, ?> existing = scopesByScopeRoot.putIfAbsent(n, scope);
+      if (existing != null) {
+        scope = existing;
+      }
     } else {
       checkState(parent == scope.getParent());
     }
@@ -17,16 +17,17 @@
 package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.javascript.jscomp.ControlFlowGraph.AbstractCfgNodeTraversalCallback;
 import com.google.javascript.jscomp.ControlFlowGraph.Branch;
 import com.google.javascript.jscomp.graph.GraphNode;
-import com.google.javascript.jscomp.graph.LatticeElement;
 import com.google.javascript.rhino.Node;
-import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.jspecify.annotations.Nullable;
@@ -49,6 +50,19 @@ final class MustBeReachingVariableDef
   private final Set<Var> escaped;
   private final Map<String, Var> allVarsInFn;
 
+  // Variables are numbered once per function, and definitions the first time they are seen.
+  private final FactNumbering<Var> vars = new FactNumbering<>();
+  private final FactNumbering<DefinitionSite> definitionSites = new FactNumbering<>();
+  private final List<Definition> definitions = new ArrayList<>();
+  // Indexed by variable number: the numbers of the definitions of each variable, and of the
+  // definitions that read each variable.
+  private final List<BitSet> definitionsByVar = new ArrayList<>();
+  private final List<BitSet> dependentsByVar = new ArrayList<>();
+  // The numbers of the parameters of the function.
+  private final BitSet parameters = new BitSet();
+  // The definitions of all variables on entry to the function.
+  private final BitSet entryDefinitions = new BitSet();
+
   MustBeReachingVariableDef(
       ControlFlowGraph<Node> cfg,
       AbstractCompiler compiler,
@@ -58,8 +72,27 @@ final class MustBeReachingVariableDef
     this.compiler = compiler;
     this.escaped = escaped;
     this.allVarsInFn = allVarsInFn;
+    for (Var var : allVarsInFn.values()) {
+      int varNumber = vars.numberOf(var);
+      if (varNumber == definitionsByVar.size()) {
+        definitionsByVar.add(new BitSet());
+        dependentsByVar.add(new BitSet());
+      }
+      if (isParameter(var)) {
+        parameters.set(varNumber);
+      }
+    }
+    for (Var var : allVarsInFn.values()) {
+      entryDefinitions.set(numberDefinition(var, var.getScope().getRootNode(), null));
+    }
   }
 
+  /**
+   * Where a variable is defined: the CFG node of the definition and the value assigned, if any. A
+   * CFG node may define a variable more than once, with different values.
+   */
+  private record DefinitionSite(Var var, Node cfgNode, @Nullable Node rValue) {}
+
   /**
    * Abstraction of a local variable definition. It represents the node which a local variable is
    * defined as well as a set of other local variables that this definition reads from. For example
@@ -104,23 +137,17 @@ final class MustBeReachingVariableDef
    * than one reaching definition for the variable.
    *
    * <p>(TOP) / | | \ N1 N2 N3 ....Nn \ | | / (BOTTOM)
+   *
+   * <p>The product lattice is stored as the set of the numbers of the reaching definitions, which
+   * holds at most one definition of each variable, and the set of the numbers of the variables that
+   * are TOP. A variable that is neither TOP nor has a reaching definition is BOTTOM.
    */
-  static final class MustDef implements LatticeElement {
-
-    // TODO(user): Use bit vector instead of maps might get better
-    // performance. Change it after this is tested to be fully functional.
-
-    // When a Var "A" = "TOP", "A" does not exist in reachingDef's keySet.
-    // When a Var "A" = Node N, "A" maps to that node.
-    // When a Var "A" = "BOTTOM", "A" maps to null.
-    final LinkedHashMap<Var, Definition> reachingDef = new LinkedHashMap<>();
+  static final class MustDef extends BitVectorLattice {
+    final BitSet topVars;
 
-    public MustDef() {}
-
-    public MustDef(Collection<Var> vars) {
-      for (Var var : vars) {
-        reachingDef.put(var, new Definition(var.getScope().getRootNode()));
-      }
+    private MustDef(BitSet topVars, BitSet definitions) {
+      this.topVars = (BitSet) topVars.clone();
+      this.bits.or(definitions);
     }
 
     /**
@@ -128,48 +155,69 @@ final class MustBeReachingVariableDef
      *
      * @param other The constructed object is a replicated copy of this element.
      */
-    public MustDef(MustDef other) {
-      this.reachingDef.putAll(other.reachingDef);
+    MustDef(MustDef other) {
+      super(other);
+      this.topVars = (BitSet) other.topVars.clone();
     }
 
     @Override
     public boolean equals(Object other) {
-      return (other instanceof MustDef mustDef) && mustDef.reachingDef.equals(this.reachingDef);
+      return super.equals(other) && ((MustDef) other).topVars.equals(this.topVars);
     }
 
     @Override
     public int hashCode() {
-      return reachingDef.hashCode();
+      return 31 * super.hashCode() + topVars.hashCode();
     }
   }
 
-  private static class MustDefJoin implements FlowJoiner<MustDef> {
-
-    final MustDef result = new MustDef();
-    final LinkedHashMap<Var, Definition> resultMap = result.reachingDef;
+  /**
+   * Joins by intersecting the reaching definitions, except that a variable that is TOP in one input
+   * takes its definition from the other.
+   */
+  private final class MustDefJoin implements FlowJoiner<MustDef> {
+    private @Nullable MustDef result;
 
     @Override
     public void joinFlow(MustDef input) {
-      input.reachingDef.forEach(this::mergeVarDef);
+      if (result == null) {
+        result = new MustDef(input);
+        return;
+      }
+      BitSet fromResult = definitionsOfTopVars(input.topVars, result.topVars, result.bits);
+      BitSet fromInput = definitionsOfTopVars(result.topVars, input.topVars, input.bits);
+      result.bits.and(input.bits);
+      if (fromResult != null) {
+        result.bits.or(fromResult);
+      }
+      if (fromInput != null) {
+        result.bits.or(fromInput);
+      }
+      result.topVars.and(input.topVars);
     }
 
-    private void mergeVarDef(Var var, Definition def) {
-      final Definition resultDef;
-      if (def == null) {
-        resultDef = null;
-      } else if (!this.resultMap.containsKey(var)) {
-        resultDef = def;
-      } else if (def.equals(this.resultMap.get(var))) {
-        return;
-      } else {
-        resultDef = null;
+    /**
+     * Returns the definitions of an element that are kept because their variables are TOP in the
+     * other element, or null if there are none.
+     */
+    private @Nullable BitSet definitionsOfTopVars(
+        BitSet otherTopVars, BitSet topVars, BitSet definitions) {
+      if (otherTopVars.isEmpty() || otherTopVars.equals(topVars)) {
+        return null;
+      }
+      BitSet kept = new BitSet();
+      for (int v = otherTopVars.nextSetBit(0); v >= 0; v = otherTopVars.nextSetBit(v + 1)) {
+        if (!topVars.get(v)) {
+          kept.or(definitionsByVar.get(v));
+        }
       }
-      this.resultMap.put(var, resultDef);
+      kept.and(definitions);
+      return kept;
     }
 
     @Override
     public MustDef finish() {
-      return this.result;
+      return checkNotNull(result);
     }
   }
 
@@ -180,12 +228,14 @@ final class MustBeReachingVariableDef
 
   @Override
   MustDef createEntryLattice() {
-    return new MustDef(allVarsInFn.values());
+    return new MustDef(new BitSet(), entryDefinitions);
   }
 
   @Override
   MustDef createInitialEstimateLattice() {
-    return new MustDef();
+    BitSet allVars = new BitSet();
+    allVars.set(0, vars.size());
+    return new MustDef(allVars, new BitSet());
   }
 
   @Override
@@ -195,8 +245,6 @@ final class MustBeReachingVariableDef
 
   @Override
   MustDef flowThrough(Node n, MustDef input) {
-    // TODO(user): We are doing a straight copy from input to output. There
-    // might be some opportunities to cut down overhead.
     MustDef output = new MustDef(input);
     // TODO(user): This must know about ON_EX edges but it should handle
     // it better than what we did in liveness. Because we are in a forward mode,
@@ -353,50 +401,50 @@ final class MustBeReachingVariableDef
       return;
     }
 
-    for (Map.Entry<Var, Definition> pair : def.reachingDef.entrySet()) {
-      Definition otherDef = pair.getValue();
-      if (otherDef == null) {
-        continue;
-      }
-      if (otherDef.depends.contains(var)) {
-        pair.setValue(null);
+    // Definitions that read the variable no longer hold.
+    int varNumber = vars.numberOf(var);
+    def.bits.andNot(dependentsByVar.get(varNumber));
+
+    if (!escaped.contains(var)) {
+      def.bits.andNot(definitionsByVar.get(varNumber));
+      def.topVars.clear(varNumber);
+      if (node != null) {
+        def.bits.set(numberDefinition(var, node, rValue));
       }
     }
+  }
 
-    if (!escaped.contains(var)) {
-      if (node == null) {
-        def.reachingDef.put(var, null);
-      } else {
-        Definition definition = new Definition(node);
-        if (rValue != null) {
-          computeDependence(definition, rValue);
-        }
-        def.reachingDef.put(var, definition);
+  /**
+   * Returns the number of the definition of a variable, creating the definition if it was not seen
+   * before.
+   */
+  private int numberDefinition(Var var, Node node, @Nullable Node rValue) {
+    int number = definitionSites.numberOf(new DefinitionSite(var, node, rValue));
+    if (number == definitions.size()) {
+      Definition definition = new Definition(node);
+      if (rValue != null) {
+        computeDependence(definition, rValue);
+      }
+      definitions.add(definition);
+      definitionsByVar.get(vars.numberOf(var)).set(number);
+      for (Var dep : definition.depends) {
+        dependentsByVar.get(vars.numberOf(dep)).set(number);
       }
     }
+    return number;
   }
 
   private void escapeParameters(MustDef output) {
-    for (Var v : allVarsInFn.values()) {
-      if (isParameter(v)) {
-        // Assume we no longer know where the parameter comes from
-        // anymore.
-        output.reachingDef.put(v, null);
-      }
+    for (int v = parameters.nextSetBit(0); v >= 0; v = parameters.nextSetBit(v + 1)) {
+      // Assume we no longer know where the parameter comes from
+      // anymore.
+      output.bits.andNot(definitionsByVar.get(v));
+      output.topVars.clear(v);
     }
 
     // Also, assume we no longer know anything that depends on a parameter.
-    for (Map.Entry<Var, Definition> pair : output.reachingDef.entrySet()) {
-      Definition value = pair.getValue();
-      if (value == null) {
-        continue;
-      }
-      for (Var dep : value.depends) {
-        if (isParameter(dep)) {
-          pair.setValue(null);
-          break;
-        }
-      }
+    for (int v = parameters.nextSetBit(0); v >= 0; v = parameters.nextSetBit(v + 1)) {
+      output.bits.andNot(dependentsByVar.get(v));
     }
   }
 
@@ -434,11 +482,26 @@ final class MustBeReachingVariableDef
    *     parameters, escaped variables or variables declared in catch.
    * @param useNode the location of the use where the definition reaches.
    */
-  Definition getDef(String name, Node useNode) {
+  @Nullable Definition getDef(String name, Node useNode) {
     checkArgument(getCfg().hasNode(useNode));
     GraphNode<Node, Branch> n = getCfg().getNode(useNode);
     LinearFlowState<MustDef> state = n.getAnnotation();
-    return state.getIn().reachingDef.get(allVarsInFn.get(name));
+    Var var = allVarsInFn.get(name);
+    if (var == null) {
+      return null;
+    }
+    MustDef in = state.getIn();
+    int varNumber = vars.numberOf(var);
+    if (in.topVars.get(varNumber)) {
+      return null;
+    }
+    BitSet varDefinitions = definitionsByVar.get(varNumber);
+    for (int i = varDefinitions.nextSetBit(0); i >= 0; i = varDefinitions.nextSetBit(i + 1)) {
+      if (in.bits.get(i)) {
+        return definitions.get(i);
+      }
+    }
+    return null;
   }
 
   @Nullable Node getDefNode(String name, Node useNode) {
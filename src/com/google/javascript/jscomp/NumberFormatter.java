@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.javascript.jscomp.base.JSCompDoubles.isPositive;
+
+/**
+ * Formats the non-negative numbers printed by {@link CodeConsumer#addNumber}.
+ *
+ * <p>Integers that fit in a long are printed in decimal, in hexadecimal or with an exponent,
+ * whichever is shortest. Other numbers are printed as {@link Double#toString} prints them, which is
+ * the shortest decimal that rounds to the number, but without a ".0" before the exponent or a
+ * leading zero.
+ *
+ * <p>The shortest decimal is found by trying the decimals with fewer significant digits first. For
+ * most numbers, these decimals have a significand and a power of ten that are exact doubles, so
+ * whether they round to the number can be checked with a single multiplication or division. The
+ * other numbers are formatted from {@link Double#toString}.
+ */
+final class NumberFormatter {
+
+  /** The maximum number of chars written by {@link #format(double, char[])}. */
+  static final int MAX_LENGTH = 32;
+
+  private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+  private static final double LOG10_2 = Math.log10(2);
+
+  // The powers of ten that are exact doubles.
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  static String format(double x) {
+    char[] chars = new char[MAX_LENGTH];
+    return new String(chars, 0, format(x, chars));
+  }
+
+  /**
+   * Writes the number at the start of the given array.
+   *
+   * @return the number of chars written, at most {@link #MAX_LENGTH}
+   */
+  static int format(double x, char[] chars) {
+    checkArgument(isPositive(x), x);
+    long value = (long) x;
+    return value == x ? formatLong(value, chars) : formatDouble(x, chars);
+  }
+
+  private static int formatLong(long value, char[] chars) {
+    long mantissa = value;
+    int exp = 0;
+    if (value >= 100) {
+      while (mantissa % 10 == 0) {
+        mantissa /= 10;
+        exp++;
+      }
+    }
+
+    if (exp > 2) {
+      int length = writeDecimal(mantissa, chars, 0);
+      chars[length++] = 'E';
+      return writeDecimal(exp, chars, length);
+    }
+
+    if (value <= 1000000000000L) {
+      // Values <1E12 are shorter in decimal
+      return writeDecimal(value, chars, 0);
+    }
+
+    int hexLength = (Long.SIZE - Long.numberOfLeadingZeros(value) + 3) / 4;
+    if (hexLength + 2 >= decimalLength(value)) {
+      return writeDecimal(value, chars, 0);
+    }
+    chars[0] = '0';
+    chars[1] = 'x';
+    for (int i = hexLength + 1; i >= 2; i--) {
+      chars[i] = HEX_DIGITS[(int) (value & 0xF)];
+      value >>>= 4;
+    }
+    return hexLength + 2;
+  }
+
+  private static int formatDouble(double x, char[] chars) {
+    if (!Double.isFinite(x) || x < Double.MIN_NORMAL) {
+      return formatFromToString(x, chars);
+    }
+
+    // Start from a power of ten that is at least the leading digit's, so that the decimals with
+    // fewer significant digits are tried first.
+    int exponent = (int) Math.floor(Math.getExponent(x) * LOG10_2) + 1;
+    double ulp = Math.ulp(x);
+    for (; exponent >= -22 && exponent <= 22; exponent--) {
+      double power = POWERS_OF_TEN[Math.abs(exponent)];
+      double scaled = exponent >= 0 ? x / power : x * power;
+      if (scaled >= MAX_EXACT_SIGNIFICAND - 4) {
+        break;
+      }
+      // A decimal with this power of ten that rounds to x is within half an ulp of x. Its
+      // significand is then within a scaled ulp of the rounded scaled x, which usually contains no
+      // integer when there are not enough significant digits.
+      double slack = (exponent >= 0 ? ulp / power : ulp * power) + Math.ulp(scaled);
+      long significand = 0;
+      for (long candidate = Math.max(1, (long) Math.ceil(scaled - slack));
+          candidate <= scaled + slack;
+          candidate++) {
+        if (toDouble(candidate, exponent) == x) {
+          if (significand != 0) {
+            // The closest one to x is the one to choose, which takes more than doubles to tell.
+            return formatFromToString(x, chars);
+          }
+          significand = candidate;
+        }
+      }
+      if (significand != 0) {
+        while (significand % 10 == 0) {
+          significand /= 10;
+          exponent++;
+        }
+        return writeDecimal(significand, exponent, chars);
+      }
+    }
+    return formatFromToString(x, chars);
+  }
+
+  /** Converts an exact significand and power of ten to the nearest double, as parsing would. */
+  private static double toDouble(long significand, int exponent) {
+    return exponent >= 0
+        ? significand * POWERS_OF_TEN[exponent]
+        : significand / POWERS_OF_TEN[-exponent];
+  }
+
+  /**
+   * Writes {@code significand * 10^exponent} as {@link Double#toString} would, without a ".0"
+   * before the exponent or a leading zero.
+   */
+  private static int writeDecimal(long significand, int exponent, char[] chars) {
+    int digits = decimalLength(significand);
+    int leadingExponent = digits - 1 + exponent;
+    if (leadingExponent < -3 || leadingExponent >= 7) {
+      // Computerized scientific notation, such as 1.5E-7, or 1E21 instead of 1.0E21.
+      int length = writeDecimal(significand, chars, 0);
+      if (digits > 1) {
+        System.arraycopy(chars, 1, chars, 2, digits - 1);
+        chars[1] = '.';
+        length++;
+      }
+      chars[length++] = 'E';
+      if (leadingExponent < 0) {
+        chars[length++] = '-';
+      }
+      return writeDecimal(Math.abs(leadingExponent), chars, length);
+    } else if (leadingExponent < 0) {
+      // Such as .0015 instead of 0.0015.
+      int length = 0;
+      chars[length++] = '.';
+      for (int i = -1; i > leadingExponent; i--) {
+        chars[length++] = '0';
+      }
+      return writeDecimal(significand, chars, length);
+    } else {
+      // Such as 15.25, which always has a fraction as integers are formatted as longs.
+      int integerDigits = leadingExponent + 1;
+      int length = writeDecimal(significand, chars, 0);
+      System.arraycopy(chars, integerDigits, chars, integerDigits + 1, digits - integerDigits);
+      chars[integerDigits] = '.';
+      return length + 1;
+    }
+  }
+
+  private static int formatFromToString(double x, char[] chars) {
+    String string = Double.toString(x);
+    int length = 0;
+    for (int i = string.startsWith("0.") ? 1 : 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c == '.' && string.startsWith("0E", i + 1)) {
+        i++;
+        continue;
+      }
+      chars[length++] = c;
+    }
+    return length;
+  }
+
+  /** Writes a non-negative value in decimal at the given offset, and returns the new length. */
+  private static int writeDecimal(long value, char[] chars, int offset) {
+    int end = offset + decimalLength(value);
+    for (int i = end - 1; i >= offset; i--) {
+      chars[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return end;
+  }
+
+  private static int decimalLength(long value) {
+    int length = 1;
+    while (value >= 10) {
+      value /= 10;
+      length++;
+    }
+    return length;
+  }
+
+  private NumberFormatter() {}
+}
@@ -22,15 +22,13 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
-import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import com.google.javascript.jscomp.NodeTraversal.ScopedCallback;
 import com.google.javascript.rhino.Node;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -119,40 +117,14 @@ class OptimizeCalls implements CompilerPass {
       return;
     }
 
-    final ReferenceMap references = new ReferenceMap();
-    NodeTraversal.traverseRoots(
-        compiler, new ReferenceMapBuildingCallback(references), externs, root);
-    eliminateAccessorsFrom(references);
+    final ReferenceMap references =
+        ReferenceMapIndex.getOrCreate(compiler, externs, root).getReferenceMap(considerExterns);
 
     for (CallGraphCompilerPass pass : passes) {
       pass.process(externs, root, references);
     }
   }
 
-  /**
-   * Delete getter and setter names from {@code references}.
-   *
-   * <p>Accessor names are disqualified from being in the {@code ReferenceMap}. We don't
-   * intentionally collect them, but other properties may share the same names. One reason why we do
-   * this is exemplified below:
-   *
-   * <pre>{@code
-   * class A {
-   *   pure() { }
-   * }
-   *
-   * class B {
-   *   get pure() { return impure; }
-   * }
-   *
-   * var x = (Math.random() > 0.5) ? new A() : new B();
-   * x.pure(); // We can't safely optimize this call.
-   * }</pre>
-   */
-  private void eliminateAccessorsFrom(ReferenceMap references) {
-    references.props.keySet().removeAll(compiler.getAccessorSummary().getAccessors().keySet());
-  }
-
   /** A reference map for global symbols and properties. */
   static class ReferenceMap {
     private Scope globalScope;
@@ -164,6 +136,12 @@ class OptimizeCalls implements CompilerPass {
       refs.add(n);
     }
 
+    private void addReferences(
+        LinkedHashMap<String, ArrayList<Node>> data, String name, List<Node> nodes) {
+      ArrayList<Node> refs = data.computeIfAbsent(name, (String k) -> new ArrayList<>());
+      refs.addAll(nodes);
+    }
+
     void addNameReference(String name, Node n) {
       addReference(names, name, n);
     }
@@ -172,6 +150,22 @@ class OptimizeCalls implements CompilerPass {
       addReference(props, name, n);
     }
 
+    void addNameReferences(String name, List<Node> nodes) {
+      addReferences(names, name, nodes);
+    }
+
+    void addPropReferences(String name, List<Node> nodes) {
+      addReferences(props, name, nodes);
+    }
+
+    void removeNameReferences(Collection<String> names) {
+      this.names.keySet().removeAll(names);
+    }
+
+    void setGlobalScope(Scope globalScope) {
+      this.globalScope = globalScope;
+    }
+
     Scope getGlobalScope() {
       return globalScope;
     }
@@ -409,118 +403,6 @@ class OptimizeCalls implements CompilerPass {
     }
   }
 
-  private static Set<String> safeSet(@Nullable Set<String> set) {
-    return (set != null) ? ImmutableSet.copyOf(set) : ImmutableSet.of();
-  }
-
-  private final class ReferenceMapBuildingCallback implements ScopedCallback {
-    final Set<String> externProps;
-    final ReferenceMap references;
-    private Scope globalScope;
-
-    ReferenceMapBuildingCallback(ReferenceMap references) {
-      this.externProps = safeSet(compiler.getExternProperties());
-      this.references = references;
-    }
-
-    @Override
-    public void visit(NodeTraversal t, Node n, Node unused) {
-      switch (n.getToken()) {
-        case NAME -> maybeAddNameReference(n.getString(), n);
-        case OPTCHAIN_GETPROP, GETPROP -> maybeAddPropReference(n.getString(), n);
-        case CALL -> {
-          // If we are using goog.reflect.objectProperty on this symbol, we will assume that it
-          // gets referenced.
-          Node fnName = n.getFirstChild();
-          if (compiler.getCodingConvention().isPropertyRenameFunction(fnName)) {
-            Node propName = NodeUtil.getArgumentForCallOrNew(n, 0);
-            if (propName != null) {
-              maybeAddPropReference(propName.getString(), n);
-            }
-          }
-        }
-
-        case STRING_KEY, GETTER_DEF, SETTER_DEF, MEMBER_FUNCTION_DEF, MEMBER_FIELD_DEF -> {
-          // ignore quoted keys.
-          if (!n.isQuotedStringKey()) {
-            maybeAddPropReference(n.getString(), n);
-          }
-        }
-
-        case SUPER -> visitSuper(n);
-        case
-            // Ignore quoted and computed keys.
-            // TODO(johnlenz): support symbols.
-            COMPUTED_PROP,
-            COMPUTED_FIELD_DEF,
-            OPTCHAIN_GETELEM,
-            GETELEM,
-            // Don't worry about invisible accesses using object rest/spread. To be invoked there
-            // would need to be downstream references that use the actual name. We'd see those.
-            OBJECT_REST,
-            OBJECT_SPREAD -> {}
-        default -> {}
-      }
-    }
-
-    private void visitSuper(Node superNode) {
-      // Determine whether this is a super() constructor call.
-      // If it is, identify the super class and record this as a reference to that.
-      Node parent = superNode.getParent();
-      if (parent.isCall() && superNode.isFirstChildOf(parent)) {
-        Node enclosingClass = checkNotNull(NodeUtil.getEnclosingClass(parent));
-        Node extendsNode = enclosingClass.getSecondChild();
-        checkState(!extendsNode.isEmpty(), "super call appears in class without extends clause");
-        if (extendsNode.isName()) {
-          maybeAddNameReference(extendsNode.getString(), superNode);
-        } else if (extendsNode.isGetProp()) {
-          // NOTE: Theoretically we could also include an optional chain getprop here, but
-          // A) it's a runtime error if the value ends up being undefined, so that's bad code
-          // B) the author is indicating uncertainty, so we should be cautious.
-          maybeAddPropReference(extendsNode.getString(), superNode);
-        } // else we cannot tell what super() is referencing (e.g. `class extends getMixin() {`)
-      }
-    }
-
-    private void maybeAddNameReference(String name, Node n) {
-      // TODO(b/129503101): Why are we limiting ourselves to global names?
-      Var var = globalScope.getSlot(name);
-      if (var != null && (considerExterns || !var.isExtern())) {
-        // As every name declaration is unique due to normalizations, it is only necessary to build
-        // the global scope and ask it if it knows about a name as it can never be shadowed.
-        references.addNameReference(name, n);
-      }
-    }
-
-    private void maybeAddPropReference(String name, Node n) {
-      if (considerExterns || !externProps.contains(name)) {
-        references.addPropReference(name, n);
-      }
-    }
-
-    @Override
-    public boolean shouldTraverse(NodeTraversal t, Node n, Node parent) {
-      if (n.isScript()) {
-        // Even when considering externs, we only care about top-level identifiers. Dummy function
-        // parameters, for example, shouldn't be considered references.
-        return (considerExterns && t.inGlobalScope()) || !n.isFromExterns();
-      } else {
-        return true;
-      }
-    }
-
-    @Override
-    public void enterScope(NodeTraversal t) {
-      if (t.inGlobalScope()) {
-        this.globalScope = t.getScope();
-        references.globalScope = this.globalScope;
-      }
-    }
-
-    @Override
-    public void exitScope(NodeTraversal t) {}
-  }
-
   /** @return Whether the provide name may be a candidate for call optimizations. */
   static boolean mayBeOptimizableName(AbstractCompiler compiler, String name) {
     if (compiler.getCodingConvention().isExported(name)) {
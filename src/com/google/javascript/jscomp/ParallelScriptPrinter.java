@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.javascript.jscomp.CodePrinter.LicenseTracker;
+import com.google.javascript.jscomp.CodePrinter.SourceAndMappings;
+import com.google.javascript.jscomp.base.JSCompThreads;
+import com.google.javascript.rhino.Node;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Prints scripts on several threads, each with its own {@link CodePrinter}.
+ *
+ * <p>The source mappings of each script are relative to its start, as they are when printing
+ * serially, so the caller still concatenates the scripts in order and offsets their mappings. The
+ * only state shared between scripts while printing is the license tracker. Instead of the caller's
+ * tracker, each script is given one that records the nodes a tracker would look at, which the
+ * caller replays into its tracker in script order. This gives the same licenses as serial printing
+ * for the trackers that only look at the source file of nodes that are not roots or scripts, and
+ * skip a node from the same file as the previous one.
+ */
+final class ParallelScriptPrinter {
+
+  /** Prints a script for {@link Compiler#toSource}. */
+  interface ScriptPrinter {
+    SourceAndMappings print(Node script, int inputSeqNum, LicenseTracker licenseTracker);
+  }
+
+  /** A printed script, and the nodes whose licenses it may need. */
+  record PrintedScript(SourceAndMappings sourceAndMappings, ImmutableList<Node> licenseNodes) {
+    /** Reports the nodes whose licenses this script may need to the given tracker. */
+    void replayLicenses(LicenseTracker licenseTracker) {
+      for (Node node : licenseNodes) {
+        licenseTracker.trackLicensesForNode(node);
+      }
+    }
+  }
+
+  /** The scripts of a chunk, printed by {@link Compiler#printChunk}. */
+  record PrintedChunk(ImmutableList<Node> scripts, ImmutableList<PrintedScript> printedScripts) {}
+
+  // How long idle threads are kept for the next scripts to print.
+  private static final long KEEP_ALIVE_SECONDS = 10;
+
+  // Shared by all the scripts printed by a compiler. Its threads stop once they are idle for a
+  // while, so it need not be shut down.
+  private final ExecutorService executor;
+
+  ParallelScriptPrinter(int numParallelThreads) {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            numParallelThreads,
+            numParallelThreads,
+            KEEP_ALIVE_SECONDS,
+            SECONDS,
+            new LinkedBlockingQueue<>(),
+            JSCompThreads.newDaemonThreadFactory("jscompiler-ParallelScriptPrinter"));
+    executor.allowCoreThreadTimeOut(true);
+    this.executor = executor;
+  }
+
+  /** Whether licenses recorded while printing in parallel can be replayed into the tracker. */
+  static boolean canReplayLicenses(LicenseTracker licenseTracker) {
+    return licenseTracker instanceof Compiler.SingleBinaryLicenseTracker
+        || licenseTracker.getClass() == Compiler.ChunkGraphAwareLicenseTracker.class;
+  }
+
+  /** Prints the scripts, numbering them in order from zero. */
+  ImmutableList<PrintedScript> print(List<Node> scripts, ScriptPrinter printer) {
+    List<Future<PrintedScript>> tasks = new ArrayList<>(scripts.size());
+    try {
+      for (int i = 0; i < scripts.size(); i++) {
+        Node script = scripts.get(i);
+        int inputSeqNum = i;
+        tasks.add(executor.submit(() -> printScript(script, inputSeqNum, printer)));
+      }
+      ImmutableList.Builder<PrintedScript> printed = ImmutableList.builder();
+      for (Future<PrintedScript> task : tasks) {
+        printed.add(Uninterruptibles.getUninterruptibly(task));
+      }
+      return printed.build();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      // Do not leave the scripts that are not printed yet for the next call.
+      for (Future<PrintedScript> task : tasks) {
+        task.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Prints a single script on the calling thread, recording the nodes whose licenses it may need
+   * instead of tracking them.
+   */
+  static PrintedScript printScript(Node script, int inputSeqNum, ScriptPrinter printer) {
+    LicenseNodeRecorder recorder = new LicenseNodeRecorder();
+    SourceAndMappings sourceAndMappings = printer.print(script, inputSeqNum, recorder);
+    return new PrintedScript(sourceAndMappings, ImmutableList.copyOf(recorder.nodes));
+  }
+
+  /**
+   * Records the first node of each run of nodes from the same file, ignoring roots and scripts.
+   */
+  private static final class LicenseNodeRecorder implements LicenseTracker {
+    private final List<Node> nodes = new ArrayList<>();
+    private @Nullable String lastSeenFile = null;
+
+    @Override
+    public void trackLicensesForNode(Node node) {
+      if (node.isRoot() || node.isScript()) {
+        return;
+      }
+      String file = node.getSourceFileName();
+      if (file == null || file.equals(lastSeenFile)) {
+        return;
+      }
+      lastSeenFile = file;
+      nodes.add(node);
+    }
+
+    @Override
+    public ImmutableSet<String> emitLicenses() {
+      return ImmutableSet.of();
+    }
+  }
+}
@@ -33,8 +33,11 @@ import java.io.PrintStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A PerformanceTracker collects statistics about the runtime of each pass, and how much a pass
@@ -42,6 +45,7 @@ import java.util.List;
  */
 public final class PerformanceTracker {
   private static final int DEFAULT_WHEN_SIZE_UNTRACKED = -1;
+  private static final String PASS_NAME = "PerformanceTracker";
 
   private final Node externsRoot;
 
@@ -53,6 +57,12 @@ public final class PerformanceTracker {
 
   private Node jsRoot;
 
+  // Reports the scripts whose size estimates are out of date, if available.
+  private final @Nullable ChangeTracker changeTracker;
+
+  // The size estimates of the scripts that are known to be up to date.
+  private Map<Node, CodeSize> codeSizesByScript = new HashMap<>();
+
   private int initAstSize = DEFAULT_WHEN_SIZE_UNTRACKED;
   private int initCodeSize = DEFAULT_WHEN_SIZE_UNTRACKED;
   private int initGzCodeSize = DEFAULT_WHEN_SIZE_UNTRACKED;
@@ -100,11 +110,21 @@ public final class PerformanceTracker {
   private final List<Stats> log = new ArrayList<>();
 
   PerformanceTracker(Node externsRoot, Node jsRoot, TracerMode mode) {
+    this(externsRoot, jsRoot, mode, null);
+  }
+
+  /**
+   * @param changeTracker reports the scripts that changed between passes, so that only their code
+   *     size is estimated again. Without it, the size of every script is estimated after each pass.
+   */
+  PerformanceTracker(
+      Node externsRoot, Node jsRoot, TracerMode mode, @Nullable ChangeTracker changeTracker) {
     checkArgument(mode != TracerMode.OFF, "PerformanceTracker can't work without tracer data.");
     this.startTime = System.currentTimeMillis();
     this.externsRoot = externsRoot;
     this.jsRoot = jsRoot;
     this.mode = mode;
+    this.changeTracker = changeTracker;
   }
 
   CodeChangeHandler getCodeChangeHandler() {
@@ -125,6 +145,7 @@ public final class PerformanceTracker {
   void updateAfterDeserialize(Node jsRoot) {
     // TODO(bradfordcsmith): Restore line counts for inputs and externs.
     this.jsRoot = jsRoot;
+    this.codeSizesByScript = new HashMap<>();
     if (!tracksAstSize()) {
       return;
     }
@@ -132,11 +153,10 @@ public final class PerformanceTracker {
     if (!tracksSize()) {
       return;
     }
-    PerformanceTrackerCodeSizeEstimator estimator =
-        PerformanceTrackerCodeSizeEstimator.estimate(this.jsRoot, tracksGzSize());
-    this.initCodeSize = this.codeSize = estimator.getCodeSize();
+    CodeSize estimate = estimateCodeSize();
+    this.initCodeSize = this.codeSize = estimate.size();
     if (tracksGzSize()) {
-      this.initGzCodeSize = this.gzCodeSize = estimator.getZippedCodeSize();
+      this.initGzCodeSize = this.gzCodeSize = estimate.gzSize();
     }
   }
 
@@ -179,11 +199,10 @@ public final class PerformanceTracker {
     if (!tracksSize()) {
       return;
     }
-    PerformanceTrackerCodeSizeEstimator estimator =
-        PerformanceTrackerCodeSizeEstimator.estimate(this.jsRoot, tracksGzSize());
-    logStats.size = this.initCodeSize = this.codeSize = estimator.getCodeSize();
+    CodeSize estimate = estimateCodeSize();
+    logStats.size = this.initCodeSize = this.codeSize = estimate.size();
     if (tracksGzSize()) {
-      logStats.gzSize = this.initGzCodeSize = this.gzCodeSize = estimator.getZippedCodeSize();
+      logStats.gzSize = this.initGzCodeSize = this.gzCodeSize = estimate.gzSize();
     }
   }
 
@@ -194,18 +213,58 @@ public final class PerformanceTracker {
     if (!tracksSize()) {
       return;
     }
-    PerformanceTrackerCodeSizeEstimator estimator =
-        PerformanceTrackerCodeSizeEstimator.estimate(this.jsRoot, tracksGzSize());
-    newSize = estimator.getCodeSize();
+    CodeSize estimate = estimateCodeSize();
+    newSize = estimate.size();
     logStats.diff = this.codeSize - newSize;
     this.codeSize = logStats.size = newSize;
     if (tracksGzSize()) {
-      newSize = estimator.getZippedCodeSize();
+      newSize = estimate.gzSize();
       logStats.gzDiff = this.gzCodeSize - newSize;
       this.gzCodeSize = logStats.gzSize = newSize;
     }
   }
 
+  /**
+   * Estimates the size of the code, as the sum of the estimated sizes of each script. Only the
+   * scripts that changed since the last estimate are estimated again, so the gzipped size is the
+   * sum of the gzipped sizes of the scripts rather than the gzipped size of the whole program.
+   */
+  private CodeSize estimateCodeSize() {
+    List<Node> changedScopeRoots =
+        changeTracker == null ? null : changeTracker.getChangedScopeNodesForPass(PASS_NAME);
+    if (changedScopeRoots == null) {
+      codeSizesByScript.clear();
+    } else {
+      for (Node scopeRoot : changedScopeRoots) {
+        Node script = scopeRoot.isScript() ? scopeRoot : NodeUtil.getEnclosingScript(scopeRoot);
+        if (script != null) {
+          codeSizesByScript.remove(script);
+        }
+      }
+    }
+
+    // Also drops the scripts that are no longer in the AST.
+    Map<Node, CodeSize> currentSizes = new HashMap<>();
+    int size = 0;
+    int gzSize = 0;
+    for (Node script = this.jsRoot.getFirstChild(); script != null; script = script.getNext()) {
+      CodeSize scriptSize = codeSizesByScript.get(script);
+      if (scriptSize == null) {
+        PerformanceTrackerCodeSizeEstimator estimator =
+            PerformanceTrackerCodeSizeEstimator.estimate(script, tracksGzSize());
+        scriptSize = new CodeSize(estimator.getCodeSize(), estimator.getZippedCodeSize());
+      }
+      currentSizes.put(script, scriptSize);
+      size += scriptSize.size();
+      gzSize += scriptSize.gzSize();
+    }
+    codeSizesByScript = currentSizes;
+    return new CodeSize(size, gzSize);
+  }
+
+  /** The estimated size of some code, before and after gzip. */
+  private record CodeSize(int size, int gzSize) {}
+
   private void recordInputCount() {
     for (Node n = this.externsRoot.getFirstChild(); n != null; n = n.getNext()) {
       if (NodeUtil.isFromTypeSummary(n)) {
@@ -69,6 +69,36 @@ final class PerformanceTrackerCodeSizeEstimator extends CodeConsumer {
     }
   }
 
+  @Override
+  void append(char c) {
+    if (trackGzSize && c >= 0x80) {
+      append(String.valueOf(c));
+      return;
+    }
+    size++;
+    lastChar = c;
+    if (trackGzSize) {
+      try {
+        stream.write(c);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  @Override
+  void append(CharSequence chars) {
+    if (trackGzSize) {
+      append(chars.toString());
+      return;
+    }
+    int len = chars.length();
+    if (len > 0) {
+      size += len;
+      lastChar = chars.charAt(len - 1);
+    }
+  }
+
   @Override
   char getLastChar() {
     return lastChar;
@@ -70,7 +70,7 @@ final class PolymerPass extends ExternsSkippingCallback implements CompilerPass
     polymerElementExterns = externsCallback.getPolymerElementExterns();
     polymerElementProps = externsCallback.getPolymerElementProps();
 
-    globalNames = new GlobalNamespace(compiler, externs, root);
+    globalNames = GlobalNamespaceProvider.getOrCreate(compiler, externs, root);
     behaviorExtractor =
         new PolymerBehaviorExtractor(
             compiler, globalNames, compiler.getModuleMetadataMap(), compiler.getModuleMap());
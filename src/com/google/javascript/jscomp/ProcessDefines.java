@@ -259,7 +259,7 @@ class ProcessDefines implements CompilerPass {
       this.namespace = namespaceSupplier.get();
     }
     if (this.namespace == null) {
-      this.namespace = new GlobalNamespace(compiler, externs, root);
+      this.namespace = GlobalNamespaceProvider.getOrCreate(compiler, externs, root);
     }
   }
 
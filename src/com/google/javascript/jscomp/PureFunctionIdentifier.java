@@ -32,6 +32,7 @@ import com.google.javascript.jscomp.AccessorSummary.PropertyAccessKind;
 import com.google.javascript.jscomp.CodingConvention.Cache;
 import com.google.javascript.jscomp.NodeTraversal.ScopedCallback;
 import com.google.javascript.jscomp.OptimizeCalls.ReferenceMap;
+import com.google.javascript.jscomp.base.JSCompThreads;
 import com.google.javascript.jscomp.graph.DiGraph;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
 import com.google.javascript.jscomp.graph.FixedPointGraphTraversal;
@@ -43,10 +44,14 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Predicate;
 import org.jspecify.annotations.Nullable;
 
@@ -190,7 +195,7 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
 
     populateDatastructuresForAnalysisTraversal(references);
 
-    NodeTraversal.traverse(compiler, externs, new ExternFunctionAnnotationAnalyzer());
+    analyzeExternFunctions(externs);
     NodeTraversal.traverse(compiler, root, new FunctionBodyAnalyzer());
 
     propagateSideEffects();
@@ -562,14 +567,32 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
    * Propagate side effect information in {@link #reverseCallGraph} from callees to callers.
    *
    * <p>This is an iterative process executed until a fixed point, where no caller summary would be
-   * given new side-effects from from any callee summary, is reached.
+   * given new side-effects from from any callee summary, is reached. The graph is processed one
+   * strongly connected component at a time, callees first, so only recursive functions need more
+   * than one visit. Components that do not call each other are processed in parallel when the
+   * compiler may use more than one thread; each propagation only updates its caller, which belongs
+   * to the component being processed.
    */
   private void propagateSideEffects() {
-    FixedPointGraphTraversal.newTraversal(
+    FixedPointGraphTraversal<AmbiguatedFunctionSummary, SideEffectPropagation> traversal =
+        FixedPointGraphTraversal.newTraversal(
             (AmbiguatedFunctionSummary source,
                 SideEffectPropagation edge,
-                AmbiguatedFunctionSummary destination) -> edge.propagate(source, destination))
-        .computeFixedPoint(reverseCallGraph);
+                AmbiguatedFunctionSummary destination) -> edge.propagate(source, destination));
+    int numParallelThreads = compiler.getOptions().getNumParallelThreads();
+    if (numParallelThreads <= 1) {
+      traversal.computeFixedPointByComponents(reverseCallGraph, null);
+      return;
+    }
+
+    ThreadFactory threadFactory =
+        JSCompThreads.newDaemonThreadFactory("jscompiler-PureFunctionIdentifier");
+    ExecutorService executor = Executors.newFixedThreadPool(numParallelThreads, threadFactory);
+    try {
+      traversal.computeFixedPointByComponents(reverseCallGraph, executor);
+    } finally {
+      executor.shutdownNow();
+    }
   }
 
   /** Set no side effect property at pure-function call sites. */
@@ -637,54 +660,145 @@ class PureFunctionIdentifier implements OptimizeCalls.CallGraphCompilerPass {
   }
 
   /**
-   * Inspects function JSDoc for side effects and applies them to the associated {@link
-   * AmbiguatedFunctionSummary}.
+   * Inspects the JSDoc of extern functions for side effects and applies them to the associated
+   * {@link AmbiguatedFunctionSummary}.
+   */
+  private void analyzeExternFunctions(Node externs) {
+    for (ExternFunction externFunction :
+        ExternFunctionIndex.getOrCreate(compiler, externs).getFunctions()) {
+      for (AmbiguatedFunctionSummary definitionSummary :
+          summariesForAllNamesOfFunctionByNode.get(externFunction.function())) {
+        updateSideEffectsForExternFunction(externFunction, definitionSummary);
+      }
+    }
+  }
+
+  private static void updateSideEffectsForExternFunction(
+      ExternFunction externFunction, AmbiguatedFunctionSummary summary) {
+    Node function = externFunction.function();
+    checkArgument(function.isFunction());
+    checkArgument(function.isFromExterns());
+
+    JSDocInfo info = externFunction.info();
+    if (info == null) {
+      // We don't know anything about this function so we assume it has side effects.
+      summary.setMutatesGlobalStateAndAllOtherFlags(function);
+      return;
+    }
+
+    if (info.modifiesThis()) {
+      summary.setMutatesThis(function);
+    }
+    if (info.hasSideEffectsArgumentsAnnotation()) {
+      summary.setMutatesArguments(function);
+    }
+    if (!info.getThrowsAnnotations().isEmpty()) {
+      summary.setThrows(function);
+    }
+
+    if (!info.isNoSideEffects() && summary.hasNoFlagsSet()) {
+      // We don't know anything about this function so we assume it has side effects.
+      summary.setMutatesGlobalStateAndAllOtherFlags(function);
+    }
+  }
+
+  /** An extern FUNCTION node and the JSDoc that declares its side effects. */
+  private record ExternFunction(Node function, @Nullable JSDocInfo info) {}
+
+  /**
+   * The FUNCTION nodes of the externs, in traversal order, with their JSDoc. This is all the pass
+   * reads from the externs.
    *
-   * <p>This callback is only meant for use on externs.
+   * <p>The index registered with the compiler is kept between runs of the pass, which runs in the
+   * optimization loop when pruning J2CL clinits, so that the externs are not traversed every time.
+   * Only the extern scripts containing scopes reported to the {@link ChangeTracker} as changed
+   * since the last run are scanned again.
    */
-  private final class ExternFunctionAnnotationAnalyzer implements NodeTraversal.Callback {
-    @Override
-    public boolean shouldTraverse(NodeTraversal traversal, Node node, Node parent) {
-      return true;
+  static final class ExternFunctionIndex {
+    private static final String PASS_NAME = "PureFunctionIdentifier.ExternFunctionIndex";
+
+    private final Node externsRoot;
+    // The extern functions of each script that are known to be up to date.
+    private Map<Node, ImmutableList<ExternFunction>> functionsByScript = new HashMap<>();
+
+    private ExternFunctionIndex(Node externsRoot) {
+      this.externsRoot = externsRoot;
     }
 
-    @Override
-    public void visit(NodeTraversal traversal, Node node, Node parent) {
-      if (!node.isFunction()) {
-        return;
+    /**
+     * Returns the compiler's shared index if it covers the given externs. Otherwise creates a new
+     * index.
+     */
+    static ExternFunctionIndex getOrCreate(AbstractCompiler compiler, Node externsRoot) {
+      ExternFunctionIndex shared = compiler.getIndex(ExternFunctionIndex.class);
+      if (shared != null && shared.externsRoot == externsRoot) {
+        return shared;
       }
+      return new ExternFunctionIndex(externsRoot);
+    }
 
-      for (AmbiguatedFunctionSummary definitionSummary :
-          summariesForAllNamesOfFunctionByNode.get(node)) {
-        updateSideEffectsForExternFunction(node, definitionSummary);
+    private void invalidate(Collection<Node> changedScopeRoots) {
+      for (Node scopeRoot : changedScopeRoots) {
+        Node script = scopeRoot.isScript() ? scopeRoot : NodeUtil.getEnclosingScript(scopeRoot);
+        if (script != null) {
+          functionsByScript.remove(script);
+        }
       }
     }
 
-    private void updateSideEffectsForExternFunction(
-        Node externFunction, AmbiguatedFunctionSummary summary) {
-      checkArgument(externFunction.isFunction());
-      checkArgument(externFunction.isFromExterns());
-
-      JSDocInfo info = NodeUtil.getBestJSDocInfo(externFunction);
-      if (info == null) {
-        // We don't know anything about this function so we assume it has side effects.
-        summary.setMutatesGlobalStateAndAllOtherFlags(externFunction);
-        return;
+    private ImmutableList<ExternFunction> getFunctions() {
+      ImmutableList.Builder<ExternFunction> result = ImmutableList.builder();
+      Map<Node, ImmutableList<ExternFunction>> currentFunctions = new HashMap<>();
+      for (Node script = externsRoot.getFirstChild(); script != null; script = script.getNext()) {
+        ImmutableList<ExternFunction> functions = functionsByScript.get(script);
+        if (functions == null) {
+          functions = collectFunctions(script);
+        }
+        currentFunctions.put(script, functions);
+        result.addAll(functions);
       }
+      // Drops the scripts that are no longer in the externs.
+      functionsByScript = currentFunctions;
+      return result.build();
+    }
 
-      if (info.modifiesThis()) {
-        summary.setMutatesThis(externFunction);
-      }
-      if (info.hasSideEffectsArgumentsAnnotation()) {
-        summary.setMutatesArguments(externFunction);
+    private static ImmutableList<ExternFunction> collectFunctions(Node script) {
+      ImmutableList.Builder<ExternFunction> functions = ImmutableList.builder();
+      NodeUtil.visitPostOrder(
+          script,
+          (Node n) -> {
+            if (n.isFunction()) {
+              functions.add(new ExternFunction(n, NodeUtil.getBestJSDocInfo(n)));
+            }
+          });
+      return functions.build();
+    }
+
+    /** Provides the compiler's shared {@link ExternFunctionIndex}. */
+    static final class Provider implements IndexProvider<ExternFunctionIndex> {
+      private final AbstractCompiler compiler;
+      private @Nullable ExternFunctionIndex index;
+
+      Provider(AbstractCompiler compiler) {
+        this.compiler = checkNotNull(compiler);
       }
-      if (!info.getThrowsAnnotations().isEmpty()) {
-        summary.setThrows(externFunction);
+
+      @Override
+      public ExternFunctionIndex get() {
+        Node externsRoot = compiler.getRoot().getFirstChild();
+        List<Node> changedScopeNodes =
+            compiler.getChangeTracker().getChangedScopeNodesForPass(PASS_NAME);
+        if (index == null || changedScopeNodes == null || index.externsRoot != externsRoot) {
+          index = new ExternFunctionIndex(externsRoot);
+        } else {
+          index.invalidate(changedScopeNodes);
+        }
+        return index;
       }
 
-      if (!info.isNoSideEffects() && summary.hasNoFlagsSet()) {
-        // We don't know anything about this function so we assume it has side effects.
-        summary.setMutatesGlobalStateAndAllOtherFlags(externFunction);
+      @Override
+      public Class<ExternFunctionIndex> getType() {
+        return ExternFunctionIndex.class;
       }
     }
   }
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.javascript.jscomp.OptimizeCalls.ReferenceMap;
+import com.google.javascript.rhino.Node;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The references to names and properties that {@link OptimizeCalls} gives to its {@link
+ * OptimizeCalls.CallGraphCompilerPass passes}.
+ *
+ * <p>References are collected per script. References to local variables are dropped, the other
+ * filters are applied when a {@link ReferenceMap} is requested. The index registered with the
+ * compiler is shared by all runs of {@link OptimizeCalls}: each time it is requested, only the
+ * scripts containing scopes reported to the {@link ChangeTracker} as changed since the last request
+ * are collected again. Scripts are merged in AST order, so the resulting map is the same as one
+ * collected by a full traversal. The merged map is kept until a script changes.
+ */
+final class ReferenceMapIndex {
+  private static final String PASS_NAME = "ReferenceMapIndex";
+
+  private final AbstractCompiler compiler;
+  private final Node externsRoot;
+  private final Node jsRoot;
+
+  // The references in each script that are known to be up to date.
+  private Map<Node, ReferenceMap> referencesByScript = new HashMap<>();
+
+  // The last merged map, valid until a script changes or the accessors are gathered again.
+  private @Nullable ReferenceMap referenceMap;
+  private boolean referenceMapConsidersExterns;
+  private @Nullable AccessorSummary referenceMapAccessors;
+
+  private ReferenceMapIndex(AbstractCompiler compiler, Node externsRoot, Node jsRoot) {
+    this.compiler = compiler;
+    this.externsRoot = externsRoot;
+    this.jsRoot = jsRoot;
+  }
+
+  /**
+   * Returns the compiler's shared index if it covers exactly the given roots, which is the case
+   * when a pass is run on the whole program. Otherwise creates a new index.
+   */
+  static ReferenceMapIndex getOrCreate(AbstractCompiler compiler, Node externsRoot, Node jsRoot) {
+    ReferenceMapIndex shared = compiler.getIndex(ReferenceMapIndex.class);
+    if (shared != null && shared.isForRoots(externsRoot, jsRoot)) {
+      return shared;
+    }
+    return new ReferenceMapIndex(compiler, externsRoot, jsRoot);
+  }
+
+  private boolean isForRoots(Node externsRoot, Node jsRoot) {
+    return this.externsRoot == externsRoot && this.jsRoot == jsRoot;
+  }
+
+  /** Forgets the references of the scripts containing the given change scope roots. */
+  private void invalidate(Collection<Node> changedScopeRoots) {
+    if (!changedScopeRoots.isEmpty()) {
+      referenceMap = null;
+    }
+    for (Node scopeRoot : changedScopeRoots) {
+      Node script = scopeRoot.isScript() ? scopeRoot : NodeUtil.getEnclosingScript(scopeRoot);
+      if (script != null) {
+        referencesByScript.remove(script);
+      }
+    }
+  }
+
+  /**
+   * Returns the reference map of global names and properties, without accessor properties. The map
+   * is shared until a script changes, so callers must not modify it.
+   *
+   * <p>Accessor names are disqualified from being in the {@code ReferenceMap}. We don't
+   * intentionally collect them, but other properties may share the same names. One reason why we do
+   * this is exemplified below:
+   *
+   * <pre>{@code
+   * class A {
+   *   pure() { }
+   * }
+   *
+   * class B {
+   *   get pure() { return impure; }
+   * }
+   *
+   * var x = (Math.random() > 0.5) ? new A() : new B();
+   * x.pure(); // We can't safely optimize this call.
+   * }</pre>
+   *
+   * @param considerExterns whether to include references to extern names and properties, and the
+   *     references in extern code. See {@link OptimizeCalls.Builder#setConsiderExterns}.
+   */
+  ReferenceMap getReferenceMap(boolean considerExterns) {
+    // Only global names are collected. As every name declaration is unique due to normalizations,
+    // it is only necessary to build the global scope and ask it if it knows about a name as it can
+    // never be shadowed.
+    checkState(compiler.getLifeCycleStage().isNormalized());
+    @Nullable AccessorSummary accessors = compiler.getAccessorSummary();
+    if (referenceMap != null
+        && referenceMapConsidersExterns == considerExterns
+        && referenceMapAccessors == accessors) {
+      return referenceMap;
+    }
+    Scope globalScope =
+        new SyntacticScopeCreator(compiler).createScope(externsRoot.getParent(), null);
+    Set<String> externProps =
+        considerExterns ? ImmutableSet.of() : safeSet(compiler.getExternProperties());
+    Set<String> accessorNames =
+        accessors != null ? accessors.getAccessors().keySet() : ImmutableSet.of();
+
+    ReferenceMap result = new ReferenceMap();
+    result.setGlobalScope(globalScope);
+    Map<Node, ReferenceMap> currentReferences = new HashMap<>();
+    Map<String, Boolean> includedNames = new HashMap<>();
+    for (Node root : ImmutableList.of(externsRoot, jsRoot)) {
+      for (Node script = root.getFirstChild(); script != null; script = script.getNext()) {
+        ReferenceMap scriptReferences = referencesByScript.get(script);
+        if (scriptReferences == null) {
+          scriptReferences = collectReferences(script, globalScope);
+        }
+        currentReferences.put(script, scriptReferences);
+        if (!considerExterns && script.isFromExterns()) {
+          continue;
+        }
+
+        for (Map.Entry<String, ArrayList<Node>> entry : scriptReferences.getNameReferences()) {
+          String name = entry.getKey();
+          boolean included =
+              includedNames.computeIfAbsent(
+                  name,
+                  (String k) -> {
+                    Var var = globalScope.getSlot(k);
+                    return var != null && (considerExterns || !var.isExtern());
+                  });
+          if (included) {
+            result.addNameReferences(name, entry.getValue());
+          }
+        }
+        for (Map.Entry<String, ArrayList<Node>> entry : scriptReferences.getPropReferences()) {
+          String prop = entry.getKey();
+          if (!externProps.contains(prop) && !accessorNames.contains(prop)) {
+            result.addPropReferences(prop, entry.getValue());
+          }
+        }
+      }
+    }
+    // Drops the scripts that are no longer in the AST.
+    referencesByScript = currentReferences;
+    referenceMap = result;
+    referenceMapConsidersExterns = considerExterns;
+    referenceMapAccessors = accessors;
+    return result;
+  }
+
+  /**
+   * Collects the references in the given script, except the references to its local variables.
+   *
+   * <p>Local variables are only referenced in the script that declares them. A local variable can
+   * only become global through a change to its script, as normalization makes names unique, so the
+   * references of unchanged scripts stay complete.
+   */
+  private ReferenceMap collectReferences(Node script, Scope globalScope) {
+    ReferenceMap references = new ReferenceMap();
+    ReferenceCollector collector = new ReferenceCollector(compiler, references, globalScope);
+    NodeUtil.visitPostOrder(script, collector);
+    references.removeNameReferences(collector.localNames);
+    return references;
+  }
+
+  private static Set<String> safeSet(@Nullable Set<String> set) {
+    return (set != null) ? ImmutableSet.copyOf(set) : ImmutableSet.of();
+  }
+
+  /**
+   * Collects the references to all names and properties, in traversal order, and the names of the
+   * local variables declared.
+   */
+  private static final class ReferenceCollector implements NodeUtil.Visitor {
+    private final AbstractCompiler compiler;
+    private final ReferenceMap references;
+    private final Scope globalScope;
+    private final Set<String> localNames = new HashSet<>();
+
+    ReferenceCollector(AbstractCompiler compiler, ReferenceMap references, Scope globalScope) {
+      this.compiler = compiler;
+      this.references = references;
+      this.globalScope = globalScope;
+    }
+
+    @Override
+    public void visit(Node n) {
+      switch (n.getToken()) {
+        case NAME -> {
+          String name = n.getString();
+          references.addNameReference(name, n);
+          if (NodeUtil.isDeclarationLValue(n) && !globalScope.hasSlot(name)) {
+            localNames.add(name);
+          }
+        }
+        case OPTCHAIN_GETPROP, GETPROP -> references.addPropReference(n.getString(), n);
+        case CALL -> {
+          // If we are using goog.reflect.objectProperty on this symbol, we will assume that it
+          // gets referenced.
+          Node fnName = n.getFirstChild();
+          if (compiler.getCodingConvention().isPropertyRenameFunction(fnName)) {
+            Node propName = NodeUtil.getArgumentForCallOrNew(n, 0);
+            if (propName != null) {
+              references.addPropReference(propName.getString(), n);
+            }
+          }
+        }
+
+        case STRING_KEY, GETTER_DEF, SETTER_DEF, MEMBER_FUNCTION_DEF, MEMBER_FIELD_DEF -> {
+          // ignore quoted keys.
+          if (!n.isQuotedStringKey()) {
+            references.addPropReference(n.getString(), n);
+          }
+        }
+
+        case SUPER -> visitSuper(n);
+        case
+            // Ignore quoted and computed keys.
+            // TODO(johnlenz): support symbols.
+            COMPUTED_PROP,
+            COMPUTED_FIELD_DEF,
+            OPTCHAIN_GETELEM,
+            GETELEM,
+            // Don't worry about invisible accesses using object rest/spread. To be invoked there
+            // would need to be downstream references that use the actual name. We'd see those.
+            OBJECT_REST,
+            OBJECT_SPREAD -> {}
+        default -> {}
+      }
+    }
+
+    private void visitSuper(Node superNode) {
+      // Determine whether this is a super() constructor call.
+      // If it is, identify the super class and record this as a reference to that.
+      Node parent = superNode.getParent();
+      if (parent.isCall() && superNode.isFirstChildOf(parent)) {
+        Node enclosingClass = checkNotNull(NodeUtil.getEnclosingClass(parent));
+        Node extendsNode = enclosingClass.getSecondChild();
+        checkState(!extendsNode.isEmpty(), "super call appears in class without extends clause");
+        if (extendsNode.isName()) {
+          references.addNameReference(extendsNode.getString(), superNode);
+        } else if (extendsNode.isGetProp()) {
+          // NOTE: Theoretically we could also include an optional chain getprop here, but
+          // A) it's a runtime error if the value ends up being undefined, so that's bad code
+          // B) the author is indicating uncertainty, so we should be cautious.
+          references.addPropReference(extendsNode.getString(), superNode);
+        } // else we cannot tell what super() is referencing (e.g. `class extends getMixin() {`)
+      }
+    }
+  }
+
+  /** Provides the compiler's shared {@link ReferenceMapIndex}. */
+  static final class Provider implements IndexProvider<ReferenceMapIndex> {
+    private final AbstractCompiler compiler;
+    private @Nullable ReferenceMapIndex index;
+
+    Provider(AbstractCompiler compiler) {
+      this.compiler = checkNotNull(compiler);
+    }
+
+    @Override
+    public ReferenceMapIndex get() {
+      Node externsRoot = compiler.getRoot().getFirstChild();
+      Node jsRoot = compiler.getRoot().getLastChild();
+      List<Node> changedScopeNodes =
+          compiler.getChangeTracker().getChangedScopeNodesForPass(PASS_NAME);
+      if (index == null || changedScopeNodes == null || !index.isForRoots(externsRoot, jsRoot)) {
+        index = new ReferenceMapIndex(compiler, externsRoot, jsRoot);
+      } else {
+        index.invalidate(changedScopeNodes);
+      }
+      return index;
+    }
+
+    @Override
+    public Class<ReferenceMapIndex> getType() {
+      return ReferenceMapIndex.class;
+    }
+  }
+}
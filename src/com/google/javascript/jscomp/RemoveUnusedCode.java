@@ -20,7 +20,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
@@ -87,6 +89,9 @@ class RemoveUnusedCode implements CompilerPass {
   private static final ImmutableSet<String> IMPLICITLY_USED_PROPERTIES =
       ImmutableSet.of("length", "toString", "valueOf", "constructor", "prototype");
 
+  /** The name under which incremental runs ask the {@link ChangeTracker} for changed scopes. */
+  private static final String INCREMENTAL_PASS_NAME = "RemoveUnusedCode.incremental";
+
   private final AbstractCompiler compiler;
   private final AstAnalyzer astAnalyzer;
 
@@ -139,6 +144,10 @@ class RemoveUnusedCode implements CompilerPass {
   private final boolean removeUnusedObjectDefinePropertiesDefinitions;
   private final boolean removeUnusedPolyfills;
   private final boolean assumeGettersArePure;
+  private final boolean incremental;
+
+  // The units traversed by the last call to process(), for tests.
+  private ImmutableList<Node> traversedUnits = ImmutableList.of();
 
   // Allocated & cleaned up by process()
   private @Nullable LogFile removalLog;
@@ -162,6 +171,7 @@ class RemoveUnusedCode implements CompilerPass {
         Polyfills.fromTable(
             ResourceLoader.loadTextResource(RemoveUnusedCode.class, "js/polyfills.txt"));
     this.assumeGettersArePure = builder.assumeGettersArePure;
+    this.incremental = builder.incremental;
 
     // All Vars that are completely unremovable will share this VarInfo instance.
     canonicalUnremovableVarInfo = new CanonicalUnremovableVarInfo();
@@ -178,6 +188,7 @@ class RemoveUnusedCode implements CompilerPass {
     private boolean removeUnusedObjectDefinePropertiesDefinitions = false;
     private boolean removeUnusedPolyfills = false;
     private boolean assumeGettersArePure = false;
+    private boolean incremental = false;
 
     Builder(AbstractCompiler compiler) {
       this.compiler = compiler;
@@ -231,6 +242,22 @@ class RemoveUnusedCode implements CompilerPass {
       return this;
     }
 
+    /**
+     * Only traverse the scripts and top-level functions that changed since the previous run, when
+     * only local variables and polyfills are removed.
+     *
+     * <p>Local variables cannot be referenced outside of the top-level function or script that
+     * declares them, so code that did not change since the previous run has nothing left to
+     * remove. Whether a polyfill is used is looked up in a {@link RemoveUnusedCodeIndex} for the
+     * code that is not traversed. Removing globals or properties depends on the whole program, so
+     * runs that remove them always traverse everything.
+     */
+    @CanIgnoreReturnValue
+    Builder incremental(boolean value) {
+      this.incremental = value;
+      return this;
+    }
+
     RemoveUnusedCode build() {
       return new RemoveUnusedCode(this);
     }
@@ -348,15 +375,39 @@ class RemoveUnusedCode implements CompilerPass {
             compiler.createOrReopenIndexedLog(this.getClass(), "unremovable.log")) {
       removalLog = removalLogFile; // avoid passing the log file through a bunch of methods
       unremovableLog = keepLogFile;
-      traverseAndRemoveUnusedReferences(root);
+      List<Node> changedUnits = canRunIncrementally() ? getChangedUnits(root) : null;
+      RemoveUnusedCodeIndex.UntraversedCode untraversedCode = null;
+      if (changedUnits != null && removeUnusedPolyfills) {
+        untraversedCode =
+            RemoveUnusedCodeIndex.getOrCreate(compiler, root).getUntraversedCode(changedUnits);
+        if (untraversedCode.hasNestedPolyfillDefinitions()) {
+          // Only top-level definitions can be registered without traversing their scopes.
+          changedUnits = null;
+          untraversedCode = null;
+        }
+      }
+      traversedUnits =
+          changedUnits != null ? ImmutableList.copyOf(changedUnits) : ImmutableList.of(root);
+      traverseAndRemoveUnusedReferences(root, traversedUnits, untraversedCode);
     } finally {
       removalLog = null;
       unremovableLog = null;
     }
   }
 
-  /** Traverses a node recursively. Call this once per pass. */
-  private void traverseAndRemoveUnusedReferences(Node root) {
+  /**
+   * Traverses the given parts of the root recursively, removing what is unused. Call this once per
+   * pass.
+   *
+   * @param units either only the root, or the scripts and top-level functions to visit when
+   *     running incrementally
+   * @param untraversedCode what the code outside of the units refers to, when running
+   *     incrementally and removing polyfills
+   */
+  private void traverseAndRemoveUnusedReferences(
+      Node root,
+      List<Node> units,
+      RemoveUnusedCodeIndex.@Nullable UntraversedCode untraversedCode) {
     // Create scope from parent of root node, which also has externs as a child, so we'll
     // have extern definitions in scope.
     Scope scope = scopeCreator.createScope(root.getParent(), null);
@@ -367,15 +418,38 @@ class RemoveUnusedCode implements CompilerPass {
           NodeUtil.JSC_PROPERTY_NAME_FN, /* no declaration node */ null, /* no input */ null);
     }
 
-    // Accumulate guarded usages of polyfills before removal starts.
-    new PolyfillUsageFinder(compiler, polyfillsFromTable)
-        .traverseOnlyGuarded(root, this::storePolyfill);
+    // Accumulate guarded usages of polyfills before removal starts. A guard at the top of a
+    // script also guards the functions in it, so the scripts of traversed functions are searched.
+    if (removeUnusedPolyfills) {
+      PolyfillUsageFinder finder = new PolyfillUsageFinder(compiler, polyfillsFromTable);
+      Set<Node> guardRoots = new LinkedHashSet<>();
+      for (Node unit : units) {
+        guardRoots.add(unit.isFunction() ? NodeUtil.getEnclosingScript(unit) : unit);
+      }
+      for (Node guardRoot : guardRoots) {
+        finder.traverseOnlyGuarded(guardRoot, this::storePolyfill);
+      }
+    }
 
-    worklist.add(new Continuation(root, scope));
-    while (!worklist.isEmpty()) {
-      Continuation continuation = worklist.remove();
-      continuation.apply();
+    if (untraversedCode != null) {
+      for (Node polyfillCall : untraversedCode.getPolyfillDefinitions()) {
+        traversePolyfillDefinition(polyfillCall, scope);
+      }
     }
+    for (Node unit : units) {
+      // Top-level functions are directly in the global scope, see getIncrementalUnit.
+      worklist.add(new Continuation(unit, scope));
+    }
+    do {
+      while (!worklist.isEmpty()) {
+        Continuation continuation = worklist.remove();
+        continuation.apply();
+      }
+      if (untraversedCode != null) {
+        // Polyfills used by the code that is not traversed queue the traversal of their bodies.
+        markPolyfillsReferencedBy(untraversedCode);
+      }
+    } while (!worklist.isEmpty());
 
     removeUnreferencedVarsAndPolyfills();
     removeIndependentlyRemovableProperties();
@@ -384,6 +458,107 @@ class RemoveUnusedCode implements CompilerPass {
     }
   }
 
+  /** Marks the polyfills that the given code refers to as used. */
+  private void markPolyfillsReferencedBy(RemoveUnusedCodeIndex.UntraversedCode untraversedCode) {
+    for (PolyfillInfo info : polyfills.values()) {
+      if (info.isRemovable && info.isReferencedBy(untraversedCode)) {
+        info.markReferenced();
+      }
+    }
+  }
+
+  /**
+   * Whether this run may only traverse the code that changed since the previous run, because it
+   * only removes local variables and polyfills.
+   */
+  private boolean canRunIncrementally() {
+    return incremental
+        && removeLocalVars
+        && !removeGlobals
+        && !removeUnusedPrototypeProperties
+        && !removeUnusedThisProperties
+        && !removeUnusedObjectDefinePropertiesDefinitions;
+  }
+
+  /** Returns the scripts or top-level functions traversed by the last run, for tests. */
+  @VisibleForTesting
+  ImmutableList<Node> getTraversedUnits() {
+    return traversedUnits;
+  }
+
+  /**
+   * Returns the scripts and top-level functions containing the scopes that changed since the
+   * previous incremental run, or null if the whole program must be traversed.
+   *
+   * <p>That is the case for the first run, and when the changes touch more than half of the
+   * scripts, as traversing the units separately would save little.
+   */
+  private @Nullable List<Node> getChangedUnits(Node root) {
+    List<Node> changedScopeNodes =
+        compiler.getChangeTracker().getChangedScopeNodesForPass(INCREMENTAL_PASS_NAME);
+    if (changedScopeNodes == null) {
+      return null;
+    }
+
+    Set<Node> changedScripts = new LinkedHashSet<>();
+    Set<Node> changedFunctions = new LinkedHashSet<>();
+    for (Node scopeNode : changedScopeNodes) {
+      Node unit = getIncrementalUnit(root, scopeNode);
+      if (unit == null) {
+        continue;
+      } else if (unit.isScript()) {
+        changedScripts.add(unit);
+      } else {
+        changedFunctions.add(unit);
+      }
+    }
+
+    Set<Node> touchedScripts = new LinkedHashSet<>(changedScripts);
+    List<Node> units = new ArrayList<>(changedScripts);
+    for (Node function : changedFunctions) {
+      Node script = NodeUtil.getEnclosingScript(function);
+      if (!changedScripts.contains(script)) {
+        touchedScripts.add(script);
+        units.add(function);
+      }
+    }
+    if (touchedScripts.size() * 2 > root.getChildCount()) {
+      return null;
+    }
+    return units;
+  }
+
+  /**
+   * Returns the part of the program to traverse again for a changed scope: the top-level function
+   * containing it if that function is directly in the global scope, or else its script. Returns
+   * null if the scope is no longer part of the program.
+   */
+  static @Nullable Node getIncrementalUnit(Node root, Node scopeNode) {
+    if (scopeNode.isFunction() && scopeNode.isDeleted()) {
+      return null;
+    }
+    Node unit = scopeNode;
+    Node script = null;
+    boolean inNestedScope = false;
+    for (Node n = scopeNode; n != null; n = n.getParent()) {
+      if (n.isScript()) {
+        script = n;
+        break;
+      } else if (n.isFunction()) {
+        unit = n;
+        inNestedScope = false;
+      } else if (n != scopeNode && NodeUtil.createsScope(n)) {
+        // The variables of this scope may be referenced outside of the function.
+        inNestedScope = true;
+      }
+    }
+    if (script == null || script.getParent() != root) {
+      // Detached from the AST, or in the externs.
+      return null;
+    }
+    return (unit.isScript() || inNestedScope) ? script : unit;
+  }
+
   private void storePolyfill(PolyfillUsage polyfillUsage) {
     this.guardedUsages.add(polyfillUsage.node());
   }
@@ -663,15 +838,7 @@ class RemoveUnusedCode implements CompilerPass {
       // TODO(bradfordcsmith): Should also handle Object.create() and Object.defineProperty().
       traverseObjectDefinePropertiesCall(callNode, scope);
     } else if (removeUnusedPolyfills && isJscompPolyfill(callee)) {
-      Node firstArg = callee.getNext();
-      String polyfillName = firstArg.getString();
-      if (callee.getString().endsWith("polyfillTypedArrayMethod")) {
-        polyfillName = "TypedArray.prototype." + polyfillName;
-      }
-      PolyfillInfo info = createPolyfillInfo(callNode, scope, polyfillName);
-      polyfills.put(info.key, info);
-      // Only traverse the callee (to mark it as used).  The arguments may be traversed later.
-      traverseNode(callNode.getFirstChild(), scope);
+      traversePolyfillDefinition(callNode, scope);
     } else if (NodeUtil.isGoogWeakUsageCall(callNode)
         && callNode.hasTwoChildren()
         && callNode.getSecondChild().isName()) {
@@ -738,8 +905,22 @@ class RemoveUnusedCode implements CompilerPass {
     }
   }
 
+  /** Records a $jscomp.polyfill call, whose arguments are only traversed if it is used. */
+  private void traversePolyfillDefinition(Node callNode, Scope scope) {
+    Node callee = callNode.getFirstChild();
+    Node firstArg = callee.getNext();
+    String polyfillName = firstArg.getString();
+    if (callee.getString().endsWith("polyfillTypedArrayMethod")) {
+      polyfillName = "TypedArray.prototype." + polyfillName;
+    }
+    PolyfillInfo info = createPolyfillInfo(callNode, scope, polyfillName);
+    polyfills.put(info.key, info);
+    // Only traverse the callee (to mark it as used).  The arguments may be traversed later.
+    traverseNode(callee, scope);
+  }
+
   /** Checks whether this is a recognizable call to $jscomp.polyfill. */
-  private static boolean isJscompPolyfill(Node n) {
+  static boolean isJscompPolyfill(Node n) {
     return switch (n.getToken()) {
       case NAME -> {
         // Need to work correctly after CollapseProperties.
@@ -3114,12 +3295,24 @@ class RemoveUnusedCode implements CompilerPass {
       }
     }
 
+    /** Marks the polyfill as referenced and queues the traversal of its definition. */
+    void markReferenced() {
+      isRemovable = false;
+      removable.applyContinuations();
+    }
+
     String getName() {
       return key;
     }
 
     /** Template method to check the node. */
     abstract void considerPossibleReferenceInternal(Node n);
+
+    /**
+     * Whether the code that an incremental run does not traverse has a node that {@link
+     * #considerPossibleReference} would accept.
+     */
+    abstract boolean isReferencedBy(RemoveUnusedCodeIndex.UntraversedCode untraversedCode);
   }
 
   private class GlobalPolyfillInfo extends PolyfillInfo {
@@ -3139,6 +3332,12 @@ class RemoveUnusedCode implements CompilerPass {
         isRemovable = false;
       }
     }
+
+    @Override
+    boolean isReferencedBy(RemoveUnusedCodeIndex.UntraversedCode untraversedCode) {
+      return untraversedCode.refersToName(key, removable.isPatch)
+          || untraversedCode.refersToProperty(key, removable.isPatch);
+    }
   }
 
   private class StaticPropertyPolyfillInfo extends PolyfillInfo {
@@ -3161,6 +3360,11 @@ class RemoveUnusedCode implements CompilerPass {
         isRemovable = false;
       }
     }
+
+    @Override
+    boolean isReferencedBy(RemoveUnusedCodeIndex.UntraversedCode untraversedCode) {
+      return untraversedCode.refersToProperty(key, removable.isPatch);
+    }
   }
 
   private class PrototypePropertyPolyfillInfo extends PolyfillInfo {
@@ -3184,6 +3388,11 @@ class RemoveUnusedCode implements CompilerPass {
         isRemovable = false;
       }
     }
+
+    @Override
+    boolean isReferencedBy(RemoveUnusedCodeIndex.UntraversedCode untraversedCode) {
+      return untraversedCode.refersToProperty(key, removable.isPatch);
+    }
   }
 
   /**
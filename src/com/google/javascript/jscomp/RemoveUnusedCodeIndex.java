@@ -0,0 +1,384 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+import com.google.javascript.jscomp.PolyfillUsageFinder.Polyfills;
+import com.google.javascript.jscomp.resources.ResourceLoader;
+import com.google.javascript.rhino.Node;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * What incremental runs of {@link RemoveUnusedCode} need to know about the code they do not
+ * traverse, so that they can still remove unused polyfills.
+ *
+ * <p>A polyfill can be removed when nothing refers to its name. An incremental run only traverses
+ * the scripts and top-level functions that changed, which {@link
+ * RemoveUnusedCode#getIncrementalUnit} calls units. For every other unit, the index records the
+ * names and property names it refers to, and the polyfills it defines. Code that a run leaves
+ * unchanged had nothing left to remove, so a full traversal would visit all of it and find these
+ * same references.
+ *
+ * <p>The index registered with the compiler is shared by all runs: each time it is requested, the
+ * scripts containing scopes reported to the {@link ChangeTracker} as changed since the last request
+ * are summarized again. Whole scripts are summarized, as a guard at the top of a script, like
+ * {@code if (!Promise) throw 0;}, also guards the references in its functions.
+ */
+final class RemoveUnusedCodeIndex {
+  private static final String PASS_NAME = "RemoveUnusedCodeIndex";
+
+  private final AbstractCompiler compiler;
+  private final Node jsRoot;
+  private final Polyfills polyfillsFromTable;
+
+  // The summaries of the scripts that are known to be up to date.
+  private final Map<Node, ScriptSummary> summariesByScript = new HashMap<>();
+
+  // How many units of the summarized scripts refer to each name, or property name, in a position
+  // guarded by a check that it exists, or not.
+  private final Multiset<String> names = HashMultiset.create();
+  private final Multiset<String> properties = HashMultiset.create();
+  private final Multiset<String> guardedNames = HashMultiset.create();
+  private final Multiset<String> guardedProperties = HashMultiset.create();
+
+  // How many units of the summarized scripts define a polyfill that is not at the top level.
+  private int unitsWithNestedPolyfillDefinitions = 0;
+
+  private RemoveUnusedCodeIndex(AbstractCompiler compiler, Node jsRoot, Polyfills polyfills) {
+    this.compiler = compiler;
+    this.jsRoot = jsRoot;
+    this.polyfillsFromTable = polyfills;
+  }
+
+  /**
+   * Returns the compiler's shared index if it covers the given root, which is the case when the
+   * pass is run on the whole program. Otherwise creates a new index.
+   */
+  static RemoveUnusedCodeIndex getOrCreate(AbstractCompiler compiler, Node jsRoot) {
+    RemoveUnusedCodeIndex shared = compiler.getIndex(RemoveUnusedCodeIndex.class);
+    if (shared != null && shared.jsRoot == jsRoot) {
+      return shared;
+    }
+    return new RemoveUnusedCodeIndex(compiler, jsRoot, loadPolyfills());
+  }
+
+  private static Polyfills loadPolyfills() {
+    return Polyfills.fromTable(
+        ResourceLoader.loadTextResource(RemoveUnusedCode.class, "js/polyfills.txt"));
+  }
+
+  /** Forgets the summaries of the scripts containing the given change scope roots. */
+  private void invalidate(Collection<Node> changedScopeRoots) {
+    for (Node scopeRoot : changedScopeRoots) {
+      Node script = scopeRoot.isScript() ? scopeRoot : NodeUtil.getEnclosingScript(scopeRoot);
+      if (script != null) {
+        removeSummary(script);
+      }
+    }
+  }
+
+  /**
+   * Returns what the code outside of the given units refers to.
+   *
+   * @param traversedUnits the scripts and top-level functions that the caller traverses itself
+   */
+  UntraversedCode getUntraversedCode(Collection<Node> traversedUnits) {
+    updateSummaries();
+    Set<UnitSummary> traversed = Sets.newIdentityHashSet();
+    for (Node unit : traversedUnits) {
+      Node script = unit.isScript() ? unit : NodeUtil.getEnclosingScript(unit);
+      ScriptSummary scriptSummary = summariesByScript.get(script);
+      if (unit.isScript()) {
+        traversed.addAll(scriptSummary.units().values());
+      } else if (scriptSummary.units().containsKey(unit)) {
+        traversed.add(scriptSummary.units().get(unit));
+      }
+    }
+    return new UntraversedCode(traversed);
+  }
+
+  /** Summarizes the scripts that changed, and drops the scripts that are no longer in the AST. */
+  private void updateSummaries() {
+    Set<Node> scripts = new HashSet<>();
+    for (Node script = jsRoot.getFirstChild(); script != null; script = script.getNext()) {
+      scripts.add(script);
+      if (!summariesByScript.containsKey(script)) {
+        addSummary(script, summarize(script));
+      }
+    }
+    if (scripts.size() < summariesByScript.size()) {
+      for (Node script : ImmutableList.copyOf(summariesByScript.keySet())) {
+        if (!scripts.contains(script)) {
+          removeSummary(script);
+        }
+      }
+    }
+  }
+
+  private void addSummary(Node script, ScriptSummary summary) {
+    summariesByScript.put(script, summary);
+    for (UnitSummary unit : summary.units().values()) {
+      names.addAll(unit.names());
+      properties.addAll(unit.properties());
+      guardedNames.addAll(unit.guardedNames());
+      guardedProperties.addAll(unit.guardedProperties());
+      if (unit.hasNestedPolyfillDefinitions()) {
+        unitsWithNestedPolyfillDefinitions++;
+      }
+    }
+  }
+
+  private void removeSummary(Node script) {
+    ScriptSummary summary = summariesByScript.remove(script);
+    if (summary == null) {
+      return;
+    }
+    for (UnitSummary unit : summary.units().values()) {
+      names.removeAll(unit.names());
+      properties.removeAll(unit.properties());
+      guardedNames.removeAll(unit.guardedNames());
+      guardedProperties.removeAll(unit.guardedProperties());
+      if (unit.hasNestedPolyfillDefinitions()) {
+        unitsWithNestedPolyfillDefinitions--;
+      }
+    }
+  }
+
+  private ScriptSummary summarize(Node script) {
+    Set<Node> guardedNodes = new HashSet<>();
+    new PolyfillUsageFinder(compiler, polyfillsFromTable)
+        .traverseOnlyGuarded(script, (usage) -> guardedNodes.add(usage.node()));
+    Map<Node, UnitSummary.Builder> units = new LinkedHashMap<>();
+    units.put(script, new UnitSummary.Builder());
+    for (Node child = script.getFirstChild(); child != null; child = child.getNext()) {
+      summarize(child, script, /* inNestedScope= */ false, guardedNodes, units);
+    }
+    ImmutableMap.Builder<Node, UnitSummary> summaries = ImmutableMap.builder();
+    for (Map.Entry<Node, UnitSummary.Builder> unit : units.entrySet()) {
+      summaries.put(unit.getKey(), unit.getValue().build());
+    }
+    return new ScriptSummary(summaries.buildOrThrow());
+  }
+
+  /**
+   * Records the references in the given subtree in the summary of its unit. The arguments of
+   * polyfill definitions are skipped, as they are only traversed if the polyfill is used.
+   *
+   * @param unit the unit containing the node, which is its script until a top-level function
+   * @param inNestedScope whether the node is in a scope, other than the script, that is not in a
+   *     function
+   */
+  private static void summarize(
+      Node n,
+      Node unit,
+      boolean inNestedScope,
+      Set<Node> guardedNodes,
+      Map<Node, UnitSummary.Builder> units) {
+    if (unit.isScript()) {
+      if (n.isFunction() && !inNestedScope) {
+        // Same as RemoveUnusedCode.getIncrementalUnit.
+        unit = n;
+        units.put(unit, new UnitSummary.Builder());
+      } else if (NodeUtil.createsScope(n)) {
+        inNestedScope = true;
+      }
+    }
+    UnitSummary.Builder summary = units.get(unit);
+    switch (n.getToken()) {
+      case NAME -> {
+        if (guardedNodes.contains(n)) {
+          summary.guardedNames.add(n.getString());
+        } else {
+          summary.names.add(n.getString());
+        }
+      }
+      case GETPROP, OPTCHAIN_GETPROP -> {
+        if (guardedNodes.contains(n)) {
+          summary.guardedProperties.add(n.getString());
+        } else {
+          summary.properties.add(n.getString());
+        }
+      }
+      case CALL -> {
+        if (n.getParent().isExprResult() && RemoveUnusedCode.isJscompPolyfill(n.getFirstChild())) {
+          if (n.getGrandparent().isScript()) {
+            summary.polyfillDefinitions.add(n);
+          } else {
+            summary.hasNestedPolyfillDefinitions = true;
+          }
+          summarize(n.getFirstChild(), unit, inNestedScope, guardedNodes, units);
+          return;
+        }
+      }
+      default -> {}
+    }
+    for (Node child = n.getFirstChild(); child != null; child = child.getNext()) {
+      summarize(child, unit, inNestedScope, guardedNodes, units);
+    }
+  }
+
+  /** What the code outside of the units traversed by a run refers to. */
+  final class UntraversedCode {
+    // Compared by identity, as different units may have equal summaries.
+    private final Set<UnitSummary> traversed;
+
+    private UntraversedCode(Set<UnitSummary> traversed) {
+      this.traversed = traversed;
+    }
+
+    /** Whether a polyfill definition is not at the top level of its script. */
+    boolean hasNestedPolyfillDefinitions() {
+      int count = unitsWithNestedPolyfillDefinitions;
+      for (UnitSummary unit : traversed) {
+        if (unit.hasNestedPolyfillDefinitions()) {
+          count--;
+        }
+      }
+      return count > 0;
+    }
+
+    /** Returns the $jscomp.polyfill calls at the top level of their scripts. */
+    ImmutableList<Node> getPolyfillDefinitions() {
+      ImmutableList.Builder<Node> definitions = ImmutableList.builder();
+      for (Node script = jsRoot.getFirstChild(); script != null; script = script.getNext()) {
+        UnitSummary unit = summariesByScript.get(script).units().get(script);
+        if (!traversed.contains(unit)) {
+          definitions.addAll(unit.polyfillDefinitions());
+        }
+      }
+      return definitions.build();
+    }
+
+    /**
+     * Whether a NAME node has the given name.
+     *
+     * @param includeGuarded whether to also count the references behind a check that the name
+     *     exists
+     */
+    boolean refersToName(String name, boolean includeGuarded) {
+      int count = names.count(name) + (includeGuarded ? guardedNames.count(name) : 0);
+      for (UnitSummary unit : traversed) {
+        count -= countReferences(unit.names(), unit.guardedNames(), name, includeGuarded);
+      }
+      return count > 0;
+    }
+
+    /**
+     * Whether a GETPROP node has the given property name.
+     *
+     * @param includeGuarded whether to also count the references behind a check that the property
+     *     exists
+     */
+    boolean refersToProperty(String property, boolean includeGuarded) {
+      int count =
+          properties.count(property) + (includeGuarded ? guardedProperties.count(property) : 0);
+      for (UnitSummary unit : traversed) {
+        count -=
+            countReferences(unit.properties(), unit.guardedProperties(), property, includeGuarded);
+      }
+      return count > 0;
+    }
+  }
+
+  /** How many times the summary of a unit counts for the given name. */
+  private static int countReferences(
+      Set<String> unguarded, Set<String> guarded, String name, boolean includeGuarded) {
+    return (unguarded.contains(name) ? 1 : 0) + (includeGuarded && guarded.contains(name) ? 1 : 0);
+  }
+
+  /** The summaries of the units of a script, starting with the script itself. */
+  private record ScriptSummary(ImmutableMap<Node, UnitSummary> units) {}
+
+  /**
+   * The names and property names a unit refers to, without those of its nested top-level
+   * functions, and the polyfills it defines.
+   */
+  private record UnitSummary(
+      ImmutableSet<String> names,
+      ImmutableSet<String> properties,
+      ImmutableSet<String> guardedNames,
+      ImmutableSet<String> guardedProperties,
+      ImmutableList<Node> polyfillDefinitions,
+      boolean hasNestedPolyfillDefinitions) {
+
+    static final class Builder {
+      private final Set<String> names = new HashSet<>();
+      private final Set<String> properties = new HashSet<>();
+      private final Set<String> guardedNames = new HashSet<>();
+      private final Set<String> guardedProperties = new HashSet<>();
+      private final List<Node> polyfillDefinitions = new ArrayList<>();
+      private boolean hasNestedPolyfillDefinitions = false;
+
+      UnitSummary build() {
+        return new UnitSummary(
+            ImmutableSet.copyOf(names),
+            ImmutableSet.copyOf(properties),
+            ImmutableSet.copyOf(guardedNames),
+            ImmutableSet.copyOf(guardedProperties),
+            ImmutableList.copyOf(polyfillDefinitions),
+            hasNestedPolyfillDefinitions);
+      }
+    }
+  }
+
+  /** Provides the compiler's shared {@link RemoveUnusedCodeIndex}. */
+  static final class Provider implements IndexProvider<RemoveUnusedCodeIndex> {
+    private final AbstractCompiler compiler;
+    private @Nullable RemoveUnusedCodeIndex index;
+    private @Nullable Polyfills polyfills;
+
+    Provider(AbstractCompiler compiler) {
+      this.compiler = checkNotNull(compiler);
+    }
+
+    @Override
+    public RemoveUnusedCodeIndex get() {
+      Node jsRoot = compiler.getRoot().getLastChild();
+      List<Node> changedScopeNodes =
+          compiler.getChangeTracker().getChangedScopeNodesForPass(PASS_NAME);
+      if (index == null || changedScopeNodes == null || index.jsRoot != jsRoot) {
+        if (polyfills == null) {
+          polyfills = loadPolyfills();
+        }
+        index = new RemoveUnusedCodeIndex(compiler, jsRoot, polyfills);
+      } else {
+        index.invalidate(changedScopeNodes);
+      }
+      return index;
+    }
+
+    @Override
+    public Class<RemoveUnusedCodeIndex> getType() {
+      return RemoveUnusedCodeIndex.class;
+    }
+  }
+}
@@ -30,7 +30,25 @@ public interface SourceFileMapping {
    * {@code OriginalMapping.getDefaultInstance()} if the input map does not map the location.
    *
    * @param lineNo The line number, 1-based.
-   * @param columnNo The column index, 1-based.
+   * @param columnNo The column index, 0-based, as in {@link
+   *     com.google.javascript.rhino.Node#getCharno}.
    */
   @Nullable OriginalMapping getSourceMapping(String fileName, int lineNo, int columnNo);
+
+  /**
+   * Returns the original mappings for several positions in a file, as {@link #getSourceMapping}
+   * does for each of them. Implementations may look them up together more efficiently.
+   *
+   * @param lineNos The line number of each position, 1-based.
+   * @param columnNos The column index of each position, 0-based, as in {@link
+   *     com.google.javascript.rhino.Node#getCharno}.
+   */
+  default @Nullable OriginalMapping[] getSourceMappings(
+      String fileName, int[] lineNos, int[] columnNos) {
+    OriginalMapping[] result = new OriginalMapping[lineNos.length];
+    for (int i = 0; i < lineNos.length; i++) {
+      result[i] = getSourceMapping(fileName, lineNos[i], columnNos[i]);
+    }
+    return result;
+  }
 }
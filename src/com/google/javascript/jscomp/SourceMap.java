@@ -26,6 +26,7 @@ import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.StaticSourceFile;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -182,31 +183,117 @@ public final class SourceMap {
       return;
     }
 
-    String sourceFileName = sourceFile.getName();
+    OriginalMapping sourceMapping =
+        mapping == null
+            ? null
+            : mapping.getSourceMapping(sourceFile.getName(), node.getLineno(), node.getCharno());
+    addMapping(node, sourceMapping, outputStartPosition, outputEndPosition);
+  }
+
+  /**
+   * Adds the given mappings in order, as {@link #addMapping(Mapping)} does for each of them.
+   *
+   * <p>If there are input source maps, the original positions of the nodes of each source file are
+   * looked up together, which is much faster than looking them up one at a time.
+   */
+  public void addMappings(List<Mapping> mappings) {
+    if (mapping == null) {
+      for (Mapping m : mappings) {
+        addMapping(m);
+      }
+      return;
+    }
+
+    // Group the mappings with enough information to be useful by source file.
+    int count = mappings.size();
+    Map<String, Integer> fileIndices = new LinkedHashMap<>();
+    int[] fileOfMapping = new int[count];
+    int[] fileSizes = new int[count];
+    for (int i = 0; i < count; i++) {
+      Node node = mappings.get(i).node;
+      StaticSourceFile sourceFile = node.getStaticSourceFile();
+      if (sourceFile == null || node.getLineno() < 0) {
+        fileOfMapping[i] = -1;
+        continue;
+      }
+      int file = fileIndices.computeIfAbsent(sourceFile.getName(), (String k) -> fileIndices.size());
+      fileOfMapping[i] = file;
+      fileSizes[file]++;
+    }
+
+    // Order the mappings by file.
+    int numFiles = fileIndices.size();
+    int[] fileStarts = new int[numFiles + 1];
+    for (int file = 0; file < numFiles; file++) {
+      fileStarts[file + 1] = fileStarts[file] + fileSizes[file];
+    }
+    int[] mappingsByFile = new int[fileStarts[numFiles]];
+    int[] filled = Arrays.copyOf(fileStarts, numFiles);
+    for (int i = 0; i < count; i++) {
+      if (fileOfMapping[i] != -1) {
+        mappingsByFile[filled[fileOfMapping[i]]++] = i;
+      }
+    }
+
+    // Look up the original positions of the nodes of each file together.
+    OriginalMapping[] sourceMappings = new OriginalMapping[count];
+    for (Map.Entry<String, Integer> file : fileIndices.entrySet()) {
+      int start = fileStarts[file.getValue()];
+      int size = fileSizes[file.getValue()];
+      int[] lineNos = new int[size];
+      int[] charNos = new int[size];
+      for (int j = 0; j < size; j++) {
+        Node node = mappings.get(mappingsByFile[start + j]).node;
+        lineNos[j] = node.getLineno();
+        charNos[j] = node.getCharno();
+      }
+      OriginalMapping[] fileMappings = mapping.getSourceMappings(file.getKey(), lineNos, charNos);
+      for (int j = 0; j < size; j++) {
+        sourceMappings[mappingsByFile[start + j]] = fileMappings[j];
+      }
+    }
+
+    for (int i = 0; i < count; i++) {
+      if (fileOfMapping[i] != -1) {
+        Mapping m = mappings.get(i);
+        addMapping(m.node, sourceMappings[i], m.start, m.end);
+      }
+    }
+  }
+
+  /**
+   * Adds a mapping for a node with a source file and line number.
+   *
+   * @param sourceMapping The original mapping of the node's position found in an input source map,
+   *     as returned by {@link SourceFileMapping#getSourceMapping}.
+   */
+  private void addMapping(
+      Node node,
+      @Nullable OriginalMapping sourceMapping,
+      FilePosition outputStartPosition,
+      FilePosition outputEndPosition) {
+    String sourceFileName = node.getStaticSourceFile().getName();
     int lineNo = node.getLineno();
     int charNo = node.getCharno();
     String originalName = SourceMap.getOriginalName(node);
 
-    if (mapping != null) {
-      OriginalMapping sourceMapping = mapping.getSourceMapping(sourceFileName, lineNo, charNo);
-      if (sourceMapping == null) {
-        // The source file does not have a input map. We consider this to be an
-        // original source range and include it in the output map.
-      } else if (sourceMapping.equals(OriginalMapping.getDefaultInstance())) {
-        // The source file does have an input map, but it does not map the
-        // location. We consider this to be a synthetic code range and do not
-        // include it in the output map.
-        // TODO b/452676030 - Report the sourceless mapping.
-        return;
-      } else {
-        // The source file mapped our code range to its original source location.
-        sourceFileName = sourceMapping.getOriginalFile();
-        lineNo = sourceMapping.getLineNumber();
-        charNo = sourceMapping.getColumnPosition();
-        String identifier = sourceMapping.getIdentifier();
-        if (sourceMapping.hasIdentifier() && !identifier.isEmpty()) {
-          originalName = identifier;
-        }
+    if (sourceMapping == null) {
+      // The source file does not have a input map. We consider this to be an
+      // original source range and include it in the output map.
+    } else if (sourceMapping.equals(OriginalMapping.getDefaultInstance())) {
+      // The source file does have an input map, but it does not map the
+      // location. We consider this to be a synthetic code range and do not
+      // include it in the output map.
+      // TODO b/452676030 - Report the sourceless mapping.
+      return;
+    } else {
+      // The source file mapped our code range to its original source location.
+      sourceFileName = sourceMapping.getOriginalFile();
+      lineNo = sourceMapping.getLineNumber();
+      charNo = sourceMapping.getColumnPosition();
+      String identifier = sourceMapping.getIdentifier();
+      if (sourceMapping.hasIdentifier() && !identifier.isEmpty()) {
+        originalName = identifier;
       }
     }
 
@@ -49,7 +49,7 @@ public final class SourceMapInput {
       String sourceMapPath = sourceFile.getName();
       try {
         String sourceMapContents = sourceFile.getCode();
-        SourceMapConsumerV3 consumer = new SourceMapConsumerV3();
+        SourceMapConsumerV3 consumer = SourceMapConsumerV3.createLazy();
         consumer.parse(sourceMapContents);
 
         // Detect an empty "default" source map provided by Gulp. We do not want
@@ -97,6 +97,8 @@ class TypeInference extends DataFlowAnalysis<Node, FlowScope> {
   private final JSTypeRegistry registry;
   private final ReverseAbstractInterpreter reverseInterpreter;
   private final FlowScope bottomScope;
+  // Non-null if flow scopes are IndexedFlowScopes, which all share this slot numbering.
+  private final IndexedFlowScope.@Nullable SlotIndex flowSlotIndex;
   private final TypedScope containerScope; // global scope, function scope, or static block scope
   private final TypedScopeCreator scopeCreator;
   private final AssertionFunctionLookup assertionFunctionLookup;
@@ -142,9 +144,16 @@ class TypeInference extends DataFlowAnalysis<Node, FlowScope> {
     this.unknownType = registry.getNativeObjectType(UNKNOWN_TYPE);
     this.numberAdditionSupertype = registry.getNativeType(JSTypeNative.NUMBER_ADDITION_SUPERTYPE);
 
+    this.flowSlotIndex =
+        compiler.getOptions().getUseIndexedFlowScopes() ? new IndexedFlowScope.SlotIndex() : null;
     this.bottomScope =
-        LinkedFlowScope.createEntryLattice(
-            compiler, TypedScope.createLatticeBottom(syntacticScope.getRootNode()));
+        createEntryFlowScope(TypedScope.createLatticeBottom(syntacticScope.getRootNode()));
+  }
+
+  private FlowScope createEntryFlowScope(TypedScope scope) {
+    return flowSlotIndex != null
+        ? IndexedFlowScope.createEntryLattice(compiler, flowSlotIndex, scope)
+        : LinkedFlowScope.createEntryLattice(compiler, scope);
   }
 
   @CheckReturnValue
@@ -356,8 +365,7 @@ class TypeInference extends DataFlowAnalysis<Node, FlowScope> {
   FlowScope createEntryLattice() {
     // only ever called once so we don't need to cache this computation
     FlowScope entryScope =
-        inferDeclarativelyUnboundVarsWithoutTypes(
-            LinkedFlowScope.createEntryLattice(compiler, this.containerScope));
+        inferDeclarativelyUnboundVarsWithoutTypes(createEntryFlowScope(this.containerScope));
 
     return inferParameters(entryScope);
   }
@@ -470,7 +478,9 @@ class TypeInference extends DataFlowAnalysis<Node, FlowScope> {
 
   @Override
   FlowJoiner<FlowScope> createFlowJoiner() {
-    return new LinkedFlowScope.FlowScopeJoinOp(this.compiler);
+    return flowSlotIndex != null
+        ? new IndexedFlowScope.FlowScopeJoinOp(this.compiler)
+        : new LinkedFlowScope.FlowScopeJoinOp(this.compiler);
   }
 
   @Override
@@ -28,7 +28,9 @@ import com.google.javascript.rhino.jstype.JSType;
 import com.google.javascript.rhino.jstype.ObjectType;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 
 /**
  * Signals that the first type and the second type have been used interchangeably.
@@ -73,10 +75,36 @@ public record TypeMismatch(JSType found, JSType required, Node location) impleme
 
   private static final Node TEST_LOCATION = IR.empty();
 
+  /** Stands in for the location of mismatches recorded without their location. */
+  private static final Node UNTRACKED_LOCATION = IR.empty();
+
   /** Collects a set of related mismatches. */
   static class Accumulator implements Serializable {
 
-    private final ArrayList<TypeMismatch> mismatches = new ArrayList<>();
+    // Either every mismatch as it was registered, or only the distinct ones in compact mode.
+    private final Collection<TypeMismatch> mismatches;
+    private final boolean keepLocations;
+
+    /** Creates an accumulator that keeps every mismatch along with its location. */
+    Accumulator() {
+      this.mismatches = new ArrayList<>();
+      this.keepLocations = true;
+    }
+
+    private Accumulator(boolean keepLocations) {
+      this.mismatches = new LinkedHashSet<>();
+      this.keepLocations = keepLocations;
+    }
+
+    /**
+     * Creates an accumulator that keeps each distinct mismatch once.
+     *
+     * <p>Without locations, mismatches are deduplicated by their pair of types and don't reference
+     * the AST at all. With locations, the same pair is still only kept once per node.
+     */
+    static Accumulator compact(boolean keepLocations) {
+      return new Accumulator(keepLocations);
+    }
 
     void registerMismatch(Node location, JSType found, JSType required) {
       // Don't register a mismatch for differences in null or undefined or if the
@@ -95,7 +123,8 @@ public record TypeMismatch(JSType found, JSType required, Node location) impleme
       }
 
       if (bothAreNotTemplateTypes(found, required)) {
-        this.mismatches.add(TypeMismatch.create(found, required, location));
+        this.mismatches.add(
+            TypeMismatch.create(found, required, keepLocations ? location : UNTRACKED_LOCATION));
       }
 
       if (found.isFunctionType() && required.isFunctionType()) {
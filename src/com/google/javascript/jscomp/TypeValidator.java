@@ -91,7 +91,7 @@ class TypeValidator implements Serializable {
   // this field to IGNORE_NULL_UNDEFINED
   private SubtypingMode subtypingMode = SubtypingMode.NORMAL;
 
-  private final TypeMismatch.Accumulator mismatches = new TypeMismatch.Accumulator();
+  private final TypeMismatch.Accumulator mismatches;
 
   // User warnings
   private static final String FOUND_REQUIRED =
@@ -192,6 +192,11 @@ class TypeValidator implements Serializable {
 
   TypeValidator(AbstractCompiler compiler) {
     this.compiler = compiler;
+    CompilerOptions options = compiler.getOptions();
+    this.mismatches =
+        options.getCompactTypeMismatches()
+            ? TypeMismatch.Accumulator.compact(options.shouldSerializeExtraDebugInfo())
+            : new TypeMismatch.Accumulator();
     this.typeRegistry = compiler.getTypeRegistry();
     this.allBitwisableValueTypes =
         typeRegistry.createUnionType(STRING_TYPE, NUMBER_TYPE, BOOLEAN_TYPE, NULL_TYPE, VOID_TYPE);
@@ -49,6 +49,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -61,6 +62,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.javascript.jscomp.CodingConvention.ObjectLiteralCast;
 import com.google.javascript.jscomp.CodingConvention.SubclassRelationship;
@@ -68,6 +70,7 @@ import com.google.javascript.jscomp.FunctionTypeBuilder.AstFunctionContents;
 import com.google.javascript.jscomp.NodeTraversal.AbstractPostOrderCallback;
 import com.google.javascript.jscomp.NodeTraversal.AbstractScopedCallback;
 import com.google.javascript.jscomp.ProcessClosureProvidesAndRequires.ProvidedName;
+import com.google.javascript.jscomp.base.JSCompThreads;
 import com.google.javascript.jscomp.modules.Export;
 import com.google.javascript.jscomp.modules.Module;
 import com.google.javascript.jscomp.modules.ModuleMap;
@@ -104,6 +107,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
 
@@ -553,11 +561,16 @@ final class TypedScopeCreator implements ScopeCreator, StaticSymbolTable<TypedVa
     MemoizedScopeCreator scopeCreator =
         new MemoizedScopeCreator(new SyntacticScopeCreator(compiler));
 
-    NodeTraversal.builder()
-        .setCompiler(compiler)
-        .setCallback(new FirstOrderFunctionAnalyzer())
-        .setScopeCreator(scopeCreator)
-        .traverseRoots(root.getFirstChild(), root.getLastChild());
+    int numParallelThreads = compiler.getOptions().getNumParallelThreads();
+    if (numParallelThreads > 1) {
+      analyzeFunctionsInParallel(root, scopeCreator, numParallelThreads);
+    } else {
+      NodeTraversal.builder()
+          .setCompiler(compiler)
+          .setCallback(new FirstOrderFunctionAnalyzer())
+          .setScopeCreator(scopeCreator)
+          .traverseRoots(root.getFirstChild(), root.getLastChild());
+    }
 
     NodeTraversal.builder()
         .setCompiler(compiler)
@@ -592,6 +605,69 @@ final class TypedScopeCreator implements ScopeCreator, StaticSymbolTable<TypedVa
     return s;
   }
 
+  /**
+   * Runs the {@link FirstOrderFunctionAnalyzer} over each script on its own thread.
+   *
+   * <p>This builds the syntactic scope of every function, which is most of the cost of the
+   * analysis. The global scope is built first and then only read, so scripts are independent of
+   * each other. The facts gathered for each script are merged in script order, giving the same
+   * result as a single traversal of both roots.
+   *
+   * <p>Typed declarations are still processed serially, in pre-order, because they update the type
+   * registry and outer scopes as they go.
+   */
+  private void analyzeFunctionsInParallel(
+      Node root, MemoizedScopeCreator scopeCreator, int numParallelThreads) {
+    Scope globalScope = (Scope) scopeCreator.createScope(root, null);
+    for (Var symbol : globalScope.getVarIterable()) {
+      reservedNamesForScope.put(root, symbol.getName());
+    }
+
+    List<Node> scripts = new ArrayList<>();
+    for (Node scriptRoot : root.children()) {
+      for (Node script : scriptRoot.children()) {
+        scripts.add(script);
+      }
+    }
+
+    ThreadFactory threadFactory =
+        JSCompThreads.newDaemonThreadFactory("jscompiler-TypedScopeCreator");
+    ExecutorService executor = Executors.newFixedThreadPool(numParallelThreads, threadFactory);
+    try {
+      List<Future<FirstOrderFunctionAnalyzer>> analyzers = new ArrayList<>(scripts.size());
+      for (Node script : scripts) {
+        analyzers.add(
+            executor.submit(
+                () -> {
+                  FirstOrderFunctionAnalyzer analyzer =
+                      new FirstOrderFunctionAnalyzer(
+                          MultimapBuilder.hashKeys().arrayListValues().build(),
+                          new LinkedHashSet<>(),
+                          new LinkedHashSet<>(),
+                          HashMultiset.create());
+                  NodeTraversal.builder()
+                      .setCompiler(compiler)
+                      .setCallback(analyzer)
+                      .setScopeCreator(scopeCreator)
+                      .traverseWithScope(script, globalScope);
+                  return analyzer;
+                }));
+      }
+      for (Future<FirstOrderFunctionAnalyzer> future : analyzers) {
+        FirstOrderFunctionAnalyzer analyzer = Uninterruptibles.getUninterruptibly(future);
+        reservedNamesForScope.putAll(analyzer.reservedNamesForScope);
+        functionsWithNonEmptyReturns.addAll(analyzer.functionsWithNonEmptyReturns);
+        escapedVarNames.addAll(analyzer.escapedVarNames);
+        assignedVarNames.addAll(analyzer.assignedVarNames);
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Symbols that are defined in the language spec.
    *
@@ -3677,8 +3753,44 @@ final class TypedScopeCreator implements ScopeCreator, StaticSymbolTable<TypedVa
    * <p>The syntactic scopes created in this traversal are also stored for later use.
    */
   private class FirstOrderFunctionAnalyzer extends AbstractScopedCallback {
+    // Either the collections of the enclosing TypedScopeCreator, or private ones that are merged
+    // into them once this analyzer has run over a single script.
+    private final ListMultimap<Node, String> reservedNamesForScope;
+    private final Set<Node> functionsWithNonEmptyReturns;
+    private final Set<ScopedName> escapedVarNames;
+    private final Multiset<ScopedName> assignedVarNames;
+    private final boolean analyzeGlobalScope;
+
+    /** Creates an analyzer that records directly into the enclosing TypedScopeCreator. */
+    FirstOrderFunctionAnalyzer() {
+      this.reservedNamesForScope = TypedScopeCreator.this.reservedNamesForScope;
+      this.functionsWithNonEmptyReturns = TypedScopeCreator.this.functionsWithNonEmptyReturns;
+      this.escapedVarNames = TypedScopeCreator.this.escapedVarNames;
+      this.assignedVarNames = TypedScopeCreator.this.assignedVarNames;
+      this.analyzeGlobalScope = true;
+    }
+
+    /**
+     * Creates an analyzer for a single script that records into the given collections. The global
+     * scope is shared between scripts and is not recorded.
+     */
+    FirstOrderFunctionAnalyzer(
+        ListMultimap<Node, String> reservedNamesForScope,
+        Set<Node> functionsWithNonEmptyReturns,
+        Set<ScopedName> escapedVarNames,
+        Multiset<ScopedName> assignedVarNames) {
+      this.reservedNamesForScope = reservedNamesForScope;
+      this.functionsWithNonEmptyReturns = functionsWithNonEmptyReturns;
+      this.escapedVarNames = escapedVarNames;
+      this.assignedVarNames = assignedVarNames;
+      this.analyzeGlobalScope = false;
+    }
+
     @Override
     public void enterScope(NodeTraversal t) {
+      if (!analyzeGlobalScope && t.inGlobalScope()) {
+        return;
+      }
       Scope scope = t.getScope();
       Node root = scope.getRootNode();
       for (Var symbol : scope.getVarIterable()) {
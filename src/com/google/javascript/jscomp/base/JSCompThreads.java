@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.base;
+
+import java.util.concurrent.ThreadFactory;
+
+/** Basic thread functions used by JSComp. */
+public final class JSCompThreads {
+
+  /** The stack size of the threads the compiler runs on, which is larger than the default. */
+  public static final long COMPILER_STACK_SIZE = (1 << 26); // About 64MB
+
+  /**
+   * Returns a factory of the threads that passes run their work on in parallel. The threads have
+   * the given name, the stack size of the compiler thread, and do not prevent the JVM from exiting.
+   */
+  public static ThreadFactory newDaemonThreadFactory(String name) {
+    return r -> {
+      Thread t = new Thread(null, r, name, COMPILER_STACK_SIZE);
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  private JSCompThreads() {
+    throw new AssertionError();
+  }
+}
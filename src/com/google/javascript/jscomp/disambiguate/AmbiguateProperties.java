@@ -21,7 +21,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.javascript.jscomp.AbstractCompiler;
 import com.google.javascript.jscomp.CompilerPass;
 import com.google.javascript.jscomp.DefaultNameGenerator;
@@ -31,6 +33,7 @@ import com.google.javascript.jscomp.NameGenerator;
 import com.google.javascript.jscomp.NodeTraversal;
 import com.google.javascript.jscomp.NodeTraversal.AbstractPostOrderCallback;
 import com.google.javascript.jscomp.NodeUtil;
+import com.google.javascript.jscomp.base.JSCompThreads;
 import com.google.javascript.jscomp.colors.Color;
 import com.google.javascript.jscomp.colors.ColorRegistry;
 import com.google.javascript.jscomp.colors.StandardColors;
@@ -39,7 +42,7 @@ import com.google.javascript.jscomp.graph.AdjacencyGraph;
 import com.google.javascript.jscomp.graph.Annotation;
 import com.google.javascript.jscomp.graph.FixedPointGraphTraversal;
 import com.google.javascript.jscomp.graph.GraphColoring;
-import com.google.javascript.jscomp.graph.GraphColoring.GreedyGraphColoring;
+import com.google.javascript.jscomp.graph.GraphColoring.FirstFitGraphColoring;
 import com.google.javascript.jscomp.graph.GraphNode;
 import com.google.javascript.jscomp.graph.LinkedDirectedGraph;
 import com.google.javascript.jscomp.graph.LowestCommonAncestorFinder;
@@ -53,6 +56,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -78,7 +86,11 @@ import org.jspecify.annotations.Nullable;
 public class AmbiguateProperties implements CompilerPass {
   private static final Logger logger = Logger.getLogger(AmbiguateProperties.class.getName());
 
+  /** The smallest number of properties worth giving to a thread when computing related colors. */
+  private static final int MIN_PROPERTIES_PER_TASK = 1024;
+
   private final AbstractCompiler compiler;
+  private final int numParallelThreads;
 
   private final List<Node> stringNodesToRename = new ArrayList<>();
   // Can't use these to start property names.
@@ -114,13 +126,19 @@ public class AmbiguateProperties implements CompilerPass {
         return p1.oldName.compareTo(p2.oldName);
       };
 
+  /**
+   * @param numParallelThreads the number of threads used to compute the colors related to each
+   *     property. Values below 2 mean that all work happens on the calling thread.
+   */
   public AmbiguateProperties(
       AbstractCompiler compiler,
       Set<Character> reservedFirstCharacters,
       Set<Character> reservedNonFirstCharacters,
-      Set<String> externProperties) {
+      Set<String> externProperties,
+      int numParallelThreads) {
     checkState(compiler.getLifeCycleStage().isNormalized());
     this.compiler = compiler;
+    this.numParallelThreads = numParallelThreads;
     this.reservedFirstCharacters = reservedFirstCharacters;
     this.reservedNonFirstCharacters = reservedNonFirstCharacters;
 
@@ -136,7 +154,11 @@ public class AmbiguateProperties implements CompilerPass {
       Set<String> externProperties) {
     AmbiguateProperties ap =
         new AmbiguateProperties(
-            compiler, reservedFirstCharacters, reservedNonFirstCharacters, externProperties);
+            compiler,
+            reservedFirstCharacters,
+            reservedNonFirstCharacters,
+            externProperties,
+            /* numParallelThreads= */ 1);
     ap.renamingMap = new LinkedHashMap<>();
     return ap;
   }
@@ -190,15 +212,7 @@ public class AmbiguateProperties implements CompilerPass {
         .computeFixedPoint(colorGraph);
 
     // Fill in all transitive edges in subtyping graph per property
-    for (Property prop : propertyMap.values()) {
-      if (prop.relatedColorsSeeds == null) {
-        continue;
-      }
-      for (ColorGraphNode color : prop.relatedColorsSeeds.keySet()) {
-        prop.relatedColors.or(color.getSubtypeIndices());
-      }
-      prop.relatedColorsSeeds = null;
-    }
+    computeRelatedColors();
 
     ImmutableSet.Builder<String> reservedNames =
         ImmutableSet.<String>builder().addAll(externedNames).addAll(quotedNames);
@@ -219,7 +233,7 @@ public class AmbiguateProperties implements CompilerPass {
 
     PropertyGraph propertyGraph = new PropertyGraph(nodes);
     GraphColoring<Property, Void> coloring =
-        new GreedyGraphColoring<>(propertyGraph, FREQUENCY_COMPARATOR);
+        new FirstFitGraphColoring<>(propertyGraph, FREQUENCY_COMPARATOR);
     int numNewPropertyNames = coloring.color();
 
     // Generate new names for the properties that will be renamed.
@@ -275,6 +289,46 @@ public class AmbiguateProperties implements CompilerPass {
     compiler.reportAmbiguatePropertiesSummary(summarySupplier);
   }
 
+  /**
+   * Computes {@link Property#relatedColors} from the seeds of each property. Properties only read
+   * the subtype indices of the color graph, which are final at this point, so they are split
+   * across threads when there are enough of them.
+   */
+  private void computeRelatedColors() {
+    List<Property> properties = new ArrayList<>();
+    for (Property prop : propertyMap.values()) {
+      if (prop.relatedColorsSeeds != null) {
+        properties.add(prop);
+      }
+    }
+    if (numParallelThreads <= 1 || properties.size() < 2 * MIN_PROPERTIES_PER_TASK) {
+      properties.forEach(Property::computeRelatedColors);
+      return;
+    }
+
+    int taskSize =
+        Math.max(MIN_PROPERTIES_PER_TASK, properties.size() / (4 * numParallelThreads) + 1);
+    ThreadFactory threadFactory =
+        JSCompThreads.newDaemonThreadFactory("jscompiler-AmbiguateProperties");
+    ExecutorService executor = Executors.newFixedThreadPool(numParallelThreads, threadFactory);
+    try {
+      List<Future<?>> tasks = new ArrayList<>();
+      for (int start = 0; start < properties.size(); start += taskSize) {
+        List<Property> task =
+            properties.subList(start, Math.min(start + taskSize, properties.size()));
+        tasks.add(executor.submit(() -> task.forEach(Property::computeRelatedColors)));
+      }
+      for (Future<?> task : tasks) {
+        Uninterruptibles.getUninterruptibly(task);
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   static class PropertyGraph implements AdjacencyGraph<Property, Void> {
     private final ArrayList<PropertyGraphNode> nodes;
 
@@ -633,5 +687,13 @@ public class AmbiguateProperties implements CompilerPass {
       ColorGraphNode newColorGraphNode = graphNodeFactory.createNode(color);
       relatedColorsSeeds.put(newColorGraphNode, 0);
     }
+
+    /** Adds the subtypes of the seed colors to the related colors and drops the seeds. */
+    void computeRelatedColors() {
+      for (ColorGraphNode color : relatedColorsSeeds.keySet()) {
+        relatedColors.or(color.getSubtypeIndices());
+      }
+      relatedColorsSeeds = null;
+    }
   }
 }
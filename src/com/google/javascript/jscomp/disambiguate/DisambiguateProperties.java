@@ -70,12 +70,26 @@ public final class DisambiguateProperties implements CompilerPass {
   private final AbstractCompiler compiler;
   private final ImmutableSet<String> propertiesThatMustDisambiguate;
   private final ColorRegistry registry;
+  private final int numParallelThreads;
 
   public DisambiguateProperties(
       AbstractCompiler compiler, ImmutableSet<String> propertiesThatMustDisambiguate) {
+    this(compiler, propertiesThatMustDisambiguate, /* numParallelThreads= */ 1);
+  }
+
+  /**
+   * @param numParallelThreads with more than one thread, clusters are propagated one property at a
+   *     time by a {@link ParallelClusterPropagator}. The renaming is the same for any number of
+   *     threads.
+   */
+  public DisambiguateProperties(
+      AbstractCompiler compiler,
+      ImmutableSet<String> propertiesThatMustDisambiguate,
+      int numParallelThreads) {
     this.compiler = compiler;
     this.propertiesThatMustDisambiguate = propertiesThatMustDisambiguate;
     this.registry = this.compiler.getColorRegistry();
+    this.numParallelThreads = numParallelThreads;
   }
 
   @Override
@@ -88,7 +102,6 @@ public final class DisambiguateProperties implements CompilerPass {
             flattener, this.compiler.getCodingConvention()::isPropertyRenameFunction);
     ColorGraphBuilder graphBuilder =
         new ColorGraphBuilder(flattener, LowestCommonAncestorFinder::new, this.registry);
-    ClusterPropagator propagator = new ClusterPropagator();
     UseSiteRenamer renamer =
         new UseSiteRenamer(/* mutationCb= */ this.compiler::reportChangeToEnclosingScope);
 
@@ -145,7 +158,11 @@ public final class DisambiguateProperties implements CompilerPass {
 
     invalidateBasedOnType(flattener);
 
-    FixedPointGraphTraversal.newTraversal(propagator).computeFixedPoint(graph);
+    if (this.numParallelThreads > 1) {
+      new ParallelClusterPropagator(this.numParallelThreads).propagate(graph);
+    } else {
+      FixedPointGraphTraversal.newTraversal(new ClusterPropagator()).computeFixedPoint(graph);
+    }
 
     TrackerSummaryGenerator trackerSummaryGenerator = new TrackerSummaryGenerator();
     for (PropertyClustering prop : propIndex.values()) {
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.disambiguate;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.javascript.jscomp.base.JSCompThreads;
+import com.google.javascript.jscomp.colors.StandardColors;
+import com.google.javascript.jscomp.graph.DiGraph;
+import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
+import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Propagates clusterings across a type graph one property at a time, on several threads.
+ *
+ * <p>This computes the same clusters as a fixed point traversal of the graph with {@link
+ * ClusterPropagator}: a property reaches every type below a type it is associated with, and the
+ * types connected by the edges it crosses are merged into one cluster. As properties do not affect
+ * each other, each one is propagated by a single thread, which only reads the graph and only
+ * updates the clusters of its own properties. The new associations of the types are recorded
+ * afterwards, on the calling thread.
+ *
+ * <p>The cluster representatives may differ from the ones chosen by the fixed point traversal,
+ * which merges clusters in the order that types are visited for all properties together. The
+ * clusters themselves are the same, and {@link UseSiteRenamer} names them by their members, so the
+ * renaming does not depend on which propagation ran.
+ */
+final class ParallelClusterPropagator {
+
+  /** The smallest number of properties worth giving to a thread. */
+  private static final int MIN_PROPERTIES_PER_TASK = 64;
+
+  private final int numParallelThreads;
+
+  ParallelClusterPropagator(int numParallelThreads) {
+    this.numParallelThreads = numParallelThreads;
+  }
+
+  void propagate(DiGraph<ColorGraphNode, Object> graph) {
+    // Collect the types each property starts from, in graph order.
+    LinkedHashMap<PropertyClustering, List<DiGraphNode<ColorGraphNode, Object>>> startsByProp =
+        new LinkedHashMap<>();
+    for (DiGraphNode<ColorGraphNode, Object> node : graph.getNodes()) {
+      for (PropertyClustering prop : node.getValue().getAssociatedProps().keySet()) {
+        if (!prop.isInvalidated()) {
+          startsByProp.computeIfAbsent(prop, (p) -> new ArrayList<>()).add(node);
+        }
+      }
+    }
+
+    List<Map.Entry<PropertyClustering, List<DiGraphNode<ColorGraphNode, Object>>>> props =
+        new ArrayList<>(startsByProp.entrySet());
+    List<List<ColorGraphNode>> reachedByProp = new ArrayList<>(props.size());
+    if (numParallelThreads <= 1 || props.size() < 2 * MIN_PROPERTIES_PER_TASK) {
+      for (Map.Entry<PropertyClustering, List<DiGraphNode<ColorGraphNode, Object>>> prop : props) {
+        reachedByProp.add(propagate(prop.getKey(), prop.getValue()));
+      }
+    } else {
+      reachedByProp.addAll(propagateInParallel(props));
+    }
+
+    // Record the associations in property order, so that the types' association maps are
+    // deterministic.
+    for (int i = 0; i < props.size(); i++) {
+      PropertyClustering prop = props.get(i).getKey();
+      for (ColorGraphNode type : reachedByProp.get(i)) {
+        type.getAssociatedProps().putIfAbsent(prop, ColorGraphNode.PropAssociation.SUPERTYPE);
+      }
+    }
+  }
+
+  private List<List<ColorGraphNode>> propagateInParallel(
+      List<Map.Entry<PropertyClustering, List<DiGraphNode<ColorGraphNode, Object>>>> props) {
+    int taskSize =
+        Math.max(MIN_PROPERTIES_PER_TASK, props.size() / (4 * numParallelThreads) + 1);
+    ThreadFactory threadFactory =
+        JSCompThreads.newDaemonThreadFactory("jscompiler-DisambiguateProperties");
+    ExecutorService executor = Executors.newFixedThreadPool(numParallelThreads, threadFactory);
+    try {
+      List<Future<List<List<ColorGraphNode>>>> tasks = new ArrayList<>();
+      for (int start = 0; start < props.size(); start += taskSize) {
+        List<Map.Entry<PropertyClustering, List<DiGraphNode<ColorGraphNode, Object>>>> task =
+            props.subList(start, Math.min(start + taskSize, props.size()));
+        tasks.add(
+            executor.submit(
+                () -> {
+                  List<List<ColorGraphNode>> reached = new ArrayList<>(task.size());
+                  for (Map.Entry<PropertyClustering, List<DiGraphNode<ColorGraphNode, Object>>>
+                      prop : task) {
+                    reached.add(propagate(prop.getKey(), prop.getValue()));
+                  }
+                  return reached;
+                }));
+      }
+      List<List<ColorGraphNode>> reachedByProp = new ArrayList<>(props.size());
+      for (Future<List<List<ColorGraphNode>>> task : tasks) {
+        reachedByProp.addAll(Uninterruptibles.getUninterruptibly(task));
+      }
+      return reachedByProp;
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Merges the clusters of {@code prop} along every edge it crosses, starting from the given types.
+   *
+   * @return the types the property reaches that it was not associated with
+   */
+  private static List<ColorGraphNode> propagate(
+      PropertyClustering prop, List<DiGraphNode<ColorGraphNode, Object>> starts) {
+    Set<DiGraphNode<ColorGraphNode, Object>> reached = new HashSet<>(starts);
+    ArrayDeque<DiGraphNode<ColorGraphNode, Object>> worklist = new ArrayDeque<>(starts);
+    List<ColorGraphNode> newlyReached = new ArrayList<>();
+    while (!worklist.isEmpty()) {
+      DiGraphNode<ColorGraphNode, Object> src = worklist.removeFirst();
+      if (src.getValue().getColor() == StandardColors.TOP_OBJECT) {
+        // Matches ClusterPropagator, which does not propagate from TOP_OBJECT.
+        continue;
+      }
+      for (DiGraphEdge<ColorGraphNode, Object> edge : src.getOutEdges()) {
+        DiGraphNode<ColorGraphNode, Object> dest = edge.getDestination();
+        prop.getClusters().union(src.getValue(), dest.getValue());
+        if (reached.add(dest)) {
+          newlyReached.add(dest.getValue());
+          worklist.addLast(dest);
+        }
+      }
+    }
+    return newlyReached;
+  }
+}
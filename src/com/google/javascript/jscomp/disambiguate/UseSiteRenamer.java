@@ -22,7 +22,9 @@ import static java.util.function.Function.identity;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.javascript.jscomp.graph.StandardUnionFind;
 import com.google.javascript.rhino.Node;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -90,18 +92,31 @@ final class UseSiteRenamer {
   /**
    * Creates a unique name for each cluster in {@code prop} and maps it to the cluster
    * representative.
+   *
+   * <p>Names are derived from the lowest index of the types in each cluster rather than from the
+   * representative. Which type ends up as the representative depends on the order clusters were
+   * merged in, which differs between the serial and parallel propagation, while the members of
+   * each cluster do not.
    */
   private static ImmutableMap<ColorGraphNode, String> createAllClusterNames(
       PropertyClustering prop) {
-    return prop.getClusters().allRepresentatives().stream()
-        .collect(toImmutableMap(identity(), (r) -> createClusterName(prop, r)));
+    StandardUnionFind<ColorGraphNode> clusters = prop.getClusters();
+    HashMap<ColorGraphNode, Integer> lowestIndexByRep = new HashMap<>();
+    for (ColorGraphNode type : clusters.elements()) {
+      lowestIndexByRep.merge(clusters.find(type), type.getIndex(), Math::min);
+    }
+    return clusters.allRepresentatives().stream()
+        .collect(
+            toImmutableMap(
+                identity(), (r) -> createClusterName(prop, r, lowestIndexByRep.get(r))));
   }
 
-  private static String createClusterName(PropertyClustering prop, ColorGraphNode rep) {
+  private static String createClusterName(
+      PropertyClustering prop, ColorGraphNode rep, int lowestIndex) {
     if (Objects.equals(prop.getOriginalNameClusterRep(), rep)) {
       return prop.getName();
     }
 
-    return "JSC$" + rep.getIndex() + "_" + prop.getName();
+    return "JSC$" + lowestIndex + "_" + prop.getName();
   }
 }
@@ -0,0 +1,735 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.graph;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.javascript.jscomp.graph.GraphvizGraph.GraphvizEdge;
+import com.google.javascript.jscomp.graph.GraphvizGraph.GraphvizNode;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A directed graph that stores its nodes and edges in int-indexed arrays.
+ *
+ * <p>Nodes are numbered densely from 0 in the order in which they are created, so that analyses
+ * can keep per-node data in arrays or bit sets indexed by {@link CompactDiGraphNode#getIndex()}.
+ * Adjacency lists are kept in compressed sparse row (CSR) form: the out-edges of all nodes are
+ * stored contiguously in one int array, ordered by source node, and likewise for the in-edges.
+ * Compared to {@link LinkedDirectedGraph}, this does not allocate any edge lists per node, and
+ * walking the edges of a node reads adjacent memory.
+ *
+ * <p>The CSR arrays are built lazily, the first time adjacency lists are requested after the graph
+ * was modified. While the graph is being built, the edges of each node are kept in linked lists
+ * threaded through int arrays, which keeps {@link #isConnectedInDirection} cheap. The graph is
+ * meant to be built once and then queried; modifying it after querying it is supported, but
+ * rebuilds the CSR arrays on the next query.
+ *
+ * <p>Edge lists and node lists returned by this graph are read-only views which are only valid
+ * until the graph is next modified. The edges of each node are listed in the order in which they
+ * were added, as in {@link LinkedDirectedGraph}.
+ *
+ * @param <N> Value type that the graph node stores.
+ * @param <E> Value type that the graph edge stores.
+ */
+public class CompactDirectedGraph<N, E> extends DiGraph<N, E> implements GraphvizGraph {
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final boolean useNodeAnnotations;
+  private final boolean useEdgeAnnotations;
+
+  private final Map<N, CompactDiGraphNode<N, E>> nodesByValue = new HashMap<>();
+
+  // Node data, indexed by node index.
+  private CompactDiGraphNode<N, E>[] nodes = newNodeArray(INITIAL_CAPACITY);
+  private int[] priorities = new int[INITIAL_CAPACITY];
+  private Annotation @Nullable [] nodeAnnotations;
+  private int nodeCount = 0;
+
+  // Edge data, indexed by edge index. Edge indices are never reused, even after disconnecting.
+  private int[] edgeSources = new int[INITIAL_CAPACITY];
+  private int[] edgeDests = new int[INITIAL_CAPACITY];
+  private Object[] edgeValues = new Object[INITIAL_CAPACITY];
+  private Annotation @Nullable [] edgeAnnotations;
+  private CompactDiGraphEdge<N, E>[] edgeObjects = newEdgeArray(INITIAL_CAPACITY); // lazily filled
+  private int edgeCount = 0;
+
+  // The edges of each node as linked lists of edge indices, in insertion order. Always valid.
+  private int[] firstOut = new int[INITIAL_CAPACITY];
+  private int[] lastOut = new int[INITIAL_CAPACITY];
+  private int[] firstIn = new int[INITIAL_CAPACITY];
+  private int[] lastIn = new int[INITIAL_CAPACITY];
+  private int[] nextOut = new int[INITIAL_CAPACITY];
+  private int[] nextIn = new int[INITIAL_CAPACITY];
+
+  // The CSR form of the edge lists, or null if the graph changed since it was last built. The
+  // out-edges of node i are outEdges[outOffsets[i]] to outEdges[outOffsets[i + 1] - 1], and
+  // outDests holds their destinations. Likewise for the in-edges and their sources.
+  private int @Nullable [] outOffsets;
+  private int @Nullable [] outEdges;
+  private int @Nullable [] outDests;
+  private int @Nullable [] inOffsets;
+  private int @Nullable [] inEdges;
+  private int @Nullable [] inSources;
+
+  public static <N, E> CompactDirectedGraph<N, E> createWithoutAnnotations() {
+    return new CompactDirectedGraph<>(false, false);
+  }
+
+  public static <N, E> CompactDirectedGraph<N, E> create() {
+    return new CompactDirectedGraph<>(true, true);
+  }
+
+  protected CompactDirectedGraph(boolean useNodeAnnotations, boolean useEdgeAnnotations) {
+    this.useNodeAnnotations = useNodeAnnotations;
+    this.useEdgeAnnotations = useEdgeAnnotations;
+    this.nodeAnnotations = useNodeAnnotations ? new Annotation[INITIAL_CAPACITY] : null;
+    this.edgeAnnotations = useEdgeAnnotations ? new Annotation[INITIAL_CAPACITY] : null;
+  }
+
+  @Override
+  public SubGraph<N, E> newSubGraph() {
+    return new SimpleSubGraph<>(this);
+  }
+
+  @Override
+  public CompactDiGraphNode<N, E> createNode(N nodeValue) {
+    CompactDiGraphNode<N, E> node = nodesByValue.get(nodeValue);
+    if (node != null) {
+      return node;
+    }
+    if (nodeCount == nodes.length) {
+      int capacity = nodeCount * 2;
+      nodes = Arrays.copyOf(nodes, capacity);
+      priorities = Arrays.copyOf(priorities, capacity);
+      firstOut = Arrays.copyOf(firstOut, capacity);
+      lastOut = Arrays.copyOf(lastOut, capacity);
+      firstIn = Arrays.copyOf(firstIn, capacity);
+      lastIn = Arrays.copyOf(lastIn, capacity);
+      if (nodeAnnotations != null) {
+        nodeAnnotations = Arrays.copyOf(nodeAnnotations, capacity);
+      }
+    }
+    int index = nodeCount++;
+    node = new CompactDiGraphNode<>(this, nodeValue, index);
+    nodes[index] = node;
+    priorities[index] = -1;
+    firstOut[index] = NONE;
+    lastOut[index] = NONE;
+    firstIn[index] = NONE;
+    lastIn[index] = NONE;
+    nodesByValue.put(nodeValue, node);
+    invalidateCsr();
+    return node;
+  }
+
+  @Override
+  public void connect(N srcValue, E edgeValue, N destValue) {
+    CompactDiGraphNode<N, E> src = getNodeOrFail(srcValue);
+    CompactDiGraphNode<N, E> dest = getNodeOrFail(destValue);
+    addEdge(src.index, edgeValue, dest.index);
+  }
+
+  /**
+   * Connects two nodes of this graph. Prefer this to {@link #connect(Object, Object, Object)} if
+   * the nodes are available, as it saves looking them up.
+   */
+  public void connect(DiGraphNode<N, E> src, E edgeValue, DiGraphNode<N, E> dest) {
+    addEdge(ownNode(src).index, edgeValue, ownNode(dest).index);
+  }
+
+  private void addEdge(int src, E edgeValue, int dest) {
+    if (edgeCount == edgeSources.length) {
+      int capacity = edgeCount * 2;
+      edgeSources = Arrays.copyOf(edgeSources, capacity);
+      edgeDests = Arrays.copyOf(edgeDests, capacity);
+      edgeValues = Arrays.copyOf(edgeValues, capacity);
+      edgeObjects = Arrays.copyOf(edgeObjects, capacity);
+      nextOut = Arrays.copyOf(nextOut, capacity);
+      nextIn = Arrays.copyOf(nextIn, capacity);
+      if (edgeAnnotations != null) {
+        edgeAnnotations = Arrays.copyOf(edgeAnnotations, capacity);
+      }
+    }
+    int edge = edgeCount++;
+    edgeSources[edge] = src;
+    edgeDests[edge] = dest;
+    edgeValues[edge] = edgeValue;
+
+    nextOut[edge] = NONE;
+    if (lastOut[src] == NONE) {
+      firstOut[src] = edge;
+    } else {
+      nextOut[lastOut[src]] = edge;
+    }
+    lastOut[src] = edge;
+
+    nextIn[edge] = NONE;
+    if (lastIn[dest] == NONE) {
+      firstIn[dest] = edge;
+    } else {
+      nextIn[lastIn[dest]] = edge;
+    }
+    lastIn[dest] = edge;
+    invalidateCsr();
+  }
+
+  @Override
+  public void disconnect(N n1, N n2) {
+    disconnectInDirection(n1, n2);
+    disconnectInDirection(n2, n1);
+  }
+
+  @Override
+  public void disconnectInDirection(N srcValue, N destValue) {
+    int src = indexOf(srcValue);
+    int dest = indexOf(destValue);
+
+    int prev = NONE;
+    for (int edge = firstOut[src]; edge != NONE; edge = nextOut[edge]) {
+      if (edgeDests[edge] != dest) {
+        prev = edge;
+        continue;
+      }
+      if (prev == NONE) {
+        firstOut[src] = nextOut[edge];
+      } else {
+        nextOut[prev] = nextOut[edge];
+      }
+      if (lastOut[src] == edge) {
+        lastOut[src] = prev;
+      }
+      invalidateCsr();
+    }
+
+    prev = NONE;
+    for (int edge = firstIn[dest]; edge != NONE; edge = nextIn[edge]) {
+      if (edgeSources[edge] != src) {
+        prev = edge;
+        continue;
+      }
+      if (prev == NONE) {
+        firstIn[dest] = nextIn[edge];
+      } else {
+        nextIn[prev] = nextIn[edge];
+      }
+      if (lastIn[dest] == edge) {
+        lastIn[dest] = prev;
+      }
+    }
+  }
+
+  @Override
+  public List<CompactDiGraphNode<N, E>> getNodes() {
+    return new NodeList<>(nodes, 0, nodeCount);
+  }
+
+  @Override
+  public @Nullable CompactDiGraphNode<N, E> getNode(N nodeValue) {
+    return nodesByValue.get(nodeValue);
+  }
+
+  @Override
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  @Override
+  public List<CompactDiGraphEdge<N, E>> getOutEdges(N nodeValue) {
+    return getOutEdges(indexOf(nodeValue));
+  }
+
+  @Override
+  public List<CompactDiGraphEdge<N, E>> getInEdges(N nodeValue) {
+    return getInEdges(indexOf(nodeValue));
+  }
+
+  private List<CompactDiGraphEdge<N, E>> getOutEdges(int node) {
+    ensureCsr();
+    return new EdgeList<>(this, outEdges, outOffsets[node], outOffsets[node + 1]);
+  }
+
+  private List<CompactDiGraphEdge<N, E>> getInEdges(int node) {
+    ensureCsr();
+    return new EdgeList<>(this, inEdges, inOffsets[node], inOffsets[node + 1]);
+  }
+
+  @Override
+  public List<CompactDiGraphNode<N, E>> getDirectedPredNodes(N nodeValue) {
+    return getDirectedPredNodes(nodesByValue.get(nodeValue));
+  }
+
+  @Override
+  public List<CompactDiGraphNode<N, E>> getDirectedPredNodes(DiGraphNode<N, E> dNode) {
+    int node = ownNode(checkNotNull(dNode)).index;
+    ensureCsr();
+    return new NodeList<>(nodes, inSources, inOffsets[node], inOffsets[node + 1]);
+  }
+
+  @Override
+  public List<CompactDiGraphNode<N, E>> getDirectedSuccNodes(N nodeValue) {
+    return getDirectedSuccNodes(nodesByValue.get(nodeValue));
+  }
+
+  @Override
+  public List<CompactDiGraphNode<N, E>> getDirectedSuccNodes(DiGraphNode<N, E> dNode) {
+    int node = ownNode(checkNotNull(dNode)).index;
+    ensureCsr();
+    return new NodeList<>(nodes, outDests, outOffsets[node], outOffsets[node + 1]);
+  }
+
+  @Override
+  public List<CompactDiGraphEdge<N, E>> getEdges() {
+    ensureCsr();
+    return new EdgeList<>(this, outEdges, 0, outOffsets[nodeCount]);
+  }
+
+  @Override
+  public List<CompactDiGraphEdge<N, E>> getEdges(N n1, N n2) {
+    // Since this is a method from a generic graph, edges from both directions must be included.
+    List<CompactDiGraphEdge<N, E>> edges = getEdgesInDirection(n1, n2);
+    edges.addAll(getEdgesInDirection(n2, n1));
+    return edges;
+  }
+
+  @Override
+  public List<CompactDiGraphEdge<N, E>> getEdgesInDirection(N n1, N n2) {
+    int src = indexOf(n1);
+    int dest = indexOf(n2);
+    List<CompactDiGraphEdge<N, E>> edges = new ArrayList<>();
+    for (int edge = firstOut[src]; edge != NONE; edge = nextOut[edge]) {
+      if (edgeDests[edge] == dest) {
+        edges.add(getEdge(edge));
+      }
+    }
+    return edges;
+  }
+
+  @Override
+  public @Nullable GraphEdge<N, E> getFirstEdge(N n1, N n2) {
+    int node1 = indexOf(n1);
+    int node2 = indexOf(n2);
+    int edge = findEdge(node1, /* anyValue= */ true, null, node2);
+    if (edge == NONE) {
+      edge = findEdge(node2, /* anyValue= */ true, null, node1);
+    }
+    return edge == NONE ? null : getEdge(edge);
+  }
+
+  @Override
+  public boolean isConnectedInDirection(N source, N dest) {
+    return findEdge(indexOf(source), /* anyValue= */ true, null, indexOf(dest)) != NONE;
+  }
+
+  @Override
+  public boolean isConnectedInDirection(N source, E edgeValue, N dest) {
+    return findEdge(indexOf(source), /* anyValue= */ false, edgeValue, indexOf(dest)) != NONE;
+  }
+
+  /**
+   * Returns the first edge from src to dest that has the given value, or any value. Returns NONE if
+   * there is no such edge.
+   */
+  private int findEdge(int src, boolean anyValue, @Nullable E edgeValue, int dest) {
+    // An edge is in both the out-edges of src and the in-edges of dest. Walk both lists in lockstep
+    // so that the search ends with the shorter one, as there may be a large asymmetry.
+    int outEdge = firstOut[src];
+    int inEdge = firstIn[dest];
+    while (outEdge != NONE && inEdge != NONE) {
+      if (edgeDests[outEdge] == dest
+          && (anyValue || Objects.equals(edgeValue, edgeValues[outEdge]))) {
+        return outEdge;
+      }
+      if (edgeSources[inEdge] == src
+          && (anyValue || Objects.equals(edgeValue, edgeValues[inEdge]))) {
+        return inEdge;
+      }
+      outEdge = nextOut[outEdge];
+      inEdge = nextIn[inEdge];
+    }
+    return NONE;
+  }
+
+  @Override
+  public List<GraphNode<N, E>> getNeighborNodes(N value) {
+    int node = indexOf(value);
+    List<GraphNode<N, E>> result = new ArrayList<>();
+    for (int edge = firstIn[node]; edge != NONE; edge = nextIn[edge]) {
+      result.add(nodes[edgeSources[edge]]);
+    }
+    for (int edge = firstOut[node]; edge != NONE; edge = nextOut[edge]) {
+      result.add(nodes[edgeDests[edge]]);
+    }
+    return result;
+  }
+
+  @Override
+  public int getNodeDegree(N value) {
+    int node = indexOf(value);
+    int degree = 0;
+    for (int edge = firstIn[node]; edge != NONE; edge = nextIn[edge]) {
+      degree++;
+    }
+    for (int edge = firstOut[node]; edge != NONE; edge = nextOut[edge]) {
+      degree++;
+    }
+    return degree;
+  }
+
+  @Override
+  public List<GraphvizEdge> getGraphvizEdges() {
+    return new ArrayList<>(getEdges());
+  }
+
+  @Override
+  public List<GraphvizNode> getGraphvizNodes() {
+    return new ArrayList<>(getNodes());
+  }
+
+  @Override
+  public String getName() {
+    return "CompactGraph";
+  }
+
+  @Override
+  public boolean isDirected() {
+    return true;
+  }
+
+  private int indexOf(N value) {
+    CompactDiGraphNode<N, E> node = getNodeOrFail(value);
+    return node.index;
+  }
+
+  private CompactDiGraphNode<N, E> ownNode(DiGraphNode<N, E> node) {
+    CompactDiGraphNode<N, E> compactNode = (CompactDiGraphNode<N, E>) node;
+    checkArgument(compactNode.graph == this, "%s is not a node of this graph", node);
+    return compactNode;
+  }
+
+  private CompactDiGraphEdge<N, E> getEdge(int edge) {
+    CompactDiGraphEdge<N, E> edgeObject = edgeObjects[edge];
+    if (edgeObject == null) {
+      edgeObject = new CompactDiGraphEdge<>(this, edge);
+      edgeObjects[edge] = edgeObject;
+    }
+    return edgeObject;
+  }
+
+  private void invalidateCsr() {
+    outOffsets = null;
+  }
+
+  /** Builds the CSR form of the edge lists from the linked lists, if needed. */
+  private void ensureCsr() {
+    if (outOffsets != null) {
+      return;
+    }
+    int[] newOutOffsets = new int[nodeCount + 1];
+    int[] newInOffsets = new int[nodeCount + 1];
+    int[] newOutEdges = new int[edgeCount];
+    int[] newOutDests = new int[edgeCount];
+    int[] newInEdges = new int[edgeCount];
+    int[] newInSources = new int[edgeCount];
+    int outPos = 0;
+    int inPos = 0;
+    for (int node = 0; node < nodeCount; node++) {
+      newOutOffsets[node] = outPos;
+      for (int edge = firstOut[node]; edge != NONE; edge = nextOut[edge]) {
+        newOutEdges[outPos] = edge;
+        newOutDests[outPos] = edgeDests[edge];
+        outPos++;
+      }
+      newInOffsets[node] = inPos;
+      for (int edge = firstIn[node]; edge != NONE; edge = nextIn[edge]) {
+        newInEdges[inPos] = edge;
+        newInSources[inPos] = edgeSources[edge];
+        inPos++;
+      }
+    }
+    newOutOffsets[nodeCount] = outPos;
+    newInOffsets[nodeCount] = inPos;
+    this.outEdges = newOutEdges;
+    this.outDests = newOutDests;
+    this.inOffsets = newInOffsets;
+    this.inEdges = newInEdges;
+    this.inSources = newInSources;
+    this.outOffsets = newOutOffsets;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <N, E> CompactDiGraphNode<N, E>[] newNodeArray(int size) {
+    return (CompactDiGraphNode<N, E>[]) new CompactDiGraphNode<?, ?>[size];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <N, E> CompactDiGraphEdge<N, E>[] newEdgeArray(int size) {
+    return (CompactDiGraphEdge<N, E>[]) new CompactDiGraphEdge<?, ?>[size];
+  }
+
+  /** A read-only view of a range of nodes, either directly or through an array of node indices. */
+  private static final class NodeList<N, E> extends AbstractList<CompactDiGraphNode<N, E>>
+      implements RandomAccess {
+    private final CompactDiGraphNode<N, E>[] nodes;
+    private final int @Nullable [] indices;
+    private final int from;
+    private final int to;
+
+    NodeList(CompactDiGraphNode<N, E>[] nodes, int from, int to) {
+      this(nodes, null, from, to);
+    }
+
+    NodeList(CompactDiGraphNode<N, E>[] nodes, int @Nullable [] indices, int from, int to) {
+      this.nodes = nodes;
+      this.indices = indices;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public CompactDiGraphNode<N, E> get(int i) {
+      checkElementIndex(i, to - from);
+      return nodes[indices == null ? from + i : indices[from + i]];
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+
+  /** A read-only view of a range of an array of edge indices. */
+  private static final class EdgeList<N, E> extends AbstractList<CompactDiGraphEdge<N, E>>
+      implements RandomAccess {
+    private final CompactDirectedGraph<N, E> graph;
+    private final int[] edges;
+    private final int from;
+    private final int to;
+
+    EdgeList(CompactDirectedGraph<N, E> graph, int[] edges, int from, int to) {
+      this.graph = graph;
+      this.edges = edges;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public CompactDiGraphEdge<N, E> get(int i) {
+      checkElementIndex(i, to - from);
+      return graph.getEdge(edges[from + i]);
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+
+  private static void checkElementIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  /** A node of a {@link CompactDirectedGraph}, identified by its index. */
+  public static final class CompactDiGraphNode<N, E> implements DiGraphNode<N, E>, GraphvizNode {
+    private final CompactDirectedGraph<N, E> graph;
+    private final N value;
+    private final int index;
+
+    private CompactDiGraphNode(CompactDirectedGraph<N, E> graph, N value, int index) {
+      this.graph = graph;
+      this.value = value;
+      this.index = index;
+    }
+
+    /**
+     * Returns the index of this node. Nodes are numbered from 0 in the order in which they were
+     * created, up to {@link CompactDirectedGraph#getNodeCount()} - 1.
+     */
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public N getValue() {
+      return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A getAnnotation() {
+      if (graph.nodeAnnotations == null) {
+        throw new UnsupportedOperationException(
+            "Graph initialized with node annotations turned off");
+      }
+      return (A) graph.nodeAnnotations[index];
+    }
+
+    @Override
+    public void setAnnotation(Annotation data) {
+      if (graph.nodeAnnotations == null) {
+        throw new UnsupportedOperationException(
+            "Graph initialized with node annotations turned off");
+      }
+      graph.nodeAnnotations[index] = data;
+    }
+
+    @Override
+    public List<CompactDiGraphEdge<N, E>> getOutEdges() {
+      return graph.getOutEdges(index);
+    }
+
+    @Override
+    public List<CompactDiGraphEdge<N, E>> getInEdges() {
+      return graph.getInEdges(index);
+    }
+
+    @Override
+    public boolean hasPriority() {
+      return graph.priorities[index] >= 0;
+    }
+
+    @Override
+    public int getPriority() {
+      int priority = graph.priorities[index];
+      checkState(priority >= 0, "priority not set");
+      return priority;
+    }
+
+    @Override
+    public void setPriority(int priority) {
+      checkArgument(priority >= 0, "priorities must be non-negative");
+      graph.priorities[index] = priority;
+    }
+
+    @Override
+    public String getColor() {
+      return "white";
+    }
+
+    @Override
+    public String getId() {
+      return "CDN" + index;
+    }
+
+    @Override
+    public String getLabel() {
+      String result = this.toString();
+      if (graph.useNodeAnnotations && graph.nodeAnnotations[index] != null) {
+        result += "\n" + graph.nodeAnnotations[index];
+      }
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(value);
+    }
+  }
+
+  /** An edge of a {@link CompactDirectedGraph}, identified by its index. */
+  public static final class CompactDiGraphEdge<N, E> implements DiGraphEdge<N, E>, GraphvizEdge {
+    private final CompactDirectedGraph<N, E> graph;
+    private final int index;
+
+    private CompactDiGraphEdge(CompactDirectedGraph<N, E> graph, int index) {
+      this.graph = graph;
+      this.index = index;
+    }
+
+    @Override
+    public CompactDiGraphNode<N, E> getSource() {
+      return graph.nodes[graph.edgeSources[index]];
+    }
+
+    @Override
+    public CompactDiGraphNode<N, E> getDestination() {
+      return graph.nodes[graph.edgeDests[index]];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getValue() {
+      return (E) graph.edgeValues[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A getAnnotation() {
+      if (graph.edgeAnnotations == null) {
+        throw new UnsupportedOperationException(
+            "Graph initialized with edge annotations turned off");
+      }
+      return (A) graph.edgeAnnotations[index];
+    }
+
+    @Override
+    public void setAnnotation(Annotation data) {
+      if (graph.edgeAnnotations == null) {
+        throw new UnsupportedOperationException(
+            "Graph initialized with edge annotations turned off");
+      }
+      graph.edgeAnnotations[index] = data;
+    }
+
+    @Override
+    public GraphNode<N, E> getNodeA() {
+      return getSource();
+    }
+
+    @Override
+    public GraphNode<N, E> getNodeB() {
+      return getDestination();
+    }
+
+    @Override
+    public String getColor() {
+      return "black";
+    }
+
+    @Override
+    public String getLabel() {
+      return String.valueOf(getValue());
+    }
+
+    @Override
+    public String getNode1Id() {
+      return getSource().getId();
+    }
+
+    @Override
+    public String getNode2Id() {
+      return getDestination().getId();
+    }
+
+    @Override
+    public String toString() {
+      return getSource() + " -> " + getDestination();
+    }
+  }
+}
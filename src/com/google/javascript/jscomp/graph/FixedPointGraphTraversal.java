@@ -20,10 +20,21 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
 import com.google.javascript.jscomp.graph.DiGraph.DiGraphNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A utility class for doing fixed-point computations. We traverse
@@ -131,6 +142,253 @@ public final class FixedPointGraphTraversal<N, E> {
     checkState(cycleCount != maxIterations, NON_HALTING_ERROR_MSG);
   }
 
+  // Components of a level are handed to the executor in batches of at least this many, so that
+  // graphs made mostly of acyclic singleton components do not create a task per node.
+  private static final int MIN_COMPONENTS_PER_TASK = 256;
+
+  /**
+   * Computes a fixed point for the given graph one strongly connected component at a time.
+   *
+   * <p>Components are visited in topological order of the traversal direction. Each component first
+   * traverses the edges reaching it from components that are already done, and then computes the
+   * fixed point of its own edges, so every component is visited once instead of being revisited
+   * each time a node it depends on changes. The result is the same as {@link
+   * #computeFixedPoint(DiGraph)} as long as the callback is monotone, i.e. only ever adds to the
+   * state of the destination.
+   *
+   * <p>If an executor is given, components whose predecessors are all done are visited in parallel.
+   * The callback must then be safe to call concurrently for distinct destinations: it is only ever
+   * called concurrently on destinations in distinct components, and with sources that are either
+   * done or in the destination's component.
+   *
+   * @param graph The graph to traverse.
+   * @param executor Runs independent components in parallel, or null to run them serially.
+   */
+  public void computeFixedPointByComponents(
+      DiGraph<N, E> graph, @Nullable ExecutorService executor) {
+    Components<N, E> components = new Components<>(graph, traversalDirection);
+    for (List<List<DiGraphNode<N, E>>> level : components.levels) {
+      if (executor == null || level.size() < 2 * MIN_COMPONENTS_PER_TASK) {
+        for (List<DiGraphNode<N, E>> component : level) {
+          visitComponent(component, components);
+        }
+        continue;
+      }
+      List<Future<?>> tasks = new ArrayList<>();
+      for (int start = 0; start < level.size(); start += MIN_COMPONENTS_PER_TASK) {
+        List<List<DiGraphNode<N, E>>> batch =
+            level.subList(start, min(start + MIN_COMPONENTS_PER_TASK, level.size()));
+        tasks.add(
+            executor.submit(
+                () -> {
+                  for (List<DiGraphNode<N, E>> component : batch) {
+                    visitComponent(component, components);
+                  }
+                }));
+      }
+      try {
+        for (Future<?> task : tasks) {
+          Uninterruptibles.getUninterruptibly(task);
+        }
+      } catch (ExecutionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+  }
+
+  private void visitComponent(List<DiGraphNode<N, E>> component, Components<N, E> components) {
+    int componentId = components.componentOf(component.get(0));
+    // Take in what the earlier components propagate into this one.
+    boolean hasInternalEdges = false;
+    for (DiGraphNode<N, E> node : component) {
+      for (DiGraphEdge<N, E> edge : incomingEdges(node)) {
+        DiGraphNode<N, E> source = sourceOf(edge);
+        if (components.componentOf(source) != componentId) {
+          callback.traverseEdge(source.getValue(), edge.getValue(), node.getValue());
+        } else {
+          hasInternalEdges = true;
+        }
+      }
+    }
+    if (!hasInternalEdges) {
+      return;
+    }
+
+    long nodeCount = min(component.size(), MAX_NODE_COUNT_FOR_ITERATION_LIMIT);
+    long maxIterations = max(nodeCount * nodeCount * nodeCount, 100L);
+    long cycleCount = 0;
+    LinkedHashSet<DiGraphNode<N, E>> workSet = new LinkedHashSet<>(component);
+    for (; !workSet.isEmpty() && cycleCount < maxIterations; cycleCount++) {
+      DiGraphNode<N, E> node = workSet.removeFirst();
+      for (DiGraphEdge<N, E> edge : outgoingEdges(node)) {
+        DiGraphNode<N, E> destination = destinationOf(edge);
+        if (components.componentOf(destination) == componentId
+            && callback.traverseEdge(node.getValue(), edge.getValue(), destination.getValue())) {
+          workSet.add(destination);
+        }
+      }
+    }
+    checkState(cycleCount != maxIterations, NON_HALTING_ERROR_MSG);
+  }
+
+  private List<? extends DiGraphEdge<N, E>> outgoingEdges(DiGraphNode<N, E> node) {
+    return traversalDirection == TraversalDirection.OUTWARDS
+        ? node.getOutEdges()
+        : node.getInEdges();
+  }
+
+  private List<? extends DiGraphEdge<N, E>> incomingEdges(DiGraphNode<N, E> node) {
+    return traversalDirection == TraversalDirection.OUTWARDS
+        ? node.getInEdges()
+        : node.getOutEdges();
+  }
+
+  private DiGraphNode<N, E> sourceOf(DiGraphEdge<N, E> edge) {
+    return traversalDirection == TraversalDirection.OUTWARDS
+        ? edge.getSource()
+        : edge.getDestination();
+  }
+
+  private DiGraphNode<N, E> destinationOf(DiGraphEdge<N, E> edge) {
+    return traversalDirection == TraversalDirection.OUTWARDS
+        ? edge.getDestination()
+        : edge.getSource();
+  }
+
+  /**
+   * The strongly connected components of a graph along a traversal direction, grouped into levels.
+   *
+   * <p>The components of a level only depend on components of earlier levels, so the components of
+   * a level are independent of each other.
+   */
+  private static final class Components<N, E> {
+    private final Map<DiGraphNode<N, E>, Integer> nodeIds = new HashMap<>();
+    private final int[] componentIds;
+    final List<List<List<DiGraphNode<N, E>>>> levels = new ArrayList<>();
+
+    Components(DiGraph<N, E> graph, TraversalDirection direction) {
+      List<DiGraphNode<N, E>> nodes = new ArrayList<>(graph.getNodes());
+      for (int i = 0; i < nodes.size(); i++) {
+        nodeIds.put(nodes.get(i), i);
+      }
+      int[][] successors = new int[nodes.size()][];
+      for (int i = 0; i < nodes.size(); i++) {
+        List<? extends DiGraphEdge<N, E>> edges =
+            direction == TraversalDirection.OUTWARDS
+                ? nodes.get(i).getOutEdges()
+                : nodes.get(i).getInEdges();
+        int[] nodeSuccessors = new int[edges.size()];
+        for (int j = 0; j < edges.size(); j++) {
+          DiGraphEdge<N, E> edge = edges.get(j);
+          nodeSuccessors[j] =
+              nodeIds.get(
+                  direction == TraversalDirection.OUTWARDS
+                      ? edge.getDestination()
+                      : edge.getSource());
+        }
+        successors[i] = nodeSuccessors;
+      }
+
+      componentIds = new int[nodes.size()];
+      List<int[]> components = findComponents(successors, componentIds);
+
+      // Tarjan's algorithm finds the components in reverse topological order.
+      int[] componentLevels = new int[components.size()];
+      int componentCount = components.size();
+      for (int c = componentCount - 1; c >= 0; c--) {
+        int level = componentLevels[c];
+        for (int node : components.get(c)) {
+          for (int successor : successors[node]) {
+            int successorComponent = componentIds[successor];
+            if (successorComponent != c) {
+              componentLevels[successorComponent] =
+                  max(componentLevels[successorComponent], level + 1);
+            }
+          }
+        }
+        while (levels.size() <= level) {
+          levels.add(new ArrayList<>());
+        }
+        List<DiGraphNode<N, E>> component = new ArrayList<>(components.get(c).length);
+        for (int node : components.get(c)) {
+          component.add(nodes.get(node));
+        }
+        levels.get(level).add(component);
+      }
+    }
+
+    int componentOf(DiGraphNode<N, E> node) {
+      return componentIds[nodeIds.get(node)];
+    }
+
+    /**
+     * Finds the strongly connected components of the graph with Tarjan's algorithm, without
+     * recursion so that long call chains do not overflow the stack.
+     *
+     * @return the components in reverse topological order. The component of each node is stored in
+     *     {@code componentIds}.
+     */
+    private static List<int[]> findComponents(int[][] successors, int[] componentIds) {
+      int nodeCount = successors.length;
+      int[] index = new int[nodeCount];
+      Arrays.fill(index, -1);
+      int[] lowLink = new int[nodeCount];
+      int[] nextSuccessor = new int[nodeCount];
+      boolean[] onStack = new boolean[nodeCount];
+      int[] stack = new int[nodeCount];
+      int stackSize = 0;
+      int[] callStack = new int[nodeCount];
+      int nextIndex = 0;
+      List<int[]> components = new ArrayList<>();
+
+      for (int root = 0; root < nodeCount; root++) {
+        if (index[root] != -1) {
+          continue;
+        }
+        int callStackSize = 0;
+        callStack[callStackSize++] = root;
+        index[root] = lowLink[root] = nextIndex++;
+        stack[stackSize++] = root;
+        onStack[root] = true;
+        while (callStackSize > 0) {
+          int node = callStack[callStackSize - 1];
+          if (nextSuccessor[node] < successors[node].length) {
+            int successor = successors[node][nextSuccessor[node]++];
+            if (index[successor] == -1) {
+              index[successor] = lowLink[successor] = nextIndex++;
+              stack[stackSize++] = successor;
+              onStack[successor] = true;
+              callStack[callStackSize++] = successor;
+            } else if (onStack[successor]) {
+              lowLink[node] = min(lowLink[node], index[successor]);
+            }
+            continue;
+          }
+          callStackSize--;
+          if (callStackSize > 0) {
+            int caller = callStack[callStackSize - 1];
+            lowLink[caller] = min(lowLink[caller], lowLink[node]);
+          }
+          if (lowLink[node] == index[node]) {
+            int start = stackSize;
+            do {
+              start--;
+            } while (stack[start] != node);
+            int[] component = Arrays.copyOfRange(stack, start, stackSize);
+            for (int member : component) {
+              onStack[member] = false;
+              componentIds[member] = components.size();
+            }
+            stackSize = start;
+            components.add(component);
+          }
+        }
+      }
+      return components;
+    }
+  }
+
   private void visitNode(DiGraphNode<N, E> node, LinkedHashSet<DiGraphNode<N, E>> workSet) {
     // For every out edge in the workSet, traverse that edge. If that
     // edge updates the state of the graph, then add the destination
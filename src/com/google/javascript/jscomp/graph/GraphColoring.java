@@ -136,20 +136,7 @@ public abstract class GraphColoring<N, E> {
 
     @Override
     public int color() {
-      List<GraphNode<N, E>> worklist = new ArrayList<>(graph.getNodes());
-
-      // Sort nodes by degree.
-      Collections.sort(
-          worklist,
-          comparing(
-              GraphNode::getValue,
-              // TODO(b/28382956): Take better advantage of Java8 comparing() to simplify this
-              (leftProperty, rightProperty) -> {
-                int result = graph.getWeight(rightProperty) - graph.getWeight(leftProperty);
-                return result == 0 && tieBreaker != null
-                    ? tieBreaker.compare(leftProperty, rightProperty)
-                    : result;
-              }));
+      List<GraphNode<N, E>> worklist = sortByDecreasingWeight(graph, tieBreaker);
 
       // Idea: From the highest to lowest degree, assign any uncolored node with
       // a unique color if none of its neighbors has been assigned that color.
@@ -173,4 +160,76 @@ public abstract class GraphColoring<N, E> {
       return count;
     }
   }
+
+  /**
+   * Produces exactly the same coloring as {@link GreedyGraphColoring}, without its worklist.
+   *
+   * <p>The greedy coloring ends up giving each node the first color that none of the nodes before
+   * it with that color are adjacent to. This assigns that color directly: from the highest to
+   * lowest degree, each node joins the first color {@link SubGraph} it is independent of. Both
+   * colorings make the same {@link SubGraph#isIndependentOf} checks, one per color up to the
+   * node's own. This one is faster on large graphs because it does not remove each colored node
+   * from the middle of a list of all uncolored nodes, which takes time quadratic in the number of
+   * nodes.
+   */
+  public static class FirstFitGraphColoring<N, E> extends GraphColoring<N, E> {
+
+    private final Comparator<N> tieBreaker;
+
+    /**
+     * @param tieBreaker In case of a tie between two nodes of the same degree, this comparator will
+     *     determine which node should be colored first.
+     */
+    public FirstFitGraphColoring(AdjacencyGraph<N, E> graph, @Nullable Comparator<N> tieBreaker) {
+      super(graph);
+      this.tieBreaker = tieBreaker;
+    }
+
+    @Override
+    public int color() {
+      List<SubGraph<N, E>> colorSubgraphs = new ArrayList<>();
+      List<Color> colors = new ArrayList<>();
+      for (GraphNode<N, E> node : sortByDecreasingWeight(graph, tieBreaker)) {
+        N value = node.getValue();
+        int color = 0;
+        while (color < colorSubgraphs.size()
+            && !colorSubgraphs.get(color).isIndependentOf(value)) {
+          color++;
+        }
+        if (color == colorSubgraphs.size()) {
+          colorSubgraphs.add(graph.newSubGraph());
+          colors.add(new Color(color));
+        }
+        colorSubgraphs.get(color).addNode(value);
+        node.setAnnotation(colors.get(color));
+      }
+      // Like GreedyGraphColoring, report at least one color even for an empty graph.
+      int count = Math.max(colors.size(), 1);
+      @SuppressWarnings("unchecked")
+      N[] map = (N[]) new Object[count];
+      colorToNodeMap = map;
+      return count;
+    }
+  }
+
+  /**
+   * Returns the nodes of the graph from the highest to the lowest weight, using the tie breaker, if
+   * any, to order nodes of the same weight.
+   */
+  private static <N, E> List<GraphNode<N, E>> sortByDecreasingWeight(
+      AdjacencyGraph<N, E> graph, @Nullable Comparator<N> tieBreaker) {
+    List<GraphNode<N, E>> nodes = new ArrayList<>(graph.getNodes());
+    Collections.sort(
+        nodes,
+        comparing(
+            GraphNode::getValue,
+            // TODO(b/28382956): Take better advantage of Java8 comparing() to simplify this
+            (leftProperty, rightProperty) -> {
+              int result = graph.getWeight(rightProperty) - graph.getWeight(leftProperty);
+              return result == 0 && tieBreaker != null
+                  ? tieBreaker.compare(leftProperty, rightProperty)
+                  : result;
+            }));
+    return nodes;
+  }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.ijs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.javascript.jscomp.BlackHoleErrorManager;
+import com.google.javascript.jscomp.Compiler;
+import com.google.javascript.jscomp.CompilerOptions;
+import com.google.javascript.jscomp.CompilerOptions.IncrementalCheckMode;
+import com.google.javascript.jscomp.SourceFile;
+import com.google.javascript.jscomp.deps.DependencyInfo;
+import com.google.javascript.jscomp.deps.JsFileRegexParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An on-disk cache of type summaries (.i.js content) used for incremental type checking.
+ *
+ * <p>Summaries are produced by {@link ConvertToTypedInterface} one file at a time and stored in the
+ * cache directory under the hash of the file's content. The cache also keeps a manifest describing
+ * the last successfully checked build: for every input path, the hash of its content and the hash
+ * of its summary.
+ *
+ * <p>{@link #selectInputs} compares the current inputs against that manifest. A file is checked
+ * from its full source if its content changed, or if it directly depends on a file whose summary
+ * changed. Every other file is replaced by its cached summary, which is parsed as a {@code
+ * typeSummary} file. So an edit that only touches implementation details of a file only re-checks
+ * that file, and an edit to its API also re-checks its direct dependents.
+ */
+public final class TypeSummaryCache {
+  private static final Logger logger = Logger.getLogger(TypeSummaryCache.class.getName());
+
+  private static final HashFunction HASH = Hashing.sha256();
+  private static final String MANIFEST_NAME = "manifest";
+  private static final String SUMMARY_SUFFIX = ".i.js";
+  private static final Splitter TAB_SPLITTER = Splitter.on('\t');
+
+  private final Path cacheDir;
+  private final CompilerOptions.LanguageMode languageIn;
+
+  // The manifest to write once the selected inputs have been checked successfully.
+  private @Nullable Map<String, ManifestEntry> pendingManifest = null;
+
+  /**
+   * @param cacheDir directory in which summaries and the manifest are stored. Created if needed.
+   * @param options options of the compilation using the cache. Only settings that affect parsing
+   *     are used when generating summaries.
+   */
+  public TypeSummaryCache(Path cacheDir, CompilerOptions options) {
+    this.cacheDir = checkNotNull(cacheDir);
+    this.languageIn = options.getLanguageIn();
+  }
+
+  /**
+   * Returns the inputs to type check. Files that neither changed nor depend on a file with a
+   * changed summary are replaced by their summaries.
+   *
+   * <p>Call {@link #recordSuccessfulCheck} once the returned inputs were checked without errors,
+   * so that the next build is compared against this one.
+   */
+  public ImmutableList<SourceFile> selectInputs(List<SourceFile> inputs) throws IOException {
+    Files.createDirectories(cacheDir);
+    Map<String, ManifestEntry> previous = readManifest();
+    Map<String, ManifestEntry> current = new LinkedHashMap<>();
+
+    List<String> codes = new ArrayList<>(inputs.size());
+    List<String> summaries = new ArrayList<>(inputs.size());
+    Set<String> changedFiles = new HashSet<>();
+    Set<String> changedApis = new HashSet<>();
+    for (SourceFile input : inputs) {
+      String code = input.getCode();
+      String contentHash = HASH.hashString(code, UTF_8).toString();
+      String summary = getOrCreateSummary(input, code, contentHash);
+      String summaryHash = summary != null ? HASH.hashString(summary, UTF_8).toString() : "";
+      codes.add(code);
+      summaries.add(summary);
+      current.put(input.getName(), new ManifestEntry(contentHash, summaryHash));
+
+      ManifestEntry last = previous.get(input.getName());
+      if (last == null || !last.contentHash.equals(contentHash)) {
+        changedFiles.add(input.getName());
+      }
+      if (last == null || !last.summaryHash.equals(summaryHash)) {
+        changedApis.add(input.getName());
+      }
+    }
+
+    // Find the namespaces whose declarations changed, and the files that require them.
+    List<DependencyInfo> deps = new ArrayList<>(inputs.size());
+    Set<String> changedProvides = new HashSet<>();
+    for (int i = 0; i < inputs.size(); i++) {
+      String name = inputs.get(i).getName();
+      DependencyInfo info =
+          new JsFileRegexParser(new BlackHoleErrorManager())
+              .parseFile(name, name, codes.get(i));
+      deps.add(info);
+      if (changedApis.contains(name)) {
+        changedProvides.addAll(info.getProvides());
+      }
+    }
+
+    ImmutableList.Builder<SourceFile> result = ImmutableList.builder();
+    int summarized = 0;
+    for (int i = 0; i < inputs.size(); i++) {
+      SourceFile input = inputs.get(i);
+      String summary = summaries.get(i);
+      if (summary == null
+          || changedFiles.contains(input.getName())
+          || dependsOnAny(deps.get(i), changedProvides)) {
+        result.add(input);
+      } else {
+        result.add(SourceFile.fromCode(input.getName(), summary, input.getKind()));
+        summarized++;
+      }
+    }
+    logger.fine(
+        "Checking " + (inputs.size() - summarized) + " of " + inputs.size() + " inputs in full");
+    this.pendingManifest = current;
+    return result.build();
+  }
+
+  /** Records the inputs last passed to {@link #selectInputs} as successfully checked. */
+  public void recordSuccessfulCheck() throws IOException {
+    checkState(pendingManifest != null, "selectInputs was not called");
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, ManifestEntry> entry : pendingManifest.entrySet()) {
+      sb.append(entry.getKey())
+          .append('\t')
+          .append(entry.getValue().contentHash)
+          .append('\t')
+          .append(entry.getValue().summaryHash)
+          .append('\n');
+    }
+    writeAtomically(cacheDir.resolve(MANIFEST_NAME), sb.toString());
+    pendingManifest = null;
+  }
+
+  /**
+   * Returns the summary for the given code, generating and caching it first if needed, or null if
+   * no summary could be generated (for example because the file does not parse).
+   */
+  private @Nullable String getOrCreateSummary(SourceFile input, String code, String contentHash)
+      throws IOException {
+    Path path = cacheDir.resolve(contentHash + SUMMARY_SUFFIX);
+    if (Files.exists(path)) {
+      return Files.readString(path);
+    }
+    String summary = generateSummary(SourceFile.fromCode(input.getName(), code));
+    if (summary != null) {
+      writeAtomically(path, summary);
+    }
+    return summary;
+  }
+
+  private @Nullable String generateSummary(SourceFile file) {
+    Compiler compiler = new Compiler(new BlackHoleErrorManager());
+    CompilerOptions options = new CompilerOptions();
+    options.setLanguageIn(languageIn);
+    options.setIncrementalChecks(IncrementalCheckMode.GENERATE_IJS);
+
+    compiler.init(ImmutableList.of(), ImmutableList.of(file), options);
+    compiler.parse();
+    if (compiler.hasErrors()) {
+      return null;
+    }
+    compiler.stage1Passes();
+    if (compiler.hasErrors()) {
+      return null;
+    }
+    return compiler.toSource();
+  }
+
+  private static boolean dependsOnAny(DependencyInfo info, Set<String> namespaces) {
+    if (namespaces.isEmpty()) {
+      return false;
+    }
+    for (String symbol : info.getRequiredSymbols()) {
+      if (namespaces.contains(symbol)) {
+        return true;
+      }
+    }
+    for (String symbol : info.getTypeRequires()) {
+      if (namespaces.contains(symbol)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Map<String, ManifestEntry> readManifest() throws IOException {
+    Map<String, ManifestEntry> manifest = new LinkedHashMap<>();
+    Path path = cacheDir.resolve(MANIFEST_NAME);
+    if (!Files.exists(path)) {
+      return manifest;
+    }
+    for (String line : Files.readAllLines(path)) {
+      List<String> parts = TAB_SPLITTER.splitToList(line);
+      if (parts.size() == 3) {
+        manifest.put(parts.get(0), new ManifestEntry(parts.get(1), parts.get(2)));
+      }
+    }
+    return manifest;
+  }
+
+  /** Writes through a temporary file so that concurrent builds never see partial content. */
+  private void writeAtomically(Path path, String content) throws IOException {
+    Path tmp = Files.createTempFile(cacheDir, path.getFileName().toString(), ".tmp");
+    Files.writeString(tmp, content);
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static final class ManifestEntry {
+    final String contentHash;
+    final String summaryHash;
+
+    ManifestEntry(String contentHash, String summaryHash) {
+      this.contentHash = contentHash;
+      this.summaryHash = summaryHash;
+    }
+  }
+}
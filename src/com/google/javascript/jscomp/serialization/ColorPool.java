@@ -26,12 +26,18 @@ import static com.google.javascript.jscomp.serialization.TypePointers.isAxiomati
 import static com.google.javascript.jscomp.serialization.TypePointers.trimOffset;
 import static com.google.javascript.jscomp.serialization.TypePointers.untrimOffset;
 
-import com.google.common.collect.HashBasedTable;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.javascript.jscomp.base.JSCompThreads;
 import com.google.javascript.jscomp.base.LinkedIdentityHashMap;
 import com.google.javascript.jscomp.base.Tri;
 import com.google.javascript.jscomp.colors.Color;
@@ -39,10 +45,17 @@ import com.google.javascript.jscomp.colors.ColorId;
 import com.google.javascript.jscomp.colors.ColorRegistry;
 import com.google.javascript.jscomp.colors.StandardColors;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A set of {@link Color}s reconstructed from possibly many {@link TypePool} protos.
@@ -85,7 +98,10 @@ public final class ColorPool {
 
   /** A view of the pool based on one of the input shards. */
   public static final class ShardView {
-    private final ImmutableList<ColorId> trimmedOffsetToId;
+    // Either computed eagerly, or set from pendingTrimmedOffsetToId once that is done.
+    private ImmutableList<ColorId> trimmedOffsetToId;
+    // Non-null while the IDs of this shard are being computed on another thread.
+    private @Nullable Future<ImmutableList<ColorId>> pendingTrimmedOffsetToId;
 
     // Fields only present before/while the ColorPool is being built. Null afterwards.
     private TypePool typePool;
@@ -101,12 +117,30 @@ public final class ColorPool {
       this.trimmedOffsetToId = trimmedOffsetToId;
     }
 
+    private ShardView(
+        TypePool typePool,
+        StringPool stringPool,
+        Future<ImmutableList<ColorId>> pendingTrimmedOffsetToId) {
+      this.typePool = typePool;
+      this.stringPool = stringPool;
+      this.pendingTrimmedOffsetToId = pendingTrimmedOffsetToId;
+    }
+
+    /** Waits for the IDs of this shard if they are computed on another thread. */
+    private void awaitIds() {
+      if (this.pendingTrimmedOffsetToId != null) {
+        this.trimmedOffsetToId = getDone(this.pendingTrimmedOffsetToId);
+        this.pendingTrimmedOffsetToId = null;
+      }
+    }
+
     public Color getColor(int pointer) {
       checkState(this.colorPool != null, this);
       return this.colorPool.getColor(this.getId(pointer));
     }
 
     private ColorId getId(int untrimmedOffset) {
+      this.awaitIds();
       if (isAxiomatic(untrimmedOffset)) {
         return OFFSET_TO_AXIOMATIC_COLOR.get(untrimmedOffset).getId();
       } else {
@@ -132,14 +166,24 @@ public final class ColorPool {
   /**
    * Collects {@link TypePool}s and other data into {@link ShardView}s and then reconciles them into
    * a single {@link ColorPool}.
+   *
+   * <p>By default all work happens on the calling thread. With {@link #setNumParallelThreads}, the
+   * {@link ColorId}s of each shard are computed on a thread pool as soon as the shard is added, so
+   * that hashing overlaps with reading further shards, and the protos of all shards are grouped by
+   * ID in parallel hash partitions when the pool is built. Reconciliation itself, which is
+   * recursive over the color graph, remains serial. The resulting pool is identical either way.
    */
   public static final class Builder {
     private final LinkedIdentityHashMap<TypePool, ShardView> protoToShard =
         new LinkedIdentityHashMap<>();
     private final LinkedHashMap<ColorId, Color> idToColor = new LinkedHashMap<>();
     private final ColorRegistry.Builder registry = ColorRegistry.builder();
-    private final HashBasedTable<ColorId, ShardView, TypeProto> idToProto = HashBasedTable.create();
+    // The protos defining each ColorId, split into partitions by the hash of the ID. Within each
+    // row, shards are kept in the order in which they were added.
+    private @Nullable ImmutableList<Map<ColorId, Map<ShardView, TypeProto>>> idToProto = null;
     private boolean forTesting = false;
+    private @Nullable ListeningExecutorService executor = null;
+    private int numPartitions = 1;
 
     private final ArrayDeque<ColorId> reconcilationDebugStack = new ArrayDeque<>();
 
@@ -159,8 +203,27 @@ public final class ColorPool {
       return this;
     }
 
+    /**
+     * Uses up to the given number of threads to compute IDs and group the shards' protos. Must be
+     * called before any shard is added.
+     */
+    @CanIgnoreReturnValue
+    public Builder setNumParallelThreads(int numParallelThreads) {
+      checkState(this.protoToShard.isEmpty(), "shards have already been added");
+      checkState(this.executor == null, "parallelism has already been set");
+      if (numParallelThreads > 1) {
+        ThreadFactory threadFactory =
+            JSCompThreads.newDaemonThreadFactory("jscompiler-ColorPool");
+        this.executor =
+            MoreExecutors.listeningDecorator(
+                Executors.newFixedThreadPool(numParallelThreads, threadFactory));
+        this.numPartitions = numParallelThreads;
+      }
+      return this;
+    }
+
     public ShardView addShard(TypePool typePool, StringPool stringPool) {
-      checkState(this.idToProto.isEmpty(), "build has already been called");
+      checkState(this.idToProto == null, "build has already been called");
 
       ShardView existing = this.protoToShard.get(typePool);
       if (existing != null) {
@@ -168,39 +231,53 @@ public final class ColorPool {
         return existing;
       }
 
-      ImmutableList<ColorId> trimmedOffsetToId = createTrimmedOffsetToId(typePool);
-      ShardView shard = new ShardView(typePool, stringPool, trimmedOffsetToId);
+      ShardView shard =
+          this.executor != null
+              ? new ShardView(
+                  typePool, stringPool, this.executor.submit(() -> createTrimmedOffsetToId(typePool)))
+              : new ShardView(typePool, stringPool, createTrimmedOffsetToId(typePool));
       this.protoToShard.put(typePool, shard);
+      return shard;
+    }
 
-      if (typePool.hasDebugInfo()) {
-        for (TypePool.DebugInfo.Mismatch m : typePool.getDebugInfo().getMismatchList()) {
-          for (Integer pointer : m.getInvolvedColorList()) {
-            this.registry.addMismatchLocation(shard.getId(pointer), m.getSourceRef());
-          }
+    public ColorPool build() {
+      checkState(this.idToProto == null, "build has already been called");
+      try {
+        return this.buildInternal();
+      } finally {
+        if (this.executor != null) {
+          this.executor.shutdown();
         }
       }
-
-      return shard;
     }
 
-    public ColorPool build() {
-      checkState(this.idToProto.isEmpty(), "build has already been called");
+    private ColorPool buildInternal() {
+      // Wait for all IDs in shard order, so that any malformed shard is reported deterministically.
+      this.forEachShard(ShardView::awaitIds);
 
       this.forEachShard(
           shard -> {
-            for (int i = 0; i < shard.typePool.getTypeCount(); i++) {
-              ColorId id = shard.trimmedOffsetToId.get(i);
-              this.idToProto.put(id, shard, shard.typePool.getType(i));
+            if (shard.typePool.hasDebugInfo()) {
+              for (TypePool.DebugInfo.Mismatch m :
+                  shard.typePool.getDebugInfo().getMismatchList()) {
+                for (Integer pointer : m.getInvolvedColorList()) {
+                  this.registry.addMismatchLocation(shard.getId(pointer), m.getSourceRef());
+                }
+              }
             }
           });
 
+      this.idToProto = this.groupProtosById();
+
       for (ColorId id : StandardColors.AXIOMATIC_COLORS.keySet()) {
         checkWellFormed(
-            !this.idToProto.containsRow(id), "Found serialized definiton for axiomatic color", id);
+            this.protosFor(id) == null, "Found serialized definiton for axiomatic color", id);
       }
 
-      for (ColorId id : this.idToProto.rowKeySet()) {
-        this.lookupOrReconcileColor(id);
+      for (Map<ColorId, Map<ShardView, TypeProto>> partition : this.idToProto) {
+        for (ColorId id : partition.keySet()) {
+          this.lookupOrReconcileColor(id);
+        }
       }
 
       for (ColorId colorId : ColorRegistry.REQUIRED_IDS) {
@@ -230,6 +307,51 @@ public final class ColorPool {
       return colorPool;
     }
 
+    /**
+     * Groups the protos of all shards by ColorId.
+     *
+     * <p>Each partition scans every shard in order but only keeps the IDs hashing into it, so the
+     * partitions can be filled concurrently while each row still lists its shards in order.
+     */
+    private ImmutableList<Map<ColorId, Map<ShardView, TypeProto>>> groupProtosById() {
+      ImmutableList<ShardView> shards = ImmutableList.copyOf(this.protoToShard.values());
+      if (this.executor == null) {
+        return ImmutableList.of(groupProtosById(shards, 0, 1));
+      }
+      List<ListenableFuture<Map<ColorId, Map<ShardView, TypeProto>>>> partitions =
+          new ArrayList<>(this.numPartitions);
+      for (int i = 0; i < this.numPartitions; i++) {
+        int partition = i;
+        partitions.add(
+            this.executor.submit(() -> groupProtosById(shards, partition, this.numPartitions)));
+      }
+      return ImmutableList.copyOf(getDone(Futures.allAsList(partitions)));
+    }
+
+    private static Map<ColorId, Map<ShardView, TypeProto>> groupProtosById(
+        ImmutableList<ShardView> shards, int partition, int numPartitions) {
+      LinkedHashMap<ColorId, Map<ShardView, TypeProto>> result = new LinkedHashMap<>();
+      for (ShardView shard : shards) {
+        for (int i = 0; i < shard.typePool.getTypeCount(); i++) {
+          ColorId id = shard.trimmedOffsetToId.get(i);
+          if (partitionOf(id, numPartitions) == partition) {
+            result
+                .computeIfAbsent(id, (unused) -> new LinkedHashMap<>())
+                .put(shard, shard.typePool.getType(i));
+          }
+        }
+      }
+      return result;
+    }
+
+    private static int partitionOf(ColorId id, int numPartitions) {
+      return Math.floorMod(id.hashCode(), numPartitions);
+    }
+
+    private @Nullable Map<ShardView, TypeProto> protosFor(ColorId id) {
+      return this.idToProto.get(partitionOf(id, this.idToProto.size())).get(id);
+    }
+
     private void forEachShard(Consumer<ShardView> fn) {
       this.protoToShard.forEach((unused, shard) -> fn.accept(shard));
     }
@@ -243,14 +365,14 @@ public final class ColorPool {
             throw new MalformedTypedAstException(
                 "Cyclic Color structure detected: "
                     + this.reconcilationDebugStack.stream()
-                        .map(this.idToProto::row)
-                        .map(ImmutableMap::copyOf)
+                        .map((stackId) -> ImmutableMap.copyOf(this.protosFor(stackId)))
                         .collect(toImmutableList()));
           }
           return existing;
         }
 
-        Map<ShardView, TypeProto> viewToProto = this.idToProto.row(id);
+        Map<ShardView, TypeProto> viewToProto = this.protosFor(id);
+        checkNotNull(viewToProto, id);
         TypeProto sample = Iterables.getFirst(viewToProto.values(), null);
         checkNotNull(sample, id);
 
@@ -393,6 +515,16 @@ public final class ColorPool {
     return ColorId.union(members);
   }
 
+  /** Returns the value of a future that must succeed, rethrowing failures unchecked. */
+  private static <T> T getDone(Future<T> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
   private static int validatePointer(int offset, ShardView shard) {
     checkWellFormed(
         0 <= offset && offset < untrimOffset(shard.trimmedOffsetToId.size()),
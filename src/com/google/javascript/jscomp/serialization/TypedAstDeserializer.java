@@ -69,11 +69,18 @@ public final class TypedAstDeserializer {
       Optional<ColorPool.Builder> existingColorPool,
       Optional<ImmutableSet<SourceFile>> requiredInputFiles,
       Mode mode,
-      boolean includeTypeInformation) {
+      boolean includeTypeInformation,
+      int numParallelThreads) {
     this.syntheticExterns = syntheticExterns;
     this.mode = mode;
     if (includeTypeInformation) {
-      this.colorPoolBuilder = Optional.of(existingColorPool.or(ColorPool.builder()));
+      // Shard IDs are hashed concurrently with reading the rest of the stream, so parallelism
+      // must be set before the first shard is added.
+      this.colorPoolBuilder =
+          Optional.of(
+              existingColorPool.isPresent()
+                  ? existingColorPool.get()
+                  : ColorPool.builder().setNumParallelThreads(numParallelThreads));
     } else {
       this.colorPoolBuilder = Optional.absent();
     }
@@ -106,6 +113,33 @@ public final class TypedAstDeserializer {
       boolean includeTypeInformation,
       boolean resolveSourceMapAnnotations,
       boolean parseInlineSourceMaps) {
+    return deserializeFullAst(
+        compiler,
+        syntheticExterns,
+        requiredInputFiles,
+        typedAstsStream,
+        includeTypeInformation,
+        resolveSourceMapAnnotations,
+        parseInlineSourceMaps,
+        /* numParallelThreads= */ 1);
+  }
+
+  /**
+   * Transforms a given TypedAst delimited stream into a compiler AST, using up to {@code
+   * numParallelThreads} threads to merge the type pools of all shards.
+   *
+   * @see #deserializeFullAst(AbstractCompiler, SourceFile, ImmutableSet, InputStream, boolean,
+   *     boolean, boolean)
+   */
+  public static DeserializedAst deserializeFullAst(
+      AbstractCompiler compiler,
+      SourceFile syntheticExterns,
+      ImmutableSet<SourceFile> requiredInputFiles,
+      InputStream typedAstsStream,
+      boolean includeTypeInformation,
+      boolean resolveSourceMapAnnotations,
+      boolean parseInlineSourceMaps,
+      int numParallelThreads) {
     ImmutableMap<String, SourceFile> sourceFilesByName =
         requiredInputFiles.stream()
             .collect(toImmutableMap(SourceFile::getName, Function.identity()));
@@ -119,7 +153,8 @@ public final class TypedAstDeserializer {
         Mode.FULL_AST,
         includeTypeInformation,
         resolveSourceMapAnnotations,
-        parseInlineSourceMaps);
+        parseInlineSourceMaps,
+        numParallelThreads);
   }
 
   /**
@@ -148,7 +183,8 @@ public final class TypedAstDeserializer {
         Mode.RUNTIME_LIBRARY_ONLY,
         colorPool.isPresent(),
         resolveSourceMapAnnotations,
-        parseInlineSourceMaps);
+        parseInlineSourceMaps,
+        /* numParallelThreads= */ 1);
   }
 
   private static DeserializedAst deserialize(
@@ -161,14 +197,20 @@ public final class TypedAstDeserializer {
       Mode mode,
       boolean includeTypeInformation,
       boolean resolveSourceMapAnnotations,
-      boolean parseInlineSourceMaps) {
+      boolean parseInlineSourceMaps,
+      int numParallelThreads) {
     checkArgument(
         colorPool.isPresent() == (mode.equals(Mode.RUNTIME_LIBRARY_ONLY) && includeTypeInformation),
         "ColorPool.Builder required iff deserializing runtime libraries & including types");
 
     TypedAstDeserializer deserializer =
         new TypedAstDeserializer(
-            syntheticExterns, colorPool, requiredInputFiles, mode, includeTypeInformation);
+            syntheticExterns,
+            colorPool,
+            requiredInputFiles,
+            mode,
+            includeTypeInformation,
+            numParallelThreads);
     deserializer.filePoolBuilder.put(syntheticExterns.getName(), syntheticExterns);
     deserializer.filePoolBuilder.putAll(scriptSourceFiles);
 
@@ -187,7 +229,7 @@ public final class TypedAstDeserializer {
                 syntheticExterns, deserializer.syntheticExternsDeserializers)
             ::deserialize);
 
-    return deserializer.toDeserializedAst();
+    return deserializer.toDeserializedAst(compiler);
   }
 
   /**
@@ -224,11 +266,14 @@ public final class TypedAstDeserializer {
     }
   }
 
-  private DeserializedAst toDeserializedAst() {
+  private DeserializedAst toDeserializedAst(AbstractCompiler compiler) {
     Optional<ColorRegistry> registry =
         this.mode.equals(Mode.RUNTIME_LIBRARY_ONLY) || !this.colorPoolBuilder.isPresent()
             ? Optional.absent()
-            : Optional.of(colorPoolBuilder.get().build().getRegistry());
+            : Optional.of(
+                compiler.runTracedStep(
+                    "mergeTypedAstColorPools",
+                    () -> colorPoolBuilder.get().build().getRegistry()));
     return DeserializedAst.create(
         typedAstFilesystem, registry, externProperties.build(), runtimeLibraries.build());
   }
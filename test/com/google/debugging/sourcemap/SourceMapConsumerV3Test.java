@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping;
 import com.google.debugging.sourcemap.proto.Mapping.OriginalMapping.Precision;
 import com.google.gson.Gson;
@@ -382,4 +383,127 @@ public final class SourceMapConsumerV3Test {
 
     assertThat(expected).hasMessageThat().contains("Unexpected number of values for entry:2");
   }
+
+  @Test
+  public void testLazy_matchesEager() throws Exception {
+    // Three lines with entries of 1, 4 and 5 values, an empty line, and no trailing separator.
+    String sourceMap =
+        GSON.toJson(
+            TestJsonBuilder.create()
+                .setVersion(3)
+                .setFile("testcode")
+                .setMappings("A,CAAA,EAAAA;AACEC,IAAI;;ACAA,CAAIA,EACJ")
+                .setSources("a.js", "b.js")
+                .setNames("x", "y")
+                .build());
+    consumer.parse(sourceMap);
+    SourceMapConsumerV3 lazy = SourceMapConsumerV3.createLazy();
+    lazy.parse(sourceMap);
+
+    for (int line = 0; line <= 5; line++) {
+      for (int column = 0; column <= 10; column++) {
+        assertThat(lazy.getMappingForLine(line, column))
+            .isEqualTo(consumer.getMappingForLine(line, column));
+      }
+    }
+    for (String source : ImmutableList.of("a.js", "b.js")) {
+      for (int line = 0; line <= 3; line++) {
+        assertThat(lazy.getReverseMapping(source, line, 0))
+            .containsExactlyElementsIn(consumer.getReverseMapping(source, line, 0))
+            .inOrder();
+      }
+    }
+    List<String> eagerEntries = new ArrayList<>();
+    consumer.visitMappings(
+        (sourceName, symbolName, sourcePos, startPos, endPos) ->
+            eagerEntries.add(sourceName + symbolName + sourcePos + startPos + endPos));
+    List<String> lazyEntries = new ArrayList<>();
+    lazy.visitMappings(
+        (sourceName, symbolName, sourcePos, startPos, endPos) ->
+            lazyEntries.add(sourceName + symbolName + sourcePos + startPos + endPos));
+    assertThat(lazyEntries).isEqualTo(eagerEntries);
+  }
+
+  @Test
+  public void testGetMappingsForLines_matchesGetMappingForLine() throws Exception {
+    // Entries sharing a column, an empty line, and a line starting after column 1.
+    String sourceMap =
+        GSON.toJson(
+            TestJsonBuilder.create()
+                .setVersion(3)
+                .setFile("testcode")
+                .setMappings("A,CAAA,AAAAA,EAAAA;AACEC,IAAI;;GCAA,CAAIA,EACJ")
+                .setSources("a.js", "b.js")
+                .setNames("x", "y")
+                .build());
+    consumer.parse(sourceMap);
+    SourceMapConsumerV3 lazy = SourceMapConsumerV3.createLazy();
+    lazy.parse(sourceMap);
+
+    // Every position of the first lines in reverse order, so that they have to be sorted.
+    List<Integer> lines = new ArrayList<>();
+    List<Integer> columns = new ArrayList<>();
+    for (int line = 6; line >= 0; line--) {
+      for (int column = 10; column >= 0; column--) {
+        lines.add(line);
+        columns.add(column);
+      }
+    }
+    int[] lineNumbers = Ints.toArray(lines);
+    int[] columnNumbers = Ints.toArray(columns);
+    for (SourceMapConsumerV3 c : ImmutableList.of(consumer, lazy)) {
+      OriginalMapping[] mappings = c.getMappingsForLines(lineNumbers, columnNumbers);
+      assertThat(mappings).hasLength(lineNumbers.length);
+      for (int i = 0; i < lineNumbers.length; i++) {
+        assertThat(mappings[i]).isEqualTo(c.getMappingForLine(lineNumbers[i], columnNumbers[i]));
+      }
+    }
+  }
+
+  @Test
+  public void testLazy_reverseMapping() throws Exception {
+    SourceMapConsumerV3 lazy = SourceMapConsumerV3.createLazy();
+    lazy.parse(
+        GSON.toJson(
+            TestJsonBuilder.create()
+                .setVersion(3)
+                .setFile("testcode")
+                .setLineCount(2)
+                // Line 0: col 0 and col 4 map to testcode:0. Line 1: col 2 maps to testcode:1.
+                .setMappings("AAAA,IAAA;EACA;")
+                .setSources("testcode")
+                .build()));
+
+    assertThat(lazy.getReverseMapping("testcode", 0, 0))
+        .containsExactly(
+            OriginalMapping.newBuilder().setLineNumber(0).setColumnPosition(0).build(),
+            OriginalMapping.newBuilder().setLineNumber(0).setColumnPosition(4).build())
+        .inOrder();
+    assertThat(lazy.getReverseMapping("testcode", 1, 0))
+        .containsExactly(
+            OriginalMapping.newBuilder().setLineNumber(1).setColumnPosition(2).build());
+    assertThat(lazy.getReverseMapping("testcode", 2, 0)).isEmpty();
+    assertThat(lazy.getReverseMapping("other", 0, 0)).isEmpty();
+  }
+
+  @Test
+  public void testLazy_invalidEntryValuesThrows() {
+    SourceMapConsumerV3 lazy = SourceMapConsumerV3.createLazy();
+    SourceMapParseException expected =
+        assertThrows(
+            SourceMapParseException.class,
+            () ->
+                lazy.parse(
+                    GSON.toJson(
+                        TestJsonBuilder.create()
+                            .setVersion(3)
+                            .setFile("testcode")
+                            .setLineCount(1)
+                            .setMappings("AA;")
+                            .setSources("testcode")
+                            .setNames("foo")
+                            .build())));
+
+    assertThat(expected).hasMessageThat().contains("Unexpected number of values for entry:2");
+  }
 }
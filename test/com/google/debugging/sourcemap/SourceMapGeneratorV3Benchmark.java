@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.debugging.sourcemap;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Measures the memory allocated by {@link SourceMapGeneratorV3} to collect the mappings of a large
+ * generated file, the memory it retains until the source map is written, and the memory allocated
+ * to write it. The positions passed to the generator are allocated by the benchmark, but counted
+ * in the memory allocated to add the mappings.
+ *
+ * <p>This is not a test. Run it with {@code <mappings> <iterations>} as arguments, which default to
+ * 5000000 mappings and 3 iterations. To compare with another version of the generator, run it
+ * against that version.
+ */
+public final class SourceMapGeneratorV3Benchmark {
+
+  public static void main(String[] args) throws IOException {
+    int numMappings = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().threadId();
+    for (int i = 0; i < iterations; i++) {
+      long usedBefore = usedMemory();
+      long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      SourceMapGeneratorV3 generator = addMappings(numMappings, new Random(0));
+      long addMillis = (System.nanoTime() - start) / 1_000_000;
+      long addAllocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+      long retained = usedMemory() - usedBefore;
+
+      CountingWriter out = new CountingWriter();
+      allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+      start = System.nanoTime();
+      generator.appendTo(out, "out.js");
+      long writeMillis = (System.nanoTime() - start) / 1_000_000;
+      long writeAllocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+      System.out.printf(
+          "add: %6d ms %6.1f B/mapping allocated %6.1f B/mapping retained"
+              + " | appendTo: %6d ms %6.1f B/mapping allocated, %d chars%n",
+          addMillis,
+          (double) addAllocated / numMappings,
+          (double) retained / numMappings,
+          writeMillis,
+          (double) writeAllocated / numMappings,
+          out.length);
+    }
+  }
+
+  /**
+   * Adds mappings shaped like those of printed code: short nested segments from a few dozen source
+   * files, most of them with a name, in a few thousand long lines.
+   */
+  private static SourceMapGeneratorV3 addMappings(int numMappings, Random random) {
+    SourceMapGeneratorV3 generator = new SourceMapGeneratorV3();
+    int line = 0;
+    int column = 0;
+    for (int i = 0; i < numMappings; i++) {
+      int length = 1 + random.nextInt(20);
+      String name = random.nextInt(3) == 0 ? null : NAMES[random.nextInt(NAMES.length)];
+      generator.addMapping(
+          SOURCES[random.nextInt(SOURCES.length)],
+          name,
+          new FilePosition(1 + random.nextInt(5_000), random.nextInt(100)),
+          new FilePosition(line, column),
+          new FilePosition(line, column + length));
+      column += random.nextInt(length + 1);
+      if (random.nextInt(2_000) == 0) {
+        line++;
+        column = 0;
+      }
+    }
+    return generator;
+  }
+
+  private static final String[] SOURCES = strings("source%s.js", 50);
+  private static final String[] NAMES = strings("name%s", 10_000);
+
+  private static String[] strings(String format, int count) {
+    String[] strings = new String[count];
+    for (int i = 0; i < count; i++) {
+      strings[i] = String.format(format, i);
+    }
+    return strings;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /** Discards what is written, only counting it. */
+  private static final class CountingWriter extends Writer {
+    long length = 0;
+
+    @Override
+    public void write(char[] chars, int offset, int count) {
+      length += count;
+    }
+
+    @Override
+    public void write(int c) {
+      length++;
+    }
+
+    @Override
+    public Writer append(char c) {
+      length++;
+      return this;
+    }
+
+    @Override
+    public Writer append(CharSequence chars) {
+      length += chars.length();
+      return this;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+
+  private SourceMapGeneratorV3Benchmark() {}
+}
@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import com.google.common.collect.ImmutableList;
 import com.google.debugging.sourcemap.SourceMapGeneratorV3.ExtensionMergeAction;
+import com.google.debugging.sourcemap.SourceMapGeneratorV3.MappingStore;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
@@ -749,6 +750,123 @@ public final class SourceMapGeneratorV3Test extends SourceMapTestCase {
     assertThat(mapping.get("sourceRoot").getAsString()).isEqualTo("http://url/path");
   }
 
+  @Test
+  public void testMappingStoreGrowsPastInitialCapacity() {
+    MappingStore store = new MappingStore();
+    int count = 1000;
+    for (int i = 0; i < count; i++) {
+      store.add(
+          i % 2 == 0 ? "even.js" : "odd.js",
+          i % 3 == 0 ? null : "name" + (i % 3),
+          /* originalLine= */ i + 1,
+          /* originalColumn= */ i + 2,
+          /* startLine= */ i,
+          /* startColumn= */ i + 3,
+          /* endLine= */ i + 4,
+          /* endColumn= */ i + 5);
+    }
+
+    assertThat(store.size()).isEqualTo(count);
+    assertThat(store.sourceNames).containsExactly("even.js", "odd.js").inOrder();
+    assertThat(store.names).containsExactly("name1", "name2").inOrder();
+    for (int i = 0; i < count; i++) {
+      assertThat(store.sourceIndex[i]).isEqualTo(i % 2);
+      assertThat(store.nameIndex[i])
+          .isEqualTo(i % 3 == 0 ? SourceMapGeneratorV3.UNMAPPED : i % 3 - 1);
+      assertThat(store.originalLine[i]).isEqualTo(i + 1);
+      assertThat(store.originalColumn[i]).isEqualTo(i + 2);
+      assertThat(store.startLine[i]).isEqualTo(i);
+      assertThat(store.startColumn[i]).isEqualTo(i + 3);
+      assertThat(store.endLine[i]).isEqualTo(i + 4);
+      assertThat(store.endColumn[i]).isEqualTo(i + 5);
+    }
+  }
+
+  @Test
+  public void testMappingStoreClear() {
+    MappingStore store = new MappingStore();
+    store.add("a.js", "a", 1, 1, 0, 0, 0, 1);
+    store.add("b.js", "b", 1, 1, 0, 1, 0, 2);
+
+    store.clear();
+    store.add("b.js", null, 2, 3, 4, 5, 6, 7);
+
+    assertThat(store.size()).isEqualTo(1);
+    assertThat(store.sourceNames).containsExactly("b.js");
+    assertThat(store.names).isEmpty();
+    assertThat(store.sourceIndex[0]).isEqualTo(0);
+    assertThat(store.nameIndex[0]).isEqualTo(SourceMapGeneratorV3.UNMAPPED);
+  }
+
+  @Test
+  public void testUnusedMappingsAreNotWritten() throws Exception {
+    SourceMapGeneratorV3 generator = new SourceMapGeneratorV3();
+    // The child covers the whole parent, so the parent is never visited.
+    generator.addMapping(
+        "parent.js",
+        "parent",
+        new FilePosition(1, 1),
+        new FilePosition(0, 0),
+        new FilePosition(2, 0));
+    generator.addMapping(
+        "child.js",
+        "child",
+        new FilePosition(1, 1),
+        new FilePosition(0, 0),
+        new FilePosition(2, 0));
+    StringBuilder out = new StringBuilder();
+    generator.appendTo(out, "out.js");
+
+    JsonObject sourceMap = parseJsonObject(out.toString());
+    assertThat(sourceMap.get("sources").getAsJsonArray())
+        .containsExactly(new JsonPrimitive("child.js"));
+    assertThat(sourceMap.get("names").getAsJsonArray())
+        .containsExactly(new JsonPrimitive("child"));
+  }
+
+  @Test
+  public void testSourceAndNameIdsAreNumberedInWriteOrder() throws Exception {
+    SourceMapGeneratorV3 generator = new SourceMapGeneratorV3();
+    // first.js and first are stored first, but only written after second.js and second.
+    generator.addMapping(
+        "first.js",
+        "first",
+        new FilePosition(1, 1),
+        new FilePosition(0, 0),
+        new FilePosition(0, 5));
+    generator.addMapping(
+        "second.js",
+        "second",
+        new FilePosition(2, 2),
+        new FilePosition(0, 0),
+        new FilePosition(0, 5));
+    generator.addMapping(
+        "first.js",
+        "first",
+        new FilePosition(3, 3),
+        new FilePosition(0, 5),
+        new FilePosition(2, 0));
+    StringBuilder out = new StringBuilder();
+    generator.appendTo(out, "out.js");
+
+    JsonObject sourceMap = parseJsonObject(out.toString());
+    assertThat(sourceMap.get("sources").getAsJsonArray())
+        .containsExactly(new JsonPrimitive("second.js"), new JsonPrimitive("first.js"))
+        .inOrder();
+    assertThat(sourceMap.get("names").getAsJsonArray())
+        .containsExactly(new JsonPrimitive("second"), new JsonPrimitive("first"))
+        .inOrder();
+
+    SourceMapConsumerV3 consumer = new SourceMapConsumerV3();
+    consumer.parse(out.toString());
+    assertThat(consumer.getMappingForLine(1, 1).getOriginalFile()).isEqualTo("second.js");
+    assertThat(consumer.getMappingForLine(1, 1).getIdentifier()).isEqualTo("second");
+    assertThat(consumer.getMappingForLine(1, 6).getOriginalFile()).isEqualTo("first.js");
+    assertThat(consumer.getMappingForLine(1, 6).getIdentifier()).isEqualTo("first");
+    // The consumer numbers original lines from 1.
+    assertThat(consumer.getMappingForLine(1, 6).getLineNumber()).isEqualTo(4);
+  }
+
   FilePosition count(String js) {
     int line = 0;
     int column = 0;
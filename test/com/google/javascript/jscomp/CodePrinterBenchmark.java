@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import com.google.javascript.rhino.Node;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Measures the time and the memory allocated by {@link CodePrinter} to print a large script in
+ * compact mode, with and without source map information.
+ *
+ * <p>This is not a test. Run it with {@code <functions> <iterations>} as arguments, which default
+ * to 50000 functions and 10 iterations. The first iterations warm up the JVM. To compare with
+ * another version of the printer, run it against that version.
+ */
+public final class CodePrinterBenchmark {
+
+  public static void main(String[] args) {
+    int numFunctions = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+    Compiler compiler = new Compiler();
+    CompilerOptions options = new CompilerOptions();
+    compiler.initOptions(options);
+    Node script = compiler.parseTestCode(generateSource(numFunctions, new Random(0)));
+
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().threadId();
+    for (int i = 0; i < iterations; i++) {
+      for (boolean sourceMap : new boolean[] {false, true}) {
+        options.setSourceMapOutputPath(sourceMap ? "out.js.map" : "");
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        String code =
+            new CodePrinter.Builder(script)
+                .setCompilerOptions(options)
+                .buildWithSourceMappings()
+                .source;
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf(
+            "%-20s %6d ms %6.2f B/char allocated, %d chars%n",
+            sourceMap ? "with source map:" : "without source map:",
+            millis,
+            (double) allocated / code.length(),
+            code.length());
+      }
+    }
+  }
+
+  /**
+   * Generates functions with the tokens that are common in printed code: keywords, operators,
+   * names, property accesses, numbers, string literals that need escaping, and regular
+   * expressions.
+   */
+  private static String generateSource(int numFunctions, Random random) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < numFunctions; i++) {
+      sb.append("function f").append(i).append("(a, b) {\n");
+      sb.append("  var x = a.prop").append(random.nextInt(100)).append(" + ");
+      sb.append(random.nextInt(100_000)).append(" * b;\n");
+      sb.append("  var y = ").append(random.nextDouble()).append(";\n");
+      sb.append("  if (x > y && typeof a === 'string') {\n");
+      sb.append("    return \"str").append(i).append(" with \\\"quotes\\\" and\\n\" + x;\n");
+      sb.append("  }\n");
+      sb.append("  for (var i = 0; i < b.length; i++) {\n");
+      sb.append("    y = /ab+c[").append(i % 10).append("]/gi.test(b[i]) ? -y : x / 2;\n");
+      sb.append("  }\n");
+      sb.append("  return {key: x, 'other key': [y, null, true]};\n");
+      sb.append("}\n");
+    }
+    return sb.toString();
+  }
+
+  private CodePrinterBenchmark() {}
+}
@@ -2666,6 +2666,43 @@ public final class CommandLineRunnerTest {
             """);
   }
 
+  @Test
+  public void testJsonStreamOutputChunks() throws IOException {
+    String inputString =
+        """
+        [
+          {"src": "alert('a');", "path":"a.js"},
+          {"src": "alert('b');", "path":"b.js"},
+          {"src": "alert('c');", "path":"c.js"}
+        ]
+        """;
+    args.add("--json_streams=BOTH");
+    args.add("--chunk=a:1");
+    args.add("--chunk=b:1:a");
+    args.add("--chunk=c:1:b");
+
+    CommandLineRunner runner =
+        new CommandLineRunner(
+            args.toArray(new String[] {}),
+            new ByteArrayInputStream(inputString.getBytes(UTF_8)),
+            new PrintStream(outReader),
+            new PrintStream(errReader));
+
+    lastCompiler = runner.getCompiler();
+    runner.doRun();
+    String output = new String(outReader.toByteArray(), UTF_8);
+    JsonArray files = GSON.fromJson(output, JsonArray.class);
+    assertThat(files).hasSize(3);
+    String[] chunkNames = {"a", "b", "c"};
+    for (int i = 0; i < chunkNames.length; i++) {
+      JsonObject file = files.get(i).getAsJsonObject();
+      assertThat(file.get("path").getAsString()).isEqualTo("./" + chunkNames[i] + ".js");
+      assertThat(file.get("src").getAsString())
+          .isEqualTo("alert(\"" + chunkNames[i] + "\");\n");
+      assertThat(file.get("source_map").getAsString()).contains(chunkNames[i] + ".js");
+    }
+  }
+
   @Test
   public void testJsonStreamSourceMap() {
     String inputSourceMap =
@@ -3286,6 +3323,60 @@ Expected --production_instrumentation_array_name to be set when --instrument_for
     assertThat(weakFile.exists()).isFalse();
   }
 
+  @Test
+  public void testChunkOutputFilesInParallel_matchSerialOutput() throws IOException {
+    File inDir = Files.createTempDir();
+    List<String> inputArgs = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      File inputFile = new File(inDir, "input" + i + ".js");
+      // Licenses shared by several chunks are only printed in the first chunk that needs them.
+      String license = i % 3 == 0 ? "/** @license L" + (i % 2) + " */\n" : "";
+      Files.asCharSink(inputFile, UTF_8).write(license + "var x" + i + " = " + i + ";\n");
+      inputArgs.add("--js");
+      inputArgs.add(inputFile.toString());
+      // The chunks form a tree, with a single input each.
+      inputArgs.add("--chunk=c" + i + ":1" + (i > 0 ? ":c" + (i - 1) / 2 : ""));
+    }
+
+    Map<String, String> serialOutput = writeChunkOutputFiles(inputArgs, 1);
+    Map<String, String> parallelOutput = writeChunkOutputFiles(inputArgs, 4);
+
+    assertThat(serialOutput).hasSize(24);
+    assertThat(serialOutput.get("c0.js")).contains("@license L0");
+    assertThat(serialOutput.get("c1.js")).doesNotContain("@license L0");
+    assertThat(parallelOutput).containsExactlyEntriesIn(serialOutput);
+  }
+
+  /**
+   * Compiles with the given arguments, writing each chunk and its source map to a new directory.
+   *
+   * @return the contents of the files written, by file name, with the directory replaced by "out"
+   */
+  private Map<String, String> writeChunkOutputFiles(List<String> inputArgs, int numThreads)
+      throws IOException {
+    File outDir = Files.createTempDir();
+    List<String> runArgs = new ArrayList<>(inputArgs);
+    runArgs.add("--chunk_output_path_prefix=" + outDir + "/");
+    runArgs.add("--create_source_map=%outname%.map");
+    runArgs.add("--num_parallel_threads=" + numThreads);
+
+    CommandLineRunner runner =
+        new CommandLineRunner(
+            runArgs.toArray(new String[] {}),
+            new PrintStream(outReader),
+            new PrintStream(errReader));
+    lastCompiler = runner.getCompiler();
+    runner.doRun();
+
+    Map<String, String> output = new LinkedHashMap<>();
+    for (File file : outDir.listFiles()) {
+      output.put(
+          file.getName(),
+          Files.asCharSource(file, UTF_8).read().replace(outDir.toString(), "out"));
+    }
+    return output;
+  }
+
   @Test
   public void testAssumeStaticInheritanceIsNotUsed() {
     testSame("");
@@ -453,6 +453,67 @@ public final class CompilerTest {
     assertThat(consumer.getOriginalNames()).containsExactly("X", "input", "y", "console", "log");
   }
 
+  @Test
+  public void testParallelToSourceMatchesSerial() throws Exception {
+    ImmutableList<SourceFile> inputs =
+        ImmutableList.of(
+            SourceFile.fromCode("a.js", "/** @license A */ var a = 1;\nalert(a);"),
+            SourceFile.fromCode("b.js", "/** @license B */ var b = 2;\nalert(b);"),
+            SourceFile.fromCode("c.js", "/** @license A */ var c = 3;\nalert(c);"),
+            SourceFile.fromCode("d.js", "var d = a + b + c;\nalert(d);"));
+    String[] serial = toSourceAndSourceMap(inputs, 1);
+    String[] parallel = toSourceAndSourceMap(inputs, 4);
+    assertThat(parallel[0]).isEqualTo(serial[0]);
+    assertThat(parallel[1]).isEqualTo(serial[1]);
+    assertThat(serial[0]).contains("/*\n A */");
+    assertThat(serial[0]).contains("/*\n B */");
+  }
+
+  @Test
+  public void testStreamingToSourceMatchesToSource() throws Exception {
+    ImmutableList<SourceFile> inputs =
+        ImmutableList.of(
+            SourceFile.fromCode("a.js", "/** @license A */ var a = 1;\nalert(a);"),
+            SourceFile.fromCode("b.js", "var b = 2;\nalert(b)"),
+            SourceFile.fromCode("c.js", ""),
+            SourceFile.fromCode("d.js", "alert(a + b);"));
+    String[] buffered = toSourceAndSourceMap(inputs, 1, false);
+    String[] streamed = toSourceAndSourceMap(inputs, 1, true);
+    assertThat(streamed[0]).isEqualTo(buffered[0]);
+    assertThat(streamed[1]).isEqualTo(buffered[1]);
+  }
+
+  /** Compiles the inputs and returns their source and source map. */
+  private static String[] toSourceAndSourceMap(List<SourceFile> inputs, int numParallelThreads)
+      throws IOException {
+    return toSourceAndSourceMap(inputs, numParallelThreads, false);
+  }
+
+  /**
+   * Compiles the inputs and returns their source and source map, optionally streaming the source
+   * to a writer.
+   */
+  private static String[] toSourceAndSourceMap(
+      List<SourceFile> inputs, int numParallelThreads, boolean streaming) throws IOException {
+    CompilerOptions options = new CompilerOptions();
+    options.setSourceMapOutputPath("fake/source_map_path.js.map");
+    options.setPrintInputDelimiter(true);
+    options.setNumParallelThreads(numParallelThreads);
+    Compiler compiler = new Compiler();
+    compiler.compile(EMPTY_EXTERNS, inputs, options);
+    String source;
+    if (streaming) {
+      StringWriter sourceOut = new StringWriter();
+      compiler.toSource(sourceOut);
+      source = sourceOut.toString();
+    } else {
+      source = compiler.toSource();
+    }
+    StringWriter out = new StringWriter();
+    compiler.getSourceMap().appendTo(out, "source.js.map");
+    return new String[] {source, out.toString()};
+  }
+
   @Test
   public void testNoSourceMapIsGeneratedWithoutPath() {
     CompilerOptions options = new CompilerOptions();
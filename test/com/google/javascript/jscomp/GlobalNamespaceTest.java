@@ -17,6 +17,7 @@
 package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.javascript.rhino.testing.NodeSubject.assertNode;
 import static com.google.javascript.rhino.testing.TypeSubject.assertType;
@@ -621,6 +622,153 @@ public final class GlobalNamespaceTest {
     return new SimpleAstChange(n, Iterables.getFirst(lastCompiler.getChunks(), null), globalScope);
   }
 
+  @Test
+  public void testSharedNamespaceRefreshedForChangedFunctionBody() {
+    compile(
+        "var a = {b: 1}; function f() { return a.b; } function g() { return a; }",
+        getDefaultOptions());
+    GlobalNamespace namespace = lastCompiler.getIndex(GlobalNamespace.class);
+    assertThat(namespace.getSlot("a.b").getTotalGets()).isEqualTo(1);
+
+    // Replace `return a.b;` in `f` with `return a.c;`
+    Node f = lastCompiler.getJsRoot().getFirstChild().getSecondChild();
+    Node aDotB = f.getLastChild().getFirstFirstChild();
+    assertNode(aDotB).matchesQualifiedName("a.b");
+    aDotB.replaceWith(IR.getprop(IR.name("a"), "c"));
+    lastCompiler.reportChangeToChangeScope(f);
+
+    GlobalNamespace refreshed = lastCompiler.getIndex(GlobalNamespace.class);
+
+    assertThat(refreshed).isSameInstanceAs(namespace);
+    assertThat(refreshed.getSlot("a.b").getTotalGets()).isEqualTo(0);
+    assertThat(refreshed.getSlot("a.c").getTotalGets()).isEqualTo(1);
+    assertThat(describeNames(refreshed)).isEqualTo(describeNames(buildFreshNamespace()));
+  }
+
+  @Test
+  public void testSharedNamespaceDropsNamesNoLongerRead() {
+    compile("var a = {}; function f() { return a.b.c; }", getDefaultOptions());
+    GlobalNamespace namespace = lastCompiler.getIndex(GlobalNamespace.class);
+    assertThat(namespace.getSlot("a.b.c")).isNotNull();
+
+    // Replace `return a.b.c;` in `f` with `return a;`
+    Node f = lastCompiler.getJsRoot().getFirstChild().getSecondChild();
+    f.getLastChild().getFirstFirstChild().replaceWith(IR.name("a"));
+    lastCompiler.reportChangeToChangeScope(f);
+
+    GlobalNamespace refreshed = lastCompiler.getIndex(GlobalNamespace.class);
+
+    assertThat(refreshed).isSameInstanceAs(namespace);
+    assertThat(refreshed.getSlot("a.b")).isNull();
+    assertThat(refreshed.getSlot("a.b.c")).isNull();
+    assertThat(describeNames(refreshed)).isEqualTo(describeNames(buildFreshNamespace()));
+  }
+
+  @Test
+  public void testSharedNamespaceDropsRefsOfRemovedNestedFunction() {
+    compile(
+        "var a = {b: 1}; function f() { function g() { return a.b; } return a; }",
+        getDefaultOptions());
+    GlobalNamespace namespace = lastCompiler.getIndex(GlobalNamespace.class);
+    assertThat(namespace.getSlot("a.b").getTotalGets()).isEqualTo(1);
+
+    // Remove `g` from `f`. Only `f` is reported as changed.
+    Node f = lastCompiler.getJsRoot().getFirstChild().getSecondChild();
+    Node g = f.getLastChild().getFirstChild();
+    assertNode(g).isFunction();
+    g.detach();
+    lastCompiler.reportChangeToChangeScope(f);
+
+    GlobalNamespace refreshed = lastCompiler.getIndex(GlobalNamespace.class);
+
+    assertThat(refreshed).isSameInstanceAs(namespace);
+    assertThat(refreshed.getSlot("a.b").getTotalGets()).isEqualTo(0);
+    assertThat(describeNames(refreshed)).isEqualTo(describeNames(buildFreshNamespace()));
+  }
+
+  @Test
+  public void testSharedNamespaceRebuiltForChangedDeclaration() {
+    compile("var a = {b: 1}; function f() { return a.b; }", getDefaultOptions());
+    GlobalNamespace namespace = lastCompiler.getIndex(GlobalNamespace.class);
+    assertThat(namespace.getSlot("a.b").getGlobalSets()).isEqualTo(1);
+
+    // Add `a.b = 2;` to `f`
+    Node f = lastCompiler.getJsRoot().getFirstChild().getSecondChild();
+    f.getLastChild()
+        .addChildToFront(IR.exprResult(IR.assign(IR.getprop(IR.name("a"), "b"), IR.number(2))));
+    lastCompiler.reportChangeToChangeScope(f);
+
+    GlobalNamespace rebuilt = lastCompiler.getIndex(GlobalNamespace.class);
+
+    assertThat(rebuilt).isNotSameInstanceAs(namespace);
+    assertThat(rebuilt.getSlot("a.b").getLocalSets()).isEqualTo(1);
+    assertThat(describeNames(rebuilt)).isEqualTo(describeNames(buildFreshNamespace()));
+  }
+
+  @Test
+  public void testSharedNamespaceRefreshedInFreshIterationOrder() {
+    compile(
+        "function f() { return a.b; } var a = {b: 1}; var c = {d: a}; function g() { return c; }",
+        getDefaultOptions());
+    GlobalNamespace namespace = lastCompiler.getIndex(GlobalNamespace.class);
+
+    // Replace `return a.b;` in `f` with `return c.e;`, so that a fresh build would find `c` and
+    // `c.e` first, and `a` and `a.b` only in their declarations.
+    Node f = lastCompiler.getJsRoot().getFirstFirstChild();
+    Node aDotB = f.getLastChild().getFirstFirstChild();
+    assertNode(aDotB).matchesQualifiedName("a.b");
+    aDotB.replaceWith(IR.getprop(IR.name("c"), "e"));
+    lastCompiler.reportChangeToChangeScope(f);
+
+    GlobalNamespace refreshed = lastCompiler.getIndex(GlobalNamespace.class);
+
+    assertThat(refreshed).isSameInstanceAs(namespace);
+    GlobalNamespace fresh = buildFreshNamespace();
+    assertThat(getNamesInOrder(refreshed))
+        .containsExactlyElementsIn(getNamesInOrder(fresh))
+        .inOrder();
+    for (Name name : fresh.getAllSymbols()) {
+      assertThat(getRefNodes(refreshed.getSlot(name.getFullName())))
+          .containsExactlyElementsIn(getRefNodes(name))
+          .inOrder();
+    }
+  }
+
+  private static ImmutableList<String> getNamesInOrder(GlobalNamespace namespace) {
+    return namespace.getAllSymbols().stream().map(Name::getFullName).collect(toImmutableList());
+  }
+
+  private static ImmutableList<Node> getRefNodes(Name name) {
+    return name.getRefs().stream().map(Ref::getNode).collect(toImmutableList());
+  }
+
+  private GlobalNamespace buildFreshNamespace() {
+    return new GlobalNamespace(
+        lastCompiler, lastCompiler.getExternsRoot(), lastCompiler.getJsRoot());
+  }
+
+  /** Describes all names and their Ref counts, independent of the order in which they were found. */
+  private static ImmutableSet<String> describeNames(GlobalNamespace namespace) {
+    ImmutableSet.Builder<String> names = ImmutableSet.builder();
+    for (Name name : namespace.getAllSymbols()) {
+      names.add(
+          name.getFullName()
+              + " refs="
+              + name.getRefs().size()
+              + " globalSets="
+              + name.getGlobalSets()
+              + " localSets="
+              + name.getLocalSets()
+              + " gets="
+              + name.getTotalGets()
+              + " aliasingGets="
+              + name.getAliasingGets()
+              + " callGets="
+              + name.getCallGets());
+    }
+    return names.build();
+  }
+
   @Test
   public void testCollapsing_forEscapedConstructor_ignoringStaticInheritance() {
     GlobalNamespace namespace =
@@ -61,6 +61,36 @@ public final class InlineCostEstimatorTest {
     checkCost("function a() {return \"monkey\"}", "function xx(){return\"monkey\"}");
   }
 
+  @Test
+  public void testFunctionCostCache() {
+    Node fn = parse("function a() { return function() { return 'monkey'; }; }").getFirstChild();
+    Node innerFn = fn.getLastChild().getFirstFirstChild();
+    InlineCostEstimator.FunctionCostCache cache = new InlineCostEstimator.FunctionCostCache();
+    int cost = "function xx(){return function(){return\"monkey\"}}".length();
+    assertThat(cache.getCost(fn, Integer.MAX_VALUE)).isEqualTo(cost);
+
+    // Changes that are not reported are not seen.
+    innerFn.getLastChild().getFirstFirstChild().setString("ape");
+    assertThat(cache.getCost(fn, Integer.MAX_VALUE)).isEqualTo(cost);
+
+    // A change reported to a nested function invalidates the estimate.
+    innerFn.setChangeTime(1);
+    assertThat(cache.getCost(fn, Integer.MAX_VALUE)).isEqualTo(cost - 3);
+  }
+
+  @Test
+  public void testFunctionCostCache_threshold() {
+    Node fn = parse("function a() { return 'monkey'; }").getFirstChild();
+    InlineCostEstimator.FunctionCostCache cache = new InlineCostEstimator.FunctionCostCache();
+    int cost = "function xx(){return\"monkey\"}".length();
+
+    // An estimate cut short by its threshold still answers lower thresholds.
+    assertThat(cache.getCost(fn, 10)).isAtLeast(10);
+    assertThat(cache.getCost(fn, 5)).isAtLeast(5);
+    assertThat(cache.getCost(fn, Integer.MAX_VALUE)).isEqualTo(cost);
+    assertThat(cache.getCost(fn, 10)).isEqualTo(cost);
+  }
+
   private void checkCost(String source, String example) {
 
     // The example string should have been minified already.
@@ -16,9 +16,15 @@
 
 package com.google.javascript.jscomp;
 
+import static com.google.common.truth.Truth.assertThat;
+
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.javascript.jscomp.AbstractCompiler.LifeCycleStage;
 import com.google.javascript.jscomp.CompilerOptions.Reach;
 import com.google.javascript.jscomp.testing.JSChunkGraphBuilder;
+import com.google.javascript.rhino.IR;
+import com.google.javascript.rhino.Node;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -5473,4 +5479,50 @@ JSCompiler_temp_const$jscomp$v0.bug = JSCompiler_inline_result$jscomp$v1;
         };
         """);
   }
+
+  @Test
+  public void testSharedIndex_refreshedForChangedScripts() {
+    Compiler compiler = new Compiler();
+    compiler.init(
+        ImmutableList.of(SourceFile.fromCode("externs.js", "")),
+        ImmutableList.of(
+            SourceFile.fromCode("a.js", "function f() { return 1; } var a = f();"),
+            SourceFile.fromCode("b.js", "var b = 2;")),
+        new CompilerOptions());
+    compiler.parse();
+    compiler.setLifeCycleStage(LifeCycleStage.NORMALIZED);
+    Node jsRoot = compiler.getRoot().getLastChild();
+    Node scriptA = jsRoot.getFirstChild();
+    Node scriptB = jsRoot.getLastChild();
+
+    // The first run indexes both scripts. b.js has no function that could be inlined.
+    runInlineFunctions(compiler, jsRoot);
+    assertThat(compiler.toSource(scriptA)).doesNotContain("f(");
+
+    // Add a candidate and a call to it to b.js, and report the change.
+    Node function =
+        IR.function(IR.name("g"), IR.paramList(), IR.block(IR.returnNode(IR.number(3))));
+    Node declaration = IR.var(IR.name("c"), IR.call(IR.name("g")));
+    scriptB.addChildToBack(function.srcrefTree(scriptB));
+    scriptB.addChildToBack(declaration.srcrefTree(scriptB));
+    NodeUtil.markNewScopesChanged(function, compiler);
+    compiler.reportChangeToEnclosingScope(declaration);
+
+    // The second run summarizes b.js again, so it finds the new candidate and inlines it.
+    runInlineFunctions(compiler, jsRoot);
+    String codeB = compiler.toSource(scriptB);
+    assertThat(codeB).contains("var c=3");
+    assertThat(codeB).doesNotContain("g(");
+  }
+
+  private static void runInlineFunctions(Compiler compiler, Node jsRoot) {
+    new InlineFunctions(
+            compiler,
+            compiler.getUniqueNameIdSupplier(),
+            Reach.ALL,
+            /* assumeStrictThis= */ false,
+            /* assumeMinimumCapture= */ false,
+            CompilerOptions.UNLIMITED_FUN_SIZE_AFTER_INLINING)
+        .process(compiler.getRoot().getFirstChild(), jsRoot);
+  }
 }
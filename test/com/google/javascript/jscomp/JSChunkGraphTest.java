@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import org.jspecify.annotations.Nullable;
 import org.junit.Before;
@@ -292,6 +293,107 @@ public final class JSChunkGraphTest {
     assertDeepestCommonDepInclusive(chunkF, chunkF, chunkF);
   }
 
+  @Test
+  public void testDeepestCommonDepInLargeGraph() {
+    // Enough chunks that their dependencies span several words.
+    Random random = new Random(42);
+    List<JSChunk> chunks = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      JSChunk chunk = new JSChunk("chunk" + i);
+      for (int j = 0; j < i; j++) {
+        if (random.nextInt(50) == 0) {
+          chunk.addDependency(chunks.get(j));
+        }
+      }
+      chunks.add(chunk);
+    }
+    graph = new JSChunkGraph(chunks);
+    List<JSChunk> allChunks = ImmutableList.copyOf(graph.getAllChunks());
+
+    for (JSChunk m1 : allChunks) {
+      for (JSChunk m2 : allChunks) {
+        assertDeepestCommonDepOneWay(
+            deepestCommonDepByDepthWalk(allChunks, m1, m2, false), m1, m2, false);
+        assertDeepestCommonDepOneWay(
+            deepestCommonDepByDepthWalk(allChunks, m1, m2, true), m1, m2, true);
+      }
+    }
+
+    for (int i = 0; i < 2000; i++) {
+      JSChunk parentTree = allChunks.get(random.nextInt(allChunks.size()));
+      BitSet dependents = new BitSet();
+      for (int j = random.nextInt(4); j >= 0; j--) {
+        dependents.set(random.nextInt(allChunks.size()));
+      }
+      assertSmallestCoveringSubtree(
+          smallestCoveringSubtreeByDefinition(allChunks, parentTree, dependents),
+          graph,
+          parentTree,
+          dependents);
+    }
+  }
+
+  /**
+   * Finds the deepest common dependency of two chunks by walking the chunks from the deepest, as
+   * JSChunkGraph did before it indexed the dependencies in depth order.
+   */
+  private @Nullable JSChunk deepestCommonDepByDepthWalk(
+      List<JSChunk> allChunks, JSChunk m1, JSChunk m2, boolean inclusive) {
+    if (inclusive) {
+      if (m2 == m1 || graph.dependsOn(m2, m1)) {
+        return m1;
+      } else if (graph.dependsOn(m1, m2)) {
+        return m2;
+      }
+    }
+    for (int depth = Math.min(m1.getDepth(), m2.getDepth()) - 1; depth >= 0; depth--) {
+      // Later chunks of the same depth break ties.
+      for (JSChunk m : allChunks.reversed()) {
+        if (m.getDepth() == depth && graph.dependsOn(m1, m) && graph.dependsOn(m2, m)) {
+          return m;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the chunk with the fewest dependents, and the last one in case of a tie, that the given
+   * chunks and the parent tree all depend on or are.
+   */
+  private JSChunk smallestCoveringSubtreeByDefinition(
+      List<JSChunk> allChunks, JSChunk parentTree, BitSet dependents) {
+    JSChunk best = parentTree;
+    int bestSize = Integer.MAX_VALUE;
+    for (JSChunk candidate : allChunks) {
+      if (!dependsOnOrIs(candidate, parentTree)) {
+        continue;
+      }
+      boolean coversAll = true;
+      for (int i = dependents.nextSetBit(0); i >= 0; i = dependents.nextSetBit(i + 1)) {
+        coversAll &= dependsOnOrIs(allChunks.get(i), candidate);
+      }
+      if (!coversAll) {
+        continue;
+      }
+      int size = 0;
+      for (JSChunk m : allChunks) {
+        if (dependsOnOrIs(m, candidate)) {
+          size++;
+        }
+      }
+      if (size <= bestSize) {
+        best = candidate;
+        bestSize = size;
+      }
+    }
+    return best;
+  }
+
+  private boolean dependsOnOrIs(JSChunk src, JSChunk m) {
+    return src == m || graph.dependsOn(src, m);
+  }
+
   @Test
   public void testSmallestCoveringSubtree() {
     makeDeps();
@@ -131,6 +131,13 @@ public final class MustBeReachingVariableDefTest {
     assertNotMatch("var x,y; while(y) { if (y) { print(x) } else { D: x = 1 } } U:x");
   }
 
+  @Test
+  public void testDefinitionReachesLoopBody() {
+    assertMatch("var x, y; D: x = 1; while (y) { U: x; }");
+    assertMatch("var x, y; D: x = 1; while (y) { y = x; } U: x");
+    assertNotMatch("var x, y; D: x = 1; while (y) { U: x; x = 2; }");
+  }
+
   @Test
   public void testRedefinitionUsingItself() {
     assertMatch("var x = 1; D: x = x + 1; U:x;");
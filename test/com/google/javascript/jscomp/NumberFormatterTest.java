@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class NumberFormatterTest {
+
+  @Test
+  public void testIntegers() {
+    assertThat(NumberFormatter.format(0)).isEqualTo("0");
+    assertThat(NumberFormatter.format(100)).isEqualTo("100");
+    assertThat(NumberFormatter.format(1000)).isEqualTo("1E3");
+    assertThat(NumberFormatter.format(1234000)).isEqualTo("1234E3");
+    assertThat(NumberFormatter.format(1000000000001L)).isEqualTo("0xe8d4a51001");
+    assertThat(NumberFormatter.format(1234567890123L)).isEqualTo("1234567890123");
+    assertThat(NumberFormatter.format(0xFFFFFFFFFFFFFL)).isEqualTo("0xfffffffffffff");
+    assertThat(NumberFormatter.format(Long.MAX_VALUE)).isEqualTo("0x7fffffffffffffff");
+  }
+
+  @Test
+  public void testFractions() {
+    assertThat(NumberFormatter.format(0.5)).isEqualTo(".5");
+    assertThat(NumberFormatter.format(0.1)).isEqualTo(".1");
+    assertThat(NumberFormatter.format(0.001)).isEqualTo(".001");
+    assertThat(NumberFormatter.format(1.5)).isEqualTo("1.5");
+    assertThat(NumberFormatter.format(1234.5)).isEqualTo("1234.5");
+    assertThat(NumberFormatter.format(1.0 / 3)).isEqualTo(".3333333333333333");
+    assertThat(NumberFormatter.format(Math.PI)).isEqualTo("3.141592653589793");
+  }
+
+  @Test
+  public void testExponents() {
+    assertThat(NumberFormatter.format(1e-4)).isEqualTo("1E-4");
+    assertThat(NumberFormatter.format(1.5e-7)).isEqualTo("1.5E-7");
+    assertThat(NumberFormatter.format(12345678.5)).isEqualTo("1.23456785E7");
+    assertThat(NumberFormatter.format(1e21)).isEqualTo("1E21");
+    assertThat(NumberFormatter.format(1e300)).isEqualTo("1E300");
+    assertThat(NumberFormatter.format(Double.MAX_VALUE)).isEqualTo("1.7976931348623157E308");
+    assertThat(NumberFormatter.format(Double.MIN_VALUE)).isEqualTo("4.9E-324");
+  }
+
+  @Test
+  public void testInfinity() {
+    assertThat(NumberFormatter.format(Double.POSITIVE_INFINITY)).isEqualTo("Infinity");
+  }
+
+  @Test
+  public void testNegative() {
+    assertThrows(IllegalArgumentException.class, () -> NumberFormatter.format(-1.5));
+    assertThrows(IllegalArgumentException.class, () -> NumberFormatter.format(-0.0));
+  }
+
+  @Test
+  public void testSmallIntegers_matchToString() {
+    for (long value = 0; value < 100_000; value++) {
+      assertMatchesToString(value);
+      assertMatchesToString(value * 1000);
+      assertMatchesToString(value / 8.0);
+      assertMatchesToString(value / 100.0);
+    }
+  }
+
+  @Test
+  public void testRandomDoubles_matchToString() {
+    Random random = new Random(0);
+    for (int i = 0; i < 1_000_000; i++) {
+      assertMatchesToString(Math.abs(Double.longBitsToDouble(random.nextLong())));
+      assertMatchesToString(random.nextLong() >>> random.nextInt(64));
+    }
+  }
+
+  @Test
+  public void testShortDecimals_matchToString() {
+    Random random = new Random(0);
+    for (int i = 0; i < 1_000_000; i++) {
+      int digits = 1 + random.nextInt(17);
+      long significand = (long) (random.nextDouble() * Math.pow(10, digits));
+      assertMatchesToString(Double.parseDouble(significand + "E" + (random.nextInt(80) - 40)));
+    }
+  }
+
+  @Test
+  public void testNeighborsOfShortDecimals_matchToString() {
+    for (int exponent = -30; exponent <= 30; exponent++) {
+      for (int digit = 1; digit <= 9; digit++) {
+        long bits = Double.doubleToLongBits(Double.parseDouble(digit + "E" + exponent));
+        for (long neighbor = bits - 5; neighbor <= bits + 5; neighbor++) {
+          assertMatchesToString(Double.longBitsToDouble(neighbor));
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks that the number is formatted as it was from {@link Double#toString}, and that it is
+   * parsed back to the same number.
+   */
+  private static void assertMatchesToString(double x) {
+    String formatted = NumberFormatter.format(x);
+    assertWithMessage("%s", x).that(formatted).isEqualTo(formatFromToString(x));
+    if (!formatted.startsWith("0x")) {
+      assertWithMessage("%s", x).that(Double.parseDouble(formatted)).isEqualTo(x);
+    }
+  }
+
+  private static String formatFromToString(double x) {
+    if ((long) x != x) {
+      return String.valueOf(x).replace(".0E", "E").replaceFirst("^0\\.", ".");
+    }
+
+    long value = (long) x;
+    long mantissa = value;
+    int exp = 0;
+    if (x >= 100) {
+      while (mantissa % 10 == 0) {
+        mantissa /= 10;
+        exp++;
+      }
+    }
+    if (exp > 2) {
+      return mantissa + "E" + exp;
+    }
+    String decValueString = Long.toString(value);
+    if (value <= 1000000000000L) {
+      return decValueString;
+    }
+    String hexValueString = Long.toHexString(value);
+    return hexValueString.length() + 2 < decValueString.length()
+        ? "0x" + hexValueString
+        : decValueString;
+  }
+}
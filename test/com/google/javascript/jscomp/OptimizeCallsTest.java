@@ -18,8 +18,11 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.truth.Correspondence;
+import com.google.javascript.jscomp.AbstractCompiler.LifeCycleStage;
+import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
 import com.google.javascript.rhino.Token;
 import java.util.ArrayList;
@@ -318,6 +321,73 @@ public final class OptimizeCallsTest extends CompilerTestCase {
         .inOrder();
   }
 
+  @Test
+  public void testSharedReferenceMap_refreshedForChangedScopes() {
+    Compiler compiler = new Compiler();
+    compiler.init(
+        ImmutableList.of(SourceFile.fromCode("externs.js", "")),
+        ImmutableList.of(
+            SourceFile.fromCode("a.js", "function f() {} f();"),
+            SourceFile.fromCode("b.js", "function g() {}")),
+        new CompilerOptions());
+    compiler.parse();
+    compiler.setLifeCycleStage(LifeCycleStage.NORMALIZED);
+
+    assertThat(getSharedNameReferences(compiler).get("f")).hasSize(2);
+
+    Node gBody = compiler.getRoot().getLastChild().getLastChild().getFirstChild().getLastChild();
+    gBody.addChildToBack(IR.exprResult(IR.call(IR.name("f"))));
+    compiler.reportChangeToEnclosingScope(gBody);
+
+    ImmutableMap<String, ArrayList<Node>> nameToRefs = getSharedNameReferences(compiler);
+    assertThat(nameToRefs.keySet()).containsExactly("f", "g").inOrder();
+    assertThat(nameToRefs.get("f"))
+        .comparingElementsUsing(HAS_TOKEN)
+        .containsExactly(Token.NAME, Token.NAME, Token.NAME);
+  }
+
+  @Test
+  public void testSharedReferenceMap_reusedUntilAScriptChanges() {
+    Compiler compiler = new Compiler();
+    compiler.init(
+        ImmutableList.of(SourceFile.fromCode("externs.js", "")),
+        ImmutableList.of(
+            SourceFile.fromCode("a.js", "function f(x) { var y = x; return y; } f(1);"),
+            SourceFile.fromCode("b.js", "function g() {}")),
+        new CompilerOptions());
+    compiler.parse();
+    compiler.setLifeCycleStage(LifeCycleStage.NORMALIZED);
+    Node root = compiler.getRoot();
+
+    OptimizeCalls.ReferenceMap references = getSharedReferenceMap(compiler);
+    assertThat(ImmutableMap.copyOf(references.getNameReferences()).keySet())
+        .containsExactly("f", "g")
+        .inOrder();
+    assertThat(getSharedReferenceMap(compiler)).isSameInstanceAs(references);
+
+    Node gBody = root.getLastChild().getLastChild().getFirstChild().getLastChild();
+    gBody.addChildToBack(IR.exprResult(IR.call(IR.name("f"))));
+    compiler.reportChangeToEnclosingScope(gBody);
+
+    OptimizeCalls.ReferenceMap refreshed = getSharedReferenceMap(compiler);
+    assertThat(refreshed).isNotSameInstanceAs(references);
+    assertThat(ImmutableMap.copyOf(refreshed.getNameReferences()).get("f")).hasSize(3);
+  }
+
+  private static OptimizeCalls.ReferenceMap getSharedReferenceMap(Compiler compiler) {
+    Node root = compiler.getRoot();
+    return ReferenceMapIndex.getOrCreate(compiler, root.getFirstChild(), root.getLastChild())
+        .getReferenceMap(/* considerExterns= */ false);
+  }
+
+  private static ImmutableMap<String, ArrayList<Node>> getSharedNameReferences(Compiler compiler) {
+    Node root = compiler.getRoot();
+    return ImmutableMap.copyOf(
+        ReferenceMapIndex.getOrCreate(compiler, root.getFirstChild(), root.getLastChild())
+            .getReferenceMap(/* considerExterns= */ false)
+            .getNameReferences());
+  }
+
   private static final Correspondence<Map.Entry<String, Node>, String> KEY_EQUALITY =
       Correspondence.transforming(Map.Entry::getKey, "has key");
 
@@ -266,6 +266,50 @@ public final class PerformanceTrackerTest {
     assertThat(report).containsMatch(p);
   }
 
+  @Test
+  public void testCodeSize_onlyEstimatedAgainForChangedScripts() {
+    Node function = IR.function(IR.name("f"), IR.paramList(), IR.block());
+    Node script1 = IR.script(IR.var(IR.name("a"), IR.number(1)));
+    Node script2 = IR.script(function);
+    Node jsRoot = IR.root(script1, script2);
+    ChangeTracker changeTracker = new ChangeTracker();
+    PerformanceTracker tracker =
+        new PerformanceTracker(emptyExternRoot, jsRoot, TracerMode.RAW_SIZE, changeTracker);
+    changeTracker.addChangeHandler(tracker.getCodeChangeHandler());
+
+    tracker.recordPassStart(PassNames.PARSE_INPUTS, true);
+    tracker.recordPassStop(PassNames.PARSE_INPUTS, 0);
+    int initialSize = tracker.getSize();
+    assertThat(initialSize).isEqualTo(estimateCodeSize(jsRoot));
+
+    // A change reported to a function is a change to its script.
+    tracker.recordPassStart("changeFunction", true);
+    function.getLastChild().addChildToBack(IR.returnNode(IR.number(1)));
+    changeTracker.reportChangeToChangeScope(function);
+    tracker.recordPassStop("changeFunction", 0);
+    int changedSize = tracker.getSize();
+    assertThat(changedSize).isGreaterThan(initialSize);
+    assertThat(changedSize).isEqualTo(estimateCodeSize(jsRoot));
+
+    // Scripts that are not reported as changed keep their size.
+    tracker.recordPassStart("changeUnreported", true);
+    script1.addChildToBack(IR.var(IR.name("b"), IR.number(2)));
+    changeTracker.reportChangeToChangeScope(script2);
+    tracker.recordPassStop("changeUnreported", 0);
+    assertThat(tracker.getSize()).isEqualTo(changedSize);
+
+    // Removed scripts no longer count.
+    tracker.recordPassStart("removeScript", true);
+    script1.detach();
+    changeTracker.reportChangeToChangeScope(script2);
+    tracker.recordPassStop("removeScript", 0);
+    assertThat(tracker.getSize()).isEqualTo(estimateCodeSize(jsRoot));
+  }
+
+  private static int estimateCodeSize(Node jsRoot) {
+    return PerformanceTrackerCodeSizeEstimator.estimate(jsRoot, false).getCodeSize();
+  }
+
   private static Node createScript(String sourceFileName) {
     SourceFile sourceFile = SourceFile.fromCode(sourceFileName, "");
     var script = IR.script();
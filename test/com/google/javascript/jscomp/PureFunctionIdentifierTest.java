@@ -40,6 +40,7 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
 
   boolean regExpHaveSideEffects = true;
   boolean enableArtificialPurityDebugError = false;
+  int numParallelThreads = 1;
 
   private static final String TEST_EXTERNS =
       CompilerTypeTestCase.DEFAULT_EXTERNS
@@ -164,6 +165,7 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
     super.tearDown();
     regExpHaveSideEffects = true;
     enableArtificialPurityDebugError = false;
+    numParallelThreads = 1;
   }
 
   @Override
@@ -174,6 +176,7 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
           DiagnosticGroup.forType(PureFunctionIdentifier.UNUSED_ARTIFICIAL_PURE_ANNOTATION),
           CheckLevel.ERROR);
     }
+    options.setNumParallelThreads(numParallelThreads);
     return options;
   }
 
@@ -215,6 +218,26 @@ public final class PureFunctionIdentifierTest extends CompilerTestCase {
     }
   }
 
+  @Test
+  public void testParallelPropagation_recursiveFunctions() {
+    numParallelThreads = 4;
+    // Enough independent cycles for the propagation to be split across threads.
+    StringBuilder source = new StringBuilder();
+    ImmutableList.Builder<String> expected = ImmutableList.builder();
+    for (int i = 0; i < 1000; i++) {
+      String sideEffect = (i % 3 == 0) ? "externSef1();" : "externSENone();";
+      source.append(String.format("function f%1$d() { g%1$d(); %2$s }", i, sideEffect));
+      source.append(String.format("function g%1$d() { f%1$d(); }", i));
+      source.append(String.format("function h%1$d() { g%1$d(); }", i));
+      source.append(String.format("h%d();", i));
+      if (i % 3 != 0) {
+        expected.add("externSENone", "g" + i, "f" + i, "h" + i);
+      }
+    }
+
+    assertPureCallsMarked(source.toString(), expected.build());
+  }
+
   @Test
   public void testOptionalChainGetProp() {
     assertNoPureCalls("externObj?.sef1()");
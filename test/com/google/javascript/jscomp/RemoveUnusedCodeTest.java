@@ -18,11 +18,15 @@ package com.google.javascript.jscomp;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Truth.assertThat;
 import static java.util.stream.Collectors.joining;
 
+import com.google.common.collect.ImmutableList;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.javascript.jscomp.AbstractCompiler.LifeCycleStage;
 import com.google.javascript.jscomp.testing.JSChunkGraphBuilder;
 import com.google.javascript.jscomp.testing.TestExternsBuilder;
+import com.google.javascript.rhino.IR;
 import com.google.javascript.rhino.Node;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -47,6 +51,8 @@ public final class RemoveUnusedCodeTest extends CompilerTestCase {
 
   private boolean removeGlobal;
   private boolean preserveFunctionExpressionNames;
+  private boolean incremental;
+  private boolean removeUnusedPolyfills;
 
   public RemoveUnusedCodeTest() {
     // Set up externs to be used in the test cases.
@@ -101,6 +107,8 @@ public final class RemoveUnusedCodeTest extends CompilerTestCase {
     enableGatherExternProperties();
     removeGlobal = true;
     preserveFunctionExpressionNames = false;
+    incremental = false;
+    removeUnusedPolyfills = true;
   }
 
   @Override
@@ -116,14 +124,119 @@ public final class RemoveUnusedCodeTest extends CompilerTestCase {
         new RemoveUnusedCode.Builder(compiler)
             .removeLocalVars(true)
             .removeGlobals(removeGlobal)
-            .removeUnusedPolyfills(true)
+            .removeUnusedPolyfills(removeUnusedPolyfills)
             .preserveFunctionExpressionNames(preserveFunctionExpressionNames)
+            .incremental(incremental)
             .build()
             .process(externs, root);
       }
     };
   }
 
+  @Test
+  public void testIncrementalRemovesLocals() {
+    removeGlobal = false;
+    incremental = true;
+    // The first run has no change information, so it visits the whole program.
+    test(
+        "var a; function f() { var b = 1; var c = 2; return c; } function g() { var d; }",
+        "var a; function f() {             var c = 2; return c; } function g() {        }");
+  }
+
+  @Test
+  public void testIncrementalRevisitsOnlyChangedFunction() {
+    Compiler compiler =
+        createIncrementalTestCompiler(
+            "",
+            "function f() { var x = 1; return x; } function g() { var y = 2; return y; }",
+            "var b = 0;");
+    RemoveUnusedCode pass = buildIncrementalPass(compiler, /* removeUnusedPolyfills= */ false);
+    Node jsRoot = compiler.getRoot().getLastChild();
+
+    // The first run has no change information, so it visits the whole program.
+    pass.process(compiler.getRoot().getFirstChild(), jsRoot);
+    assertThat(pass.getTraversedUnits()).containsExactly(jsRoot);
+
+    // Stop using y in g, and report the change.
+    Node functionG = jsRoot.getFirstChild().getLastChild();
+    Node returnNode = functionG.getLastChild().getLastChild();
+    returnNode.getFirstChild().replaceWith(IR.number(2).srcref(returnNode));
+    compiler.reportChangeToEnclosingScope(returnNode);
+
+    pass.process(compiler.getRoot().getFirstChild(), jsRoot);
+    assertThat(pass.getTraversedUnits()).containsExactly(functionG);
+    assertThat(compiler.toSource(jsRoot))
+        .isEqualTo(
+            removeUnusedCodeInFullRun(
+                "function f() { var x = 1; return x; } function g() { var y = 2; return 2; }",
+                "var b = 0;"));
+  }
+
+  @Test
+  public void testIncrementalRemovesPolyfillNoLongerUsed() {
+    Compiler compiler =
+        createIncrementalTestCompiler(
+            JSCOMP_POLYFILL + "var Promise; var Array;",
+            """
+            $jscomp.polyfill('Promise', function() {}, 'es6', 'es3');
+            $jscomp.polyfill('Array.from', function() {}, 'es6', 'es3');
+            """,
+            "function g() { return Promise.resolve(); } function h() { return Array.from([]); }",
+            "var b = 0;");
+    RemoveUnusedCode pass = buildIncrementalPass(compiler, /* removeUnusedPolyfills= */ true);
+    Node jsRoot = compiler.getRoot().getLastChild();
+    Node polyfillScript = jsRoot.getFirstChild();
+    pass.process(compiler.getRoot().getFirstChild(), jsRoot);
+    assertThat(compiler.toSource(polyfillScript)).contains("Promise");
+
+    // Remove the only reference to Promise, and report the change.
+    Node functionG = jsRoot.getSecondChild().getFirstChild();
+    Node returnNode = functionG.getLastChild().getFirstChild();
+    returnNode.getFirstChild().replaceWith(IR.number(0).srcref(returnNode));
+    compiler.reportChangeToEnclosingScope(returnNode);
+
+    // The unchanged h still uses Array.from, which the index knows without traversing h.
+    pass.process(compiler.getRoot().getFirstChild(), jsRoot);
+    assertThat(pass.getTraversedUnits()).containsExactly(functionG);
+    String polyfills = compiler.toSource(polyfillScript);
+    assertThat(polyfills).doesNotContain("Promise");
+    assertThat(polyfills).contains("Array.from");
+  }
+
+  private static Compiler createIncrementalTestCompiler(String externs, String... sources) {
+    ImmutableList.Builder<SourceFile> inputs = ImmutableList.builder();
+    for (int i = 0; i < sources.length; i++) {
+      inputs.add(SourceFile.fromCode("input" + i + ".js", sources[i]));
+    }
+    Compiler compiler = new Compiler();
+    compiler.init(
+        ImmutableList.of(SourceFile.fromCode("externs.js", externs)),
+        inputs.build(),
+        new CompilerOptions());
+    compiler.parse();
+    compiler.setLifeCycleStage(LifeCycleStage.NORMALIZED);
+    return compiler;
+  }
+
+  private static RemoveUnusedCode buildIncrementalPass(
+      Compiler compiler, boolean removeUnusedPolyfills) {
+    return new RemoveUnusedCode.Builder(compiler)
+        .removeLocalVars(true)
+        .removeUnusedPolyfills(removeUnusedPolyfills)
+        .incremental(true)
+        .build();
+  }
+
+  private static String removeUnusedCodeInFullRun(String... sources) {
+    Compiler compiler = createIncrementalTestCompiler("", sources);
+    Node jsRoot = compiler.getRoot().getLastChild();
+    new RemoveUnusedCode.Builder(compiler)
+        .removeLocalVars(true)
+        .build()
+        .process(compiler.getRoot().getFirstChild(), jsRoot);
+    return compiler.toSource(jsRoot);
+  }
+
   @Test
   public void testDoNotRemoveUnusedVarDeclaredInObjectPatternUsingRest() {
     testSame(
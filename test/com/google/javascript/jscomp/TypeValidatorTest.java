@@ -37,11 +37,21 @@ import org.junit.runners.JUnit4;
 /** Type-checking tests that can use methods from CompilerTestCase */
 @RunWith(JUnit4.class)
 public final class TypeValidatorTest extends CompilerTestCase {
+  private boolean compactTypeMismatches;
+
   @Override
   @Before
   public void setUp() throws Exception {
     super.setUp();
     enableTypeCheck();
+    compactTypeMismatches = false;
+  }
+
+  @Override
+  protected CompilerOptions getOptions() {
+    CompilerOptions options = super.getOptions();
+    options.setCompactTypeMismatches(compactTypeMismatches);
+    return options;
   }
 
   @Override
@@ -54,6 +64,30 @@ public final class TypeValidatorTest extends CompilerTestCase {
     };
   }
 
+  @Test
+  public void testRepeatedMismatchRecordedPerLocation() {
+    test(
+        srcs("/** @param {number} x */ function f(x) {} f('a'); f('b');"),
+        warning(TYPE_MISMATCH_WARNING),
+        warning(TYPE_MISMATCH_WARNING));
+    this.assertThatRecordedMismatches()
+        .comparingElementsUsing(HAVE_SAME_TYPES)
+        .containsExactly(
+            fromNatives(STRING_TYPE, NUMBER_TYPE), fromNatives(STRING_TYPE, NUMBER_TYPE));
+  }
+
+  @Test
+  public void testCompactModeRecordsRepeatedMismatchOnce() {
+    compactTypeMismatches = true;
+    test(
+        srcs("/** @param {number} x */ function f(x) {} f('a'); f('b');"),
+        warning(TYPE_MISMATCH_WARNING),
+        warning(TYPE_MISMATCH_WARNING));
+    this.assertThatRecordedMismatches()
+        .comparingElementsUsing(HAVE_SAME_TYPES)
+        .containsExactly(fromNatives(STRING_TYPE, NUMBER_TYPE));
+  }
+
   @Test
   public void testBasicMismatch() {
     testWarning("/** @param {number} x */ function f(x) {} f('a');", TYPE_MISMATCH_WARNING);
@@ -81,6 +81,8 @@ public final class TypedScopeCreatorTest extends CompilerTestCase {
   private TypedScope lastLocalScope;
   private TypedScope lastFunctionScope;
   private boolean processClosurePrimitives = false;
+  private int numParallelThreads = 1;
+  private TypedScopeCreator lastScopeCreator;
 
   /**
    * Maps a label name to information about the labeled statement.
@@ -156,6 +158,7 @@ public final class TypedScopeCreatorTest extends CompilerTestCase {
       new InferConsts(compiler).process(externs, root);
 
       TypedScopeCreator scopeCreator = new TypedScopeCreator(compiler);
+      lastScopeCreator = scopeCreator;
       new TypeInferencePass(compiler, compiler.getReverseAbstractInterpreter(), scopeCreator)
           .inferAllScopes(root.getParent());
       NodeTraversal.builder()
@@ -170,9 +173,65 @@ public final class TypedScopeCreatorTest extends CompilerTestCase {
   protected CompilerOptions getOptions() {
     CompilerOptions options = super.getOptions();
     options.setClosurePass(processClosurePrimitives);
+    options.setNumParallelThreads(numParallelThreads);
     return options;
   }
 
+  @Test
+  public void testParallelFunctionAnalysisMatchesSerial() {
+    Sources sources =
+        srcs(
+            """
+            var ns = {};
+            function f(x) {
+              var y = x;
+              y = 1;
+              return function() { y = 2; ns.a = y; };
+            }
+            """,
+            """
+            function g() {
+              let z = 0;
+              const h = () => z;
+              /** @const */ var c = 3;
+              return h;
+            }
+            """,
+            """
+            /** @constructor */
+            function C() { var self = this; self.p = 1; }
+            C.prototype.m = function() { var q = 'q'; return this.p + q; };
+            """);
+    testSame(sources);
+    ImmutableList<String> serialScopes = describeAllScopes();
+
+    numParallelThreads = 4;
+    testSame(sources);
+
+    assertThat(describeAllScopes()).containsExactlyElementsIn(serialScopes).inOrder();
+  }
+
+  private ImmutableList<String> describeAllScopes() {
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    for (TypedScope scope : lastScopeCreator.getAllMemoizedScopes()) {
+      Node root = scope.getRootNode();
+      for (TypedVar var : scope.getVarIterable()) {
+        result.add(
+            root.getSourceFileName()
+                + ":"
+                + root.getLineno()
+                + " "
+                + root.getToken()
+                + " "
+                + var.getName()
+                + ": "
+                + var.getType()
+                + (var.isTypeInferred() ? " (inferred)" : ""));
+      }
+    }
+    return result.build();
+  }
+
   @Test
   public void testVarDeclarationWithJSDocForObjPatWithOneVariable() {
     // Ignore JSDoc on a destructuring declaration, and just infer the type.
@@ -60,6 +60,7 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
       """;
 
   private ImmutableSet<String> propertiesThatMustDisambiguate = ImmutableSet.of();
+  private int numParallelThreads = 1;
 
   public DisambiguatePropertiesTest() {
     super("");
@@ -77,7 +78,8 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
 
   @Override
   protected CompilerPass getProcessor(final Compiler compiler) {
-    return new DisambiguateProperties(compiler, propertiesThatMustDisambiguate);
+    return new DisambiguateProperties(
+        compiler, propertiesThatMustDisambiguate, numParallelThreads);
   }
 
   @Override
@@ -113,7 +115,7 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
             """
             /** @interface */
             class IFoo {
-              JSC$3_x() { }
+              JSC$1_x() { }
             }
 
             /**
@@ -121,7 +123,7 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
              * @extends {IFoo}
              */
             class IFoo2 {
-              JSC$3_x() { }
+              JSC$1_x() { }
             }
 
             class Other {
@@ -223,12 +225,12 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
             """
             /** @interface */
             class IFoo {
-              JSC$3_a() { }
+              JSC$1_a() { }
             }
 
             /** @implements {IFoo} */
             class Foo {
-              JSC$3_a() { }
+              JSC$1_a() { }
             }
 
             class Other {
@@ -272,13 +274,13 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
             """
             /** @interface */
             class IFoo0 {
-              JSC$5_b() { }
+              JSC$1_b() { }
               JSC$1_c() { }
             }
 
             /** @interface */
             class IFoo1 {
-              JSC$5_b() { }
+              JSC$1_b() { }
               JSC$3_d() { }
             }
 
@@ -287,7 +289,7 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
              * @implements {IFoo1}
              */
             class Foo {
-              JSC$5_b() { }
+              JSC$1_b() { }
             }
 
             class Other {
@@ -368,17 +370,17 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
         expected(
             """
             class Foo0 {
-              JSC$5_a() { }
+              JSC$1_a() { }
               JSC$1_b() { }
             }
 
             class Foo1 {
-              JSC$5_a() { }
+              JSC$1_a() { }
               JSC$3_b() { }
             }
 
             function mix(/** (!Foo0|!Foo1) */ x) {
-              x.JSC$5_a();
+              x.JSC$1_a();
             }
 
             class Other {
@@ -567,10 +569,10 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
             """
             /** @interface */
             class IFoo {
-              JSC$3_t() { }
+              JSC$1_t() { }
             }
             class Foo {
-              JSC$3_t() { }
+              JSC$1_t() { }
             }
             /** @implements {IFoo} */
             class SubFoo extends Foo { }
@@ -844,7 +846,7 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
         expected(
             """
             class Foo {
-              JSC$4_x() { }
+              JSC$1_x() { }
               y() { }
               JSC$1_z() { }
             }
@@ -853,7 +855,7 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
             function mix(/** (!Foo|!Bar) */ fooBar, /** !Bar */ bar) {
             // x is disambiguated while w and y are invalidated.
               fooBar.w();
-              fooBar.JSC$4_x();
+              fooBar.JSC$1_x();
               bar.y();
             }
 
@@ -1299,6 +1301,49 @@ public final class DisambiguatePropertiesTest extends CompilerTestCase {
             """));
   }
 
+  @Test
+  public void clusterNames_areIndependentOfTheNumberOfThreads() {
+    // Enough properties to propagate them on several threads. Each one is conflated by a common
+    // descendent, whose cluster may be merged in a different order by each propagation.
+    StringBuilder source = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      String classes =
+          """
+          /** @interface */
+          class IFoo0_%1$d {
+            %2$sp%1$d() { }
+          }
+
+          /** @interface */
+          class IFoo1_%1$d {
+            %2$sp%1$d() { }
+          }
+
+          /**
+           * @implements {IFoo0_%1$d}
+           * @implements {IFoo1_%1$d}
+           */
+          class Foo_%1$d {
+            %2$sp%1$d() { }
+          }
+
+          class Other_%1$d {
+            %3$sp%1$d() { }
+          }
+          """;
+      source.append(String.format(classes, i, "", ""));
+      expected.append(
+          String.format(
+              classes, i, "JSC$" + (8 * i + 1) + "_", "JSC$" + (8 * i + 7) + "_"));
+    }
+
+    for (int threads : ImmutableList.of(1, 4)) {
+      this.numParallelThreads = threads;
+      test(srcs(source.toString()), expected(expected.toString()));
+    }
+  }
+
   private static final class SilenceNoiseGuard extends WarningsGuard {
     private static final ImmutableSet<DiagnosticType> RELEVANT_DIAGNOSTICS =
         ImmutableSet.of(DisambiguateProperties.PROPERTY_INVALIDATION);
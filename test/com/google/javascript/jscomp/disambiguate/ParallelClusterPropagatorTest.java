@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.disambiguate;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.javascript.jscomp.colors.StandardColors;
+import com.google.javascript.jscomp.graph.FixedPointGraphTraversal;
+import com.google.javascript.jscomp.graph.LinkedDirectedGraph;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ParallelClusterPropagatorTest {
+
+  private static final int NUM_TYPES = 60;
+  private static final int NUM_PROPS = 300;
+
+  @Test
+  public void propagation_matchesFixedPointTraversal() {
+    for (int numThreads : ImmutableList.of(1, 4)) {
+      TypeGraph expected = TypeGraph.create(new Random(7));
+      FixedPointGraphTraversal.newTraversal(new ClusterPropagator())
+          .computeFixedPoint(expected.graph);
+
+      TypeGraph actual = TypeGraph.create(new Random(7));
+      new ParallelClusterPropagator(numThreads).propagate(actual.graph);
+
+      for (int i = 0; i < NUM_TYPES; i++) {
+        assertThat(associatedProps(actual, i)).isEqualTo(associatedProps(expected, i));
+      }
+      for (int p = 0; p < NUM_PROPS; p++) {
+        assertThat(partition(actual, p)).isEqualTo(partition(expected, p));
+      }
+    }
+  }
+
+  @Test
+  public void propagation_doesNotPropagateFromTopObject() {
+    LinkedDirectedGraph<ColorGraphNode, Object> graph = LinkedDirectedGraph.create();
+    ColorGraphNode top = ColorGraphNode.createForTesting(StandardColors.TOP_OBJECT, -1);
+    ColorGraphNode sub = ColorGraphNode.createForTesting(-2);
+    graph.createNode(top);
+    graph.createNode(sub);
+    graph.connect(top, null, sub);
+    PropertyClustering prop = new PropertyClustering("prop");
+    associate(prop, top);
+
+    new ParallelClusterPropagator(1).propagate(graph);
+
+    assertThat(sub.getAssociatedProps()).isEmpty();
+  }
+
+  @Test
+  public void propagation_skipsInvalidatedProperties() {
+    LinkedDirectedGraph<ColorGraphNode, Object> graph = LinkedDirectedGraph.create();
+    ColorGraphNode sup = ColorGraphNode.createForTesting(-1);
+    ColorGraphNode sub = ColorGraphNode.createForTesting(-2);
+    graph.createNode(sup);
+    graph.createNode(sub);
+    graph.connect(sup, null, sub);
+    PropertyClustering prop = new PropertyClustering("prop");
+    associate(prop, sup);
+    prop.invalidate(Invalidation.wellKnownProperty());
+
+    new ParallelClusterPropagator(1).propagate(graph);
+
+    assertThat(sub.getAssociatedProps()).isEmpty();
+  }
+
+  /** The properties associated with a type, as property indices. */
+  private static ImmutableSet<Integer> associatedProps(TypeGraph graph, int typeIndex) {
+    return graph.types.get(typeIndex).getAssociatedProps().keySet().stream()
+        .map(graph.props::indexOf)
+        .collect(toImmutableSet());
+  }
+
+  /** The clusters of a property, as sets of type indices. */
+  private static ImmutableSet<ImmutableSet<Integer>> partition(TypeGraph graph, int propIndex) {
+    PropertyClustering prop = graph.props.get(propIndex);
+    return prop.getClusters().allEquivalenceClasses().stream()
+        .map((c) -> c.stream().map(graph.types::indexOf).collect(toImmutableSet()))
+        .collect(toImmutableSet());
+  }
+
+  private static void associate(PropertyClustering prop, ColorGraphNode node) {
+    node.getAssociatedProps().put(prop, ColorGraphNode.PropAssociation.AST);
+    prop.getClusters().add(node);
+  }
+
+  /** A random acyclic type graph with random property accesses. */
+  private static final class TypeGraph {
+    final LinkedDirectedGraph<ColorGraphNode, Object> graph = LinkedDirectedGraph.create();
+    final List<ColorGraphNode> types = new ArrayList<>();
+    final List<PropertyClustering> props = new ArrayList<>();
+
+    static TypeGraph create(Random random) {
+      TypeGraph result = new TypeGraph();
+      for (int i = 0; i < NUM_TYPES; i++) {
+        ColorGraphNode type = ColorGraphNode.createForTesting(-1 - i);
+        result.types.add(type);
+        result.graph.createNode(type);
+        // Edges go from supertypes to subtypes, which have higher indices.
+        for (int j = 0; j < i; j++) {
+          if (random.nextInt(15) == 0) {
+            result.graph.connect(result.types.get(j), null, type);
+          }
+        }
+      }
+      for (int p = 0; p < NUM_PROPS; p++) {
+        PropertyClustering prop = new PropertyClustering("p" + p);
+        result.props.add(prop);
+        int numAccesses = 1 + random.nextInt(3);
+        for (int a = 0; a < numAccesses; a++) {
+          associate(prop, result.types.get(random.nextInt(NUM_TYPES)));
+        }
+        if (random.nextInt(10) == 0) {
+          prop.invalidate(Invalidation.wellKnownProperty());
+        }
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.graph;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.javascript.jscomp.graph.GraphColoring.FirstFitGraphColoring;
+import com.google.javascript.jscomp.graph.GraphColoring.GreedyGraphColoring;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Compares {@link GreedyGraphColoring} and {@link FirstFitGraphColoring} on a synthetic graph shaped
+ * like the property graph of AmbiguateProperties: every node is a property with a bit set of related
+ * types, and two properties interfere when their related types intersect.
+ *
+ * <p>This is not a test. Run it with {@code <properties> <types> <iterations>} as arguments, which
+ * default to 50000 properties, 5000 types and 3 iterations.
+ */
+public final class GraphColoringBenchmark {
+
+  public static void main(String[] args) {
+    int numProperties = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+    int numTypes = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+    int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+    PropertyGraph graph = PropertyGraph.create(numProperties, numTypes, new Random(0));
+    for (int i = 0; i < iterations; i++) {
+      int[] greedy = run("greedy", graph, g -> new GreedyGraphColoring<>(g, BY_ID));
+      int[] firstFit = run("first fit", graph, g -> new FirstFitGraphColoring<>(g, BY_ID));
+      checkState(Arrays.equals(greedy, firstFit), "the colorings differ in iteration %s", i);
+    }
+  }
+
+  private static final Comparator<Integer> BY_ID = Comparator.naturalOrder();
+
+  private static int[] run(
+      String name,
+      PropertyGraph graph,
+      Function<PropertyGraph, GraphColoring<Integer, Void>> coloringFactory) {
+    graph.clearNodeAnnotations();
+    long start = System.nanoTime();
+    int numColors = coloringFactory.apply(graph).color();
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    System.out.printf("%-10s %6d colors %8d ms%n", name, numColors, elapsedMillis);
+
+    int[] colors = new int[graph.getNodeCount()];
+    for (PropertyNode node : graph.getNodes()) {
+      colors[node.property] = node.<GraphColoring.Color>getAnnotation().hashCode();
+    }
+    return colors;
+  }
+
+  /** Properties with random related types, few of which are shared by many properties. */
+  private static final class PropertyGraph implements AdjacencyGraph<Integer, Void> {
+    private final List<PropertyNode> nodes;
+    private final int[] weights;
+
+    private PropertyGraph(List<PropertyNode> nodes, int[] weights) {
+      this.nodes = nodes;
+      this.weights = weights;
+    }
+
+    static PropertyGraph create(int numProperties, int numTypes, Random random) {
+      List<PropertyNode> nodes = new ArrayList<>(numProperties);
+      int[] weights = new int[numProperties];
+      for (int i = 0; i < numProperties; i++) {
+        BitSet relatedTypes = new BitSet(numTypes);
+        int numRelatedTypes = 1 + random.nextInt(4);
+        for (int j = 0; j < numRelatedTypes; j++) {
+          // Skews the types towards low indices, like common supertypes.
+          double skewed = random.nextDouble() * random.nextDouble();
+          relatedTypes.set((int) (skewed * numTypes));
+        }
+        nodes.add(new PropertyNode(i, relatedTypes));
+        weights[i] = 1 + random.nextInt(100);
+      }
+      return new PropertyGraph(nodes, weights);
+    }
+
+    @Override
+    public List<PropertyNode> getNodes() {
+      return nodes;
+    }
+
+    @Override
+    public int getNodeCount() {
+      return nodes.size();
+    }
+
+    @Override
+    public GraphNode<Integer, Void> getNode(Integer property) {
+      return nodes.get(property);
+    }
+
+    @Override
+    public SubGraph<Integer, Void> newSubGraph() {
+      BitSet relatedTypes = new BitSet();
+      return new SubGraph<Integer, Void>() {
+        @Override
+        public boolean isIndependentOf(Integer property) {
+          return !relatedTypes.intersects(nodes.get(property).relatedTypes);
+        }
+
+        @Override
+        public void addNode(Integer property) {
+          relatedTypes.or(nodes.get(property).relatedTypes);
+        }
+      };
+    }
+
+    @Override
+    public void clearNodeAnnotations() {
+      for (PropertyNode node : nodes) {
+        node.setAnnotation(null);
+      }
+    }
+
+    @Override
+    public int getWeight(Integer property) {
+      return weights[property];
+    }
+  }
+
+  private static final class PropertyNode implements GraphNode<Integer, Void> {
+    final int property;
+    final BitSet relatedTypes;
+    private @Nullable Annotation annotation;
+
+    PropertyNode(int property, BitSet relatedTypes) {
+      this.property = property;
+      this.relatedTypes = relatedTypes;
+    }
+
+    @Override
+    public Integer getValue() {
+      return property;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A getAnnotation() {
+      return (A) annotation;
+    }
+
+    @Override
+    public void setAnnotation(@Nullable Annotation data) {
+      annotation = data;
+    }
+  }
+
+  private GraphColoringBenchmark() {}
+}
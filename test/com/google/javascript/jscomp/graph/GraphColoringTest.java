@@ -22,8 +22,12 @@ import static java.util.Comparator.naturalOrder;
 
 import com.google.javascript.jscomp.graph.Graph.GraphEdge;
 import com.google.javascript.jscomp.graph.GraphColoring.Color;
+import com.google.javascript.jscomp.graph.GraphColoring.FirstFitGraphColoring;
 import com.google.javascript.jscomp.graph.GraphColoring.GreedyGraphColoring;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -179,6 +183,47 @@ public final class GraphColoringTest {
     assertThat("A".equals(coloring.getPartitionSuperNode("C"))).isFalse();
   }
 
+  @Test
+  public void testFirstFitMatchesGreedy() {
+    Random random = new Random(42);
+    for (int trial = 0; trial < 20; trial++) {
+      int count = 1 + random.nextInt(200);
+      Graph<String, String> graph = LinkedUndirectedGraph.create();
+      for (int i = 0; i < count; i++) {
+        graph.createNode("Node " + i);
+      }
+      for (int i = 0; i < count; i++) {
+        for (int j = i + 1; j < count; j++) {
+          if (random.nextInt(10) == 0) {
+            graph.connect("Node " + i, null, "Node " + j);
+          }
+        }
+      }
+
+      GraphColoring<String, String> greedy = new GreedyGraphColoring<>(graph, naturalOrder());
+      int greedyCount = greedy.color();
+      Map<String, Color> greedyColors = new HashMap<>();
+      for (GraphNode<String, String> node : graph.getNodes()) {
+        greedyColors.put(node.getValue(), node.getAnnotation());
+      }
+      graph.clearNodeAnnotations();
+
+      GraphColoring<String, String> firstFit = new FirstFitGraphColoring<>(graph, naturalOrder());
+      assertThat(firstFit.color()).isEqualTo(greedyCount);
+      validateColoring(graph);
+      for (GraphNode<String, String> node : graph.getNodes()) {
+        assertThat(node.<Color>getAnnotation()).isEqualTo(greedyColors.get(node.getValue()));
+      }
+    }
+  }
+
+  @Test
+  public void testFirstFitEmptyGraph() {
+    Graph<String, String> graph = LinkedUndirectedGraph.create();
+    assertThat(new FirstFitGraphColoring<>(graph, naturalOrder()).color())
+        .isEqualTo(new GreedyGraphColoring<>(graph, naturalOrder()).color());
+  }
+
   /** Validate that each node has been colored and connected nodes have different coloring. */
   private static <N, E> void validateColoring(Graph<N, E> graph) {
     for (GraphNode<N, E> node : graph.getNodes()) {
@@ -16,11 +16,14 @@
 
 package com.google.javascript.jscomp.graph;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.javascript.jscomp.graph.DiGraph.DiGraphEdge;
 import com.google.javascript.jscomp.graph.Graph.GraphEdge;
 import java.util.List;
 import org.junit.Test;
@@ -173,6 +176,47 @@ public final class GraphTest {
     assertThat(graph.isConnected("a", "b")).isFalse();
   }
 
+  @Test
+  public void testCompactDirectedInAndOutEdges() {
+    CompactDirectedGraph<String, String> graph = CompactDirectedGraph.create();
+    graph.createNode("a");
+    graph.createNode("b");
+    graph.createNode("c");
+    graph.connect("a", "->", "c");
+    graph.connect("b", "->", "c");
+    graph.connect("a", "-->", "b");
+    graph.connect("c", "->", "a");
+
+    assertThat(graph.getNode("a").getIndex()).isEqualTo(0);
+    assertThat(graph.getNode("c").getIndex()).isEqualTo(2);
+    // Edges are listed in the order in which they were added.
+    assertThat(edgeValues(graph.getOutEdges("a"))).containsExactly("->", "-->").inOrder();
+    assertThat(graph.getDirectedSuccNodes("a"))
+        .containsExactly(graph.getNode("c"), graph.getNode("b"))
+        .inOrder();
+    assertThat(graph.getDirectedPredNodes("c"))
+        .containsExactly(graph.getNode("a"), graph.getNode("b"))
+        .inOrder();
+    assertThat(graph.getEdges()).hasSize(4);
+
+    // Modifying the graph after querying it.
+    graph.disconnectInDirection("a", "c");
+    graph.createNode("d");
+    graph.connect("d", "->", "c");
+    assertThat(edgeValues(graph.getOutEdges("a"))).containsExactly("-->");
+    assertThat(graph.getDirectedPredNodes("c"))
+        .containsExactly(graph.getNode("b"), graph.getNode("d"))
+        .inOrder();
+    assertThat(graph.isConnectedInDirection("a", "c")).isFalse();
+    assertThat(graph.isConnectedInDirection("c", "->", "a")).isTrue();
+    assertThat(graph.getEdges()).hasSize(4);
+  }
+
+  private static ImmutableList<String> edgeValues(
+      List<? extends DiGraphEdge<String, String>> edges) {
+    return edges.stream().map(DiGraphEdge::getValue).collect(toImmutableList());
+  }
+
   @Test
   public void testUndirectedNeighbors() {
     UndiGraph<String, String> graph = LinkedUndirectedGraph.create();
@@ -227,6 +271,27 @@ public final class GraphTest {
     checkAnnotations(graph, a, b);
   }
 
+  @Test
+  public void testCompactNodeAnnotations() {
+    Graph<String, String> graph = CompactDirectedGraph.create();
+    GraphNode<String, String> a = graph.createNode("a");
+    GraphNode<String, String> b = graph.createNode("b");
+    checkAnnotations(graph, a, b);
+  }
+
+  @Test
+  public void testCompactEdgeAnnotations() {
+    Graph<String, String> graph = CompactDirectedGraph.create();
+    graph.createNode("1");
+    graph.createNode("2");
+    graph.createNode("3");
+    graph.connect("1", "a", "2");
+    graph.connect("2", "b", "3");
+    GraphEdge<String, String> a = graph.getEdges("1", "2").get(0);
+    GraphEdge<String, String> b = graph.getEdges("2", "3").get(0);
+    checkAnnotations(graph, a, b);
+  }
+
   @Test
   public void testEdgeAnnotations() {
     Graph<String, String> graph = LinkedUndirectedGraph.create();
@@ -290,6 +355,7 @@ public final class GraphTest {
   @Test
   public void testDegree() {
     testDirectedDegree(LinkedDirectedGraph.<String, String>create());
+    testDirectedDegree(CompactDirectedGraph.<String, String>create());
     testDirectedDegree(LinkedUndirectedGraph.<String, String>create());
   }
 
@@ -312,6 +378,7 @@ public final class GraphTest {
   @Test
   public void testDirectedConnectIfNotFound() {
     testDirectedConnectIfNotFound(LinkedDirectedGraph.<String, String>create());
+    testDirectedConnectIfNotFound(CompactDirectedGraph.<String, String>create());
     testDirectedConnectIfNotFound(LinkedUndirectedGraph.<String, String>create());
   }
 
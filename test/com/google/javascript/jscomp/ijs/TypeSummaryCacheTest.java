@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 The Closure Compiler Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.javascript.jscomp.ijs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.javascript.jscomp.CompilerOptions;
+import com.google.javascript.jscomp.SourceFile;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link TypeSummaryCache}. */
+@RunWith(JUnit4.class)
+public final class TypeSummaryCacheTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final String A_V1 =
+      """
+      goog.module('a');
+      /** @return {number} */
+      exports.f = function() { return 1; };
+      """;
+
+  private static final String A_V2_IMPL_CHANGE =
+      """
+      goog.module('a');
+      /** @return {number} */
+      exports.f = function() { return 2; };
+      """;
+
+  private static final String A_V3_API_CHANGE =
+      """
+      goog.module('a');
+      /** @return {string} */
+      exports.f = function() { return ''; };
+      """;
+
+  private static final String B =
+      """
+      goog.module('b');
+      const a = goog.require('a');
+      exports.g = a.f() + 1;
+      """;
+
+  private static final String C =
+      """
+      goog.module('c');
+      /** @const {number} */
+      exports.h = 3;
+      """;
+
+  private Path cacheDir;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheDir = folder.newFolder("cache").toPath();
+  }
+
+  @Test
+  public void testFirstBuildChecksEverything() throws IOException {
+    ImmutableList<SourceFile> selected = selectAndRecord(A_V1, B, C);
+
+    assertThat(summarized(selected)).containsExactly(false, false, false).inOrder();
+  }
+
+  @Test
+  public void testUnchangedBuildUsesSummaries() throws IOException {
+    selectAndRecord(A_V1, B, C);
+    ImmutableList<SourceFile> selected = selectAndRecord(A_V1, B, C);
+
+    assertThat(summarized(selected)).containsExactly(true, true, true).inOrder();
+    assertThat(selected.get(0).getCode()).contains("@typeSummary");
+  }
+
+  @Test
+  public void testImplementationChangeOnlyChecksChangedFile() throws IOException {
+    selectAndRecord(A_V1, B, C);
+    ImmutableList<SourceFile> selected = selectAndRecord(A_V2_IMPL_CHANGE, B, C);
+
+    assertThat(summarized(selected)).containsExactly(false, true, true).inOrder();
+  }
+
+  @Test
+  public void testApiChangeAlsoChecksDirectDependents() throws IOException {
+    selectAndRecord(A_V1, B, C);
+    ImmutableList<SourceFile> selected = selectAndRecord(A_V3_API_CHANGE, B, C);
+
+    assertThat(summarized(selected)).containsExactly(false, false, true).inOrder();
+  }
+
+  @Test
+  public void testUnsuccessfulBuildIsNotRecorded() throws IOException {
+    selectAndRecord(A_V1, B, C);
+    // Select inputs for a build that fails, so the manifest is not updated.
+    new TypeSummaryCache(cacheDir, new CompilerOptions())
+        .selectInputs(inputs(A_V2_IMPL_CHANGE, B, C));
+    ImmutableList<SourceFile> selected = selectAndRecord(A_V2_IMPL_CHANGE, B, C);
+
+    assertThat(summarized(selected)).containsExactly(false, true, true).inOrder();
+  }
+
+  private ImmutableList<SourceFile> selectAndRecord(String a, String b, String c)
+      throws IOException {
+    TypeSummaryCache cache = new TypeSummaryCache(cacheDir, new CompilerOptions());
+    ImmutableList<SourceFile> selected = cache.selectInputs(inputs(a, b, c));
+    cache.recordSuccessfulCheck();
+    return selected;
+  }
+
+  private static ImmutableList<SourceFile> inputs(String a, String b, String c) {
+    return ImmutableList.of(
+        SourceFile.fromCode("a.js", a),
+        SourceFile.fromCode("b.js", b),
+        SourceFile.fromCode("c.js", c));
+  }
+
+  private static ImmutableList<Boolean> summarized(ImmutableList<SourceFile> files)
+      throws IOException {
+    ImmutableList.Builder<Boolean> result = ImmutableList.builder();
+    for (SourceFile file : files) {
+      result.add(file.getCode().contains("@typeSummary"));
+    }
+    return result.build();
+  }
+}
@@ -886,6 +886,62 @@ public class ColorPoolTest {
     assertThat(shard0.getColor(poolPointer(1))).isSameInstanceAs(shard1.getColor(poolPointer(0)));
   }
 
+  @Test
+  public void parallelBuild_matchesSerialBuild() {
+    // Given many shards, each defining a chain of overlapping ids with a union at the end
+    int shardCount = 50;
+    int idCount = 200;
+    StringPool stringPool = StringPool.builder().putAnd("a").putAnd("b").build();
+    TypePool[] typePools = new TypePool[shardCount];
+    for (int s = 0; s < shardCount; s++) {
+      TypePool.Builder pool = TypePool.newBuilder();
+      for (int i = 0; i < 10; i++) {
+        int id = (s * 7 + i) % idCount;
+        ObjectTypeProto.Builder object =
+            ObjectTypeProto.newBuilder()
+                .setUuid(ColorId.fromUnsigned(1000 + id).asByteString())
+                .addOwnProperty(1 + id % 2);
+        if (i > 0) {
+          object.addPrototype(poolPointer(i - 1));
+        }
+        pool.addType(TypeProto.newBuilder().setObject(object));
+      }
+      pool.addType(
+          TypeProto.newBuilder()
+              .setUnion(
+                  UnionTypeProto.newBuilder()
+                      .addUnionMember(poolPointer(0))
+                      .addUnionMember(poolPointer(9))));
+      pool.addDisambiguationEdges(
+          SubtypingEdge.newBuilder().setSubtype(poolPointer(1)).setSupertype(poolPointer(0)));
+      typePools[s] = pool.build();
+    }
+
+    // When
+    ColorPool.Builder serialBuilder = ColorPool.builder();
+    ColorPool.Builder parallelBuilder = ColorPool.builder().setNumParallelThreads(4);
+    for (TypePool typePool : typePools) {
+      serialBuilder.addShard(typePool, stringPool);
+      parallelBuilder.addShard(typePool, stringPool);
+    }
+    ColorPool serial = serialBuilder.build();
+    ColorPool parallel = parallelBuilder.build();
+
+    // Then
+    for (int id = 0; id < idCount; id++) {
+      Color serialColor = serial.getColor(ColorId.fromUnsigned(1000 + id));
+      Color parallelColor = parallel.getColor(ColorId.fromUnsigned(1000 + id));
+      if (serialColor == null) {
+        assertThat(parallelColor).isNull();
+        continue;
+      }
+      assertThat(parallelColor).isEqualTo(serialColor);
+      assertThat(parallel.getRegistry().getDisambiguationSupertypes(parallelColor))
+          .containsExactlyElementsIn(serial.getRegistry().getDisambiguationSupertypes(serialColor))
+          .inOrder();
+    }
+  }
+
   private static final ColorId TEST_ID = ColorId.fromUnsigned(100);
 
   private static Color.Builder createObjectColorBuilder() {